@@ -42,7 +42,6 @@ import org.jboss.galleon.universe.UniverseResolver;
 import org.jboss.galleon.universe.UniverseResolverBuilder;
 import org.jboss.galleon.universe.maven.MavenUniverseException;
 import org.jboss.galleon.universe.maven.repo.MavenRepoManager;
-import org.jboss.galleon.util.IoUtils;
 
 /**
  *
@@ -98,13 +97,8 @@ public class GalleonBuilder extends UniverseResolverBuilder<GalleonBuilder> {
         // First identify if the core version is ruled by MavenRepoManager
         String coreVersion = getMavenResolvedCoreVersion();
         if (coreVersion == null) {
-            Path tmp = getTmpDirectory();
-            try {
-                coreVersion = ProvisioningUtil.getCoreVersion(provisioning, getUniverseResolver(), tmp);
-                checkArtifactResolver(coreVersion, getUniverseResolver());
-            } finally {
-                IoUtils.recursiveDelete(tmp);
-            }
+            coreVersion = ProvisioningUtil.getCoreVersion(provisioning, getUniverseResolver());
+            checkArtifactResolver(coreVersion, getUniverseResolver());
         }
         return new ProvisioningBuilder(getUniverseResolver(), locals, coreVersion);
     }
@@ -134,13 +128,8 @@ public class GalleonBuilder extends UniverseResolverBuilder<GalleonBuilder> {
     public String getCoreVersion(Path file) throws ProvisioningException {
         String coreVersion = getMavenResolvedCoreVersion();
         if (coreVersion == null) {
-            Path tmp = getTmpDirectory();
-            try {
-                coreVersion = ProvisioningUtil.getCoreVersion(file, getUniverseResolver(), tmp);
-                checkArtifactResolver(coreVersion, getUniverseResolver());
-            } finally {
-                IoUtils.recursiveDelete(tmp);
-            }
+            coreVersion = ProvisioningUtil.getCoreVersion(file, getUniverseResolver());
+            checkArtifactResolver(coreVersion, getUniverseResolver());
         }
         return coreVersion;
 
@@ -173,28 +162,23 @@ public class GalleonBuilder extends UniverseResolverBuilder<GalleonBuilder> {
         if(mavenResolvedVersion != null) {
             return mavenResolvedVersion;
         }
-        Path tmp = getTmpDirectory();
-        try {
-            String coreVersion = APIVersion.getVersion();
-            for (GalleonFeaturePackConfig fp : config.getFeaturePackDeps()) {
-                LocalFP local = locals.get(fp.getLocation().getFPID());
-                Path resolvedFP;
-                if (local == null) {
-                    resolvedFP = getUniverseResolver().resolve(fp.getLocation());
-                } else {
-                    resolvedFP = local.getPath();
-                }
-                try {
-                    coreVersion = ProvisioningUtil.getCoreVersion(resolvedFP, coreVersion, tmp, getUniverseResolver());
-                } catch (Exception ex) {
-                    throw new ProvisioningException(ex);
-                }
+        String coreVersion = APIVersion.getVersion();
+        for (GalleonFeaturePackConfig fp : config.getFeaturePackDeps()) {
+            LocalFP local = locals.get(fp.getLocation().getFPID());
+            Path resolvedFP;
+            if (local == null) {
+                resolvedFP = getUniverseResolver().resolve(fp.getLocation());
+            } else {
+                resolvedFP = local.getPath();
+            }
+            try {
+                coreVersion = ProvisioningUtil.getCoreVersion(resolvedFP, coreVersion, getUniverseResolver());
+            } catch (Exception ex) {
+                throw new ProvisioningException(ex);
             }
-            checkArtifactResolver(coreVersion, getUniverseResolver());
-            return coreVersion;
-        } finally {
-            IoUtils.recursiveDelete(tmp);
         }
+        checkArtifactResolver(coreVersion, getUniverseResolver());
+        return coreVersion;
     }
 
     private static void checkArtifactResolver(String coreVersion, UniverseResolver universeResolver) throws ProvisioningException {
@@ -217,14 +201,6 @@ public class GalleonBuilder extends UniverseResolverBuilder<GalleonBuilder> {
         return universeResolver.hasArtifactResolver(MavenRepoManager.REPOSITORY_ID);
     }
 
-    private static Path getTmpDirectory() throws ProvisioningException {
-        try {
-            return Files.createTempDirectory("galleon-tmp");
-        } catch (IOException ex) {
-            throw new ProvisioningException(ex);
-        }
-    }
-
     static synchronized void releaseUsage(String version, MessageWriter log) throws ProvisioningException {
         ClassLoaderUsage usage = classLoaders.get(version);
         if (usage == null) {
@@ -32,6 +32,7 @@ import org.jboss.galleon.api.config.GalleonFeaturePackConfig;
 import org.jboss.galleon.api.config.GalleonProvisioningConfig;
 import org.jboss.galleon.diff.FsDiff;
 import org.jboss.galleon.impl.ProvisioningUtil;
+import org.jboss.galleon.metrics.ProvisioningMetricsListener;
 import org.jboss.galleon.progresstracking.ProgressCallback;
 import org.jboss.galleon.progresstracking.ProgressTracker;
 import org.jboss.galleon.universe.FeaturePackLocation;
@@ -107,6 +108,21 @@ public interface Provisioning extends AutoCloseable {
 
     public void setProgressTracker(String id, ProgressTracker<?> tracker);
 
+    /**
+     * Sets the listener that receives the durations, item counts and bytes of the phases
+     * of the provisioning operations.
+     *
+     * @param listener  metrics listener or null
+     */
+    public void setMetricsListener(ProvisioningMetricsListener listener);
+
+    /**
+     * Sets the file the metrics of each provisioning operation are written to in JSON format.
+     *
+     * @param file  target file or null
+     */
+    public void setMetricsFile(Path file);
+
     public List<String> getInstalledPacks(Path dir) throws ProvisioningException;
 
     public default GalleonProvisioningConfig loadProvisioningConfig(Path file) throws ProvisioningException {
@@ -148,6 +164,13 @@ public interface Provisioning extends AutoCloseable {
 
     public GalleonProvisioningRuntime getProvisioningRuntime(GalleonProvisioningConfig config) throws ProvisioningException;
 
+    /**
+     * Returns a runtime meant only to be queried for its feature-packs, packages, configs and features.
+     * Creating it doesn't involve loading the plugins, copying the resources of the feature-packs
+     * or creating a staged directory, and it can't be provisioned.
+     */
+    public GalleonProvisioningRuntime getReadOnlyProvisioningRuntime(GalleonProvisioningConfig config) throws ProvisioningException;
+
     public UniverseResolver getUniverseResolver();
 
     /**
@@ -37,6 +37,7 @@ import org.jboss.galleon.api.config.GalleonFeaturePackConfig;
 import org.jboss.galleon.api.config.GalleonProvisioningConfig;
 import org.jboss.galleon.core.builder.LocalFP;
 import org.jboss.galleon.core.builder.ProvisioningContext;
+import org.jboss.galleon.metrics.ProvisioningMetricsListener;
 import org.jboss.galleon.progresstracking.DefaultProgressTracker;
 import org.jboss.galleon.progresstracking.ProgressCallback;
 import org.jboss.galleon.progresstracking.ProgressTracker;
@@ -58,6 +59,8 @@ class ProvisioningImpl implements Provisioning {
     private final UniverseResolver universeResolver;
     private boolean recordState;
     private final Map<String, ProgressTracker<?>> progressTrackers = new HashMap<>();
+    private ProvisioningMetricsListener metricsListener;
+    private Path metricsFile;
 
     private final Map<FPID, LocalFP> locals;
 
@@ -126,6 +129,16 @@ class ProvisioningImpl implements Provisioning {
         }
     }
 
+    @Override
+    public void setMetricsListener(ProvisioningMetricsListener listener) {
+        this.metricsListener = listener;
+    }
+
+    @Override
+    public void setMetricsFile(Path file) {
+        this.metricsFile = file;
+    }
+
     private ProvisioningContext buildProvisioningContext() throws ProvisioningException {
         try {
             //System.out.println("REQUIRED CORE VERSION is " + coreVersion);
@@ -141,6 +154,9 @@ class ProvisioningImpl implements Provisioning {
                         universeResolver,
                         progressTrackers,
                         locals);
+                if (metricsListener != null || metricsFile != null) {
+                    ctx.setMetrics(metricsListener, metricsFile);
+                }
                 contexts.add(ctx);
                 return ctx;
             } catch (Exception ex) {
@@ -311,6 +327,19 @@ class ProvisioningImpl implements Provisioning {
         }
     }
 
+    @Override
+    public GalleonProvisioningRuntime getReadOnlyProvisioningRuntime(GalleonProvisioningConfig config) throws ProvisioningException {
+        try {
+            ProvisioningContext ctx = buildProvisioningContext();
+            return ctx.getReadOnlyProvisioningRuntime(config);
+        } catch (Exception ex) {
+            if (ex instanceof ProvisioningException) {
+                throw (ProvisioningException) ex;
+            }
+            throw new ProvisioningException(ex);
+        }
+    }
+
     @Override
     public GalleonConfigurationWithLayersBuilderItf buildConfigurationBuilder(GalleonConfigurationWithLayers config) throws ProvisioningException {
         ProvisioningContext ctx = buildProvisioningContext();
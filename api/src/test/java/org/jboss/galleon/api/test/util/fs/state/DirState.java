@@ -31,6 +31,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import org.jboss.galleon.Constants;
 import org.jboss.galleon.api.test.util.TestUtils;
 import org.jboss.galleon.util.CollectionUtils;
 import org.jboss.galleon.util.PathsUtils;
@@ -44,6 +45,8 @@ public class DirState extends PathState {
 
     public static final String SEPARATOR = "/";
 
+    private static final String HASHES_INDEX = Constants.PROVISIONED_STATE_DIR + SEPARATOR + Constants.HASHES_INDEX;
+
     public static class DirBuilder extends PathState.Builder {
 
         private Map<String, PathState.Builder> childStates = Collections.emptyMap();
@@ -121,7 +124,13 @@ public class DirState extends PathState {
                         @Override
                         public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
                             throws IOException {
-                            addFile(PathsUtils.toForwardSlashSeparator(path.relativize(file).toString()), TestUtils.read(file));
+                            final String relativePath = PathsUtils.toForwardSlashSeparator(path.relativize(file).toString());
+                            if(relativePath.equals(HASHES_INDEX)) {
+                                // binary and records the file timestamps
+                                skip(relativePath);
+                            } else {
+                                addFile(relativePath, TestUtils.read(file));
+                            }
                             return FileVisitResult.CONTINUE;
                         }
                     });
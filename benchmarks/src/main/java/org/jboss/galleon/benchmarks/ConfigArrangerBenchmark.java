@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.DefaultMessageWriter;
+import org.jboss.galleon.MessageWriter;
+import org.jboss.galleon.runtime.ProvisioningRuntime;
+import org.jboss.galleon.runtime.ProvisioningRuntimeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Resolves configs whose features depend on each other through capabilities and have to be
+ * re-ordered by the config arranger. The arrangers are not public, so the features are ordered
+ * as part of building a runtime. Pass {@code -p packages=0} to leave out the package resolution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConfigArrangerBenchmark extends FeaturePackRepoState {
+
+    private static final MessageWriter QUIET = new DefaultMessageWriter(System.out, System.err, false);
+
+    @Param({"default", Constants.CONFIG_ARRANGER_SPEC_ONLY})
+    public String arranger;
+
+    @Setup
+    public void setupArranger() {
+        if(Constants.CONFIG_ARRANGER_SPEC_ONLY.equals(arranger)) {
+            System.setProperty(Constants.PROP_CONFIG_ARRANGER, arranger);
+        } else {
+            System.clearProperty(Constants.PROP_CONFIG_ARRANGER);
+        }
+    }
+
+    @Benchmark
+    public void orderFeatures(Blackhole bh) throws Exception {
+        try(ProvisioningRuntime rt = ProvisioningRuntimeBuilder.newInstance(QUIET)
+                .initRtLayout(layoutFactory.newReadOnlyConfigLayout(config, ProvisioningRuntimeBuilder.FP_RT_FACTORY))
+                .build()) {
+            bh.consume(rt.getConfigs());
+        }
+    }
+}
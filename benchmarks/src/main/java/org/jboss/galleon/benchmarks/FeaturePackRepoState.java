@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.layout.ProvisioningLayoutFactory;
+import org.jboss.galleon.repo.RepositoryArtifactResolver;
+import org.jboss.galleon.universe.UniverseResolver;
+import org.jboss.galleon.util.IoUtils;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Base for the benchmarks that provision a synthetic feature-pack generated by {@link SyntheticFeaturePack}
+ * into a repository in a temporary directory.
+ */
+public abstract class FeaturePackRepoState {
+
+    @Param("100")
+    public int packages;
+
+    @Param("10")
+    public int specs;
+
+    @Param("1000")
+    public int features;
+
+    @Param("1")
+    public int configs;
+
+    protected Path workDir;
+    protected RepositoryArtifactResolver repo;
+    protected ProvisioningLayoutFactory layoutFactory;
+    protected ProvisioningConfig config;
+
+    @Setup
+    public void setupRepo() throws Exception {
+        workDir = Files.createTempDirectory("galleon-benchmarks");
+        repo = SyntheticFeaturePack.newRepository(workDir.resolve("repo"));
+        final SyntheticFeaturePack fp = newFeaturePack();
+        fp.install(repo);
+        config = fp.newProvisioningConfig();
+        layoutFactory = ProvisioningLayoutFactory.getInstance(UniverseResolver.builder().addArtifactResolver(repo).build());
+    }
+
+    protected SyntheticFeaturePack newFeaturePack() {
+        return new SyntheticFeaturePack()
+                .setPackages(packages)
+                .setSpecs(specs)
+                .setFeatures(features)
+                .setConfigs(configs);
+    }
+
+    @TearDown
+    public void tearDownRepo() {
+        if(layoutFactory != null) {
+            layoutFactory.close();
+        }
+        IoUtils.recursiveDelete(workDir);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.galleon.diff.FsDiff;
+import org.jboss.galleon.diff.FsEntry;
+import org.jboss.galleon.diff.FsEntryFactory;
+import org.jboss.galleon.util.IoUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares two generated trees of files, one of which has every {@code nth} file modified.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FsDiffBenchmark {
+
+    @Param("1000")
+    public int files;
+
+    @Param("4096")
+    public int fileSize;
+
+    @Param("10")
+    public int nth;
+
+    private Path workDir;
+    private Path original;
+    private Path other;
+    private FsEntry originalEntry;
+    private FsEntry otherEntry;
+
+    @Setup
+    public void setup() throws Exception {
+        workDir = Files.createTempDirectory("galleon-benchmarks");
+        original = workDir.resolve("original");
+        other = workDir.resolve("other");
+        SyntheticFeaturePack.writeFiles(original, files, 100, fileSize);
+        IoUtils.copy(original, other);
+        SyntheticFeaturePack.modifyFiles(other, files, 100, nth);
+        originalEntry = FsEntryFactory.getInstance().forPath(original);
+        otherEntry = FsEntryFactory.getInstance().forPath(other);
+    }
+
+    @TearDown
+    public void tearDown() {
+        IoUtils.recursiveDelete(workDir);
+    }
+
+    /**
+     * Compares the already hashed trees.
+     */
+    @Benchmark
+    public FsDiff diff() throws Exception {
+        return FsDiff.diff(originalEntry, otherEntry);
+    }
+
+    /**
+     * Scans and hashes both trees before comparing them.
+     */
+    @Benchmark
+    public FsDiff scanAndDiff() throws Exception {
+        return FsDiff.diff(FsEntryFactory.getInstance().forPath(original), FsEntryFactory.getInstance().forPath(other));
+    }
+}
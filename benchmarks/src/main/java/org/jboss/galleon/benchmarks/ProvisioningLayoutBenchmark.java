@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.galleon.layout.FeaturePackLayout;
+import org.jboss.galleon.layout.ProvisioningLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Builds the layout of a provisioning configuration. The feature-pack is resolved from the repository
+ * during the first invocation, the rest of them use the feature-pack already extracted by the layout factory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProvisioningLayoutBenchmark extends FeaturePackRepoState {
+
+    @Benchmark
+    public void newConfigLayout(Blackhole bh) throws Exception {
+        try(ProvisioningLayout<FeaturePackLayout> layout = layoutFactory.newConfigLayout(config)) {
+            bh.consume(layout.getOrderedFeaturePacks());
+        }
+    }
+
+    @Benchmark
+    public void newReadOnlyConfigLayout(Blackhole bh) throws Exception {
+        try(ProvisioningLayout<FeaturePackLayout> layout = layoutFactory.newReadOnlyConfigLayout(config)) {
+            bh.consume(layout.getOrderedFeaturePacks());
+        }
+    }
+}
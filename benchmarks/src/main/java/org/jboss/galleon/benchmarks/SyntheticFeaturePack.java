@@ -0,0 +1,245 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.jboss.galleon.ProvisioningDescriptionException;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.config.ConfigModel;
+import org.jboss.galleon.config.FeatureConfig;
+import org.jboss.galleon.config.FeaturePackConfig;
+import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.creator.FeaturePackBuilder;
+import org.jboss.galleon.creator.FeaturePackCreator;
+import org.jboss.galleon.creator.PackageBuilder;
+import org.jboss.galleon.repo.RepositoryArtifactResolver;
+import org.jboss.galleon.spec.FeatureParameterSpec;
+import org.jboss.galleon.spec.FeatureSpec;
+import org.jboss.galleon.universe.FeaturePackLocation.FPID;
+import org.jboss.galleon.universe.galleon1.LegacyGalleon1RepositoryManager;
+import org.jboss.galleon.universe.galleon1.LegacyGalleon1Universe;
+
+/**
+ * Generates a synthetic feature-pack of a tunable size.
+ *
+ * <p>The feature-pack includes default packages, each of which depends on a few of the previous ones
+ * and has a content file. Its feature specs form a chain: the features of a spec provide
+ * a dynamic capability and require the capability provided by a feature of the previous spec.
+ * The features are added to the configs in the reverse order, so the config arranger has
+ * to order every one of them after its capability provider.
+ */
+public class SyntheticFeaturePack {
+
+    public static final String MODEL = "model";
+
+    private static final String SPEC = "spec";
+    private static final String FEATURE = "f";
+    private static final String PACKAGE = "p";
+    private static final String ID = "id";
+    private static final String DEP = "dep";
+    private static final String PARAM = "param";
+
+    private final FPID fpid;
+    private int packages = 100;
+    private int packageDeps = 2;
+    private int contentSize = 1024;
+    private int specs = 10;
+    private int params = 4;
+    private int features = 1000;
+    private int configs = 1;
+
+    public SyntheticFeaturePack() {
+        this(LegacyGalleon1Universe.newFPID("org.jboss.galleon.benchmarks:synthetic", "1", "1.0.0.Final"));
+    }
+
+    public SyntheticFeaturePack(FPID fpid) {
+        this.fpid = fpid;
+    }
+
+    public SyntheticFeaturePack setPackages(int packages) {
+        this.packages = packages;
+        return this;
+    }
+
+    /**
+     * @param packageDeps  number of the previous packages each package depends on
+     */
+    public SyntheticFeaturePack setPackageDeps(int packageDeps) {
+        this.packageDeps = packageDeps;
+        return this;
+    }
+
+    /**
+     * @param contentSize  size of the content file of each package in bytes
+     */
+    public SyntheticFeaturePack setContentSize(int contentSize) {
+        this.contentSize = contentSize;
+        return this;
+    }
+
+    public SyntheticFeaturePack setSpecs(int specs) {
+        this.specs = specs;
+        return this;
+    }
+
+    /**
+     * @param params  number of the parameters of each spec besides the id and the capability parameters
+     */
+    public SyntheticFeaturePack setParams(int params) {
+        this.params = params;
+        return this;
+    }
+
+    /**
+     * @param features  number of features in each config
+     */
+    public SyntheticFeaturePack setFeatures(int features) {
+        this.features = features;
+        return this;
+    }
+
+    public SyntheticFeaturePack setConfigs(int configs) {
+        this.configs = configs;
+        return this;
+    }
+
+    public FPID getFPID() {
+        return fpid;
+    }
+
+    /**
+     * Returns a repository of feature-packs in the directory.
+     *
+     * @param repoHome  repository directory
+     * @return  repository artifact resolver
+     */
+    public static RepositoryArtifactResolver newRepository(Path repoHome) {
+        return LegacyGalleon1RepositoryManager.newInstance(repoHome);
+    }
+
+    /**
+     * Builds the feature-pack and installs it into the repository.
+     *
+     * @param repo  repository to install the feature-pack into
+     * @throws ProvisioningException  in case of a failure
+     */
+    public void install(RepositoryArtifactResolver repo) throws ProvisioningException {
+        final FeaturePackCreator creator = FeaturePackCreator.getInstance().addArtifactResolver(repo);
+        final FeaturePackBuilder fp = creator.newFeaturePack(fpid);
+        final char[] content = new char[contentSize];
+        Arrays.fill(content, 'x');
+        final String contentStr = new String(content);
+        for(int i = 0; i < packages; ++i) {
+            final PackageBuilder pkg = fp.newPackage(PACKAGE + i, true);
+            for(int j = Math.max(0, i - packageDeps); j < i; ++j) {
+                pkg.addDependency(PACKAGE + j);
+            }
+            pkg.writeContent(PACKAGE + i + "/content.txt", contentStr);
+        }
+        for(int i = 0; i < specs; ++i) {
+            fp.addFeatureSpec(newFeatureSpec(i));
+        }
+        for(int i = 0; i < configs; ++i) {
+            fp.addConfig(newConfig("config" + i));
+        }
+        creator.install();
+    }
+
+    /**
+     * Returns the provisioning configuration that installs the feature-pack.
+     */
+    public ProvisioningConfig newProvisioningConfig() throws ProvisioningDescriptionException {
+        return ProvisioningConfig.builder().addFeaturePackDep(FeaturePackConfig.forLocation(fpid.getLocation())).build();
+    }
+
+    public FeatureSpec newFeatureSpec(int i) throws ProvisioningDescriptionException {
+        final FeatureSpec.Builder builder = FeatureSpec.builder(SPEC + i)
+                .addParam(FeatureParameterSpec.createId(ID))
+                .providesCapability(SPEC + i + ".$" + ID);
+        if(i > 0) {
+            builder.addParam(FeatureParameterSpec.create(DEP))
+                    .requiresCapability(SPEC + (i - 1) + ".$" + DEP);
+        }
+        for(int j = 0; j < params; ++j) {
+            builder.addParam(FeatureParameterSpec.create(PARAM + j, "default" + j));
+        }
+        if(packages > 0) {
+            builder.addPackageDep(PACKAGE + (i % packages));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a config with the configured number of features spread over the specs.
+     * Feature {@code k} is an instance of spec {@code k % specs} that depends on the feature
+     * of the previous spec with the same index within its spec.
+     *
+     * @param name  config name
+     * @return  config model
+     */
+    public ConfigModel newConfig(String name) throws ProvisioningDescriptionException {
+        final ConfigModel.Builder builder = ConfigModel.builder(MODEL, name);
+        for(int k = features - 1; k >= 0; --k) {
+            final int spec = k % specs;
+            final int i = k / specs;
+            final FeatureConfig feature = new FeatureConfig(SPEC + spec).setParam(ID, FEATURE + i);
+            if(spec > 0) {
+                feature.setParam(DEP, FEATURE + i);
+            }
+            for(int j = 0; j < params; j += 2) {
+                feature.setParam(PARAM + j, "value" + k);
+            }
+            builder.addFeature(feature);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes a tree of files to the directory.
+     *
+     * @param dir  target directory
+     * @param files  number of files
+     * @param filesPerDir  number of files in each sub-directory
+     * @param size  size of each file in bytes
+     * @throws IOException  in case of a failure
+     */
+    public static void writeFiles(Path dir, int files, int filesPerDir, int size) throws IOException {
+        final byte[] bytes = new byte[size];
+        for(int i = 0; i < files; ++i) {
+            final Path subdir = dir.resolve("dir" + i / filesPerDir);
+            if(i % filesPerDir == 0) {
+                Files.createDirectories(subdir);
+            }
+            Arrays.fill(bytes, (byte) ('a' + i % 26));
+            Files.write(subdir.resolve("file" + i + ".txt"), bytes);
+        }
+    }
+
+    /**
+     * Modifies every {@code nth} file written by {@link #writeFiles(Path, int, int, int)}.
+     */
+    public static void modifyFiles(Path dir, int files, int filesPerDir, int nth) throws IOException {
+        for(int i = 0; i < files; i += nth) {
+            Files.write(dir.resolve("dir" + i / filesPerDir).resolve("file" + i + ".txt"), "modified".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
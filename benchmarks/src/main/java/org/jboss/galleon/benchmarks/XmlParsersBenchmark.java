@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.benchmarks;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.galleon.config.ConfigModel;
+import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.spec.FeatureSpec;
+import org.jboss.galleon.xml.ConfigXmlParser;
+import org.jboss.galleon.xml.ConfigXmlWriter;
+import org.jboss.galleon.xml.FeatureSpecXmlParser;
+import org.jboss.galleon.xml.FeatureSpecXmlWriter;
+import org.jboss.galleon.xml.ProvisioningXmlParser;
+import org.jboss.galleon.xml.ProvisioningXmlWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses the XML documents of a synthetic feature-pack from memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class XmlParsersBenchmark {
+
+    @Param("1000")
+    public int features;
+
+    @Param("20")
+    public int params;
+
+    private String configXml;
+    private String featureSpecXml;
+    private String provisioningXml;
+
+    @Setup
+    public void setup() throws Exception {
+        final SyntheticFeaturePack fp = new SyntheticFeaturePack()
+                .setFeatures(features)
+                .setParams(params);
+        final ConfigModel config = fp.newConfig("config");
+        StringWriter writer = new StringWriter();
+        ConfigXmlWriter.getInstance().write(config, writer);
+        configXml = writer.toString();
+
+        final FeatureSpec spec = fp.newFeatureSpec(1);
+        writer = new StringWriter();
+        FeatureSpecXmlWriter.getInstance().write(spec, writer);
+        featureSpecXml = writer.toString();
+
+        final ProvisioningConfig provisioning = ProvisioningConfig.builder(fp.newProvisioningConfig())
+                .addConfig(config)
+                .build();
+        writer = new StringWriter();
+        ProvisioningXmlWriter.getInstance().write(provisioning, writer);
+        provisioningXml = writer.toString();
+    }
+
+    @Benchmark
+    public ConfigModel parseConfig() throws Exception {
+        return ConfigXmlParser.getInstance().parse(new StringReader(configXml));
+    }
+
+    @Benchmark
+    public FeatureSpec parseFeatureSpec() throws Exception {
+        return FeatureSpecXmlParser.getInstance().parse(new StringReader(featureSpecXml));
+    }
+
+    @Benchmark
+    public ProvisioningConfig parseProvisioningConfig() throws Exception {
+        return ProvisioningXmlParser.getInstance().parse(new StringReader(provisioningXml));
+    }
+}
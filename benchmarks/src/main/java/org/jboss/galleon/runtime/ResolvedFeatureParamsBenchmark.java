@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.runtime;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.galleon.spec.FeatureParameterSpec;
+import org.jboss.galleon.spec.FeatureSpec;
+import org.jboss.galleon.type.builtin.BuiltInParameterTypeProvider;
+import org.jboss.galleon.universe.galleon1.LegacyGalleon1Universe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fills the parameters of a resolved feature into a {@link HashMap} and into the spec-indexed
+ * {@link ResolvedFeatureParams}. The map is not public, so the benchmark is in the runtime package.
+ * Run it with {@code -prof gc} to compare the bytes allocated per feature ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ResolvedFeatureParamsBenchmark {
+
+    @Param("6")
+    public int params;
+
+    private ResolvedFeatureSpec spec;
+    private String[] names;
+    private String[] values;
+
+    @Setup
+    public void setup() throws Exception {
+        names = new String[params];
+        values = new String[params];
+        final FeatureSpec.Builder builder = FeatureSpec.builder("spec");
+        for(int i = 0; i < params; ++i) {
+            names[i] = "param" + i;
+            values[i] = "value" + i;
+            builder.addParam(FeatureParameterSpec.create(names[i]));
+        }
+        final ResolvedSpecId specId = new ResolvedSpecId(LegacyGalleon1Universe.newFPID("org.jboss.galleon.benchmarks:fp1", "1", "1.0.0.Final").getProducer(), "spec");
+        spec = new ResolvedFeatureSpec(specId, BuiltInParameterTypeProvider.getInstance(), builder.build());
+    }
+
+    @Benchmark
+    public Map<String, Object> hashMap() {
+        return fill(new HashMap<>());
+    }
+
+    @Benchmark
+    public Map<String, Object> specIndexed() {
+        return fill(new ResolvedFeatureParams(spec));
+    }
+
+    private Map<String, Object> fill(Map<String, Object> map) {
+        for(int i = 0; i < names.length; ++i) {
+            map.put(names[i], values[i]);
+        }
+        return map;
+    }
+}
@@ -41,6 +41,8 @@ import org.jboss.galleon.cli.model.Identity;
 import org.jboss.galleon.cli.path.PathParser;
 import org.jboss.galleon.config.FeaturePackConfig;
 import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.layout.FeaturePackLayout;
+import org.jboss.galleon.layout.ProvisioningLayout;
 import org.jboss.galleon.runtime.FeaturePackRuntime;
 import org.jboss.galleon.runtime.ProvisioningRuntime;
 import org.jboss.galleon.runtime.ProvisioningRuntimeBuilder;
@@ -71,6 +73,8 @@ public class State {
     private final ConfigProvisioning configProvisioning = new ConfigProvisioning();
     private final Deque<Action> stack = new ArrayDeque<>();
     private ProvisioningRuntime runtime;
+    // resolved feature-packs reused by the edits that don't change the feature-pack dependencies
+    private ProvisioningLayout<FeaturePackLayout> layout;
     private String name;
 
     public State(ProvisioningSession pmSession) throws ProvisioningException, IOException {
@@ -79,6 +83,9 @@ public class State {
 
     public void close() {
         runtime.close();
+        if (layout != null) {
+            layout.close();
+        }
     }
 
     public State(ProvisioningSession pmSession, Path installation) throws ProvisioningException, IOException {
@@ -305,8 +312,15 @@ public class State {
         if (runtime != null) {
             runtime.close();
         }
+        if (layout != null && !layout.isLayoutOf(tmp)) {
+            layout.close();
+            layout = null;
+        }
+        if (layout == null) {
+            layout = pmSession.getLayoutFactory().newConfigLayout(tmp);
+        }
         runtime = ProvisioningRuntimeBuilder.newInstance(pmSession.getMessageWriter(false))
-                .initLayout(pmSession.getLayoutFactory(), tmp)
+                .initRtLayout(layout.transform(tmp, ProvisioningRuntimeBuilder.FP_RT_FACTORY))
                 .build();
         try {
             Set<FeaturePackLocation.FPID> dependencies = new HashSet<>();
@@ -73,6 +73,10 @@ public interface BaseErrors {
         return buf.toString();
     }
 
+    static String readFile(Path p) {
+        return "Failed to read " + p.toAbsolutePath();
+    }
+
     static String writeFile(Path p) {
         return "Failed to write to " + p.toAbsolutePath();
     }
@@ -109,6 +113,10 @@ public interface BaseErrors {
         return "Failed to copy " + src + " to " + target;
     }
 
+    static String moveFile(Path src, Path target) {
+        return "Failed to move " + src + " to " + target;
+    }
+
     static String hashCalculation(Path path) {
         return "Hash calculation failed for " + path;
     }
@@ -32,12 +32,14 @@ public interface Constants {
     String FEATURES = "features";
     String FEATURE_PACK_XML = "feature-pack.xml";
     String HASHES = "hashes";
+    String HASHES_INDEX = "hashes.idx";
     String HISTORY = "history";
     String HISTORY_LIST = "list";
     String KEEP = "keep";
     String LAYERS = "layers";
     String LAYER_SPEC_XML = "layer-spec.xml";
     String MAVEN = "maven";
+    String METADATA_INDEX = "metadata.idx";
     String MODEL_XML = "model.xml";
     String MODULES_XML = "module.xml";
     String PACKAGE_XML = "package.xml";
@@ -64,7 +66,16 @@ public interface Constants {
 
     // SYSTEM PROPERTIES
     String PROP_CONFIG_ARRANGER = "galleon.config.arranger";
+    String PROP_CONFIG_THREADS = "galleon.config.threads";
     String PROP_LINUX_LINE_ENDINGS = "galleon.config.use_linux_line_endings";
+    String PROP_FP_CACHE_DIR = "galleon.fp.cache.dir";
+    String PROP_FP_CACHE_MAX_SIZE = "galleon.fp.cache.max-size";
+    String PROP_FS_THREADS = "galleon.fs.threads";
+    String PROP_PACKAGE_THREADS = "galleon.package.threads";
+    String PROP_RESOLVE_THREADS = "galleon.resolve.threads";
+    String PROP_SPEC_CACHE_MAX_ENTRIES = "galleon.spec.cache.max-entries";
+    String PROP_STRICT_FS_DIFF = "galleon.fs.diff.strict";
+    String PROP_UPDATE_THREADS = "galleon.update.threads";
 
     // CONFIG ARRANGERS
     String CONFIG_ARRANGER_SPEC_ONLY = "spec-only";
@@ -96,6 +107,8 @@ public interface Constants {
 
     String PRINT_ONLY_CONFLICTS = "print-only-conflicts";
 
+    String PACKAGE_INSTALL_THREADS = "package-install-threads";
+
     String TRACK_LAYOUT_BUILD = "LAYOUT_BUILD";
     String TRACK_UPDATES = "UPDATES";
     String TRACK_PACKAGES = "PACKAGES";
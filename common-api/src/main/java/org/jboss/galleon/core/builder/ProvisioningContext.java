@@ -34,6 +34,7 @@ import org.jboss.galleon.api.config.GalleonConfigurationWithLayersBuilderItf;
 import org.jboss.galleon.api.config.GalleonFeaturePackConfig;
 import org.jboss.galleon.api.config.GalleonProvisioningConfig;
 import org.jboss.galleon.diff.FsDiff;
+import org.jboss.galleon.metrics.ProvisioningMetricsListener;
 import org.jboss.galleon.universe.UniverseResolver;
 import org.jboss.galleon.universe.FeaturePackLocation;
 
@@ -47,6 +48,14 @@ public interface ProvisioningContext extends AutoCloseable {
 
     public GalleonProvisioningRuntime getProvisioningRuntime(GalleonProvisioningConfig config) throws ProvisioningException;
 
+    /**
+     * Returns a runtime that can be queried for its feature-packs, packages and configs but can't be provisioned.
+     * Cores that don't support read-only runtimes return a regular runtime.
+     */
+    public default GalleonProvisioningRuntime getReadOnlyProvisioningRuntime(GalleonProvisioningConfig config) throws ProvisioningException {
+        return getProvisioningRuntime(config);
+    }
+
     UniverseResolver getUniverseResolver();
 
     public default void provision(GalleonProvisioningConfig config) throws ProvisioningException {
@@ -86,6 +95,16 @@ public interface ProvisioningContext extends AutoCloseable {
 
     public GalleonProvisioningLayout newProvisioningLayout(Path file, boolean install) throws ProvisioningException;
 
+    /**
+     * Sets the receivers of the metrics of the provisioning operations performed through this context.
+     * Cores that don't support metrics ignore them.
+     *
+     * @param listener  metrics listener or null
+     * @param file  file to write the metrics to in JSON format or null
+     */
+    public default void setMetrics(ProvisioningMetricsListener listener, Path file) {
+    }
+
     @Override
     public void close();
 }
@@ -80,7 +80,23 @@ public class FsDiff {
     public static final String REPLAYING_CHANGES = "Replaying your changes on top";
 
     public static FsDiff diff(FsEntry original, FsEntry other) throws ProvisioningException {
-        return new FsDiff(original, other);
+        return new FsDiff(original, other, true);
+    }
+
+    /**
+     * Compares two filesystem branches.
+     * In the strict mode the hashes of all the files present in both branches are compared.
+     * Otherwise, files whose size and last modified time are known and equal
+     * are considered unchanged and only the rest of the files are hashed.
+     *
+     * @param original  original filesystem branch
+     * @param other  filesystem branch to compare to the original one
+     * @param strict  whether the hashes of all the files should be compared
+     * @return  the differences between the branches
+     * @throws ProvisioningException  in case of a failure
+     */
+    public static FsDiff diff(FsEntry original, FsEntry other, boolean strict) throws ProvisioningException {
+        return new FsDiff(original, other, strict);
     }
 
     public static Map<String, Boolean> replay(FsDiff diff,
@@ -343,13 +359,15 @@ public class FsDiff {
 
     private final FsEntry original;
     private final FsEntry other;
+    private final boolean strict;
     private Map<String, FsEntry> added = Collections.emptyMap();
     private Map<String, FsEntry> removed = Collections.emptyMap();
     private Map<String, FsEntry[]> modified = Collections.emptyMap();
 
-    private FsDiff(FsEntry original, FsEntry other) throws ProvisioningException {
+    private FsDiff(FsEntry original, FsEntry other, boolean strict) throws ProvisioningException {
         this.original = original;
         this.other = other;
+        this.strict = strict;
         doDiff(original, other);
     }
 
@@ -390,6 +408,9 @@ public class FsDiff {
             }
             return;
         }
+        if(!strict && originalEntry.metadataMatches(otherEntry)) {
+            return;
+        }
         if(!Arrays.equals(originalEntry.getHash(), otherEntry.getHash())) {
             originalEntry.diffModified();
             otherEntry.diffModified();
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -52,6 +53,8 @@ public class FsEntry {
     final String name;
     final boolean dir;
     private byte[] hash;
+    private long size = -1;
+    private long lastModified = -1;
     private String relativePath;
     private char diffStatus = NONE;
 
@@ -70,8 +73,43 @@ public class FsEntry {
         }
     }
 
+    /**
+     * Creates a directory entry with a recorded state. The path of the entry
+     * is resolved against the path of the parent, if the parent has one.
+     *
+     * @param parent  parent entry
+     * @param name  directory name
+     */
+    public FsEntry(FsEntry parent, String name) {
+        this.parent = parent;
+        this.p = parent == null || parent.p == null ? null : parent.p.resolve(name);
+        this.name = name;
+        this.dir = true;
+        if(parent != null) {
+            depth = parent.depth + 1;
+            parent.addChild(this);
+        } else {
+            depth = 0;
+        }
+    }
+
     public FsEntry(FsEntry parent, String name, byte[] hash) {
+        this(parent, name, hash, -1, -1);
+    }
+
+    /**
+     * Creates a file entry with the recorded hash and metadata.
+     *
+     * @param parent  parent entry
+     * @param name  file name
+     * @param hash  file hash
+     * @param size  file size or -1 if unknown
+     * @param lastModified  last modified time in milliseconds or -1 if unknown
+     */
+    public FsEntry(FsEntry parent, String name, byte[] hash, long size, long lastModified) {
         this.parent = parent;
+        this.size = size;
+        this.lastModified = lastModified;
         this.name = name;
         this.hash = hash;
         this.dir = false;
@@ -175,6 +213,62 @@ public class FsEntry {
         return hash;
     }
 
+    /**
+     * Size of the file, read from the filesystem on the first call
+     * unless the entry was created with a recorded size.
+     *
+     * @return  size of the file or -1 if unknown
+     * @throws ProvisioningException  in case reading the file attributes failed
+     */
+    public long getSize() throws ProvisioningException {
+        if(size < 0 && p != null && !dir) {
+            readMetadata();
+        }
+        return size;
+    }
+
+    /**
+     * Last modified time of the file in milliseconds, read from the filesystem on the first call
+     * unless the entry was created with a recorded last modified time.
+     *
+     * @return  last modified time or -1 if unknown
+     * @throws ProvisioningException  in case reading the file attributes failed
+     */
+    public long getLastModified() throws ProvisioningException {
+        if(lastModified < 0 && p != null && !dir) {
+            readMetadata();
+        }
+        return lastModified;
+    }
+
+    /**
+     * Checks whether both entries are files whose size and last modified time are known and equal,
+     * in which case their content is assumed to be the same.
+     *
+     * @param other  the entry to compare the metadata with
+     * @return  true if the metadata of the entries are known and match
+     * @throws ProvisioningException  in case reading the file attributes failed
+     */
+    public boolean metadataMatches(FsEntry other) throws ProvisioningException {
+        if(dir || other.dir) {
+            return false;
+        }
+        final long lastModified = getLastModified();
+        return lastModified >= 0 && getSize() >= 0
+                && lastModified == other.getLastModified() && size == other.getSize();
+    }
+
+    private void readMetadata() throws ProvisioningException {
+        final BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(p, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new ProvisioningException(BaseErrors.readFile(p), e);
+        }
+        size = attrs.size();
+        lastModified = attrs.lastModifiedTime().toMillis();
+    }
+
     public boolean isDiffStatusAdded() {
         return diffStatus == ADDED;
     }
@@ -17,12 +17,15 @@
 package org.jboss.galleon.diff;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.jboss.galleon.BaseErrors;
 import org.jboss.galleon.ProvisioningException;
@@ -32,6 +35,9 @@ import org.jboss.galleon.util.CollectionUtils;
  * Factory that builds a representation of a filesystem branch
  * possibly filtering out one or more of its subbranches.
  *
+ * If the factory is configured to use more than one thread, the branch is
+ * scanned and the hashes of its files are computed on a fork/join pool.
+ *
  * NOTE: this class is *NOT* thread-safe!
  *
  * @author Alexey Loubyansky
@@ -44,8 +50,6 @@ public class FsEntryFactory {
         final boolean relative;
         final String suffix;
 
-        final FsEntry[] checkEntries;
-
         PathFilter(String[] pathElements, boolean relative) {
             this.pathElements = pathElements;
             this.relative = relative;
@@ -58,13 +62,11 @@ public class FsEntryFactory {
             } else {
                 suffix = null;
             }
-            this.checkEntries = pathElements.length - 1 <= 0 ? null : new FsEntry[pathElements.length - 1];
         }
 
         boolean matches(FsEntry parent, String childName) {
-            if(checkEntries != null) {
-                Arrays.fill(checkEntries, null);
-            }
+            // allocated per call since the children of different directories may be filtered concurrently
+            final FsEntry[] checkEntries = pathElements.length - 1 <= 0 ? null : new FsEntry[pathElements.length - 1];
             if(relative) {
                 if(pathElements.length > parent.depth + 1) {
                     return false;
@@ -133,16 +135,52 @@ public class FsEntryFactory {
     private static final String FILTERED_PATH_DOT_GALLEON = "/.galleon";
     private static final String FILTERED_PATH_GLNEW_EXT = "*.glnew";
 
+    private static final int HASH_BATCH_SIZE = 32;
+
     private List<PathFilter> pathFilters = Collections.emptyList();
+    private int threads = 1;
+    private boolean hashFiles = true;
 
     private FsEntryFactory() {
     }
 
+    /**
+     * Sets the maximum number of threads used to scan a filesystem branch.
+     * If the value is greater than 1, the hashes of the files are computed
+     * eagerly while the branch is scanned, otherwise they are computed
+     * lazily when they are requested.
+     *
+     * @param threads  maximum number of threads
+     * @return  this factory
+     */
+    public FsEntryFactory setThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Whether the hashes of the files should be computed eagerly while a branch
+     * is scanned by more than one thread. The default is true. If the hashes
+     * are expected to be needed only for some of the files (e.g. when comparing
+     * file metadata first), this can be turned off.
+     *
+     * @param hashFiles  whether to compute the hashes while scanning
+     * @return  this factory
+     */
+    public FsEntryFactory setHashFiles(boolean hashFiles) {
+        this.hashFiles = hashFiles;
+        return this;
+    }
+
     public FsEntry forPath(Path p) throws ProvisioningException {
         final FsEntry entry = new FsEntry(null, p);
         if(entry.dir) {
             try {
-                initChildren(entry);
+                if(threads > 1) {
+                    initChildrenInParallel(entry);
+                } else {
+                    initChildren(entry);
+                }
             } catch (IOException e) {
                 throw new ProvisioningException(BaseErrors.fsEntryInit(p), e);
             }
@@ -150,6 +188,85 @@ public class FsEntryFactory {
         return entry;
     }
 
+    private void initChildrenInParallel(final FsEntry root) throws IOException {
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new ScanTask(root));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Lists the children of a directory, then scans its sub-directories
+     * and hashes its files in parallel. The children of an entry are only
+     * added by the task scanning the entry.
+     */
+    private class ScanTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FsEntry parent;
+
+        ScanTask(FsEntry parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        protected void compute() {
+            final List<RecursiveAction> tasks = new ArrayList<>();
+            List<FsEntry> files = Collections.emptyList();
+            try(DirectoryStream<Path> stream = Files.newDirectoryStream(parent.p)) {
+                for(Path c : stream) {
+                    if(!pathFilters.isEmpty() && isFiltered(parent, c.getFileName().toString())) {
+                        continue;
+                    }
+                    final FsEntry child = new FsEntry(parent, c);
+                    if(!child.dir) {
+                        if(files.isEmpty()) {
+                            files = new ArrayList<>();
+                        }
+                        files.add(child);
+                    } else if(Files.isReadable(child.p)) {
+                        tasks.add(new ScanTask(child));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            for(int i = 0; hashFiles && i < files.size(); i += HASH_BATCH_SIZE) {
+                tasks.add(new HashTask(files.subList(i, Math.min(i + HASH_BATCH_SIZE, files.size()))));
+            }
+            if(!tasks.isEmpty()) {
+                invokeAll(tasks);
+            }
+        }
+    }
+
+    private static class HashTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<FsEntry> files;
+
+        HashTask(List<FsEntry> files) {
+            this.files = files;
+        }
+
+        @Override
+        protected void compute() {
+            for(FsEntry file : files) {
+                try {
+                    file.getHash();
+                } catch (ProvisioningException e) {
+                    // the hash will be re-computed and the error reported when the hash is requested
+                }
+            }
+        }
+    }
+
     private void initChildren(final FsEntry parent) throws IOException {
         boolean hasDirs = false;
         try(DirectoryStream<Path> stream = Files.newDirectoryStream(parent.p)) {
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.diff;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.jboss.galleon.ProvisioningException;
+
+/**
+ * Single file index of the recorded state of a filesystem branch.
+ *
+ * <p>The index starts with a header followed by the entries of the branch
+ * in depth-first order, the children of every directory sorted by name.
+ * A directory is recorded as its name followed by the number of its children.
+ * A file is recorded as its name followed by its binary hash, size and
+ * last modified time.
+ *
+ * <p>The whole index is written and read with a single sequential I/O operation.
+ */
+public class FsEntryIndex {
+
+    private static final int MAGIC = 0x474c4849; // GLHI
+    private static final byte VERSION = 1;
+
+    private static final byte DIR = 'd';
+    private static final byte FILE = 'f';
+
+    private static final Comparator<FsEntry> BY_NAME = new Comparator<FsEntry>() {
+        @Override
+        public int compare(FsEntry e1, FsEntry e2) {
+            return e1.getName().compareTo(e2.getName());
+        }
+    };
+
+    /**
+     * Writes the index of the branch to the target file.
+     *
+     * @param root  root of the branch
+     * @param target  index file
+     * @throws ProvisioningException  in case the hash of a file could not be calculated
+     * @throws IOException  in case writing the index failed
+     */
+    public static void write(FsEntry root, Path target) throws ProvisioningException, IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target), 65536))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            writeChildren(root, out);
+        }
+    }
+
+    private static void writeChildren(FsEntry dir, DataOutputStream out) throws ProvisioningException, IOException {
+        if(!dir.hasChildren()) {
+            out.writeInt(0);
+            return;
+        }
+        final List<FsEntry> children = new ArrayList<>(dir.getChildren());
+        Collections.sort(children, BY_NAME);
+        out.writeInt(children.size());
+        for(FsEntry child : children) {
+            out.writeUTF(child.getName());
+            if(child.isDir()) {
+                out.writeByte(DIR);
+                writeChildren(child, out);
+                continue;
+            }
+            out.writeByte(FILE);
+            final byte[] hash = child.getHash();
+            out.writeShort(hash.length);
+            out.write(hash);
+            out.writeLong(child.getSize());
+            out.writeLong(child.getLastModified());
+        }
+    }
+
+    /**
+     * Reads the index into a tree of entries.
+     *
+     * <p>The last modified times recorded for the files are only trusted if they
+     * are older than the last modified time of the index itself, otherwise a file
+     * modified in the same clock tick the index was written could have been
+     * modified again without changing its metadata.
+     *
+     * @param index  index file
+     * @param root  path of the root entry
+     * @return  root entry of the recorded branch
+     * @throws IOException  in case reading the index failed or the file is not an index
+     */
+    public static FsEntry read(Path index, Path root) throws IOException {
+        final long recorded = Files.getLastModifiedTime(index).toMillis();
+        final byte[] bytes = Files.readAllBytes(index);
+        final FsEntry rootEntry = new FsEntry(null, root);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if(in.readInt() != MAGIC) {
+                throw new IOException(index + " is not a hashes index");
+            }
+            final byte version = in.readByte();
+            if(version != VERSION) {
+                throw new IOException("Unsupported version " + version + " of hashes index " + index);
+            }
+            readChildren(rootEntry, in, recorded);
+            if(in.available() > 0) {
+                throw new IOException("Unexpected content at the end of hashes index " + index);
+            }
+        }
+        return rootEntry;
+    }
+
+    private static void readChildren(FsEntry dir, DataInputStream in, long recorded) throws IOException {
+        int children = in.readInt();
+        while(children-- > 0) {
+            final String name = in.readUTF();
+            final byte type = in.readByte();
+            if(type == DIR) {
+                readChildren(new FsEntry(dir, name), in, recorded);
+            } else if(type == FILE) {
+                final byte[] hash = new byte[in.readUnsignedShort()];
+                in.readFully(hash);
+                final long size = in.readLong();
+                final long lastModified = in.readLong();
+                new FsEntry(dir, name, hash, size, lastModified < recorded ? lastModified : -1);
+            } else {
+                throw new IOException("Unexpected entry type " + type + " in hashes index");
+            }
+        }
+    }
+}
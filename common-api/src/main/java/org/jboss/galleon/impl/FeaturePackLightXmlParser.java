@@ -16,9 +16,9 @@
  */
 package org.jboss.galleon.impl;
 
-import java.io.FileInputStream;
-import java.nio.file.Path;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -37,9 +37,9 @@ class FeaturePackLightXmlParser {
     private static final String DEPENDENCY = "dependency";
     private static final String TRANSITIVE = "transitive";
 
-    public static GalleonFeaturePackDescription parseDescription(Path featurePack) throws ProvisioningException {
+    public static GalleonFeaturePackDescription parseDescription(InputStream featurePack) throws ProvisioningException {
         try {
-            try (FileInputStream fileInputStream = new FileInputStream(featurePack.toFile())) {
+            try (InputStream fileInputStream = featurePack) {
                 DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
                 DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
                 Document document = documentBuilder.parse(fileInputStream);
@@ -83,22 +83,8 @@ class FeaturePackLightXmlParser {
                         }
                     }
                 }
-                return new GalleonFeaturePackDescription(FeaturePackLocation.fromString(producer).getFPID(), dependencies, transitives, version);
-            }
-        } catch (Exception ex) {
-            throw new ProvisioningException(ex);
-        }
-    }
-
-    public static String parseVersion(Path featurePack) throws ProvisioningException {
-        try {
-            try (FileInputStream fileInputStream = new FileInputStream(featurePack.toFile())) {
-                DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-                DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
-                Document document = documentBuilder.parse(fileInputStream);
-                Element root = document.getDocumentElement();
-                String version = root.getAttribute("galleon-min-version");
-                return version;
+                return new GalleonFeaturePackDescription(FeaturePackLocation.fromString(producer).getFPID(),
+                        Collections.unmodifiableList(dependencies), Collections.unmodifiableList(transitives), version);
             }
         } catch (Exception ex) {
             throw new ProvisioningException(ex);
@@ -16,12 +16,18 @@
  */
 package org.jboss.galleon.impl;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLClassLoader;
-import java.nio.file.FileSystem;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import org.jboss.galleon.Constants;
 
 import org.jboss.galleon.ProvisioningException;
@@ -30,39 +36,67 @@ import org.jboss.galleon.api.GalleonFeaturePackDescription;
 import org.jboss.galleon.api.GalleonFeaturePack;
 import org.jboss.galleon.universe.UniverseResolver;
 import org.jboss.galleon.universe.FeaturePackLocation.FPID;
-import org.jboss.galleon.util.IoUtils;
-import org.jboss.galleon.util.ZipUtils;
 
 public class ProvisioningUtil {
 
+    private static final int MAX_CACHED_DESCRIPTIONS = 64;
+
+    /**
+     * Descriptions of the feature-pack archives read so far, keyed by the archive path.
+     * An entry is valid as long as the size and last modified time of the archive haven't changed.
+     */
+    private static final Map<Path, CachedDescription> DESCRIPTIONS = new LinkedHashMap<Path, CachedDescription>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, CachedDescription> eldest) {
+            return size() > MAX_CACHED_DESCRIPTIONS;
+        }
+    };
+
+    private static class CachedDescription {
+        final long size;
+        final long lastModified;
+        final GalleonFeaturePackDescription description;
+
+        CachedDescription(BasicFileAttributes attrs, GalleonFeaturePackDescription description) {
+            this.size = attrs.size();
+            this.lastModified = attrs.lastModifiedTime().toMillis();
+            this.description = description;
+        }
+
+        boolean isValid(BasicFileAttributes attrs) {
+            return size == attrs.size() && lastModified == attrs.lastModifiedTime().toMillis();
+        }
+    }
+
     public static boolean isFeaturePack(Path path) {
-        Path tmp = null;
         try {
-            tmp = Files.createTempDirectory("galleon-tmp");
-            Path spec = getFeaturePackSpec(path, tmp);
-            return Files.exists(spec);
+            if (getCachedDescription(path, Files.readAttributes(path, BasicFileAttributes.class)) != null) {
+                return true;
+            }
+            try (ZipFile zip = new ZipFile(path.toFile())) {
+                return zip.getEntry(Constants.FEATURE_PACK_XML) != null;
+            }
         } catch (Exception ex) {
             return false;
-        } finally {
-            IoUtils.recursiveDelete(tmp);
         }
     }
 
     public static FPID getFeaturePackProducer(Path path) throws Exception {
-        Path tmp = null;
-        try {
-            tmp = Files.createTempDirectory("galleon-tmp");
-            Path spec = getFeaturePackSpec(path, tmp);
-            GalleonFeaturePackDescription deps = FeaturePackLightXmlParser.parseDescription(spec);
-            return deps.getProducer();
-        } finally {
-            IoUtils.recursiveDelete(tmp);
-        }
+        return readDescription(path).getProducer();
     }
 
+    /**
+     * @deprecated the temporary directory is no longer used, use {@link #getCoreVersion(Path, String, UniverseResolver)}
+     */
+    @Deprecated
     public static String getCoreVersion(Path resolvedFP, String currentVersion, Path tmp, UniverseResolver universeResolver) throws Exception {
-        Path spec = getFeaturePackSpec(resolvedFP, tmp);
-        String fpVersion = FeaturePackLightXmlParser.parseVersion(spec);
+        return getCoreVersion(resolvedFP, currentVersion, universeResolver);
+    }
+
+    public static String getCoreVersion(Path resolvedFP, String currentVersion, UniverseResolver universeResolver) throws Exception {
+        String fpVersion = readDescription(resolvedFP).getGalleonVersion();
         //System.out.println("Found a version in FP " + resolvedFP + " version is " + fpVersion);
         if (fpVersion != null && !fpVersion.isEmpty()) {
             if (VersionMatcher.COMPARATOR.compare(fpVersion, currentVersion) > 0) {
@@ -84,23 +118,38 @@ public class ProvisioningUtil {
         }
     }
 
+    /**
+     * @deprecated the temporary directory is no longer used, use {@link #getCoreVersion(Path, UniverseResolver)}
+     */
+    @Deprecated
     public static String getCoreVersion(Path provisioning, UniverseResolver universeResolver, Path tmp) throws ProvisioningException {
+        return getCoreVersion(provisioning, universeResolver);
+    }
+
+    public static String getCoreVersion(Path provisioning, UniverseResolver universeResolver) throws ProvisioningException {
         List<FPID> featurePacks = ProvisioningLightXmlParser.parse(provisioning);
-        return getCoreVersion(featurePacks, APIVersion.getVersion(), universeResolver, tmp);
+        return getCoreVersion(featurePacks, APIVersion.getVersion(), universeResolver);
     }
 
+    /**
+     * @deprecated the temporary directory is no longer used, use {@link #getCoreVersion(InputStream, UniverseResolver)}
+     */
+    @Deprecated
     public static String getCoreVersion(InputStream stream, UniverseResolver universeResolver, Path tmp) throws ProvisioningException {
+        return getCoreVersion(stream, universeResolver);
+    }
+
+    public static String getCoreVersion(InputStream stream, UniverseResolver universeResolver) throws ProvisioningException {
         List<FPID> featurePacks = ProvisioningLightXmlParser.parse(stream);
-        return getCoreVersion(featurePacks, APIVersion.getVersion(), universeResolver, tmp);
+        return getCoreVersion(featurePacks, APIVersion.getVersion(), universeResolver);
     }
 
-    private static String getCoreVersion(List<FPID> featurePacks, String currentMax, UniverseResolver universeResolver, Path tmp) throws ProvisioningException {
+    private static String getCoreVersion(List<FPID> featurePacks, String currentMax, UniverseResolver universeResolver) throws ProvisioningException {
         try {
             String version = currentMax;
             for (FPID fpid : featurePacks) {
                 Path resolvedFP = universeResolver.resolve(fpid.getLocation());
-                Path spec = getFeaturePackSpec(resolvedFP, tmp);
-                String fpVersion = FeaturePackLightXmlParser.parseVersion(spec);
+                String fpVersion = readDescription(resolvedFP).getGalleonVersion();
                 //System.out.println("Found a version in FP " + fpid + " version is " + fpVersion);
                 if (fpVersion != null && !fpVersion.isEmpty()) {
                     if (VersionMatcher.COMPARATOR.compare(fpVersion, version) > 0) {
@@ -115,28 +164,53 @@ public class ProvisioningUtil {
     }
 
     public static GalleonFeaturePackDescription getFeaturePackDescription(Path fp) throws ProvisioningException {
-        Path tmp = null;
         try {
-            tmp = Files.createTempDirectory("galleon-tmp");
-            Path spec = getFeaturePackSpec(fp, tmp);
-            return FeaturePackLightXmlParser.parseDescription(spec);
+            return readDescription(fp);
+        } catch (ProvisioningException ex) {
+            throw ex;
         } catch (Exception ex) {
             throw new ProvisioningException(ex);
-        } finally {
-            IoUtils.recursiveDelete(tmp);
         }
     }
 
-    private static Path getFeaturePackSpec(Path resolvedFP, Path tmp) throws Exception {
-        Path fpDir = tmp.resolve(resolvedFP.getFileName());
-        Files.createDirectories(fpDir);
-        Path target = fpDir.resolve("fp-spec.xml");
-        if (!Files.exists(target)) {
-            try (FileSystem fs = ZipUtils.newFileSystem(resolvedFP)) {
-                Path spec = fs.getPath(Constants.FEATURE_PACK_XML);
-                ZipUtils.copyFromZip(spec, target);
+    /**
+     * Parses feature-pack.xml streamed from the archive, without extracting it.
+     * The description is cached until the archive is modified.
+     */
+    private static GalleonFeaturePackDescription readDescription(Path resolvedFP) throws IOException, ProvisioningException {
+        final Path key = resolvedFP.toAbsolutePath().normalize();
+        final BasicFileAttributes attrs = Files.readAttributes(key, BasicFileAttributes.class);
+        GalleonFeaturePackDescription description = getCachedDescription(key, attrs);
+        if (description != null) {
+            return description;
+        }
+        try (ZipFile zip = new ZipFile(key.toFile())) {
+            final ZipEntry entry = zip.getEntry(Constants.FEATURE_PACK_XML);
+            if (entry == null) {
+                throw new NoSuchFileException(Constants.FEATURE_PACK_XML, null, "Not found in " + resolvedFP);
+            }
+            try (InputStream in = zip.getInputStream(entry)) {
+                description = FeaturePackLightXmlParser.parseDescription(in);
+            }
+        }
+        synchronized (DESCRIPTIONS) {
+            DESCRIPTIONS.put(key, new CachedDescription(attrs, description));
+        }
+        return description;
+    }
+
+    private static GalleonFeaturePackDescription getCachedDescription(Path path, BasicFileAttributes attrs) {
+        final Path key = path.toAbsolutePath().normalize();
+        synchronized (DESCRIPTIONS) {
+            final CachedDescription cached = DESCRIPTIONS.get(key);
+            if (cached == null) {
+                return null;
+            }
+            if (!cached.isValid(attrs)) {
+                DESCRIPTIONS.remove(key);
+                return null;
             }
+            return cached.description;
         }
-        return target;
     }
 }
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Durations, item counts and bytes of the phases of a provisioning operation.
+ * The values of a phase are the sums of all its recordings, so the duration of a phase
+ * executed by several threads in parallel may exceed the duration of the operation.
+ *
+ * <p>The phases are recorded with
+ * <pre>
+ * final long start = metrics.start();
+ * ...
+ * metrics.record(phase, start, count, bytes);
+ * </pre>
+ * which is a no-op for {@link #DISABLED}.
+ */
+public class ProvisioningMetrics {
+
+    /**
+     * Metrics that don't record anything.
+     */
+    public static final ProvisioningMetrics DISABLED = new ProvisioningMetrics(null, false);
+
+    private static final int PHASES = ProvisioningPhase.values().length;
+
+    private final ProvisioningMetricsListener listener;
+    private final boolean enabled;
+    private final long startTime;
+    private final AtomicLongArray durations;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray bytes;
+    private volatile long duration = -1;
+
+    public ProvisioningMetrics() {
+        this(null);
+    }
+
+    /**
+     * @param listener  listener notified of the recorded phases and the completion, may be null
+     */
+    public ProvisioningMetrics(ProvisioningMetricsListener listener) {
+        this(listener, true);
+    }
+
+    private ProvisioningMetrics(ProvisioningMetricsListener listener, boolean enabled) {
+        this.listener = listener;
+        this.enabled = enabled;
+        if(enabled) {
+            startTime = System.nanoTime();
+            durations = new AtomicLongArray(PHASES);
+            counts = new AtomicLongArray(PHASES);
+            bytes = new AtomicLongArray(PHASES);
+        } else {
+            startTime = -1;
+            durations = null;
+            counts = null;
+            bytes = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the start time of a measurement to be passed to {@link #record(ProvisioningPhase, long, long, long)}.
+     *
+     * @return  current time in nanoseconds or -1 if the metrics are disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : -1;
+    }
+
+    /**
+     * Adds the time elapsed since the start time, the count and the bytes to the phase.
+     *
+     * @param phase  phase
+     * @param startTime  value returned by {@link #start()}
+     * @param count  number of processed items
+     * @param bytes  number of processed bytes, 0 if unknown
+     */
+    public void record(ProvisioningPhase phase, long startTime, long count, long bytes) {
+        if(startTime == -1 || !enabled) {
+            return;
+        }
+        final long duration = System.nanoTime() - startTime;
+        final int i = phase.ordinal();
+        durations.addAndGet(i, duration);
+        counts.addAndGet(i, count);
+        this.bytes.addAndGet(i, bytes);
+        if(listener != null) {
+            listener.phaseRecorded(phase, duration, count, bytes);
+        }
+    }
+
+    /**
+     * Marks the operation as completed and notifies the listener.
+     * Does nothing if the metrics are disabled or have already been completed.
+     */
+    public void complete() {
+        if(!enabled || duration != -1) {
+            return;
+        }
+        duration = System.nanoTime() - startTime;
+        if(listener != null) {
+            listener.completed(this);
+        }
+    }
+
+    /**
+     * @return  duration of the operation in nanoseconds, if the operation has not completed yet,
+     *   the time elapsed since its start
+     */
+    public long getDuration() {
+        if(!enabled) {
+            return 0;
+        }
+        return duration == -1 ? System.nanoTime() - startTime : duration;
+    }
+
+    public long getDuration(ProvisioningPhase phase) {
+        return enabled ? durations.get(phase.ordinal()) : 0;
+    }
+
+    public long getCount(ProvisioningPhase phase) {
+        return enabled ? counts.get(phase.ordinal()) : 0;
+    }
+
+    public long getBytes(ProvisioningPhase phase) {
+        return enabled ? bytes.get(phase.ordinal()) : 0;
+    }
+
+    /**
+     * Returns the metrics as a JSON document, which includes only the phases that were recorded.
+     *
+     * @return  JSON representation of the metrics
+     */
+    public String toJson() {
+        try {
+            return newMapper().writeValueAsString(toJsonNode());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes the JSON representation of the metrics to the file.
+     *
+     * @param file  target file
+     * @throws IOException  in case of a failure
+     */
+    public void writeJson(Path file) throws IOException {
+        final Path parent = file.toAbsolutePath().getParent();
+        if(parent != null) {
+            Files.createDirectories(parent);
+        }
+        newMapper().writeValue(file.toFile(), toJsonNode());
+    }
+
+    private static ObjectMapper newMapper() {
+        final ObjectMapper mapper = new ObjectMapper();
+        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        return mapper;
+    }
+
+    private ObjectNode toJsonNode() {
+        final ObjectNode root = new ObjectMapper().createObjectNode();
+        root.put("duration-ns", getDuration());
+        final ObjectNode phases = root.putObject("phases");
+        for(ProvisioningPhase phase : ProvisioningPhase.values()) {
+            final long phaseDuration = getDuration(phase);
+            final long count = getCount(phase);
+            if(phaseDuration == 0 && count == 0) {
+                continue;
+            }
+            final ObjectNode node = phases.putObject(phase.getName());
+            node.put("duration-ns", phaseDuration);
+            node.put("count", count);
+            node.put("bytes", getBytes(phase));
+        }
+        return root;
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.metrics;
+
+/**
+ * Receives the metrics of provisioning operations.
+ */
+public interface ProvisioningMetricsListener {
+
+    /**
+     * Called every time a phase, or a part of it, has been measured. A phase may be recorded
+     * more than once per operation and, for the phases that run in parallel, from different threads.
+     *
+     * @param phase  phase
+     * @param durationNanos  duration in nanoseconds
+     * @param count  number of processed items
+     * @param bytes  number of processed bytes, 0 if unknown
+     */
+    default void phaseRecorded(ProvisioningPhase phase, long durationNanos, long count, long bytes) {
+    }
+
+    /**
+     * Called once the operation has completed, successfully or not.
+     *
+     * @param metrics  metrics of the operation
+     */
+    void completed(ProvisioningMetrics metrics);
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.metrics;
+
+/**
+ * Phases of a provisioning operation measured by {@link ProvisioningMetrics}.
+ * Some of the phases are nested in others, e.g. the artifact resolution is a part
+ * of building the layout and the spec parsing happens while the configs are resolved.
+ */
+public enum ProvisioningPhase {
+
+    /** Building the provisioning layout, including the resolution of the feature-packs */
+    LAYOUT("layout"),
+    /** Resolving feature-pack artifacts from the universes, the bytes are the sizes of the artifacts */
+    ARTIFACT_RESOLUTION("artifact-resolution"),
+    /** Parsing feature specs, feature groups, configs and layers, cached specs are not counted */
+    SPEC_PARSING("spec-parsing"),
+    /** Ordering the features of the configs, the count is the number of features */
+    CONFIG_ORDERING("config-ordering"),
+    /** Copying the content of the packages to the staged directory, the count is the number of packages */
+    PACKAGE_COPY("package-copy"),
+    /** Invoking the pre-install plugins */
+    PRE_INSTALL_PLUGINS("pre-install-plugins"),
+    /** Invoking the post-install plugins */
+    POST_INSTALL_PLUGINS("post-install-plugins"),
+    /** Hashing the provisioned files to record the state of the installation */
+    HASHING("hashing"),
+    /** Detecting the user changes in the installation */
+    FS_DIFF("fs-diff"),
+    /** Moving the provisioned content from the staged directory to the installation */
+    STAGED_PROMOTION("staged-promotion");
+
+    private final String name;
+
+    ProvisioningPhase(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return  name of the phase used in the JSON representation of the metrics
+     */
+    public String getName() {
+        return name;
+    }
+}
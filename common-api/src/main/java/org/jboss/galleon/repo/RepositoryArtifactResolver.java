@@ -17,6 +17,9 @@
 package org.jboss.galleon.repo;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import org.jboss.galleon.ProvisioningException;
 
@@ -31,4 +34,21 @@ public interface RepositoryArtifactResolver {
     String getRepositoryId();
 
     Path resolve(String location) throws ProvisioningException;
+
+    /**
+     * Resolves artifact locations to paths in a local repository.
+     * Resolvers that support batch resolution should override this method
+     * to resolve the locations in a single request.
+     *
+     * @param locations  artifact locations
+     * @return  local artifact paths in the iteration order of the locations
+     * @throws ProvisioningException  in case any of the artifacts could not be resolved
+     */
+    default List<Path> resolveLocations(Collection<String> locations) throws ProvisioningException {
+        final List<Path> paths = new ArrayList<>(locations.size());
+        for(String location : locations) {
+            paths.add(resolve(location));
+        }
+        return paths;
+    }
 }
@@ -17,6 +17,8 @@
 package org.jboss.galleon.universe;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.jboss.galleon.ProvisioningException;
@@ -40,6 +42,23 @@ public interface Channel {
 
     Path resolve(FeaturePackLocation fpl) throws ProvisioningException;
 
+    /**
+     * Resolves feature-pack locations of this channel to paths in a local repository.
+     * Channels backed by a repository that supports batch resolution should override
+     * this method to resolve the locations in a single request.
+     *
+     * @param fpls  feature-pack locations
+     * @return  local feature-pack paths in the iteration order of the locations
+     * @throws ProvisioningException  in case any of the feature-packs could not be resolved
+     */
+    default List<Path> resolveAll(Collection<FeaturePackLocation> fpls) throws ProvisioningException {
+        final List<Path> paths = new ArrayList<>(fpls.size());
+        for(FeaturePackLocation fpl : fpls) {
+            paths.add(resolve(fpl));
+        }
+        return paths;
+    }
+
     boolean isResolved(FeaturePackLocation fpl) throws ProvisioningException;
 
     default FeaturePackUpdatePlan getUpdatePlan(FeaturePackUpdatePlan.Request updateRequest) throws ProvisioningException {
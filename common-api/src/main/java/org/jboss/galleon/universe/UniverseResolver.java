@@ -17,7 +17,13 @@
 package org.jboss.galleon.universe;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -127,6 +133,54 @@ public class UniverseResolver {
         return getUniverse(fpl.getUniverse()).getProducer(fpl.getProducerName()).getChannel(fpl.getChannelName()).resolve(fpl);
     }
 
+    /**
+     * Resolves feature-pack locations to paths in a local repository.
+     * The locations are grouped by channel and each channel resolves its locations
+     * in a single request, if it supports that.
+     *
+     * @param fpls  feature-pack locations
+     * @return  local feature-pack paths in the iteration order of the locations
+     * @throws ProvisioningException  in case any of the feature-packs could not be resolved
+     */
+    public List<Path> resolveAll(Collection<FeaturePackLocation> fpls) throws ProvisioningException {
+        final Path[] paths = new Path[fpls.size()];
+        final Map<Channel, List<FeaturePackLocation>> channelFpls = new LinkedHashMap<>();
+        final Map<Channel, List<Integer>> channelIndexes = new HashMap<>();
+        int i = 0;
+        for(FeaturePackLocation fpl : fpls) {
+            final Path localPath = localFeaturePacks.get(fpl.getFPID());
+            if(localPath != null) {
+                paths[i++] = localPath;
+                continue;
+            }
+            final Channel channel = getUniverse(fpl.getUniverse()).getProducer(fpl.getProducerName()).getChannel(fpl.getChannelName());
+            List<FeaturePackLocation> locations = channelFpls.get(channel);
+            List<Integer> indexes = channelIndexes.get(channel);
+            if(locations == null) {
+                locations = new ArrayList<>();
+                channelFpls.put(channel, locations);
+                indexes = new ArrayList<>();
+                channelIndexes.put(channel, indexes);
+            }
+            locations.add(fpl);
+            indexes.add(i++);
+        }
+        for(Map.Entry<Channel, List<FeaturePackLocation>> entry : channelFpls.entrySet()) {
+            final Channel channel = entry.getKey();
+            final List<FeaturePackLocation> locations = entry.getValue();
+            final List<Integer> indexes = channelIndexes.get(channel);
+            if(locations.size() == 1) {
+                paths[indexes.get(0)] = channel.resolve(locations.get(0));
+                continue;
+            }
+            final List<Path> channelPaths = channel.resolveAll(locations);
+            for(int j = 0; j < indexes.size(); ++j) {
+                paths[indexes.get(j)] = channelPaths.get(j);
+            }
+        }
+        return Arrays.asList(paths);
+    }
+
     public boolean isResolved(FeaturePackLocation fpl) throws ProvisioningException {
         return getUniverse(fpl.getUniverse()).getProducer(fpl.getProducerName()).getChannel(fpl.getChannelName()).isResolved(fpl);
     }
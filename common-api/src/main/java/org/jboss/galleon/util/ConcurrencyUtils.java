@@ -0,0 +1,173 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.galleon.ProvisioningException;
+
+/**
+ * Helpers to run independent provisioning tasks on a bounded pool of daemon threads.
+ */
+public class ConcurrencyUtils {
+
+    /**
+     * Parses a worker count value.
+     *
+     * @param value  the value to parse, may be null
+     * @param defaultValue  the value to return if the value is null
+     * @return  the worker count
+     * @throws IllegalArgumentException  in case the value is not a positive integer
+     */
+    public static int parseThreads(String value, int defaultValue) {
+        if(value == null) {
+            return defaultValue;
+        }
+        final int threads;
+        try {
+            threads = Integer.parseInt(value.trim());
+        } catch(NumberFormatException e) {
+            throw new IllegalArgumentException(value + " is not a positive integer");
+        }
+        if(threads < 1) {
+            throw new IllegalArgumentException(value + " is not a positive integer");
+        }
+        return threads;
+    }
+
+    /**
+     * Creates a fixed thread pool of daemon threads.
+     *
+     * @param name  thread name prefix
+     * @param threads  number of threads
+     * @return  executor service
+     */
+    public static ExecutorService newExecutor(String name, int threads) {
+        final AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                final Thread thread = new Thread(r, name + '-' + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Executes the tasks using the specified number of threads and waits for all of them to complete.
+     * If the number of threads is 1 or there is only one task, the tasks are executed
+     * sequentially by the calling thread.
+     * In case of a failure, the error of the first failed task in the iteration order
+     * of the collection is re-thrown and the tasks that haven't started yet are cancelled.
+     *
+     * @param name  thread name prefix
+     * @param threads  maximum number of threads
+     * @param tasks  tasks to execute
+     * @return  results of the tasks in the iteration order of the collection
+     * @throws ProvisioningException  in case any of the tasks failed
+     */
+    public static <T> List<T> invokeAll(String name, int threads, Collection<? extends Callable<T>> tasks) throws ProvisioningException {
+        final List<T> results = new ArrayList<>(tasks.size());
+        if(threads <= 1 || tasks.size() <= 1) {
+            for(Callable<T> task : tasks) {
+                try {
+                    results.add(task.call());
+                } catch (Exception e) {
+                    throw toProvisioningException(e);
+                }
+            }
+            return results;
+        }
+        final ExecutorService executor = newExecutor(name, Math.min(threads, tasks.size()));
+        try {
+            return invokeAll(executor, tasks);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Submits the tasks to the executor and waits for all of them to complete.
+     * In case of a failure, the error of the first failed task in the iteration order
+     * of the collection is re-thrown and the remaining tasks are cancelled.
+     *
+     * @param executor  executor to submit the tasks to
+     * @param tasks  tasks to execute
+     * @return  results of the tasks in the iteration order of the collection
+     * @throws ProvisioningException  in case any of the tasks failed
+     */
+    public static <T> List<T> invokeAll(ExecutorService executor, Collection<? extends Callable<T>> tasks) throws ProvisioningException {
+        final List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for(Callable<T> task : tasks) {
+            futures.add(executor.submit(task));
+        }
+        final List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(getResult(future));
+            }
+        } finally {
+            if(results.size() < futures.size()) {
+                for(Future<T> future : futures) {
+                    future.cancel(true);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Waits for the task to complete and returns its result.
+     *
+     * @param future  the task to wait for
+     * @return  result of the task
+     * @throws ProvisioningException  in case the task failed or the thread was interrupted
+     */
+    public static <T> T getResult(Future<T> future) throws ProvisioningException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProvisioningException("Interrupted while waiting for tasks to complete", e);
+        } catch (ExecutionException e) {
+            throw toProvisioningException(e.getCause());
+        }
+    }
+
+    private static ProvisioningException toProvisioningException(Throwable t) {
+        if(t instanceof ProvisioningException) {
+            return (ProvisioningException) t;
+        }
+        if(t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if(t instanceof Error) {
+            throw (Error) t;
+        }
+        return new ProvisioningException(t);
+    }
+}
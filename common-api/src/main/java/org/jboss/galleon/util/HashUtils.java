@@ -16,19 +16,31 @@
  */
 package org.jboss.galleon.util;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystem;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+
+import org.jboss.galleon.ProvisioningException;
 
 /**
+ * SHA-1 hashing utilities. Each thread uses its own digest and read buffer,
+ * so hashing in different threads does not contend on a shared lock.
  *
  * @author Alexey Loubyansky
  */
@@ -36,36 +48,112 @@ public class HashUtils {
 
     private static final char[] TABLE = "0123456789abcdef".toCharArray();
 
-    private static final MessageDigest DIGEST;
-    static {
-        try {
-            DIGEST = MessageDigest.getInstance("SHA-1");
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<MessageDigest> DIGEST = new ThreadLocal<MessageDigest>() {
+        @Override
+        protected MessageDigest initialValue() {
+            try {
+                return MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
         }
+    };
+
+    private static final ThreadLocal<ByteBuffer> BUFFER = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+    };
+
+    private static MessageDigest getDigest() {
+        final MessageDigest digest = DIGEST.get();
+        digest.reset();
+        return digest;
     }
 
     public static byte[] hashPath(Path path) throws IOException {
-        synchronized (DIGEST) {
-            DIGEST.reset();
-            updateDigest(DIGEST, path);
-            return DIGEST.digest();
-        }
+        final MessageDigest digest = getDigest();
+        updateDigest(digest, path);
+        return digest.digest();
     }
 
     public static String hashFile(Path path) throws IOException {
-        synchronized (DIGEST) {
-            DIGEST.reset();
-            updateDigest(DIGEST, path);
-            return bytesToHexString(DIGEST.digest());
-        }
+        return bytesToHexString(hashPath(path));
     }
 
     public static String hash(String content) throws IOException {
-        synchronized (DIGEST) {
-            DIGEST.reset();
-            DIGEST.update(content.getBytes(StandardCharsets.UTF_8));
-            return bytesToHexString(DIGEST.digest());
+        final MessageDigest digest = getDigest();
+        digest.update(content.getBytes(StandardCharsets.UTF_8));
+        return bytesToHexString(digest.digest());
+    }
+
+    /**
+     * Hashes every regular file found under the directory (or the path itself, if it is a file)
+     * using up to the specified number of threads.
+     *
+     * @param root  directory to hash the files of
+     * @param filter  filter applied to the paths relative to the root, subtrees of rejected directories are skipped
+     * @param threads  maximum number of threads
+     * @return  file hashes keyed by the paths relative to the root, sorted by path
+     * @throws IOException  in case reading any of the files failed
+     */
+    public static Map<Path, byte[]> hashFiles(Path root, PathFilter filter, int threads) throws IOException {
+        final List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(root)) {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    return filter.accept(root.relativize(dir)) ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile() && filter.accept(root.relativize(file))) {
+                        files.add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } else {
+            files.add(root);
+        }
+        final List<byte[]> hashes = hashPaths(files, threads);
+        final Map<Path, byte[]> result = new TreeMap<>();
+        for (int i = 0; i < files.size(); ++i) {
+            result.put(root.relativize(files.get(i)), hashes.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Hashes the paths using up to the specified number of threads.
+     * The hash of each path is computed the same way {@link #hashPath(Path)} does.
+     *
+     * @param paths  paths to hash
+     * @param threads  maximum number of threads
+     * @return  hashes of the paths in the iteration order of the collection
+     * @throws IOException  in case reading any of the paths failed
+     */
+    public static List<byte[]> hashPaths(Collection<Path> paths, int threads) throws IOException {
+        final List<Callable<byte[]>> tasks = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            tasks.add(new Callable<byte[]>() {
+                @Override
+                public byte[] call() throws IOException {
+                    return hashPath(path);
+                }
+            });
+        }
+        try {
+            return ConcurrencyUtils.invokeAll("Galleon hashing", threads, tasks);
+        } catch (ProvisioningException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e);
         }
     }
 
@@ -81,38 +169,38 @@ public class HashUtils {
                 }
             }
         } else {
-            try (BufferedInputStream bis = new BufferedInputStream(Files.newInputStream(path))){
-                byte[] bytes = new byte[8192];
-                int read;
-                while ((read = bis.read(bytes)) > -1) {
-                    digest.update(bytes, 0, read);
+            final ByteBuffer buffer = BUFFER.get();
+            try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+                buffer.clear();
+                while (channel.read(buffer) > -1) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
                 }
             }
         }
     }
 
     public static byte[] hashJar(Path jarFile, boolean ignoreManifest) throws IOException {
-        synchronized (DIGEST) {
-            DIGEST.reset();
-            try (FileSystem zipfs = ZipUtils.newFileSystem(jarFile)) {
-                for (Path zipRoot : zipfs.getRootDirectories()) {
-                    final Map<String, Path> sortedChildren = new TreeMap<String, Path>();
-                    try(DirectoryStream<Path> stream = Files.newDirectoryStream(zipRoot)) {
-                        for(Path p : stream) {
-                            final String fileName = p.getFileName().toString();
-                            if(ignoreManifest && fileName.equals("META-INF/")) {
-                                continue;
-                            }
-                            sortedChildren.put(fileName, p);
+        final MessageDigest digest = getDigest();
+        try (FileSystem zipfs = ZipUtils.newFileSystem(jarFile)) {
+            for (Path zipRoot : zipfs.getRootDirectories()) {
+                final Map<String, Path> sortedChildren = new TreeMap<String, Path>();
+                try(DirectoryStream<Path> stream = Files.newDirectoryStream(zipRoot)) {
+                    for(Path p : stream) {
+                        final String fileName = p.getFileName().toString();
+                        if(ignoreManifest && fileName.equals("META-INF/")) {
+                            continue;
                         }
+                        sortedChildren.put(fileName, p);
                     }
-                    for (Path child : sortedChildren.values()) {
-                        updateDigest(DIGEST, child);
-                    }
+                }
+                for (Path child : sortedChildren.values()) {
+                    updateDigest(digest, child);
                 }
             }
-            return DIGEST.digest();
         }
+        return digest.digest();
     }
 
     /**
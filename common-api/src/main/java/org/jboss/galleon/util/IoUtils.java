@@ -21,11 +21,15 @@ import java.io.IOException;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.AccessDeniedException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.CopyOption;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.FileVisitOption;
 import java.nio.file.FileVisitResult;
 import java.nio.file.FileVisitor;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
@@ -152,6 +156,22 @@ public class IoUtils {
     }
 
     public static void copy(Path source, Path target, boolean skipExistingFiles) throws IOException {
+        copy(source, target, skipExistingFiles, false);
+    }
+
+    /**
+     * Copies a file or a directory.
+     *
+     * @param source  file or directory to copy
+     * @param target  target path
+     * @param skipExistingFiles  whether existing target files that can't be overwritten should be skipped
+     * @param copyAttributes  whether file attributes, such as the last modified time, should be copied
+     * @throws IOException  in case of a failure
+     */
+    public static void copy(Path source, Path target, boolean skipExistingFiles, boolean copyAttributes) throws IOException {
+        final CopyOption[] fileCopyOptions = copyAttributes
+                ? new CopyOption[] {StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES}
+                : new CopyOption[] {StandardCopyOption.REPLACE_EXISTING};
         if(Files.isDirectory(source)) {
             Files.createDirectories(target);
         } else {
@@ -181,7 +201,7 @@ public class IoUtils {
                         throws IOException {
                         final Path targetFile = target.resolve(source.relativize(file).toString());
                         try {
-                            Files.copy(file, targetFile, StandardCopyOption.REPLACE_EXISTING);
+                            Files.copy(file, targetFile, fileCopyOptions);
                         } catch (AccessDeniedException e) {
                             if (!skipExistingFiles || !Files.exists(targetFile)) {
                                 throw e;
@@ -192,6 +212,38 @@ public class IoUtils {
                 });
     }
 
+    /**
+     * Moves the children of the source directory into the target directory.
+     * A child that does not exist in the target directory is renamed atomically if
+     * both directories are on the same file store, otherwise it is copied
+     * with its attributes. A child that already exists in the target directory
+     * is merged into it by copying.
+     *
+     * @param source  directory whose children should be moved
+     * @param target  target directory
+     * @param skipExistingFiles  whether existing target files that can't be overwritten should be skipped
+     * @throws IOException  in case of a failure
+     */
+    public static void moveChildren(Path source, Path target, boolean skipExistingFiles) throws IOException {
+        Files.createDirectories(target);
+        boolean move = true;
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(source)) {
+            for(Path child : stream) {
+                final Path targetChild = target.resolve(child.getFileName().toString());
+                if(move && !Files.exists(targetChild, LinkOption.NOFOLLOW_LINKS)) {
+                    try {
+                        Files.move(child, targetChild, StandardCopyOption.ATOMIC_MOVE);
+                        continue;
+                    } catch(AtomicMoveNotSupportedException e) {
+                        // different file stores
+                        move = false;
+                    }
+                }
+                copy(child, targetChild, skipExistingFiles, true);
+            }
+        }
+    }
+
     public static String readFile(Path file) throws IOException {
         if(charBuffer == null) {
             charBuffer = new char[DEFAULT_BUFFER_SIZE];
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.xml;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.galleon.xml.util.ElementWriter;
+import org.jboss.galleon.xml.util.FormattingXmlStreamWriter;
+
+/**
+ * Base for the writers that stream the elements representing an object
+ * to the output instead of building the element tree first.
+ *
+ * @see BaseXmlWriter
+ */
+public abstract class BaseStreamingXmlWriter<T> {
+
+    // output factories are thread-safe once configured
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    public static void ensureParentDir(Path p) throws IOException {
+        if(!Files.exists(p.getParent())) {
+            Files.createDirectories(p.getParent());
+        }
+    }
+
+    public void write(T t, Path outputFile) throws XMLStreamException, IOException {
+        ensureParentDir(outputFile);
+        try(Writer writer = Files.newBufferedWriter(outputFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(t, writer);
+        }
+    }
+
+    public void write(T t, Writer stream) throws XMLStreamException, IOException {
+        try (FormattingXmlStreamWriter writer = new FormattingXmlStreamWriter(OUTPUT_FACTORY.createXMLStreamWriter(stream))) {
+            writer.writeStartDocument();
+            marshall(t, new ElementWriter(writer));
+            writer.writeEndDocument();
+        }
+    }
+
+    /**
+     * Writes the root element representing the object.
+     *
+     * @param t  object to write
+     * @param writer  element writer
+     * @throws XMLStreamException  in case of a failure
+     */
+    protected abstract void marshall(T t, ElementWriter writer) throws XMLStreamException;
+}
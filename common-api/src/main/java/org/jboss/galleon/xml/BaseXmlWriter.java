@@ -16,30 +16,17 @@
  */
 package org.jboss.galleon.xml;
 
-import java.io.IOException;
-import java.io.Writer;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
-
-import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 
 import org.jboss.galleon.xml.util.AttributeValue;
 import org.jboss.galleon.xml.util.ElementNode;
-import org.jboss.galleon.xml.util.FormattingXmlStreamWriter;
+import org.jboss.galleon.xml.util.ElementWriter;
 
 /**
  *
  * @author Alexey Loubyansky
  */
-public abstract class BaseXmlWriter<T> {
-
-    public static void ensureParentDir(Path p) throws IOException {
-        if(!Files.exists(p.getParent())) {
-            Files.createDirectories(p.getParent());
-        }
-    }
+public abstract class BaseXmlWriter<T> extends BaseStreamingXmlWriter<T> {
 
     public static ElementNode addElement(ElementNode parent, XmlNameProvider e) {
         return addElement(parent, e.getLocalName(), e.getNamespace());
@@ -61,21 +48,9 @@ public abstract class BaseXmlWriter<T> {
         e.addAttribute(name, new AttributeValue(value));
     }
 
-    public void write(T t, Path outputFile) throws XMLStreamException, IOException {
-        ensureParentDir(outputFile);
-        try(Writer writer = Files.newBufferedWriter(outputFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
-            write(t, writer);
-        }
-    }
-
-    public void write(T t, Writer stream) throws XMLStreamException, IOException {
-        final ElementNode root = toElement(t);
-        try (FormattingXmlStreamWriter writer = new FormattingXmlStreamWriter(XMLOutputFactory.newInstance()
-                .createXMLStreamWriter(stream))) {
-            writer.writeStartDocument();
-            root.marshall(writer);
-            writer.writeEndDocument();
-        }
+    @Override
+    protected void marshall(T t, ElementWriter writer) throws XMLStreamException {
+        writer.element(toElement(t));
     }
 
     protected abstract ElementNode toElement(T type) throws XMLStreamException;
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.xml.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jboss.galleon.xml.XmlNameProvider;
+
+/**
+ * Writes elements directly to an XML stream writer producing the same output
+ * {@link ElementNode#marshall(XMLStreamWriter)} would produce for the equivalent tree.
+ *
+ * <p>The start of an element is written only once its first child or the end of the element
+ * is reached, so the attributes can be added after the element has been started
+ * and elements without children are written as empty elements.
+ */
+public class ElementWriter {
+
+    private final XMLStreamWriter writer;
+    private String name;
+    private String namespace;
+    private final List<String> attrNames = new ArrayList<>();
+    private final List<String> attrValues = new ArrayList<>();
+
+    public ElementWriter(XMLStreamWriter writer) {
+        this.writer = writer;
+    }
+
+    public ElementWriter startElement(XmlNameProvider name) throws XMLStreamException {
+        return startElement(name.getLocalName(), name.getNamespace());
+    }
+
+    public ElementWriter startElement(String localName, String ns) throws XMLStreamException {
+        if(name != null) {
+            writeStart(false);
+        }
+        name = localName;
+        namespace = ns == null || ns.isEmpty() ? null : ns;
+        return this;
+    }
+
+    public ElementWriter attribute(XmlNameProvider name, String value) throws XMLStreamException {
+        return attribute(name.getLocalName(), value);
+    }
+
+    /**
+     * Adds an attribute to the most recently started element, which may not have children yet.
+     * Adding an attribute that has already been added replaces its value.
+     */
+    public ElementWriter attribute(String name, String value) throws XMLStreamException {
+        if(this.name == null) {
+            throw new XMLStreamException("The attribute " + name + " can't be added to an element that already has children");
+        }
+        final int i = attrNames.indexOf(name);
+        if(i < 0) {
+            attrNames.add(name);
+            attrValues.add(value);
+        } else {
+            attrValues.set(i, value);
+        }
+        return this;
+    }
+
+    public ElementWriter text(String text) throws XMLStreamException {
+        if(name != null) {
+            writeStart(false);
+        }
+        writer.writeCharacters(text);
+        return this;
+    }
+
+    /**
+     * Writes a complete element built as a tree as a child of the current element.
+     */
+    public ElementWriter element(Node node) throws XMLStreamException {
+        if(name != null) {
+            writeStart(false);
+        }
+        node.marshall(writer);
+        return this;
+    }
+
+    public ElementWriter endElement() throws XMLStreamException {
+        if(name != null) {
+            writeStart(true);
+        } else {
+            writer.writeEndElement();
+        }
+        return this;
+    }
+
+    private void writeStart(boolean empty) throws XMLStreamException {
+        final String prefix = writer.getNamespaceContext().getPrefix(namespace);
+        if (prefix == null) {
+            // Unknown namespace; it becomes default
+            writer.setDefaultNamespace(namespace);
+            if (empty) {
+                writer.writeEmptyElement(name);
+            } else {
+                writer.writeStartElement(name);
+            }
+            writer.writeNamespace(null, namespace);
+        } else if (empty) {
+            writer.writeEmptyElement(namespace, name);
+        } else {
+            writer.writeStartElement(namespace, name);
+        }
+        for(int i = 0; i < attrNames.size(); ++i) {
+            writer.writeAttribute(attrNames.get(i), attrValues.get(i));
+        }
+        name = null;
+        namespace = null;
+        attrNames.clear();
+        attrValues.clear();
+    }
+}
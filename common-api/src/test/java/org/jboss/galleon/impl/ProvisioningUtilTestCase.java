@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.api.GalleonFeaturePackDescription;
+import org.jboss.galleon.universe.FeaturePackLocation;
+import org.jboss.galleon.util.IoUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProvisioningUtilTestCase {
+
+    private static final String FPL = "prod1@maven(org.jboss.universe:community-universe):1#1.0.0.Final";
+
+    private Path root;
+
+    @Before
+    public void before() throws Exception {
+        root = IoUtils.createRandomTmpDir();
+    }
+
+    @After
+    public void after() {
+        IoUtils.recursiveDelete(root);
+    }
+
+    @Test
+    public void testDescriptionIsReadFromArchive() throws Exception {
+        final Path fp = root.resolve("fp.zip");
+        writeFeaturePack(fp, "6.0.0.Final");
+
+        assertTrue(ProvisioningUtil.isFeaturePack(fp));
+        final GalleonFeaturePackDescription description = ProvisioningUtil.getFeaturePackDescription(fp);
+        assertEquals(FeaturePackLocation.fromString(FPL).getFPID(), description.getProducer());
+        assertEquals("6.0.0.Final", description.getGalleonVersion());
+        assertEquals(FeaturePackLocation.fromString(FPL).getFPID(), ProvisioningUtil.getFeaturePackProducer(fp));
+        assertEquals("6.0.0.Final", ProvisioningUtil.getCoreVersion(fp, "5.0.0.Final", null));
+        assertEquals("7.0.0.Final", ProvisioningUtil.getCoreVersion(fp, "7.0.0.Final", null));
+    }
+
+    @Test
+    public void testModifiedArchiveIsReadAgain() throws Exception {
+        final Path fp = root.resolve("fp.zip");
+        writeFeaturePack(fp, "6.0.0.Final");
+        Files.setLastModifiedTime(fp, FileTime.fromMillis(1000000));
+        assertEquals("6.0.0.Final", ProvisioningUtil.getFeaturePackDescription(fp).getGalleonVersion());
+
+        writeFeaturePack(fp, "6.1.0.Final");
+        Files.setLastModifiedTime(fp, FileTime.fromMillis(2000000));
+        assertEquals("6.1.0.Final", ProvisioningUtil.getFeaturePackDescription(fp).getGalleonVersion());
+    }
+
+    @Test
+    public void testNotFeaturePack() throws Exception {
+        final Path zip = root.resolve("other.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("other.xml"));
+            out.write("<other/>".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        assertFalse(ProvisioningUtil.isFeaturePack(zip));
+        assertFalse(ProvisioningUtil.isFeaturePack(root.resolve("missing.zip")));
+    }
+
+    private static void writeFeaturePack(Path zip, String galleonVersion) throws Exception {
+        try (OutputStream os = Files.newOutputStream(zip); ZipOutputStream out = new ZipOutputStream(os)) {
+            out.putNextEntry(new ZipEntry("resources/"));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry(Constants.FEATURE_PACK_XML));
+            out.write(("<feature-pack xmlns=\"urn:jboss:galleon:feature-pack:2.0\" location=\"" + FPL
+                    + "\" galleon-min-version=\"" + galleonVersion + "\"/>").getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HashUtilsTestCase {
+
+    private Path root;
+
+    @Before
+    public void before() throws Exception {
+        root = IoUtils.createRandomTmpDir();
+        write("a.txt", "a");
+        write("dir/b.txt", "b");
+        write("dir/sub/c.txt", "c");
+        final byte[] big = new byte[200 * 1024 + 17];
+        for (int i = 0; i < big.length; ++i) {
+            big[i] = (byte) i;
+        }
+        Files.write(root.resolve("big.bin"), big);
+        write("skipped/d.txt", "d");
+    }
+
+    @After
+    public void after() {
+        IoUtils.recursiveDelete(root);
+    }
+
+    @Test
+    public void testHashPathMatchesMessageDigest() throws Exception {
+        final byte[] content = Files.readAllBytes(root.resolve("big.bin"));
+        assertArrayEquals(MessageDigest.getInstance("SHA-1").digest(content), HashUtils.hashPath(root.resolve("big.bin")));
+        assertEquals(HashUtils.bytesToHexString(MessageDigest.getInstance("SHA-1").digest("a".getBytes(StandardCharsets.UTF_8))),
+                HashUtils.hash("a"));
+    }
+
+    @Test
+    public void testParallelHashFiles() throws Exception {
+        final Map<Path, byte[]> hashes = HashUtils.hashFiles(root, p -> !p.toString().equals("skipped"), 4);
+        assertEquals(Arrays.asList(Paths.get("a.txt"), Paths.get("big.bin"), Paths.get("dir/b.txt"), Paths.get("dir/sub/c.txt")),
+                Arrays.asList(hashes.keySet().toArray()));
+        final Iterator<Map.Entry<Path, byte[]>> i = hashes.entrySet().iterator();
+        while (i.hasNext()) {
+            final Map.Entry<Path, byte[]> entry = i.next();
+            assertArrayEquals(entry.getKey().toString(), HashUtils.hashPath(root.resolve(entry.getKey())), entry.getValue());
+        }
+    }
+
+    private void write(String relativePath, String content) throws Exception {
+        final Path p = root.resolve(relativePath);
+        Files.createDirectories(p.getParent());
+        Files.write(p, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IoUtilsTestCase {
+
+    private Path root;
+
+    @Before
+    public void before() throws Exception {
+        root = IoUtils.createRandomTmpDir();
+    }
+
+    @After
+    public void after() {
+        IoUtils.recursiveDelete(root);
+    }
+
+    @Test
+    public void testMoveChildren() throws Exception {
+        final Path source = root.resolve("source");
+        final Path target = root.resolve("target");
+        write(source.resolve("a.txt"), "a");
+        write(source.resolve("dir/b.txt"), "b");
+        write(source.resolve("kept/new.txt"), "new");
+        write(source.resolve("kept/existing.txt"), "staged");
+        write(target.resolve("kept/existing.txt"), "existing");
+        write(target.resolve("kept/other.txt"), "other");
+        final FileTime time = FileTime.fromMillis(1000000000000L);
+        Files.setLastModifiedTime(source.resolve("dir/b.txt"), time);
+
+        IoUtils.moveChildren(source, target, true);
+
+        assertEquals("a", IoUtils.readFile(target.resolve("a.txt")));
+        assertEquals("b", IoUtils.readFile(target.resolve("dir/b.txt")));
+        assertEquals(time, Files.getLastModifiedTime(target.resolve("dir/b.txt")));
+        assertEquals("new", IoUtils.readFile(target.resolve("kept/new.txt")));
+        assertEquals("staged", IoUtils.readFile(target.resolve("kept/existing.txt")));
+        assertEquals("other", IoUtils.readFile(target.resolve("kept/other.txt")));
+        assertFalse(Files.exists(source.resolve("a.txt")));
+        assertFalse(Files.exists(source.resolve("dir")));
+    }
+
+    private static void write(Path p, String content) throws Exception {
+        Files.createDirectories(p.getParent());
+        Files.write(p, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
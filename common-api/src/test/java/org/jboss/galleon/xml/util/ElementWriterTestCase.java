@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.xml.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringWriter;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Test;
+
+public class ElementWriterTestCase {
+
+    private static final String NS = "urn:test:1.0";
+
+    private interface Marshaller {
+        void marshall(FormattingXmlStreamWriter writer) throws XMLStreamException;
+    }
+
+    @Test
+    public void testSameOutputAsElementNode() throws Exception {
+        final ElementNode root = new ElementNode(null, "root", NS);
+        root.addAttribute("a", new AttributeValue("1"));
+        final ElementNode empty = new ElementNode(root, "empty");
+        empty.addAttribute("b", new AttributeValue("x & <y>"));
+        root.addChild(empty);
+        final ElementNode text = new ElementNode(root, "text");
+        text.addChild(new TextNode("some text"));
+        root.addChild(text);
+        final ElementNode nested = new ElementNode(root, "nested");
+        final ElementNode child = new ElementNode(nested, "child");
+        child.addAttribute("c", new AttributeValue("2"));
+        nested.addChild(child);
+        nested.addChild(new ElementNode(nested, "child"));
+        root.addChild(nested);
+        root.addChild(new ElementNode(root, "no-attrs"));
+
+        final String expected = marshall(writer -> root.marshall(writer));
+
+        final String actual = marshall(writer -> {
+            final ElementWriter elements = new ElementWriter(writer);
+            elements.startElement("root", NS).attribute("a", "0").attribute("a", "1");
+            elements.startElement("empty", NS).attribute("b", "x & <y>").endElement();
+            elements.startElement("text", NS).text("some text").endElement();
+            elements.element(nested);
+            elements.startElement("no-attrs", NS).endElement();
+            elements.endElement();
+        });
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testEmptyRoot() throws Exception {
+        final ElementNode root = new ElementNode(null, "root", NS);
+        root.addAttribute("a", new AttributeValue("1"));
+        final String expected = marshall(writer -> root.marshall(writer));
+        final String actual = marshall(writer -> new ElementWriter(writer).startElement("root", NS).attribute("a", "1").endElement());
+        assertEquals(expected, actual);
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testAttributeAfterChild() throws Exception {
+        marshall(writer -> {
+            final ElementWriter elements = new ElementWriter(writer);
+            elements.startElement("root", NS);
+            elements.startElement("child", NS).endElement();
+            elements.attribute("a", "1");
+        });
+    }
+
+    private static String marshall(Marshaller marshaller) throws XMLStreamException {
+        final StringWriter out = new StringWriter();
+        try (FormattingXmlStreamWriter writer = new FormattingXmlStreamWriter(XMLOutputFactory.newInstance().createXMLStreamWriter(out))) {
+            writer.writeStartDocument();
+            marshaller.marshall(writer);
+            writer.writeEndDocument();
+        }
+        return out.toString();
+    }
+}
@@ -88,7 +88,7 @@ public interface Errors {
     }
 
     static String readFile(Path p) {
-        return "Failed to read " + p.toAbsolutePath();
+        return BaseErrors.readFile(p);
     }
 
     static String parseXml() {
@@ -453,6 +453,14 @@ public interface Errors {
         return buf.toString();
     }
 
+    static String readOnlyRuntime() {
+        return "The provisioning runtime was created for read-only queries and can't be provisioned";
+    }
+
+    static String provisioningOptionNotPositiveInteger(String name, String setValue) {
+        return "The value " + setValue + " of the provisioning option " + name + " is not a positive integer";
+    }
+
     static String pluginOptionsNotRecognized(Collection<String> names) {
         final StringBuilder buf = new StringBuilder("The following plugin options are not recognized: ");
         if(names.size() > 1) {
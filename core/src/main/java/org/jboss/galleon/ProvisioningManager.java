@@ -18,27 +18,36 @@ package org.jboss.galleon;
 
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeSet;
+import java.util.Set;
 
 import org.jboss.galleon.config.FeaturePackConfig;
 import org.jboss.galleon.config.ProvisioningConfig;
 import org.jboss.galleon.diff.FsDiff;
 import org.jboss.galleon.diff.FsEntry;
 import org.jboss.galleon.diff.FsEntryFactory;
+import org.jboss.galleon.diff.FsEntryIndex;
 import org.jboss.galleon.diff.ProvisioningDiffProvider;
 import org.jboss.galleon.layout.FeaturePackPluginVisitor;
 import org.jboss.galleon.layout.ProvisioningLayout;
 import org.jboss.galleon.layout.ProvisioningLayoutFactory;
+import org.jboss.galleon.metrics.ProvisioningMetrics;
+import org.jboss.galleon.metrics.ProvisioningMetricsListener;
+import org.jboss.galleon.metrics.ProvisioningPhase;
 import org.jboss.galleon.layout.ProvisioningPlan;
 import org.jboss.galleon.plugin.StateDiffPlugin;
 import org.jboss.galleon.runtime.FeaturePackRuntimeBuilder;
@@ -68,7 +77,8 @@ import static org.jboss.galleon.Constants.PRINT_ONLY_CONFLICTS;
  */
 public class ProvisioningManager implements AutoCloseable {
 
-    private final boolean useLinuxLineEndings = Boolean.getBoolean(Constants.PROP_LINUX_LINE_ENDINGS);
+    private static final int FS_THREADS = Integer.getInteger(Constants.PROP_FS_THREADS, Runtime.getRuntime().availableProcessors());
+
 
     public static class Builder extends UniverseResolverBuilder<Builder> {
         private Path installationHome;
@@ -77,6 +87,9 @@ public class ProvisioningManager implements AutoCloseable {
         private UniverseResolver resolver;
         private boolean logTime;
         private boolean recordState = true;
+        private boolean strictFsDiff = Boolean.getBoolean(Constants.PROP_STRICT_FS_DIFF);
+        private ProvisioningMetricsListener metricsListener;
+        private Path metricsFile;
 
         private Builder() {
         }
@@ -134,6 +147,21 @@ public class ProvisioningManager implements AutoCloseable {
             return this;
         }
 
+        public Builder setStrictFsDiff(boolean strictFsDiff) {
+            this.strictFsDiff = strictFsDiff;
+            return this;
+        }
+
+        public Builder setMetricsListener(ProvisioningMetricsListener metricsListener) {
+            this.metricsListener = metricsListener;
+            return this;
+        }
+
+        public Builder setMetricsFile(Path metricsFile) {
+            this.metricsFile = metricsFile;
+            return this;
+        }
+
         public ProvisioningManager build() throws ProvisioningException {
             return new ProvisioningManager(this);
         }
@@ -156,6 +184,9 @@ public class ProvisioningManager implements AutoCloseable {
     private boolean closeLayoutFactory;
     private ProvisioningConfig provisioningConfig;
     private boolean recordState;
+    private boolean strictFsDiff;
+    private ProvisioningMetricsListener metricsListener;
+    private Path metricsFile;
 
     private ProvisioningManager(Builder builder) throws ProvisioningException {
         PathsUtils.assertInstallationDir(builder.installationHome);
@@ -170,6 +201,9 @@ public class ProvisioningManager implements AutoCloseable {
         }
         this.logTime = builder.logTime;
         this.recordState = builder.recordState;
+        this.strictFsDiff = builder.strictFsDiff;
+        this.metricsListener = builder.metricsListener;
+        this.metricsFile = builder.metricsFile;
     }
 
     /**
@@ -225,6 +259,41 @@ public class ProvisioningManager implements AutoCloseable {
         this.recordState = recordState;
     }
 
+    /**
+     * Whether the detection of the user changes compares the hashes of all the files
+     * of the installation. Otherwise, the files whose size and last modified time
+     * match the recorded ones are assumed to be unchanged and are not re-hashed.
+     *
+     * @return true if the hashes of all the files are compared, otherwise false
+     */
+    public boolean isStrictFsDiff() {
+        return strictFsDiff;
+    }
+
+    public void setStrictFsDiff(boolean strictFsDiff) {
+        this.strictFsDiff = strictFsDiff;
+    }
+
+    /**
+     * Sets the listener that receives the metrics of the provisioning operations
+     * performed by this manager.
+     *
+     * @param metricsListener  metrics listener or null
+     */
+    public void setMetricsListener(ProvisioningMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
+    /**
+     * Sets the file the metrics of each provisioning operation performed by this manager
+     * are written to in JSON format. The file is overwritten by every operation.
+     *
+     * @param metricsFile  target file or null
+     */
+    public void setMetricsFile(Path metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
     /**
      * Add named universe spec to the provisioning configuration
      *
@@ -352,10 +421,10 @@ public class ProvisioningManager implements AutoCloseable {
         if(config == null) {
             config = ProvisioningConfig.builder().build();
         }
-        try(ProvisioningLayout<FeaturePackRuntimeBuilder> layout = getLayoutFactory().newConfigLayout(config, ProvisioningRuntimeBuilder.FP_RT_FACTORY, false)) {
+        try(ProvisioningLayout<FeaturePackRuntimeBuilder> layout = getLayoutFactory().newConfigLayout(config, ProvisioningRuntimeBuilder.FP_RT_FACTORY, false, newMetrics())) {
             final UniverseSpec configuredUniverse = getConfiguredUniverse(fpConfig.getLocation());
             layout.install(configuredUniverse == null ? fpConfig : FeaturePackConfig.builder(fpConfig.getLocation().replaceUniverse(configuredUniverse)).init(fpConfig).build(), options);
-            doProvision(layout, getFsDiff(), false);
+            doProvision(layout, getFsDiff(layout.getMetrics()), false);
         }
     }
 
@@ -381,9 +450,9 @@ public class ProvisioningManager implements AutoCloseable {
         if(config == null || !config.hasFeaturePackDeps()) {
             throw new ProvisioningException(BaseErrors.unknownFeaturePack(fpid));
         }
-        try(ProvisioningLayout<FeaturePackRuntimeBuilder> layout = getLayoutFactory().newConfigLayout(config, ProvisioningRuntimeBuilder.FP_RT_FACTORY, false)) {
+        try(ProvisioningLayout<FeaturePackRuntimeBuilder> layout = getLayoutFactory().newConfigLayout(config, ProvisioningRuntimeBuilder.FP_RT_FACTORY, false, newMetrics())) {
             layout.uninstall(resolveUniverseSpec(fpid.getLocation()).getFPID(), pluginOptions);
-            doProvision(layout, getFsDiff(), false);
+            doProvision(layout, getFsDiff(layout.getMetrics()), false);
         }
     }
 
@@ -405,8 +474,8 @@ public class ProvisioningManager implements AutoCloseable {
      * @throws ProvisioningException  in case provisioning fails
      */
     public void provision(ProvisioningConfig provisioningConfig, Map<String, String> options) throws ProvisioningException {
-        try(ProvisioningLayout<FeaturePackRuntimeBuilder> layout = newConfigLayout(provisioningConfig, options)) {
-            doProvision(layout, getFsDiff(), false);
+        try(ProvisioningLayout<FeaturePackRuntimeBuilder> layout = newConfigLayout(provisioningConfig, options, newMetrics())) {
+            doProvision(layout, getFsDiff(layout.getMetrics()), false);
         }
     }
 
@@ -417,8 +486,8 @@ public class ProvisioningManager implements AutoCloseable {
      * @throws ProvisioningException  in case provisioning fails
      */
     public void provision(ProvisioningLayout<?> provisioningLayout) throws ProvisioningException {
-        try(ProvisioningLayout<FeaturePackRuntimeBuilder> layout = provisioningLayout.transform(ProvisioningRuntimeBuilder.FP_RT_FACTORY)) {
-            doProvision(layout, getFsDiff(), false);
+        try(ProvisioningLayout<FeaturePackRuntimeBuilder> layout = provisioningLayout.transform(ProvisioningRuntimeBuilder.FP_RT_FACTORY, newMetrics())) {
+            doProvision(layout, getFsDiff(layout.getMetrics()), false);
         }
     }
 
@@ -440,8 +509,8 @@ public class ProvisioningManager implements AutoCloseable {
      * @throws ProvisioningException in case provisioning fails
      */
     public void provision(Path provisioningXml, Map<String, String> options) throws ProvisioningException {
-        try(ProvisioningLayout<FeaturePackRuntimeBuilder> layout = newConfigLayout(ProvisioningXmlParser.parse(provisioningXml), options)) {
-            doProvision(layout, getFsDiff(), false);
+        try(ProvisioningLayout<FeaturePackRuntimeBuilder> layout = newConfigLayout(ProvisioningXmlParser.parse(provisioningXml), options, newMetrics())) {
+            doProvision(layout, getFsDiff(layout.getMetrics()), false);
         }
     }
 
@@ -509,9 +578,9 @@ public class ProvisioningManager implements AutoCloseable {
         if(config == null) {
             config = ProvisioningConfig.builder().build();
         }
-        try (ProvisioningLayout<FeaturePackRuntimeBuilder> layout = getLayoutFactory().newConfigLayout(config, ProvisioningRuntimeBuilder.FP_RT_FACTORY, false)) {
+        try (ProvisioningLayout<FeaturePackRuntimeBuilder> layout = getLayoutFactory().newConfigLayout(config, ProvisioningRuntimeBuilder.FP_RT_FACTORY, false, newMetrics())) {
             layout.apply(plan, options);
-            doProvision(layout, getFsDiff(), false);
+            doProvision(layout, getFsDiff(layout.getMetrics()), false);
         }
     }
 
@@ -524,7 +593,8 @@ public class ProvisioningManager implements AutoCloseable {
      * @throws ProvisioningException  in case the merge fails
      */
     public boolean persistChanges() throws ProvisioningException {
-        final ProvisioningDiffProvider diffProvider = getDiffMergedConfig();
+        final ProvisioningMetrics metrics = newMetrics();
+        final ProvisioningDiffProvider diffProvider = getDiffMergedConfig(metrics);
         if(diffProvider == null) {
             return false;
         }
@@ -532,7 +602,7 @@ public class ProvisioningManager implements AutoCloseable {
         if(mergedConfig.equals(getProvisioningConfig())) {
             return false;
         }
-        try (ProvisioningLayout<FeaturePackRuntimeBuilder> layout = getLayoutFactory().newConfigLayout(mergedConfig, ProvisioningRuntimeBuilder.FP_RT_FACTORY, false)) {
+        try (ProvisioningLayout<FeaturePackRuntimeBuilder> layout = getLayoutFactory().newConfigLayout(mergedConfig, ProvisioningRuntimeBuilder.FP_RT_FACTORY, false, metrics)) {
             doProvision(layout, diffProvider.getFsDiff(), false);
         }
         return true;
@@ -586,8 +656,8 @@ public class ProvisioningManager implements AutoCloseable {
      * @throws ProvisioningException  in case of a failure
      */
     public void undo() throws ProvisioningException {
-        try(ProvisioningLayout<FeaturePackRuntimeBuilder> layout = newConfigLayout(StateHistoryUtils.readUndoConfig(home, log), Collections.emptyMap())) {
-            doProvision(layout, getFsDiff(), true);
+        try(ProvisioningLayout<FeaturePackRuntimeBuilder> layout = newConfigLayout(StateHistoryUtils.readUndoConfig(home, log), Collections.emptyMap(), newMetrics())) {
+            doProvision(layout, getFsDiff(layout.getMetrics()), true);
         }
     }
 
@@ -613,12 +683,27 @@ public class ProvisioningManager implements AutoCloseable {
 
     public ProvisioningRuntime getRuntime(ProvisioningConfig provisioningConfig)
             throws ProvisioningException {
-        return getRuntimeInternal(newConfigLayout(provisioningConfig, Collections.emptyMap()), null);
+        return getRuntimeInternal(newConfigLayout(provisioningConfig, Collections.emptyMap(), ProvisioningMetrics.DISABLED), null);
+    }
+
+    /**
+     * Returns a runtime that can be queried for the feature-packs, packages and configs
+     * of the provisioning configuration but can't be provisioned. Unlike {@link #getRuntime(ProvisioningConfig)},
+     * it does not load the plugins, copy the resources of the feature-packs or create a staged directory,
+     * unless they are requested.
+     *
+     * @param provisioningConfig  provisioning configuration
+     * @return  read-only provisioning runtime
+     * @throws ProvisioningException  in case of a failure
+     */
+    public ProvisioningRuntime getReadOnlyRuntime(ProvisioningConfig provisioningConfig)
+            throws ProvisioningException {
+        return getRuntimeInternal(getLayoutFactory().newReadOnlyConfigLayout(provisioningConfig, ProvisioningRuntimeBuilder.FP_RT_FACTORY), null);
     }
 
     private ProvisioningLayout<FeaturePackRuntimeBuilder> newConfigLayout(ProvisioningConfig provisioningConfig,
-            Map<String, String> pluginOptions) throws ProvisioningException {
-        return getLayoutFactory().newConfigLayout(provisioningConfig, ProvisioningRuntimeBuilder.FP_RT_FACTORY, pluginOptions);
+            Map<String, String> pluginOptions, ProvisioningMetrics metrics) throws ProvisioningException {
+        return getLayoutFactory().newConfigLayout(provisioningConfig, ProvisioningRuntimeBuilder.FP_RT_FACTORY, pluginOptions, metrics);
     }
 
     public ProvisioningRuntime getRuntime(ProvisioningLayout<?> provisioningLayout)
@@ -645,16 +730,20 @@ public class ProvisioningManager implements AutoCloseable {
     }
 
     private void doProvision(ProvisioningLayout<FeaturePackRuntimeBuilder> layout, FsDiff fsDiff, boolean undo) throws ProvisioningException {
+        final ProvisioningMetrics metrics = layout.getMetrics();
         final boolean freshInstall = PathsUtils.isNewHome(home);
         try (ProvisioningRuntime runtime = getRuntimeInternal(layout, fsDiff, freshInstall)) {
             runtime.provision();
+            FsEntry stagedState = null;
+            Set<String> restoredPaths = Collections.emptySet();
             if(recordState) {
                 if (runtime.getProvisioningConfig().hasFeaturePackDeps()) {
-                    persistHashes(runtime);
+                    stagedState = persistHashes(runtime);
                 }
                 if (undo) {
                     final Map<String, Boolean> undoTasks = StateHistoryUtils.readUndoTasks(home, log);
                     if (!undoTasks.isEmpty()) {
+                        restoredPaths = undoTasks.keySet();
                         final Path staged = runtime.getStagedDir();
                         for (Map.Entry<String, Boolean> entry : undoTasks.entrySet()) {
                             final Path stagedPath = staged.resolve(entry.getKey());
@@ -685,9 +774,9 @@ public class ProvisioningManager implements AutoCloseable {
                 return;
             }
 
-            log.verbose("Moving the provisioned installation from the staged directory to %s", home);
+            final long promotionStart = metrics.start();
             final Path stagedDir = runtime.getStagedDir();
-            // copy from the staged to the target installation directory
+            // move from the staged to the target installation directory
             if (Files.exists(home)) {
                 if (recordState) {
                     if (undo) {
@@ -695,7 +784,11 @@ public class ProvisioningManager implements AutoCloseable {
                     } else {
                         StateHistoryUtils.addNewUndoConfig(home, stagedDir, undoTasks, log);
                     }
-                    IoUtils.recursiveDelete(home);
+                    if (stagedState != null && fsDiff != null && applyChanges(stagedDir, stagedState, fsDiff, restoredPaths)) {
+                        metrics.record(ProvisioningPhase.STAGED_PROMOTION, promotionStart, 0, 0);
+                        return;
+                    }
+                    IoUtils.emptyDir(home);
                 } else if(Files.exists(PathsUtils.getProvisionedStateDir(home))) {
                     try(DirectoryStream<Path> stream = Files.newDirectoryStream(home)) {
                         for(Path p : stream) {
@@ -708,16 +801,20 @@ public class ProvisioningManager implements AutoCloseable {
                         throw new ProvisioningException(BaseErrors.readDirectory(home), e);
                     }
                 } else {
-                    IoUtils.recursiveDelete(home);
+                    IoUtils.emptyDir(home);
                 }
             }
+            log.verbose("Moving the provisioned installation from the staged directory to %s", home);
             try {
-                IoUtils.copy(stagedDir, home, true);
+                // the staged entries are renamed unless the staged dir is on a different file store
+                IoUtils.moveChildren(stagedDir, home, true);
             } catch (IOException e) {
-                throw new ProvisioningException(BaseErrors.copyFile(stagedDir, home));
+                throw new ProvisioningException(BaseErrors.moveFile(stagedDir, home), e);
             }
+            metrics.record(ProvisioningPhase.STAGED_PROMOTION, promotionStart, 0, 0);
         } finally {
             this.provisioningConfig = null;
+            completeMetrics(metrics);
         }
     }
 
@@ -729,17 +826,22 @@ public class ProvisioningManager implements AutoCloseable {
      * @throws ProvisioningException  in case of an error during the status check
      */
     public FsDiff getFsDiff() throws ProvisioningException {
+        return getFsDiff(ProvisioningMetrics.DISABLED);
+    }
+
+    private FsDiff getFsDiff(ProvisioningMetrics metrics) throws ProvisioningException {
         final ProvisioningConfig config = getProvisioningConfig();
         if(config == null || !config.hasFeaturePackDeps()) {
             return null;
         }
         log.verbose("Detecting user changes");
-        final Path hashesDir = LayoutUtils.getHashesDir(getInstallationHome());
-        if(Files.exists(hashesDir)) {
-            final FsEntry originalState = new FsEntry(null, hashesDir);
-            readHashes(originalState, new ArrayList<>());
-            final FsEntry currentState = getDefaultFsEntryFactory().forPath(getInstallationHome());
-            return FsDiff.diff(originalState, currentState);
+        final long metricsStart = metrics.start();
+        final FsEntry recordedState = readHashes(getInstallationHome());
+        if(recordedState != null) {
+            final FsEntry currentState = getDefaultFsEntryFactory().setHashFiles(strictFsDiff).forPath(getInstallationHome());
+            final FsDiff fsDiff = FsDiff.diff(recordedState, currentState, strictFsDiff);
+            metrics.record(ProvisioningPhase.FS_DIFF, metricsStart, 0, 0);
+            return fsDiff;
         }
         try(ProvisioningRuntime rt = getRuntime(config)) {
             rt.provision();
@@ -751,16 +853,17 @@ public class ProvisioningManager implements AutoCloseable {
             if (startTime != -1) {
                 log.verbose(Errors.tookTime("  filesystem diff", startTime));
             }
+            metrics.record(ProvisioningPhase.FS_DIFF, metricsStart, 0, 0);
             return fsDiff;
         }
     }
 
-    private ProvisioningDiffProvider getDiffMergedConfig() throws ProvisioningException {
-        final FsDiff diff = getFsDiff();
+    private ProvisioningDiffProvider getDiffMergedConfig(ProvisioningMetrics metrics) throws ProvisioningException {
+        final FsDiff diff = getFsDiff(metrics);
         if(diff == null || diff.isEmpty()) {
             return null;
         }
-        try (ProvisioningLayout<FeaturePackRuntimeBuilder> layout = layoutFactory.newConfigLayout(getProvisioningConfig(), ProvisioningRuntimeBuilder.FP_RT_FACTORY, false)) {
+        try (ProvisioningLayout<FeaturePackRuntimeBuilder> layout = layoutFactory.newConfigLayout(getProvisioningConfig(), ProvisioningRuntimeBuilder.FP_RT_FACTORY, false, metrics)) {
             final ProvisioningDiffProvider diffProvider = ProvisioningDiffProvider.newInstance(layout, getProvisionedState(), diff, log);
             layout.visitPlugins(new FeaturePackPluginVisitor<StateDiffPlugin>() {
                 @Override
@@ -772,6 +875,32 @@ public class ProvisioningManager implements AutoCloseable {
         }
     }
 
+    /**
+     * Creates the metrics of an operation, unless nobody is interested in them.
+     * The metrics are passed to the layout of the operation and completed when it is provisioned.
+     */
+    private ProvisioningMetrics newMetrics() {
+        if(metricsListener == null && metricsFile == null) {
+            return ProvisioningMetrics.DISABLED;
+        }
+        return new ProvisioningMetrics(metricsListener);
+    }
+
+    private void completeMetrics(ProvisioningMetrics metrics) {
+        if(!metrics.isEnabled()) {
+            return;
+        }
+        metrics.complete();
+        if(metricsFile != null) {
+            try {
+                metrics.writeJson(metricsFile);
+            } catch (IOException e) {
+                // the metrics must not fail the operation
+                log.error(e, BaseErrors.writeFile(metricsFile));
+            }
+        }
+    }
+
     private FeaturePackLocation resolveUniverseSpec(FeaturePackLocation fpl) throws ProvisioningException {
         final UniverseSpec universeSpec = getConfiguredUniverse(fpl);
         return universeSpec == null ? fpl : fpl.replaceUniverse(universeSpec);
@@ -800,18 +929,50 @@ public class ProvisioningManager implements AutoCloseable {
         }
     }
 
+    private static FsEntry readHashes(Path home) throws ProvisioningException {
+        final Path index = LayoutUtils.getHashesIndex(home);
+        if(Files.exists(index)) {
+            try {
+                return FsEntryIndex.read(index, home);
+            } catch (IOException e) {
+                throw new ProvisioningException("Failed to read hashes", e);
+            }
+        }
+        // the hashes recorded by the previous versions
+        final Path hashesDir = LayoutUtils.getHashesDir(home);
+        if(Files.exists(hashesDir)) {
+            final FsEntry originalState = new FsEntry(null, hashesDir);
+            readHashes(originalState, new ArrayList<>());
+            return originalState;
+        }
+        return null;
+    }
+
     private static void readHashes(FsEntry parent, List<FsEntry> dirs) throws ProvisioningException {
         int dirsTotal = 0;
         try(DirectoryStream<Path> stream = Files.newDirectoryStream(parent.getPath())) {
             for(Path child : stream) {
                 if(child.getFileName().toString().equals(Constants.HASHES)) {
                     try(BufferedReader reader = Files.newBufferedReader(child)) {
+                        // a file modified in the same millisecond the hashes were recorded
+                        // may have been modified again without changing its metadata
+                        final long recorded = Files.getLastModifiedTime(child).toMillis();
                         String line = reader.readLine();
                         while(line != null) {
-                            new FsEntry(parent, line, HashUtils.hexStringToByteArray(reader.readLine()));
+                            final String hashLine = reader.readLine();
+                            final int sizeStart = hashLine.indexOf(' ');
+                            if(sizeStart < 0) {
+                                new FsEntry(parent, line, HashUtils.hexStringToByteArray(hashLine));
+                            } else {
+                                final int lastModifiedStart = hashLine.indexOf(' ', sizeStart + 1);
+                                final long lastModified = Long.parseLong(hashLine.substring(lastModifiedStart + 1));
+                                new FsEntry(parent, line, HashUtils.hexStringToByteArray(hashLine.substring(0, sizeStart)),
+                                        Long.parseLong(hashLine.substring(sizeStart + 1, lastModifiedStart)),
+                                        lastModified < recorded ? lastModified : -1);
+                            }
                             line = reader.readLine();
                         }
-                    } catch (IOException e) {
+                    } catch (IOException | NumberFormatException e) {
                         throw new ProvisioningException("Failed to read hashes", e);
                     }
                 } else {
@@ -829,92 +990,178 @@ public class ProvisioningManager implements AutoCloseable {
     }
 
     private static FsEntryFactory getDefaultFsEntryFactory() {
-        return FsEntryFactory.getInstance().filterGalleonPaths();
+        return FsEntryFactory.getInstance().filterGalleonPaths().setThreads(FS_THREADS);
     }
 
-    private void persistHashes(ProvisioningRuntime runtime) throws ProvisioningException {
+    /**
+     * Records the hashes of the staged files in the hashes index. The hashes tree of the previous
+     * versions is only read when upgrading an installation and is not written anymore, which means
+     * an installation provisioned by this version can't be handled by a previous version.
+     */
+    private FsEntry persistHashes(ProvisioningRuntime runtime) throws ProvisioningException {
         final long startTime = log.isVerboseEnabled() ? System.nanoTime() : -1;
-        final FsEntry root = getDefaultFsEntryFactory().forPath(runtime.getStagedDir());
-        if (root.hasChildren()) {
-            final Path hashes = LayoutUtils.getHashesDir(runtime.getStagedDir());
+        final ProvisioningMetrics metrics = runtime.getLayout().getMetrics();
+        final long metricsStart = metrics.start();
+        FsEntry root = getDefaultFsEntryFactory().forPath(runtime.getStagedDir());
+        if (!root.hasChildren()) {
+            root = null;
+        } else {
+            final Path index = LayoutUtils.getHashesIndex(runtime.getStagedDir());
             try {
-                Files.createDirectories(hashes);
+                Files.createDirectories(index.getParent());
+                FsEntryIndex.write(root, index);
             } catch (IOException e) {
-                throw new ProvisioningException("Failed to persist hashes", e);
-            }
-            final List<FsEntry> dirs = new ArrayList<>();
-            persistChildHashes(hashes, root, dirs, hashes);
-            if(!dirs.isEmpty()) {
-                for(int i = dirs.size() - 1; i >= 0; --i) {
-                    persistDirHashes(hashes, dirs.get(i), dirs);
-                }
+                throw new ProvisioningException(Errors.hashesNotPersisted(), e);
             }
         }
+        metrics.record(ProvisioningPhase.HASHING, metricsStart, 0, 0);
         if(startTime != -1) {
             log.verbose(Errors.tookTime("Hashing", startTime));
         }
+        return root;
     }
 
-    private void persistDirHashes(Path hashes, FsEntry entry, List<FsEntry> dirs) throws ProvisioningException {
-        final Path target = hashes.resolve(entry.getRelativePath());
-        try {
-            Files.createDirectory(target);
-        } catch (IOException e) {
-            throw new ProvisioningException(Errors.hashesNotPersisted(), e);
-        }
-        if (entry.hasChildren()) {
-            persistChildHashes(hashes, entry, dirs, target);
+    /**
+     * Applies the difference between the staged directory and the recorded state of the
+     * installation to the installation home. Files whose recorded hash matches the staged
+     * one and that haven't been touched by the user changes or restored by the undo tasks
+     * are left in place, only their last modified time is aligned with the staged file
+     * so that it matches the newly recorded state. The rest of the staged entries are
+     * moved to the home and the entries that are not staged are removed from it.
+     *
+     * @return  false if the installation has no recorded state, in which case nothing was done
+     */
+    private boolean applyChanges(Path stagedDir, FsEntry stagedState, FsDiff fsDiff, Set<String> restoredPaths) throws ProvisioningException {
+        final FsEntry recordedState = readHashes(home);
+        if(recordedState == null) {
+            return false;
         }
-    }
-
-    private void persistChildHashes(Path hashes, FsEntry entry, List<FsEntry> dirs, final Path target)
-            throws ProvisioningException {
-        int dirsTotal = 0;
-        BufferedWriter writer = null;
+        log.verbose("Applying the changes from the staged directory to %s", home);
+        final long startTime = log.isVerboseEnabled() ? System.nanoTime() : -1;
         try {
-            final TreeSet<FsEntry> sortedChildren = new TreeSet<>(new Comparator<FsEntry>() {
+            Files.walkFileTree(home, new SimpleFileVisitor<Path>() {
                 @Override
-                public int compare(FsEntry e1, FsEntry e2) {
-                    return e1.getName().compareTo(e2.getName());
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if(dir.equals(home)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    final Path relativePath = home.relativize(dir);
+                    if(relativePath.toString().equals(Constants.PROVISIONED_STATE_DIR)
+                            || !Files.isDirectory(stagedDir.resolve(relativePath.toString()), LinkOption.NOFOLLOW_LINKS)) {
+                        IoUtils.recursiveDelete(dir);
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    final Path staged = stagedDir.resolve(home.relativize(file).toString());
+                    if(!Files.exists(staged, LinkOption.NOFOLLOW_LINKS) || Files.isDirectory(staged, LinkOption.NOFOLLOW_LINKS)) {
+                        Files.delete(file);
+                    }
+                    return FileVisitResult.CONTINUE;
                 }
             });
-            sortedChildren.addAll(entry.getChildren());
-            for (FsEntry child : sortedChildren) {
-                if (!child.isDir()) {
-                    if (writer == null) {
-                        writer = Files.newBufferedWriter(target.resolve(Constants.HASHES));
+            Files.walkFileTree(stagedDir, new SimpleFileVisitor<Path>() {
+                boolean move = true;
+
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    if(dir.equals(stagedDir)) {
+                        return FileVisitResult.CONTINUE;
                     }
-                    writer.write(child.getName());
-                    newLine(writer);
-                    writer.write(HashUtils.bytesToHexString(child.getHash()));
-                    newLine(writer);
-                } else {
-                    dirs.add(child);
-                    ++dirsTotal;
+                    final Path target = home.resolve(stagedDir.relativize(dir).toString());
+                    if(Files.isDirectory(target, LinkOption.NOFOLLOW_LINKS)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    if(Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+                        Files.delete(target);
+                    }
+                    if(move) {
+                        try {
+                            Files.move(dir, target, StandardCopyOption.ATOMIC_MOVE);
+                            return FileVisitResult.SKIP_SUBTREE;
+                        } catch(AtomicMoveNotSupportedException e) {
+                            move = false;
+                        }
+                    }
+                    Files.createDirectory(target);
+                    return FileVisitResult.CONTINUE;
                 }
-            }
-        } catch (IOException e) {
-            throw new ProvisioningException(Errors.hashesNotPersisted(), e);
-        } finally {
-            if (writer != null) {
-                try {
-                    writer.close();
-                } catch (IOException e) {
-                    log.error(e, Errors.fileClose(target.resolve(Constants.HASHES)));
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    final String relativePath = PathsUtils.toForwardSlashSeparator(stagedDir.relativize(file).toString());
+                    final Path target = home.resolve(relativePath);
+                    if(Files.isDirectory(target, LinkOption.NOFOLLOW_LINKS)) {
+                        IoUtils.recursiveDelete(target);
+                    } else if(Files.isRegularFile(target, LinkOption.NOFOLLOW_LINKS)
+                            && isUnchanged(relativePath, stagedState, recordedState, fsDiff, restoredPaths)) {
+                        Files.setLastModifiedTime(target, attrs.lastModifiedTime());
+                        return FileVisitResult.CONTINUE;
+                    }
+                    if(move) {
+                        try {
+                            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+                            return FileVisitResult.CONTINUE;
+                        } catch(AtomicMoveNotSupportedException e) {
+                            move = false;
+                        }
+                    }
+                    Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                    return FileVisitResult.CONTINUE;
                 }
+            });
+        } catch (IOException e) {
+            throw new ProvisioningException(BaseErrors.moveFile(stagedDir, home), e);
+        }
+        if(startTime != -1) {
+            log.verbose(Errors.tookTime("Applying the changes", startTime));
+        }
+        return true;
+    }
+
+    private static boolean isUnchanged(String relativePath, FsEntry stagedState, FsEntry recordedState, FsDiff fsDiff,
+            Set<String> restoredPaths) throws IOException {
+        if(isTouched(relativePath, fsDiff, restoredPaths)) {
+            return false;
+        }
+        final String[] pathElements = relativePath.split("/");
+        FsEntry staged = stagedState;
+        FsEntry recorded = recordedState;
+        for(String name : pathElements) {
+            staged = staged.getChild(name);
+            recorded = recorded.getChild(name);
+            if(staged == null || recorded == null) {
+                return false;
             }
         }
-        while (dirsTotal > 0) {
-            persistDirHashes(hashes, dirs.remove(dirs.size() - 1), dirs);
-            --dirsTotal;
+        if(staged.isDir() || recorded.isDir()) {
+            return false;
+        }
+        try {
+            return Arrays.equals(staged.getHash(), recorded.getHash());
+        } catch (ProvisioningException e) {
+            throw new IOException(e);
         }
     }
 
-    private void newLine(BufferedWriter writer) throws IOException {
-        if (useLinuxLineEndings) {
-            writer.write("\n");
-        } else {
-            writer.newLine();
+    private static boolean isTouched(String relativePath, FsDiff fsDiff, Set<String> restoredPaths) {
+        if(fsDiff.getModifiedEntry(relativePath) != null
+                || fsDiff.getAddedEntry(relativePath) != null
+                || fsDiff.getRemovedEntry(relativePath) != null
+                || restoredPaths.contains(relativePath)) {
+            return true;
+        }
+        int i = relativePath.indexOf('/');
+        while(i > 0) {
+            final String dir = relativePath.substring(0, i + 1);
+            if(fsDiff.getAddedEntry(dir) != null || fsDiff.getRemovedEntry(dir) != null || restoredPaths.contains(dir)) {
+                return true;
+            }
+            i = relativePath.indexOf('/', i + 1);
         }
+        return false;
     }
 }
@@ -65,6 +65,11 @@ public class ProvisioningOption {
            .setBooleanValueSet()
            .build();
 
+    public static final ProvisioningOption PACKAGE_INSTALL_THREADS = ProvisioningOption.builder(Constants.PACKAGE_INSTALL_THREADS)
+            .setDefaultValue("1")
+            .setPersistent(false)
+            .build();
+
     public static final ProvisioningOption STABILITY_LEVEL = ProvisioningOption.builder(Constants.STABILITY_LEVEL)
             .addToValueSet(Constants.STABILITY_EXPERIMENTAL)
             .addToValueSet(Constants.STABILITY_PREVIEW)
@@ -88,7 +93,8 @@ public class ProvisioningOption {
 
     private static final List<ProvisioningOption> stdOptions = Arrays
             .asList(new ProvisioningOption[] { IGNORE_NOT_EXCLUDED_LAYERS, OPTIONAL_PACKAGES, VERSION_CONVERGENCE, PRINT_ONLY_CONFLICTS,
-                STORE_INPUT_PROVISIONING_CONFIG, EXPORT_SYSTEM_PATHS, CONFIG_STABILITY_LEVEL, PACKAGE_STABILITY_LEVEL, STABILITY_LEVEL});
+                STORE_INPUT_PROVISIONING_CONFIG, EXPORT_SYSTEM_PATHS, CONFIG_STABILITY_LEVEL, PACKAGE_STABILITY_LEVEL, STABILITY_LEVEL,
+                PACKAGE_INSTALL_THREADS});
 
     public static List<ProvisioningOption> getStandardList() {
         return stdOptions;
@@ -55,6 +55,7 @@ import org.jboss.galleon.core.builder.LocalFP;
 import org.jboss.galleon.core.builder.ProvisioningContext;
 import org.jboss.galleon.diff.FsDiff;
 import org.jboss.galleon.layout.ProvisioningLayoutFactory;
+import org.jboss.galleon.metrics.ProvisioningMetricsListener;
 import org.jboss.galleon.progresstracking.ProgressTracker;
 import org.jboss.galleon.spec.FeaturePackPlugin;
 import org.jboss.galleon.state.ProvisionedFeaturePack;
@@ -76,6 +77,8 @@ public class ProvisioningContextImpl implements ProvisioningContext {
     private final UniverseResolver universeResolver;
     private final Map<String, ProgressTracker<?>> progressTrackers;
     private final Map<FeaturePackLocation.FPID, LocalFP> locals;
+    private ProvisioningMetricsListener metricsListener;
+    private Path metricsFile;
 
     ProvisioningContextImpl(URLClassLoader loader, Path home,
             MessageWriter msgWriter,
@@ -150,6 +153,17 @@ public class ProvisioningContextImpl implements ProvisioningContext {
         }
     }
 
+    @Override
+    public GalleonProvisioningRuntime getReadOnlyProvisioningRuntime(GalleonProvisioningConfig config) throws ProvisioningException {
+        ClassLoader originalLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(loader);
+        try {
+            return getManager().getReadOnlyRuntime(ProvisioningConfig.toConfig(config));
+        } finally {
+            Thread.currentThread().setContextClassLoader(originalLoader);
+        }
+    }
+
     @Override
     public UniverseResolver getUniverseResolver() {
         return universeResolver;
@@ -177,7 +191,7 @@ public class ProvisioningContextImpl implements ProvisioningContext {
     @Override
     public List<GalleonFeaturePackLayout> getOrderedFeaturePackLayouts(GalleonProvisioningConfig config) throws ProvisioningException {
         List<GalleonFeaturePackLayout> lst = new ArrayList<>();
-        try (ProvisioningLayout<FeaturePackLayout> layout = getLayoutFactory().newConfigLayout(ProvisioningConfig.toConfig(config))) {
+        try (ProvisioningLayout<FeaturePackLayout> layout = getLayoutFactory().newReadOnlyConfigLayout(ProvisioningConfig.toConfig(config))) {
             lst.addAll(layout.getOrderedFeaturePacks());
             return lst;
         }
@@ -186,7 +200,7 @@ public class ProvisioningContextImpl implements ProvisioningContext {
     @Override
     public Set<String> getOrderedFeaturePackPluginLocations(GalleonProvisioningConfig config) throws ProvisioningException {
         Set<String> lst = new HashSet<>();
-        try (ProvisioningLayout<FeaturePackLayout> layout = getLayoutFactory().newConfigLayout(ProvisioningConfig.toConfig(config))) {
+        try (ProvisioningLayout<FeaturePackLayout> layout = getLayoutFactory().newReadOnlyConfigLayout(ProvisioningConfig.toConfig(config))) {
             for (FeaturePackLayout fp : layout.getOrderedFeaturePacks()) {
                 for (FeaturePackPlugin plugin : fp.getSpec().getPlugins().values()) {
                     lst.add(plugin.getLocation());
@@ -244,7 +258,7 @@ public class ProvisioningContextImpl implements ProvisioningContext {
 
     @Override
     public boolean hasOrderedFeaturePacksConfig(GalleonProvisioningConfig config, ConfigId cfg) throws ProvisioningException {
-        try (ProvisioningLayout<FeaturePackLayout> layout = getLayoutFactory().newConfigLayout(ProvisioningConfig.toConfig(config))) {
+        try (ProvisioningLayout<FeaturePackLayout> layout = getLayoutFactory().newReadOnlyConfigLayout(ProvisioningConfig.toConfig(config))) {
             for (FeaturePackLayout fp : layout.getOrderedFeaturePacks()) {
                 try {
                     LayoutUtils.getConfigXml(fp.getDir(), cfg, true);
@@ -267,6 +281,16 @@ public class ProvisioningContextImpl implements ProvisioningContext {
         ProvisioningLayout<FeaturePackLayout> layout = getLayoutFactory().newConfigLayout(file, install);
         return new GalleonProvisioningLayoutImpl(layout);
     }
+    @Override
+    public void setMetrics(ProvisioningMetricsListener listener, Path file) {
+        this.metricsListener = listener;
+        this.metricsFile = file;
+        if (provisionManager != null) {
+            provisionManager.setMetricsListener(listener);
+            provisionManager.setMetricsFile(file);
+        }
+    }
+
     private ProvisioningManager getManager() throws ProvisioningException {
         if (provisionManager == null) {
             ProvisioningManager.Builder builder = ProvisioningManager.builder()
@@ -277,6 +301,8 @@ public class ProvisioningContextImpl implements ProvisioningContext {
             if (universeResolver != null) {
                 builder.setUniverseResolver(universeResolver);
             }
+            builder.setMetricsListener(metricsListener)
+                    .setMetricsFile(metricsFile);
             provisionManager = builder.build();
             for (Map.Entry<String, ProgressTracker<?>> entry : progressTrackers.entrySet()) {
                 provisionManager.getLayoutFactory().setProgressTracker(entry.getKey(), entry.getValue());
@@ -38,6 +38,7 @@ import org.jboss.galleon.config.FeatureGroup;
 import org.jboss.galleon.config.FeaturePackConfig;
 import org.jboss.galleon.creator.tasks.FsTaskContext;
 import org.jboss.galleon.creator.tasks.FsTaskList;
+import org.jboss.galleon.layout.FeaturePackMetadataIndex;
 import org.jboss.galleon.plugin.InstallPlugin;
 import org.jboss.galleon.spec.ConfigLayerSpec;
 import org.jboss.galleon.spec.FeaturePackPlugin;
@@ -365,6 +366,9 @@ public class FeaturePackBuilder {
             if(tasks != null && !tasks.isEmpty()) {
                 tasks.execute(FsTaskContext.builder().setTargetRoot(fpWorkDir.resolve(Constants.RESOURCES)).build());
             }
+            if(creator.isMetadataIndex()) {
+                FeaturePackMetadataIndex.write(fpWorkDir);
+            }
             creator.install(fps.getFPID(), fpWorkDir);
         } catch(ProvisioningDescriptionException e) {
             throw e;
@@ -54,6 +54,7 @@ public class FeaturePackCreator extends UniverseResolverBuilder<FeaturePackCreat
     private Path buildDir;
     private UniverseResolver universeResolver;
     private boolean universeResolution = true;
+    private boolean metadataIndex;
 
     public FeaturePackBuilder newFeaturePack() {
         final FeaturePackBuilder fp = new FeaturePackBuilder(this);
@@ -70,6 +71,22 @@ public class FeaturePackCreator extends UniverseResolverBuilder<FeaturePackCreat
         return fp;
     }
 
+    /**
+     * Whether the feature-packs should include the index of their metadata.
+     *
+     * @param metadataIndex  whether to include the metadata index
+     * @return  this creator
+     * @see org.jboss.galleon.layout.FeaturePackMetadataIndex
+     */
+    public FeaturePackCreator setMetadataIndex(boolean metadataIndex) {
+        this.metadataIndex = metadataIndex;
+        return this;
+    }
+
+    boolean isMetadataIndex() {
+        return metadataIndex;
+    }
+
     public FeaturePackCreator addFeaturePack(FeaturePackBuilder fp) {
         fps = CollectionUtils.add(fps, fp);
         return this;
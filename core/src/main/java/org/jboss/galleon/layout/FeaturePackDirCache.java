@@ -0,0 +1,424 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.layout;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.Errors;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.universe.FeaturePackLocation.FPID;
+import org.jboss.galleon.util.HashUtils;
+import org.jboss.galleon.util.IoUtils;
+import org.jboss.galleon.util.ZipUtils;
+
+/**
+ * Persistent cache of extracted feature-pack archives shared by provisioning sessions.
+ *
+ * <p>An entry is keyed by the feature-pack ID and the path, size and last modified time
+ * of the archive. It is extracted into a temporary directory under the {@code tmp}
+ * directory of the cache and then renamed into place, so concurrent sessions either see
+ * a complete entry or none. The session extracting an archive holds an exclusive lock on
+ * the temporary directory's lock file. Temporary directories whose lock isn't held,
+ * e.g. those left by a crashed session, are deleted when entries are evicted. The last modified
+ * time of the entry's marker file records when it was last used. When an entry is added
+ * and the total size of the cache exceeds the limit, the least recently used entries
+ * are evicted.
+ *
+ * <p>The cache directory may be shared by several processes. Adding and evicting entries
+ * is done while holding an exclusive lock on the lock file of the cache. An entry returned
+ * by {@link #get(FPID, Path)} is protected from eviction by a shared lock on the entry's
+ * lock file until the cache is closed.
+ *
+ * <p>The cache is enabled by setting the {@link Constants#PROP_FP_CACHE_DIR} system property.
+ * The size limit in megabytes is set with {@link Constants#PROP_FP_CACHE_MAX_SIZE}.
+ */
+public class FeaturePackDirCache implements AutoCloseable {
+
+    public static final long DEFAULT_MAX_SIZE = 2048L * 1024 * 1024;
+
+    private static final String CONTENT = "content";
+    private static final String MARKER = "entry";
+    private static final String CACHE_LOCK = "cache.lock";
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final String TMP = "tmp";
+
+    /**
+     * File locks are held by the JVM, so the threads of this JVM are serialized
+     * before they attempt to lock the cache and the entries and temporary
+     * directories locked by this JVM are tracked here.
+     */
+    private static final ReentrantLock JVM_LOCK = new ReentrantLock();
+    private static final Map<Path, EntryLock> ENTRY_LOCKS = new HashMap<>();
+    private static final Map<Path, FileChannel> TMP_LOCKS = new HashMap<>();
+
+    private static class EntryLock {
+        final FileChannel channel;
+        int refs;
+
+        EntryLock(FileChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * Creates a cache configured with the system properties. A size limit that is not
+     * a positive number of megabytes is ignored in favor of {@link #DEFAULT_MAX_SIZE}.
+     *
+     * @return  the cache or null if the cache directory hasn't been configured
+     */
+    public static FeaturePackDirCache getDefault() {
+        final String dir = System.getProperty(Constants.PROP_FP_CACHE_DIR);
+        if(dir == null || dir.isEmpty()) {
+            return null;
+        }
+        return new FeaturePackDirCache(Paths.get(dir), parseMaxSize(System.getProperty(Constants.PROP_FP_CACHE_MAX_SIZE)));
+    }
+
+    private static long parseMaxSize(String value) {
+        if(value == null) {
+            return DEFAULT_MAX_SIZE;
+        }
+        final long megabytes;
+        try {
+            megabytes = Long.parseLong(value.trim());
+        } catch(NumberFormatException e) {
+            return DEFAULT_MAX_SIZE;
+        }
+        if(megabytes < 1 || megabytes > Long.MAX_VALUE / (1024 * 1024)) {
+            return DEFAULT_MAX_SIZE;
+        }
+        return megabytes * 1024 * 1024;
+    }
+
+    private final Path dir;
+    private final long maxSize;
+    private final Set<Path> inUse = new HashSet<>();
+
+    public FeaturePackDirCache(Path dir, long maxSize) {
+        this.dir = dir.toAbsolutePath().normalize();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the directory the archive has been extracted to, extracting it
+     * if it is not cached yet. The directory won't be evicted until this
+     * cache is closed.
+     *
+     * @param fpid  feature-pack ID
+     * @param archive  feature-pack archive
+     * @return  the directory containing the content of the archive
+     * @throws ProvisioningException  in case of a failure
+     */
+    public Path get(FPID fpid, Path archive) throws ProvisioningException {
+        try {
+            final Path entry = dir.resolve(key(fpid, archive));
+            Files.createDirectories(dir);
+            final Path tmp;
+            FileChannel cacheLock = lockCache();
+            try {
+                if(Files.exists(entry.resolve(MARKER))) {
+                    use(entry);
+                    return entry.resolve(CONTENT);
+                }
+                tmp = newTmpDir();
+            } finally {
+                unlockCache(cacheLock);
+            }
+            try {
+                ZipUtils.unzip(archive, tmp.resolve(CONTENT));
+                Files.write(tmp.resolve(MARKER), Long.toString(size(tmp)).getBytes(StandardCharsets.UTF_8));
+                cacheLock = lockCache();
+                try {
+                    if(Files.exists(entry.resolve(MARKER))) {
+                        // added concurrently by another session
+                        use(entry);
+                    } else {
+                        // incomplete entry
+                        delete(entry);
+                        Files.move(tmp, entry, StandardCopyOption.ATOMIC_MOVE);
+                        use(entry);
+                        evict();
+                    }
+                } finally {
+                    unlockCache(cacheLock);
+                }
+            } finally {
+                deleteTmpDir(tmp);
+            }
+            return entry.resolve(CONTENT);
+        } catch (IOException e) {
+            throw new ProvisioningException(Errors.openFile(archive), e);
+        }
+    }
+
+    /**
+     * Releases the entries returned by this cache, so that they can be evicted.
+     */
+    @Override
+    public void close() {
+        JVM_LOCK.lock();
+        try {
+            for(Path entry : inUse) {
+                final EntryLock lock = ENTRY_LOCKS.get(entry);
+                if(lock != null && --lock.refs == 0) {
+                    ENTRY_LOCKS.remove(entry);
+                    try {
+                        lock.channel.close();
+                    } catch (IOException e) {
+                        // the lock is released by closing the channel
+                    }
+                }
+            }
+            inUse.clear();
+        } finally {
+            JVM_LOCK.unlock();
+        }
+    }
+
+    private FileChannel lockCache() throws IOException {
+        JVM_LOCK.lock();
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(dir.resolve(CACHE_LOCK), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.lock();
+            return channel;
+        } catch(IOException | RuntimeException e) {
+            if(channel != null) {
+                channel.close();
+            }
+            JVM_LOCK.unlock();
+            throw e;
+        }
+    }
+
+    private static void unlockCache(FileChannel channel) throws IOException {
+        try {
+            channel.close();
+        } finally {
+            JVM_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Marks the entry as used. Must be called while holding the cache lock.
+     */
+    private void use(Path entry) throws IOException {
+        Files.setLastModifiedTime(entry.resolve(MARKER), FileTime.fromMillis(System.currentTimeMillis()));
+        if(!inUse.add(entry)) {
+            return;
+        }
+        EntryLock lock = ENTRY_LOCKS.get(entry);
+        if(lock == null) {
+            final FileChannel channel = FileChannel.open(lockFile(entry), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                channel.lock(0, Long.MAX_VALUE, true);
+            } catch(IOException | RuntimeException e) {
+                inUse.remove(entry);
+                channel.close();
+                throw e;
+            }
+            lock = new EntryLock(channel);
+            ENTRY_LOCKS.put(entry, lock);
+        }
+        ++lock.refs;
+    }
+
+    /**
+     * Creates a temporary directory to extract an archive to and locks its lock file,
+     * so that it isn't deleted by other sessions. Must be called while holding the cache lock.
+     */
+    private Path newTmpDir() throws IOException {
+        final Path tmp = IoUtils.createRandomDir(dir.resolve(TMP));
+        final FileChannel channel = FileChannel.open(lockFile(tmp), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            channel.lock();
+        } catch(IOException | RuntimeException e) {
+            channel.close();
+            IoUtils.recursiveDelete(tmp);
+            throw e;
+        }
+        TMP_LOCKS.put(tmp, channel);
+        return tmp;
+    }
+
+    /**
+     * Deletes the temporary directory and releases its lock.
+     */
+    private static void deleteTmpDir(Path tmp) throws IOException {
+        IoUtils.recursiveDelete(tmp);
+        JVM_LOCK.lock();
+        try {
+            final FileChannel channel = TMP_LOCKS.remove(tmp);
+            if(channel != null) {
+                channel.close();
+            }
+        } finally {
+            JVM_LOCK.unlock();
+        }
+        Files.deleteIfExists(lockFile(tmp));
+    }
+
+    /**
+     * Deletes the temporary directories that aren't locked by any session.
+     * Must be called while holding the cache lock.
+     */
+    private void deleteOrphanedTmpDirs() throws IOException {
+        final Path tmpDir = dir.resolve(TMP);
+        if(!Files.exists(tmpDir)) {
+            return;
+        }
+        final Set<Path> tmps = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(tmpDir)) {
+            for (Path path : stream) {
+                final String name = path.getFileName().toString();
+                tmps.add(name.endsWith(LOCK_SUFFIX) ? path.resolveSibling(name.substring(0, name.length() - LOCK_SUFFIX.length())) : path);
+            }
+        }
+        for (Path tmp : tmps) {
+            if (TMP_LOCKS.containsKey(tmp)) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(lockFile(tmp), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                final FileLock lock = channel.tryLock();
+                if (lock == null) {
+                    // being extracted by another process
+                    continue;
+                }
+                IoUtils.recursiveDelete(tmp);
+            }
+            Files.deleteIfExists(lockFile(tmp));
+        }
+    }
+
+    /**
+     * Deletes the orphaned temporary directories and evicts the least recently used entries
+     * that are not in use by any session. Must be called while holding the cache lock.
+     */
+    private void evict() throws IOException {
+        deleteOrphanedTmpDirs();
+        final List<Path> markers = new ArrayList<>();
+        long total = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path entry : stream) {
+                final Path marker = entry.resolve(MARKER);
+                if (Files.exists(marker)) {
+                    markers.add(marker);
+                    total += readSize(marker);
+                }
+            }
+        }
+        if (total <= maxSize) {
+            return;
+        }
+        final Map<Path, FileTime> lastUsed = new HashMap<>(markers.size());
+        for (Path marker : markers) {
+            lastUsed.put(marker, getLastModifiedTime(marker));
+        }
+        markers.sort(Comparator.comparing(lastUsed::get));
+        for (Path marker : markers) {
+            if (total <= maxSize) {
+                break;
+            }
+            final Path entry = marker.getParent();
+            if (ENTRY_LOCKS.containsKey(entry)) {
+                continue;
+            }
+            final long size = readSize(marker);
+            try (FileChannel channel = FileChannel.open(lockFile(entry), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                final FileLock lock = channel.tryLock();
+                if (lock == null) {
+                    // in use by another process
+                    continue;
+                }
+                delete(entry);
+            }
+            Files.deleteIfExists(lockFile(entry));
+            total -= size;
+        }
+    }
+
+    private static Path lockFile(Path entry) {
+        return entry.resolveSibling(entry.getFileName() + LOCK_SUFFIX);
+    }
+
+    /**
+     * Deletes the entry, the marker first so that the entry is seen as incomplete
+     * if the deletion is interrupted. An entry that is already gone is ignored.
+     */
+    private static void delete(Path entry) throws IOException {
+        Files.deleteIfExists(entry.resolve(MARKER));
+        IoUtils.recursiveDelete(entry);
+    }
+
+    private static String key(FPID fpid, Path archive) throws IOException {
+        final BasicFileAttributes attrs = Files.readAttributes(archive, BasicFileAttributes.class);
+        return HashUtils.hash(fpid + "#" + archive.toAbsolutePath().normalize() + "#" + attrs.size() + "#"
+                + attrs.lastModifiedTime().toMillis());
+    }
+
+    private static FileTime getLastModifiedTime(Path marker) throws IOException {
+        try {
+            return Files.getLastModifiedTime(marker);
+        } catch (NoSuchFileException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static long readSize(Path marker) throws IOException {
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(marker), StandardCharsets.UTF_8).trim());
+        } catch (NoSuchFileException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static long size(Path dir) throws IOException {
+        final long[] size = new long[1];
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                size[0] += attrs.size();
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return size[0];
+    }
+}
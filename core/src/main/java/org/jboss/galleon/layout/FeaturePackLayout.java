@@ -39,16 +39,18 @@ import org.jboss.galleon.config.ConfigId;
 import org.jboss.galleon.config.ConfigModel;
 import org.jboss.galleon.config.FeatureGroup;
 import org.jboss.galleon.config.FeaturePackConfig;
+import org.jboss.galleon.metrics.ProvisioningMetrics;
+import org.jboss.galleon.metrics.ProvisioningPhase;
 import org.jboss.galleon.spec.ConfigLayerSpec;
 import org.jboss.galleon.spec.FeaturePackSpec;
 import org.jboss.galleon.spec.FeatureSpec;
 import org.jboss.galleon.universe.FeaturePackLocation;
 import org.jboss.galleon.universe.FeaturePackLocation.FPID;
 import org.jboss.galleon.xml.FeaturePackXmlParser;
-import org.jboss.galleon.xml.ConfigLayerSpecXmlParser;
 import org.jboss.galleon.xml.ConfigXmlParser;
 import org.jboss.galleon.xml.FeatureGroupXmlParser;
 import org.jboss.galleon.xml.FeatureSpecXmlParser;
+import org.jboss.galleon.xml.XmlParsers;
 
 /**
  *
@@ -64,6 +66,11 @@ public abstract class FeaturePackLayout implements GalleonFeaturePackLayout {
     protected final int type;
     protected Path dir;
     protected FeaturePackSpec spec;
+    protected ParsedSpecCache specCache;
+    private ProvisioningLayoutFactory layoutFactory;
+    private ProvisioningMetrics metrics = ProvisioningMetrics.DISABLED;
+    private FeaturePackMetadataIndex metadataIndex;
+    private Path metadataIndexDir;
 
     protected FeaturePackLayout(FPID fpid, Path dir, int type) {
         this.fpid = fpid;
@@ -99,6 +106,64 @@ public abstract class FeaturePackLayout implements GalleonFeaturePackLayout {
         return dir;
     }
 
+    void setLayoutFactory(ProvisioningLayoutFactory layoutFactory, ProvisioningMetrics metrics) {
+        this.layoutFactory = layoutFactory;
+        this.specCache = layoutFactory.getSpecCache();
+        this.metrics = metrics;
+    }
+
+    private FeaturePackMetadataIndex getMetadataIndex() {
+        if(layoutFactory != null) {
+            return layoutFactory.getMetadataIndex(dir);
+        }
+        synchronized(this) {
+            // the directory changes when the feature-pack is patched
+            if(!dir.equals(metadataIndexDir)) {
+                metadataIndex = FeaturePackMetadataIndex.load(dir);
+                metadataIndexDir = dir;
+            }
+            return metadataIndex;
+        }
+    }
+
+    /**
+     * Parses a file of the feature-pack or returns the result of the previous
+     * parsing of the file cached by the layout factory. The file is parsed from
+     * the metadata index of the feature-pack, if it is up-to-date in the index.
+     *
+     * @param p  file to parse
+     * @param parser  parser of the file
+     * @return  the parsed object or null if the file does not exist
+     * @throws ProvisioningException  in case of a failure
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T parse(Path p, ParsedSpecCache.Parser<T> parser) throws ProvisioningException {
+        final FeaturePackMetadataIndex index = getMetadataIndex();
+        if(index != null) {
+            // the index stores for a file the model the parsers of the file produce
+            final ParsedSpecCache.Parser<T> xmlParser = parser;
+            parser = file -> {
+                final Object indexed = index.get(file);
+                return indexed == null ? xmlParser.parse(file) : (T) indexed;
+            };
+        }
+        final ProvisioningMetrics metrics = this.metrics;
+        if(metrics.isEnabled()) {
+            // only the actual parsing is measured, not the cache hits
+            final ParsedSpecCache.Parser<T> target = parser;
+            parser = file -> {
+                final long startTime = metrics.start();
+                final T result = target.parse(file);
+                metrics.record(ProvisioningPhase.SPEC_PARSING, startTime, 1, 0);
+                return result;
+            };
+        }
+        if(specCache != null) {
+            return specCache.get(fpid, p, parser);
+        }
+        return Files.exists(p) ? parser.parse(p) : null;
+    }
+
     @Override
     public int getType() {
         return type;
@@ -150,15 +215,13 @@ public abstract class FeaturePackLayout implements GalleonFeaturePackLayout {
     }
 
     public FeatureSpec loadFeatureSpec(String name) throws ProvisioningException {
-        final Path specXml = dir.resolve(Constants.FEATURES).resolve(name).resolve(Constants.SPEC_XML);
-        if (!Files.exists(specXml)) {
-            return null;
-        }
-        try (BufferedReader reader = Files.newBufferedReader(specXml)) {
-            return FeatureSpecXmlParser.getInstance().parse(reader);
-        } catch (Exception e) {
-            throw new ProvisioningDescriptionException(Errors.parseXml(specXml), e);
-        }
+        return parse(dir.resolve(Constants.FEATURES).resolve(name).resolve(Constants.SPEC_XML), specXml -> {
+            try (BufferedReader reader = Files.newBufferedReader(specXml)) {
+                return FeatureSpecXmlParser.getInstance().parse(reader);
+            } catch (Exception e) {
+                throw new ProvisioningDescriptionException(Errors.parseXml(specXml), e);
+            }
+        });
     }
 
     @Override
@@ -196,40 +259,34 @@ public abstract class FeaturePackLayout implements GalleonFeaturePackLayout {
         } else {
             specXml = getDir().resolve(Constants.LAYERS).resolve(model).resolve(name).resolve(Constants.LAYER_SPEC_XML);
         }
-        if (!Files.exists(specXml)) {
-            return null;
-        }
-        try (BufferedReader reader = Files.newBufferedReader(specXml)) {
-            return ConfigLayerSpecXmlParser.getInstance().parse(reader);
-        } catch (Exception e) {
-            throw new ProvisioningDescriptionException(Errors.parseXml(specXml), e);
-        }
+        return parse(specXml, p -> {
+            try (BufferedReader reader = Files.newBufferedReader(p)) {
+                return XmlParsers.parseConfigLayerSpec(reader, model);
+            } catch (Exception e) {
+                throw new ProvisioningDescriptionException(Errors.parseXml(p), e);
+            }
+        });
     }
 
     public FeatureGroup loadFeatureGroupSpec(String name) throws ProvisioningException {
-        final Path specXml = getDir().resolve(Constants.FEATURE_GROUPS).resolve(name+".xml");
-        if (!Files.exists(specXml)) {
-            return null;
-        }
-        try (BufferedReader reader = Files.newBufferedReader(specXml)) {
-            return FeatureGroupXmlParser.getInstance().parse(reader);
-        } catch (Exception e) {
-            throw new ProvisioningDescriptionException(Errors.parseXml(specXml), e);
-        }
+        return parse(getDir().resolve(Constants.FEATURE_GROUPS).resolve(name+".xml"), specXml -> {
+            try (BufferedReader reader = Files.newBufferedReader(specXml)) {
+                return FeatureGroupXmlParser.getInstance().parse(reader);
+            } catch (Exception e) {
+                throw new ProvisioningDescriptionException(Errors.parseXml(specXml), e);
+            }
+        });
     }
 
     @Override
     public ConfigModel loadModel(String model) throws ProvisioningException {
-        final Path modelXml;
-            modelXml = getDir().resolve(Constants.CONFIGS).resolve(model).resolve(Constants.MODEL_XML);
-        if (!Files.exists(modelXml)) {
-            return null;
-        }
-        try (BufferedReader reader = Files.newBufferedReader(modelXml)) {
-            return ConfigXmlParser.getInstance().parse(reader);
-        } catch (Exception e) {
-            throw new ProvisioningDescriptionException(Errors.parseXml(modelXml), e);
-        }
+        return parse(getDir().resolve(Constants.CONFIGS).resolve(model).resolve(Constants.MODEL_XML), modelXml -> {
+            try (BufferedReader reader = Files.newBufferedReader(modelXml)) {
+                return ConfigXmlParser.getInstance().parse(reader);
+            } catch (Exception e) {
+                throw new ProvisioningDescriptionException(Errors.parseXml(modelXml), e);
+            }
+        });
     }
 
     @Override
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.layout;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.config.FeatureGroup;
+import org.jboss.galleon.spec.FeatureSpec;
+import org.jboss.galleon.xml.ConfigXmlParser;
+import org.jboss.galleon.xml.FeatureGroupXmlParser;
+import org.jboss.galleon.xml.FeatureSpecXmlParser;
+import org.jboss.galleon.xml.PackageXmlParser;
+import org.jboss.galleon.xml.XmlParsers;
+
+/**
+ * Index of the metadata of a feature-pack, i.e. of the parsed descriptors of its packages,
+ * feature specs, feature groups, configs and layers, stored in a single file of the feature-pack
+ * in a compact binary form, so that the metadata is loaded with one sequential read and
+ * without parsing XML.
+ *
+ * <p>Each entry records the size and the last modified time (in seconds) of its descriptor and
+ * is used only while the descriptor still matches them. The file starts with the format version
+ * and ends with a checksum of its content. A missing index, an index of another version or
+ * with a wrong checksum is ignored. In all these cases the descriptors are parsed from their files.
+ *
+ * <p>The feature-pack.xml is not indexed, it is parsed once when the feature-pack is resolved,
+ * before its metadata is looked up.
+ */
+public class FeaturePackMetadataIndex {
+
+    public static final int VERSION = 2;
+
+    private static final int MAGIC = 0x474c4e49;
+
+    private static final int PACKAGE = 1;
+    private static final int FEATURE_SPEC = 2;
+    private static final int FEATURE_GROUP = 3;
+    private static final int CONFIG = 4;
+    private static final int LAYER = 5;
+
+    /**
+     * Writes the index of the metadata of the feature-pack into the feature-pack directory.
+     * Descriptors that fail to parse or that do not match their location are not indexed,
+     * so that they are reported by the XML parsers.
+     *
+     * @param fpDir  feature-pack directory
+     * @throws IOException  in case of a failure
+     */
+    public static void write(Path fpDir) throws IOException {
+        final List<Path> files = new ArrayList<>();
+        Files.walkFileTree(fpDir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                final String[] names = names(fpDir.relativize(dir));
+                if(names.length == 0) {
+                    return FileVisitResult.CONTINUE;
+                }
+                switch(names[0]) {
+                    case Constants.CONFIGS:
+                    case Constants.LAYERS:
+                        return names.length < 4 ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+                    case Constants.PACKAGES:
+                    case Constants.FEATURES:
+                        return names.length < 3 ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+                    case Constants.FEATURE_GROUPS:
+                        return names.length < 2 ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+                    default:
+                        return FileVisitResult.SKIP_SUBTREE;
+                }
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if(getKind(names(fpDir.relativize(file))) > 0) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        final MetadataIndexCodec.Encoder encoder = new MetadataIndexCodec.Encoder();
+        final List<String> keys = new ArrayList<>(files.size());
+        final List<Entry> entries = new ArrayList<>(files.size());
+        for(Path file : files) {
+            final String[] names = names(fpDir.relativize(file));
+            final Object model;
+            try {
+                model = parse(file, names);
+            } catch (Exception e) {
+                continue;
+            }
+            if(model == null) {
+                continue;
+            }
+            final byte[] bytes;
+            try {
+                bytes = encoder.encode(model);
+                final Object decoded = new MetadataIndexCodec.Decoder(encoder.getStrings(), bytes).decode();
+                // the encoding of the decoded model also compares the iteration order of the collections
+                if(!model.equals(decoded) || !Arrays.equals(bytes, encoder.encode(decoded))) {
+                    continue;
+                }
+            } catch (ProvisioningException | RuntimeException e) {
+                continue;
+            }
+            final BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            keys.add(toKey(names));
+            entries.add(new Entry(attrs.size(), toSeconds(attrs), bytes));
+        }
+
+        final CheckedOutputStream checked = new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(fpDir.resolve(Constants.METADATA_INDEX))), new CRC32());
+        try (DataOutputStream out = new DataOutputStream(checked)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            final List<String> strings = encoder.getStrings();
+            MetadataIndexCodec.writeInt(out, strings.size());
+            for(String str : strings) {
+                final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+                MetadataIndexCodec.writeInt(out, bytes.length);
+                out.write(bytes);
+            }
+            MetadataIndexCodec.writeInt(out, entries.size());
+            for(int i = 0; i < entries.size(); ++i) {
+                final Entry entry = entries.get(i);
+                final byte[] key = keys.get(i).getBytes(StandardCharsets.UTF_8);
+                MetadataIndexCodec.writeInt(out, key.length);
+                out.write(key);
+                out.writeLong(entry.size);
+                out.writeLong(entry.lastModified);
+                MetadataIndexCodec.writeInt(out, entry.bytes.length);
+                out.write(entry.bytes);
+            }
+            out.writeLong(checked.getChecksum().getValue());
+        }
+    }
+
+    /**
+     * Loads the index of the metadata of the feature-pack.
+     *
+     * @param fpDir  feature-pack directory
+     * @return  the index or null if the feature-pack has no valid index
+     */
+    public static FeaturePackMetadataIndex load(Path fpDir) {
+        final Path file = fpDir.resolve(Constants.METADATA_INDEX);
+        if(!Files.exists(file)) {
+            return null;
+        }
+        final CheckedInputStream checked;
+        try {
+            checked = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(file)), new CRC32());
+        } catch (IOException e) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(checked)) {
+            if(in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            int i = MetadataIndexCodec.readInt(in);
+            final String[] strings = new String[i];
+            for(int j = 0; j < i; ++j) {
+                strings[j] = new String(readBytes(in), StandardCharsets.UTF_8);
+            }
+            i = MetadataIndexCodec.readInt(in);
+            final Map<String, Entry> entries = new HashMap<>(i);
+            while(i-- > 0) {
+                final String key = new String(readBytes(in), StandardCharsets.UTF_8);
+                final long size = in.readLong();
+                final long lastModified = in.readLong();
+                entries.put(key, new Entry(size, lastModified, readBytes(in)));
+            }
+            final long checksum = checked.getChecksum().getValue();
+            if(in.readLong() != checksum) {
+                return null;
+            }
+            return new FeaturePackMetadataIndex(fpDir, Arrays.asList(strings), entries);
+        } catch (IOException | RuntimeException e) {
+            // truncated or otherwise corrupted
+            return null;
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[MetadataIndexCodec.readInt(in)];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static Object parse(Path file, String[] names) throws Exception {
+        try(BufferedReader reader = Files.newBufferedReader(file)) {
+            switch(getKind(names)) {
+                case PACKAGE:
+                    return PackageXmlParser.getInstance().parse(reader);
+                case FEATURE_SPEC: {
+                    final FeatureSpec spec = FeatureSpecXmlParser.getInstance().parse(reader);
+                    return spec.getName().equals(names[1]) ? spec : null;
+                }
+                case FEATURE_GROUP: {
+                    final FeatureGroup fg = FeatureGroupXmlParser.getInstance().parse(reader);
+                    return (fg.getName() + Constants.DOT_XML).equals(names[1]) ? fg : null;
+                }
+                case CONFIG:
+                    return ConfigXmlParser.getInstance().parse(reader);
+                case LAYER:
+                    return XmlParsers.parseConfigLayerSpec(reader, names.length == 4 ? names[1] : null);
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private static int getKind(String[] names) {
+        if(names.length < 2) {
+            return 0;
+        }
+        final String fileName = names[names.length - 1];
+        switch(names[0]) {
+            case Constants.PACKAGES:
+                return names.length == 3 && fileName.equals(Constants.PACKAGE_XML) ? PACKAGE : 0;
+            case Constants.FEATURES:
+                return names.length == 3 && fileName.equals(Constants.SPEC_XML) ? FEATURE_SPEC : 0;
+            case Constants.FEATURE_GROUPS:
+                return names.length == 2 && fileName.endsWith(Constants.DOT_XML) ? FEATURE_GROUP : 0;
+            case Constants.CONFIGS:
+                if(names.length == 3) {
+                    return fileName.equals(Constants.MODEL_XML) || fileName.equals(Constants.CONFIG_XML) ? CONFIG : 0;
+                }
+                return names.length == 4 && fileName.equals(Constants.CONFIG_XML) ? CONFIG : 0;
+            case Constants.LAYERS:
+                return (names.length == 3 || names.length == 4) && fileName.equals(Constants.LAYER_SPEC_XML) ? LAYER : 0;
+            default:
+                return 0;
+        }
+    }
+
+    private static String[] names(Path relativePath) {
+        if(relativePath.toString().isEmpty()) {
+            return new String[0];
+        }
+        final String[] names = new String[relativePath.getNameCount()];
+        for(int i = 0; i < names.length; ++i) {
+            final String name = relativePath.getName(i).toString();
+            // directory names of a zip file system end with a slash
+            names[i] = name.endsWith("/") ? name.substring(0, name.length() - 1) : name;
+        }
+        return names;
+    }
+
+    private static String toKey(String[] names) {
+        return String.join("/", names);
+    }
+
+    private static long toSeconds(BasicFileAttributes attrs) {
+        // zip entries keep the time in seconds
+        return attrs.lastModifiedTime().to(TimeUnit.SECONDS);
+    }
+
+    private static class Entry {
+        final long size;
+        final long lastModified;
+        final byte[] bytes;
+
+        Entry(long size, long lastModified, byte[] bytes) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.bytes = bytes;
+        }
+    }
+
+    private final Path fpDir;
+    private final List<String> strings;
+    private final Map<String, Entry> entries;
+
+    private FeaturePackMetadataIndex(Path fpDir, List<String> strings, Map<String, Entry> entries) {
+        this.fpDir = fpDir;
+        this.strings = strings;
+        this.entries = Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * The feature-pack directory the index was loaded from.
+     *
+     * @return  feature-pack directory
+     */
+    public Path getFeaturePackDir() {
+        return fpDir;
+    }
+
+    /**
+     * Returns the model of a descriptor of the feature-pack, which is
+     * a PackageSpec, a FeatureSpec, a FeatureGroup, a ConfigModel or a ConfigLayerSpec
+     * depending on the location of the descriptor.
+     *
+     * @param p  descriptor of the feature-pack
+     * @return  the model or null if the descriptor is not indexed or was modified after it was indexed
+     */
+    public Object get(Path p) {
+        if(!p.startsWith(fpDir)) {
+            return null;
+        }
+        final Entry entry = entries.get(toKey(names(fpDir.relativize(p))));
+        if(entry == null) {
+            return null;
+        }
+        try {
+            final BasicFileAttributes attrs = Files.readAttributes(p, BasicFileAttributes.class);
+            if(attrs.size() != entry.size || toSeconds(attrs) != entry.lastModified) {
+                return null;
+            }
+            return new MetadataIndexCodec.Decoder(strings, entry.bytes).decode();
+        } catch (IOException | ProvisioningException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,643 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.layout;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.galleon.ProvisioningDescriptionException;
+import org.jboss.galleon.Stability;
+import org.jboss.galleon.api.GalleonLayerDependency;
+import org.jboss.galleon.config.ConfigId;
+import org.jboss.galleon.config.ConfigItem;
+import org.jboss.galleon.config.ConfigModel;
+import org.jboss.galleon.config.FeatureConfig;
+import org.jboss.galleon.config.FeatureGroup;
+import org.jboss.galleon.config.FeatureGroupBuilderSupport;
+import org.jboss.galleon.config.FeatureGroupSupport;
+import org.jboss.galleon.spec.CapabilitySpec;
+import org.jboss.galleon.spec.ConfigLayerSpec;
+import org.jboss.galleon.spec.FeatureAnnotation;
+import org.jboss.galleon.spec.FeatureDependencySpec;
+import org.jboss.galleon.spec.FeatureId;
+import org.jboss.galleon.spec.FeatureParameterSpec;
+import org.jboss.galleon.spec.FeatureReferenceSpec;
+import org.jboss.galleon.spec.FeatureSpec;
+import org.jboss.galleon.spec.PackageDependencySpec;
+import org.jboss.galleon.spec.PackageDepsSpec;
+import org.jboss.galleon.spec.PackageDepsSpecBuilder;
+import org.jboss.galleon.spec.PackageSpec;
+import org.jboss.galleon.spec.SpecId;
+
+/**
+ * Binary form of the models stored in a {@link FeaturePackMetadataIndex}.
+ *
+ * <p>Strings are written as references into a string table shared by the entries of an index.
+ * Collections are written in their iteration order and are read back with the builder methods
+ * the XML parsers use, so a decoded model is equal to the parsed one.
+ */
+final class MetadataIndexCodec {
+
+    private static final byte PACKAGE = 1;
+    private static final byte FEATURE_SPEC = 2;
+    private static final byte FEATURE_GROUP = 3;
+    private static final byte CONFIG = 4;
+    private static final byte LAYER = 5;
+
+    private static final byte FEATURE_ITEM = 0;
+    private static final byte GROUP_ITEM = 1;
+
+    private static final int PARAM_ID = 0b01;
+    private static final int PARAM_NILLABLE = 0b10;
+
+    static void writeInt(DataOutputStream out, int i) throws IOException {
+        while((i & ~0x7f) != 0) {
+            out.writeByte((i & 0x7f) | 0x80);
+            i >>>= 7;
+        }
+        out.writeByte(i);
+    }
+
+    static int readInt(DataInputStream in) throws IOException {
+        int i = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if(shift > 28) {
+                throw new IOException("Malformed integer");
+            }
+            b = in.readByte();
+            i |= (b & 0x7f) << shift;
+            shift += 7;
+        } while((b & 0x80) != 0);
+        return i;
+    }
+
+    /**
+     * Encodes models collecting their strings into a table.
+     */
+    static class Encoder {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(buf);
+
+        List<String> getStrings() {
+            return strings;
+        }
+
+        byte[] encode(Object model) throws IOException {
+            buf.reset();
+            if(model instanceof PackageSpec) {
+                out.writeByte(PACKAGE);
+                writePackageSpec((PackageSpec) model);
+            } else if(model instanceof FeatureSpec) {
+                out.writeByte(FEATURE_SPEC);
+                writeFeatureSpec((FeatureSpec) model);
+            } else if(model instanceof FeatureGroup) {
+                out.writeByte(FEATURE_GROUP);
+                writeGroupBody((FeatureGroup) model);
+            } else if(model instanceof ConfigModel) {
+                out.writeByte(CONFIG);
+                writeConfig((ConfigModel) model);
+            } else if(model instanceof ConfigLayerSpec) {
+                out.writeByte(LAYER);
+                writeLayer((ConfigLayerSpec) model);
+            } else {
+                throw new IllegalArgumentException("Unexpected model " + model.getClass().getName());
+            }
+            out.flush();
+            return buf.toByteArray();
+        }
+
+        private void writePackageSpec(PackageSpec spec) throws IOException {
+            writeString(spec.getName());
+            writeStability(spec.getStability());
+            writePackageDeps(spec);
+        }
+
+        private void writeFeatureSpec(FeatureSpec spec) throws IOException {
+            writeString(spec.getName());
+            writeStability(spec.getStability());
+
+            writeInt(out, spec.getAnnotations().size());
+            for(FeatureAnnotation annotation : spec.getAnnotations()) {
+                writeString(annotation.getName());
+                writeStrings(annotation.getElements());
+            }
+
+            writeCaps(spec.getProvidedCapabilities());
+            writeCaps(spec.getRequiredCapabilities());
+
+            writeInt(out, spec.getFeatureDeps().size());
+            for(FeatureDependencySpec dep : spec.getFeatureDeps()) {
+                writeFeatureDep(dep);
+            }
+
+            writeInt(out, spec.getFeatureRefs().size());
+            for(FeatureReferenceSpec ref : spec.getFeatureRefs()) {
+                writeString(ref.getOrigin());
+                writeString(ref.getFeature().getName());
+                writeString(ref.getName());
+                out.writeBoolean(ref.isNillable());
+                out.writeBoolean(ref.isInclude());
+                writeStrings(ref.getMappedParams());
+            }
+
+            // the ID parameters go first to keep their order
+            writeInt(out, spec.getParamsTotal());
+            for(FeatureParameterSpec param : spec.getIdParams()) {
+                writeParam(param);
+            }
+            for(FeatureParameterSpec param : spec.getParams().values()) {
+                if(!param.isFeatureId()) {
+                    writeParam(param);
+                }
+            }
+
+            writePackageDeps(spec);
+        }
+
+        private void writeParam(FeatureParameterSpec param) throws IOException {
+            writeString(param.getName());
+            int flags = 0;
+            if(param.isFeatureId()) {
+                flags |= PARAM_ID;
+            }
+            if(param.isNillable()) {
+                flags |= PARAM_NILLABLE;
+            }
+            out.writeByte(flags);
+            writeString(param.getDefaultValue());
+            writeString(param.getType());
+            writeStability(param.getStability());
+        }
+
+        private void writeCaps(Collection<CapabilitySpec> caps) throws IOException {
+            writeInt(out, caps.size());
+            for(CapabilitySpec cap : caps) {
+                writeString(cap.toString());
+                out.writeBoolean(cap.isOptional());
+            }
+        }
+
+        private void writeConfig(ConfigModel config) throws IOException {
+            writeString(config.getModel());
+            writeStrings(config.getProperties());
+            writeInt(out, config.getConfigDeps().size());
+            for(Map.Entry<String, ConfigId> dep : config.getConfigDeps().entrySet()) {
+                writeString(dep.getKey());
+                writeString(dep.getValue().getModel());
+                writeString(dep.getValue().getName());
+            }
+            out.writeBoolean(config.isInheritLayers());
+            writeStrings(config.getIncludedLayers());
+            writeStrings(config.getExcludedLayers());
+            writeGroupBody(config);
+        }
+
+        private void writeLayer(ConfigLayerSpec layer) throws IOException {
+            writeString(layer.getModel());
+            writeInt(out, layer.getLayerDeps().size());
+            for(GalleonLayerDependency dep : layer.getLayerDeps()) {
+                writeString(dep.getName());
+                out.writeBoolean(dep.isOptional());
+            }
+            writeStrings(layer.getProperties());
+            writeGroupBody(layer);
+        }
+
+        private void writeGroupBody(FeatureGroupSupport group) throws IOException {
+            writeString(group.getOrigin());
+            writeString(group.getName());
+            out.writeBoolean(group.isInheritFeatures());
+            writeIncludeExclude(group);
+            writeInt(out, group.getExternalFeatureGroups().size());
+            for(Map.Entry<String, FeatureGroup> entry : group.getExternalFeatureGroups().entrySet()) {
+                writeString(entry.getKey());
+                writeIncludeExclude(entry.getValue());
+            }
+            writeItems(group.getItems());
+            writePackageDeps(group);
+        }
+
+        private void writeIncludeExclude(FeatureGroupSupport group) throws IOException {
+            writeSpecs(group.getExcludedSpecs());
+            writeInt(out, group.getExcludedFeatures().size());
+            for(Map.Entry<FeatureId, String> entry : group.getExcludedFeatures().entrySet()) {
+                writeFeatureId(entry.getKey());
+                writeString(entry.getValue());
+            }
+            writeSpecs(group.getIncludedSpecs());
+            writeInt(out, group.getIncludedFeatures().size());
+            for(Map.Entry<FeatureId, FeatureConfig> entry : group.getIncludedFeatures().entrySet()) {
+                writeFeatureId(entry.getKey());
+                writeFeatureConfig(entry.getValue());
+            }
+        }
+
+        private void writeItems(List<ConfigItem> items) throws IOException {
+            writeInt(out, items.size());
+            for(ConfigItem item : items) {
+                if(item.isGroup()) {
+                    out.writeByte(GROUP_ITEM);
+                    writeGroupBody((FeatureGroup) item);
+                } else {
+                    out.writeByte(FEATURE_ITEM);
+                    writeFeatureConfig((FeatureConfig) item);
+                }
+            }
+        }
+
+        private void writeFeatureConfig(FeatureConfig fc) throws IOException {
+            writeString(fc.getSpecId() == null ? null : fc.getSpecId().getName());
+            writeString(fc.getOrigin());
+            writeString(fc.getParentRef());
+            writeStrings(fc.getParams());
+            writeStrings(fc.getUnsetParams());
+            writeStrings(fc.getResetParams());
+            writeInt(out, fc.getFeatureDeps().size());
+            for(FeatureDependencySpec dep : fc.getFeatureDeps()) {
+                writeFeatureDep(dep);
+            }
+            writeItems(fc.getItems());
+        }
+
+        private void writeFeatureDep(FeatureDependencySpec dep) throws IOException {
+            writeFeatureId(dep.getFeatureId());
+            writeString(dep.getOrigin());
+            out.writeBoolean(dep.isInclude());
+        }
+
+        private void writeFeatureId(FeatureId id) throws IOException {
+            writeString(id.getSpec().getName());
+            writeStrings(id.getParams());
+        }
+
+        private void writeSpecs(Collection<SpecId> specs) throws IOException {
+            writeInt(out, specs.size());
+            for(SpecId spec : specs) {
+                writeString(spec.getName());
+            }
+        }
+
+        private void writePackageDeps(PackageDepsSpec deps) throws IOException {
+            writeInt(out, deps.getLocalPackageDeps().size());
+            for(PackageDependencySpec dep : deps.getLocalPackageDeps()) {
+                writePackageDep(dep);
+            }
+            writeInt(out, deps.getPackageOrigins().size());
+            for(String origin : deps.getPackageOrigins()) {
+                writeString(origin);
+                final Collection<PackageDependencySpec> originDeps = deps.getExternalPackageDeps(origin);
+                writeInt(out, originDeps.size());
+                for(PackageDependencySpec dep : originDeps) {
+                    writePackageDep(dep);
+                }
+            }
+        }
+
+        private void writePackageDep(PackageDependencySpec dep) throws IOException {
+            writeString(dep.getName());
+            out.writeByte(dep.getType());
+            writeString(dep.getValidForStability());
+        }
+
+        private void writeStability(Stability stability) throws IOException {
+            out.writeByte(stability == null ? -1 : stability.ordinal());
+        }
+
+        private void writeStrings(Map<String, String> map) throws IOException {
+            writeInt(out, map.size());
+            for(Map.Entry<String, String> entry : map.entrySet()) {
+                writeString(entry.getKey());
+                writeString(entry.getValue());
+            }
+        }
+
+        private void writeStrings(Collection<String> strings) throws IOException {
+            writeInt(out, strings.size());
+            for(String str : strings) {
+                writeString(str);
+            }
+        }
+
+        private void writeString(String str) throws IOException {
+            if(str == null) {
+                writeInt(out, 0);
+                return;
+            }
+            Integer id = ids.get(str);
+            if(id == null) {
+                strings.add(str);
+                id = strings.size();
+                ids.put(str, id);
+            }
+            writeInt(out, id);
+        }
+    }
+
+    /**
+     * Decodes a model encoded by an {@link Encoder}.
+     */
+    static class Decoder {
+
+        private final List<String> strings;
+        private final DataInputStream in;
+
+        Decoder(List<String> strings, byte[] bytes) {
+            this.strings = strings;
+            this.in = new DataInputStream(new ByteArrayInputStream(bytes));
+        }
+
+        Object decode() throws IOException, ProvisioningDescriptionException {
+            final byte kind = in.readByte();
+            switch(kind) {
+                case PACKAGE:
+                    return readPackageSpec();
+                case FEATURE_SPEC:
+                    return readFeatureSpec();
+                case FEATURE_GROUP:
+                    return readFeatureGroup();
+                case CONFIG:
+                    return readConfig();
+                case LAYER:
+                    return readLayer();
+                default:
+                    throw new IOException("Unexpected model kind " + kind);
+            }
+        }
+
+        private PackageSpec readPackageSpec() throws IOException, ProvisioningDescriptionException {
+            final PackageSpec.Builder builder = PackageSpec.builder(readString());
+            builder.setStability(readStability());
+            readPackageDeps(builder);
+            return builder.build();
+        }
+
+        private FeatureSpec readFeatureSpec() throws IOException, ProvisioningDescriptionException {
+            final FeatureSpec.Builder builder = FeatureSpec.builder(readString());
+            builder.setStability(readStability());
+
+            int i = readInt(in);
+            while(i-- > 0) {
+                final FeatureAnnotation annotation = new FeatureAnnotation(readString());
+                int elems = readInt(in);
+                while(elems-- > 0) {
+                    annotation.setElement(readString(), readString());
+                }
+                builder.addAnnotation(annotation);
+            }
+
+            i = readInt(in);
+            while(i-- > 0) {
+                builder.providesCapability(readString(), in.readBoolean());
+            }
+            i = readInt(in);
+            while(i-- > 0) {
+                builder.requiresCapability(readString(), in.readBoolean());
+            }
+
+            i = readInt(in);
+            while(i-- > 0) {
+                builder.addFeatureDep(readFeatureDep());
+            }
+
+            i = readInt(in);
+            while(i-- > 0) {
+                final String origin = readString();
+                final FeatureReferenceSpec.Builder ref = FeatureReferenceSpec.builder(readString())
+                        .setOrigin(origin)
+                        .setName(readString())
+                        .setNillable(in.readBoolean())
+                        .setInclude(in.readBoolean());
+                int mapped = readInt(in);
+                while(mapped-- > 0) {
+                    ref.mapParam(readString(), readString());
+                }
+                builder.addFeatureRef(ref.build());
+            }
+
+            i = readInt(in);
+            while(i-- > 0) {
+                final FeatureParameterSpec.Builder param = FeatureParameterSpec.builder(readString());
+                final int flags = in.readByte();
+                if((flags & PARAM_ID) != 0) {
+                    param.setFeatureId();
+                }
+                if((flags & PARAM_NILLABLE) != 0) {
+                    param.setNillable();
+                }
+                param.setDefaultValue(readString());
+                param.setType(readString());
+                param.setStability(readStability());
+                builder.addParam(param.build());
+            }
+
+            readPackageDeps(builder);
+            return builder.build();
+        }
+
+        private FeatureGroup readFeatureGroup() throws IOException, ProvisioningDescriptionException {
+            final FeatureGroup.Builder builder = FeatureGroup.builder();
+            readGroupBody(builder);
+            return builder.build();
+        }
+
+        private ConfigModel readConfig() throws IOException, ProvisioningDescriptionException {
+            final ConfigModel.Builder builder = ConfigModel.builder();
+            builder.setModel(readString());
+            int i = readInt(in);
+            while(i-- > 0) {
+                builder.setProperty(readString(), readString());
+            }
+            i = readInt(in);
+            while(i-- > 0) {
+                builder.setConfigDep(readString(), new ConfigId(readString(), readString()));
+            }
+            builder.setInheritLayers(in.readBoolean());
+            i = readInt(in);
+            while(i-- > 0) {
+                builder.includeLayer(readString());
+            }
+            i = readInt(in);
+            while(i-- > 0) {
+                builder.excludeLayer(readString());
+            }
+            readGroupBody(builder);
+            return builder.build();
+        }
+
+        private ConfigLayerSpec readLayer() throws IOException, ProvisioningDescriptionException {
+            final ConfigLayerSpec.Builder builder = ConfigLayerSpec.builder();
+            builder.setModel(readString());
+            int i = readInt(in);
+            while(i-- > 0) {
+                builder.addLayerDep(readString(), in.readBoolean());
+            }
+            i = readInt(in);
+            while(i-- > 0) {
+                builder.setProperty(readString(), readString());
+            }
+            readGroupBody(builder);
+            return builder.build();
+        }
+
+        private void readGroupBody(FeatureGroupBuilderSupport<?> builder) throws IOException, ProvisioningDescriptionException {
+            builder.setOrigin(readString());
+            builder.setName(readString());
+            // the groups of other origins inherit the flag when they are created
+            builder.setInheritFeatures(in.readBoolean());
+            readIncludeExclude(builder, null);
+            int i = readInt(in);
+            while(i-- > 0) {
+                readIncludeExclude(builder, readString());
+            }
+            i = readInt(in);
+            while(i-- > 0) {
+                builder.addConfigItem(readItem());
+            }
+            readPackageDeps(builder);
+        }
+
+        private void readIncludeExclude(FeatureGroupBuilderSupport<?> builder, String origin) throws IOException, ProvisioningDescriptionException {
+            int i = readInt(in);
+            while(i-- > 0) {
+                builder.excludeSpec(origin, readString());
+            }
+            i = readInt(in);
+            while(i-- > 0) {
+                builder.excludeFeature(origin, readFeatureId(), readString());
+            }
+            i = readInt(in);
+            while(i-- > 0) {
+                builder.includeSpec(origin, readString());
+            }
+            i = readInt(in);
+            while(i-- > 0) {
+                final FeatureId id = readFeatureId();
+                builder.includeFeature(id, readFeatureConfig().setOrigin(origin));
+            }
+        }
+
+        private ConfigItem readItem() throws IOException, ProvisioningDescriptionException {
+            final byte kind = in.readByte();
+            switch(kind) {
+                case FEATURE_ITEM:
+                    return readFeatureConfig();
+                case GROUP_ITEM:
+                    return readFeatureGroup();
+                default:
+                    throw new IOException("Unexpected config item kind " + kind);
+            }
+        }
+
+        private FeatureConfig readFeatureConfig() throws IOException, ProvisioningDescriptionException {
+            final String spec = readString();
+            final FeatureConfig fc = spec == null ? new FeatureConfig() : new FeatureConfig(SpecId.fromString(spec));
+            fc.setOrigin(readString());
+            fc.setParentRef(readString());
+            int i = readInt(in);
+            while(i-- > 0) {
+                fc.setParam(readString(), readString());
+            }
+            i = readInt(in);
+            while(i-- > 0) {
+                fc.unsetParam(readString());
+            }
+            i = readInt(in);
+            while(i-- > 0) {
+                fc.resetParam(readString());
+            }
+            i = readInt(in);
+            while(i-- > 0) {
+                fc.addFeatureDep(readFeatureDep());
+            }
+            i = readInt(in);
+            while(i-- > 0) {
+                fc.addConfigItem(readItem());
+            }
+            return fc;
+        }
+
+        private FeatureDependencySpec readFeatureDep() throws IOException, ProvisioningDescriptionException {
+            return FeatureDependencySpec.create(readFeatureId(), readString(), in.readBoolean());
+        }
+
+        private FeatureId readFeatureId() throws IOException, ProvisioningDescriptionException {
+            final FeatureId.Builder builder = FeatureId.builder(readString());
+            int i = readInt(in);
+            while(i-- > 0) {
+                builder.setParam(readString(), readString());
+            }
+            return builder.build();
+        }
+
+        private void readPackageDeps(PackageDepsSpecBuilder<?> builder) throws IOException, ProvisioningDescriptionException {
+            int i = readInt(in);
+            while(i-- > 0) {
+                builder.addPackageDep(readPackageDep());
+            }
+            i = readInt(in);
+            while(i-- > 0) {
+                final String origin = readString();
+                int deps = readInt(in);
+                while(deps-- > 0) {
+                    builder.addPackageDep(origin, readPackageDep());
+                }
+            }
+        }
+
+        private PackageDependencySpec readPackageDep() throws IOException, ProvisioningDescriptionException {
+            final String name = readString();
+            final byte type = in.readByte();
+            final String validForStability = readString();
+            switch(type) {
+                case PackageDependencySpec.REQUIRED:
+                    return PackageDependencySpec.required(name);
+                case PackageDependencySpec.OPTIONAL:
+                    return PackageDependencySpec.optional(name, validForStability);
+                case PackageDependencySpec.PASSIVE:
+                    return PackageDependencySpec.passive(name, validForStability);
+                default:
+                    throw new IOException("Unexpected package dependency type " + type);
+            }
+        }
+
+        private Stability readStability() throws IOException {
+            final byte ordinal = in.readByte();
+            return ordinal < 0 ? null : Stability.values()[ordinal];
+        }
+
+        private String readString() throws IOException {
+            final int id = readInt(in);
+            return id == 0 ? null : strings.get(id - 1);
+        }
+    }
+
+    private MetadataIndexCodec() {
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.layout;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.Errors;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.universe.FeaturePackLocation.FPID;
+
+/**
+ * Bounded cache of the feature specs, feature groups, configs and layers parsed from
+ * the feature-packs of the layouts created by a {@link ProvisioningLayoutFactory}.
+ *
+ * <p>An entry is keyed by the feature-pack ID and the path of the parsed file and is
+ * validated against the size and the last modified time of the file, so that a file
+ * of a patched or re-extracted feature-pack is parsed again. The cached objects are
+ * immutable and are shared by all the runtimes built with the factory.
+ * When the number of entries exceeds the limit, the least recently used ones are evicted.
+ *
+ * <p>The maximum number of entries is set with the {@link Constants#PROP_SPEC_CACHE_MAX_ENTRIES}
+ * system property, 0 disables the cache.
+ */
+public class ParsedSpecCache {
+
+    public interface Parser<T> {
+        T parse(Path p) throws ProvisioningException;
+    }
+
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    /**
+     * Creates a cache configured with the system properties.
+     *
+     * @return  the cache or null if the cache has been disabled
+     */
+    public static ParsedSpecCache getDefault() {
+        final int maxEntries = Integer.getInteger(Constants.PROP_SPEC_CACHE_MAX_ENTRIES, DEFAULT_MAX_ENTRIES);
+        return maxEntries > 0 ? new ParsedSpecCache(maxEntries) : null;
+    }
+
+    private static final class Key {
+
+        final FPID fpid;
+        final Path path;
+        final int hash;
+
+        Key(FPID fpid, Path path) {
+            this.fpid = fpid;
+            this.path = path;
+            this.hash = Objects.hash(fpid, path);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(this == obj) {
+                return true;
+            }
+            if(!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return fpid.equals(other.fpid) && path.equals(other.path);
+        }
+    }
+
+    private static final class Entry {
+
+        final long size;
+        final FileTime lastModified;
+        final Object value;
+
+        Entry(BasicFileAttributes attrs, Object value) {
+            this.size = attrs.size();
+            this.lastModified = attrs.lastModifiedTime();
+            this.value = value;
+        }
+
+        boolean isValid(BasicFileAttributes attrs) {
+            return size == attrs.size() && Objects.equals(lastModified, attrs.lastModifiedTime());
+        }
+    }
+
+    private final Map<Key, Entry> entries;
+    private int hits;
+    private int misses;
+
+    public ParsedSpecCache(int maxEntries) {
+        entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the object parsed from the file, parsing the file if it is not cached yet
+     * or has changed since it was cached.
+     *
+     * @param fpid  feature-pack ID
+     * @param p  file to parse
+     * @param parser  parser of the file
+     * @return  the parsed object or null if the file does not exist
+     * @throws ProvisioningException  in case of a failure
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(FPID fpid, Path p, Parser<T> parser) throws ProvisioningException {
+        final BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(p, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new ProvisioningException(Errors.readFile(p), e);
+        }
+        final Key key = new Key(fpid, p);
+        synchronized(entries) {
+            final Entry entry = entries.get(key);
+            if(entry != null && entry.isValid(attrs)) {
+                ++hits;
+                return (T) entry.value;
+            }
+            ++misses;
+        }
+        // parsed outside of the lock, a concurrent miss may parse the same file too
+        final T value = parser.parse(p);
+        if(value != null) {
+            synchronized(entries) {
+                entries.put(key, new Entry(attrs, value));
+            }
+        }
+        return value;
+    }
+
+    public int size() {
+        synchronized(entries) {
+            return entries.size();
+        }
+    }
+
+    public int getHits() {
+        synchronized(entries) {
+            return hits;
+        }
+    }
+
+    public int getMisses() {
+        synchronized(entries) {
+            return misses;
+        }
+    }
+
+    public void clear() {
+        synchronized(entries) {
+            entries.clear();
+        }
+    }
+}
@@ -35,8 +35,12 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.jboss.galleon.BaseErrors;
@@ -52,6 +56,7 @@ import org.jboss.galleon.config.FeaturePackDepsConfig;
 import org.jboss.galleon.config.ProvisioningConfig;
 import org.jboss.galleon.layout.FeaturePackFamily.FamilyResolutionResult;
 import org.jboss.galleon.layout.FeaturePackFamily.FeaturePackFamilyResolution;
+import org.jboss.galleon.metrics.ProvisioningMetrics;
 import org.jboss.galleon.plugin.InstallPlugin;
 import org.jboss.galleon.plugin.ProvisioningPlugin;
 import org.jboss.galleon.progresstracking.ProgressTracker;
@@ -65,6 +70,7 @@ import org.jboss.galleon.universe.FeaturePackLocation.ProducerSpec;
 import org.jboss.galleon.universe.Universe;
 import org.jboss.galleon.universe.UniverseResolver;
 import org.jboss.galleon.util.CollectionUtils;
+import org.jboss.galleon.util.ConcurrencyUtils;
 import org.jboss.galleon.util.IoUtils;
 import org.jboss.galleon.util.LayoutUtils;
 
@@ -78,6 +84,25 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
     public static final String STAGED = "staged";
     public static final String TMP = "tmp";
 
+    private static final int RESOLVE_THREADS = Integer.getInteger(Constants.PROP_RESOLVE_THREADS, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    // update checks mostly wait for remote repositories, so the default does not depend on the number of CPUs
+    private static final int UPDATE_THREADS = Integer.getInteger(Constants.PROP_UPDATE_THREADS, 4);
+
+    private static class UpdateCheck implements Callable<FeaturePackUpdatePlan> {
+        private final Channel channel;
+        private final FeaturePackUpdatePlan.Request request;
+
+        private UpdateCheck(Channel channel, FeaturePackUpdatePlan.Request request) {
+            this.channel = channel;
+            this.request = request;
+        }
+
+        @Override
+        public FeaturePackUpdatePlan call() throws ProvisioningException {
+            return channel.getUpdatePlan(request);
+        }
+    }
+
     public static class Handle implements Closeable {
         private final ProvisioningLayoutFactory layoutFactory;
         private Path workDir;
@@ -88,6 +113,12 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
         private Path pluginsDir;
         private Path resourcesDir;
         private Path tmpDir;
+        // read-only layouts copy the resources and the plugins only when they are requested
+        private boolean readOnly;
+        private List<Path> pendingFpDirs = Collections.emptyList();
+        private Collection<FeaturePackPlugin> pendingPlugins = Collections.emptyList();
+        private boolean pendingResourcesDir;
+        private boolean pendingPluginsDir;
 
         private int refs;
 
@@ -107,6 +138,10 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
             }
             pluginsCl = null;
             loadedPlugins = Collections.emptyMap();
+            pendingFpDirs = Collections.emptyList();
+            pendingPlugins = Collections.emptyList();
+            pendingResourcesDir = false;
+            pendingPluginsDir = false;
             if(workDir != null) {
                 try(DirectoryStream<Path> stream = Files.newDirectoryStream(workDir)) {
                     for(Path p : stream) {
@@ -128,6 +163,20 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
         }
 
         private void copyResources(Path fpDir) throws ProvisioningException {
+            if(readOnly) {
+                final boolean resources = Files.exists(fpDir.resolve(Constants.RESOURCES));
+                final boolean plugins = Files.exists(fpDir.resolve(Constants.PLUGINS));
+                if(resources || plugins) {
+                    pendingFpDirs = CollectionUtils.add(pendingFpDirs, fpDir);
+                    pendingResourcesDir |= resources;
+                    pendingPluginsDir |= plugins;
+                }
+                return;
+            }
+            doCopyResources(fpDir);
+        }
+
+        private void doCopyResources(Path fpDir) throws ProvisioningException {
             // resources should be copied last overriding the dependency resources
             final Path fpResources = fpDir.resolve(Constants.RESOURCES);
             if(Files.exists(fpResources)) {
@@ -153,6 +202,15 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
         }
 
         private void addPlugins(Collection<FeaturePackPlugin> plugins) throws ProvisioningException {
+            if(readOnly) {
+                pendingPlugins = new ArrayList<>(plugins);
+                pendingPluginsDir = true;
+                return;
+            }
+            doAddPlugins(plugins);
+        }
+
+        private void doAddPlugins(Collection<FeaturePackPlugin> plugins) throws ProvisioningException {
             if(pluginsDir == null) {
                 pluginsDir = getWorkDir().resolve(Constants.PLUGINS);
                 try {
@@ -162,24 +220,73 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
                 }
             }
 
-            final UniverseResolver universeResolver = layoutFactory.getUniverseResolver();
+            // the plugins of the same repository are resolved in a batch
+            final Map<String, List<FeaturePackPlugin>> repoPlugins = new LinkedHashMap<>();
             for(FeaturePackPlugin plugin : plugins) {
-                String pluginId = plugin.getId();
-                if(!pluginId.endsWith(".jar")) {
-                    pluginId += ".jar";
+                List<FeaturePackPlugin> list = repoPlugins.get(plugin.getRepoId());
+                if(list == null) {
+                    list = new ArrayList<>();
+                    repoPlugins.put(plugin.getRepoId(), list);
                 }
-                final RepositoryArtifactResolver resolver = universeResolver.getArtifactResolver(plugin.getRepoId());
+                list.add(plugin);
+            }
+            final UniverseResolver universeResolver = layoutFactory.getUniverseResolver();
+            for(Map.Entry<String, List<FeaturePackPlugin>> entry : repoPlugins.entrySet()) {
+                final List<FeaturePackPlugin> repoList = entry.getValue();
+                final RepositoryArtifactResolver resolver = universeResolver.getArtifactResolver(entry.getKey());
                 if(resolver == null) {
-                    throw new ProvisioningException("Failed to resolve plugin " + plugin + ": artifact resolver " + plugin.getRepoId() + " has not been configured");
+                    throw new ProvisioningException("Failed to resolve plugin " + repoList.get(0) + ": artifact resolver " + entry.getKey() + " has not been configured");
                 }
-                try {
-                    Files.copy(resolver.resolve(plugin.getLocation()), pluginsDir.resolve(pluginId), StandardCopyOption.REPLACE_EXISTING);
-                } catch (IOException e) {
-                    throw new ProvisioningException("Failed to copy feature-pack plugin", e);
+                final List<Path> paths;
+                if(repoList.size() == 1) {
+                    paths = Collections.singletonList(resolver.resolve(repoList.get(0).getLocation()));
+                } else {
+                    final List<String> locations = new ArrayList<>(repoList.size());
+                    for(FeaturePackPlugin plugin : repoList) {
+                        locations.add(plugin.getLocation());
+                    }
+                    paths = resolver.resolveLocations(locations);
+                }
+                for(int i = 0; i < repoList.size(); ++i) {
+                    String pluginId = repoList.get(i).getId();
+                    if(!pluginId.endsWith(".jar")) {
+                        pluginId += ".jar";
+                    }
+                    try {
+                        Files.copy(paths.get(i), pluginsDir.resolve(pluginId), StandardCopyOption.REPLACE_EXISTING);
+                    } catch (IOException e) {
+                        throw new ProvisioningException("Failed to copy feature-pack plugin", e);
+                    }
                 }
             }
         }
 
+        private void copyPending() throws ProvisioningException {
+            if(pendingFpDirs.isEmpty() && pendingPlugins.isEmpty()) {
+                return;
+            }
+            final List<Path> fpDirs = pendingFpDirs;
+            final Collection<FeaturePackPlugin> plugins = pendingPlugins;
+            pendingFpDirs = Collections.emptyList();
+            pendingPlugins = Collections.emptyList();
+            pendingResourcesDir = false;
+            pendingPluginsDir = false;
+            for(Path fpDir : fpDirs) {
+                doCopyResources(fpDir);
+            }
+            if(!plugins.isEmpty()) {
+                doAddPlugins(plugins);
+            }
+        }
+
+        private boolean hasResources() {
+            return resourcesDir != null || pendingResourcesDir;
+        }
+
+        private boolean hasPlugins() {
+            return pluginsDir != null || pendingPluginsDir;
+        }
+
         protected Path newStagedDir() throws ProvisioningException {
             final Path stagedDir = getWorkDir().resolve(STAGED);
             if(Files.exists(stagedDir)) {
@@ -195,6 +302,7 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
         }
 
         protected Path getResource(String... path) throws ProvisioningException {
+            copyPending();
             if(resourcesDir == null) {
                 throw new ProvisioningException("Configuration does not include resources");
             }
@@ -229,6 +337,7 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
             if(pluginsCl != null) {
                 return pluginsCl;
             }
+            copyPending();
             pluginsCl = Thread.currentThread().getContextClassLoader();
             if (pluginsDir != null) {
                 List<java.net.URL> urls = new ArrayList<>();
@@ -328,6 +437,7 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
     private final ProvisioningLayoutFactory layoutFactory;
     private final FeaturePackLayoutFactory<F> fpFactory;
     private final Handle handle;
+    private final ProvisioningMetrics metrics;
     private ProvisioningConfig config;
     private final ProvisioningConfig originalConfig;
     private Map<String, String> options = Collections.emptyMap();
@@ -335,6 +445,7 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
     private Map<ProducerSpec, FeaturePackLocation> resolvedVersions;
     private Set<ProducerSpec> transitiveDeps;
     private Map<ProducerSpec, Set<FPID>> conflicts = Collections.emptyMap();
+    private Map<FPID, Future<FeaturePackSpec>> failedPrefetches = Collections.emptyMap();
     private Map<ProducerSpec, F> featurePacks = new HashMap<>();
     private Map<ProducerSpec, F> mavenProducers = null;
     private ArrayList<F> ordered = new ArrayList<>();
@@ -348,12 +459,13 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
     private ProgressTracker<FPID> buildTracker;
     private final FeaturePackFamily featurePackFamily;
     private final Set<ProducerSpec> transitiveToIgnore = new HashSet<>();
-    ProvisioningLayout(ProvisioningLayoutFactory layoutFactory, ProvisioningConfig config, FeaturePackLayoutFactory<F> fpFactory, boolean initPluginOptions)
-            throws ProvisioningException {
+    ProvisioningLayout(ProvisioningLayoutFactory layoutFactory, ProvisioningConfig config, FeaturePackLayoutFactory<F> fpFactory, boolean initPluginOptions,
+            ProvisioningMetrics metrics) throws ProvisioningException {
         this.layoutFactory = layoutFactory;
         this.fpFactory = fpFactory;
         this.config = config;
         this.originalConfig = config;
+        this.metrics = metrics;
         this.handle = layoutFactory.createHandle();
         this.featurePackFamily = new FeaturePackFamily(layoutFactory);
         if(config.hasFeaturePackDeps()) {
@@ -370,13 +482,14 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
         }
     }
 
-    ProvisioningLayout(ProvisioningLayoutFactory layoutFactory, ProvisioningConfig config, FeaturePackLayoutFactory<F> fpFactory, Map<String, String> extraOptions)
-            throws ProvisioningException {
+    ProvisioningLayout(ProvisioningLayoutFactory layoutFactory, ProvisioningConfig config, FeaturePackLayoutFactory<F> fpFactory, Map<String, String> extraOptions,
+            ProvisioningMetrics metrics) throws ProvisioningException {
         this.layoutFactory = layoutFactory;
         this.fpFactory = fpFactory;
         this.featurePackFamily = new FeaturePackFamily(layoutFactory);
         this.config = config;
         this.originalConfig = config;
+        this.metrics = metrics;
         this.handle = layoutFactory.createHandle();
         if(config.hasFeaturePackDeps()) {
             initBuiltInOptions(config, extraOptions);
@@ -390,13 +503,41 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
         }
     }
 
+    ProvisioningLayout(ProvisioningLayoutFactory layoutFactory, ProvisioningConfig config, FeaturePackLayoutFactory<F> fpFactory, ProvisioningMetrics metrics)
+            throws ProvisioningException {
+        this.layoutFactory = layoutFactory;
+        this.fpFactory = fpFactory;
+        this.config = config;
+        this.originalConfig = config;
+        this.metrics = metrics;
+        this.handle = layoutFactory.createHandle();
+        this.handle.readOnly = true;
+        this.featurePackFamily = new FeaturePackFamily(layoutFactory);
+        if(config.hasFeaturePackDeps()) {
+            initBuiltInOptions(config, Collections.emptyMap());
+            try {
+                build(false, true);
+            } catch(Throwable t) {
+                handle.close();
+                throw t;
+            }
+            // the options are not validated against the plugins, which are not loaded
+            options = CollectionUtils.unmodifiable(config.getOptions());
+        }
+    }
+
     <O extends FeaturePackLayout> ProvisioningLayout(ProvisioningLayout<O> other, FeaturePackLayoutFactory<F> fpFactory) throws ProvisioningException {
+        this(other, fpFactory, other.config, other.originalConfig, other.metrics);
+    }
+
+    private <O extends FeaturePackLayout> ProvisioningLayout(ProvisioningLayout<O> other, FeaturePackLayoutFactory<F> fpFactory,
+            ProvisioningConfig config, ProvisioningConfig originalConfig, ProvisioningMetrics metrics) throws ProvisioningException {
         this(other, fpFactory, new FeaturePackLayoutTransformer<F, O>() {
             @Override
             public F transform(O other) throws ProvisioningException {
                 return fpFactory.newFeaturePack(other.getFPID().getLocation(), other.getSpec(), other.getDir(), other.getType());
             }
-        });
+        }, config, originalConfig, metrics);
     }
 
     <O extends FeaturePackLayout> ProvisioningLayout(ProvisioningLayout<O> other, FeaturePackLayoutTransformer<F, O> transformer) throws ProvisioningException {
@@ -406,14 +547,17 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
             public F newFeaturePack(FeaturePackLocation fpl, FeaturePackSpec spec, Path dir, int type) throws ProvisioningException {
                 return transformer.transform(fpFactory.newFeaturePack(fpl, spec, dir, type));
             }
-        }, transformer);
+        }, transformer, other.config, other.originalConfig, other.metrics);
     }
 
-    private <O extends FeaturePackLayout> ProvisioningLayout(ProvisioningLayout<O> other, FeaturePackLayoutFactory<F> fpFactory, FeaturePackLayoutTransformer<F, O> transformer) throws ProvisioningException {
+    private <O extends FeaturePackLayout> ProvisioningLayout(ProvisioningLayout<O> other, FeaturePackLayoutFactory<F> fpFactory,
+            FeaturePackLayoutTransformer<F, O> transformer, ProvisioningConfig config, ProvisioningConfig originalConfig,
+            ProvisioningMetrics metrics) throws ProvisioningException {
         this.layoutFactory = other.layoutFactory;
         this.fpFactory = fpFactory;
-        this.config = other.config;
-        this.originalConfig = other.originalConfig;
+        this.config = config;
+        this.originalConfig = originalConfig;
+        this.metrics = metrics;
         this.options = CollectionUtils.clone(other.options);
         this.systemPaths = other.systemPaths;
         this.featurePackFamily = new FeaturePackFamily(layoutFactory);
@@ -452,14 +596,126 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
         return fpFactory;
     }
 
+    /**
+     * Returns the metrics of the provisioning operation this layout was created for.
+     * The layouts transformed from this layout record to the same metrics.
+     *
+     * @return  metrics, never null
+     */
+    public ProvisioningMetrics getMetrics() {
+        return metrics;
+    }
+
     public <O extends FeaturePackLayout> ProvisioningLayout<O> transform(FeaturePackLayoutFactory<O> fpFactory) throws ProvisioningException {
         return new ProvisioningLayout<>(this, fpFactory);
     }
 
+    /**
+     * Transforms this layout into a layout that records the provisioning phases
+     * performed with it to the metrics instead of the metrics of this layout.
+     *
+     * @param fpFactory  feature-pack layout factory
+     * @param metrics  metrics of the provisioning operation
+     * @return  transformed layout
+     * @throws ProvisioningException  in case of a failure
+     */
+    public <O extends FeaturePackLayout> ProvisioningLayout<O> transform(FeaturePackLayoutFactory<O> fpFactory, ProvisioningMetrics metrics) throws ProvisioningException {
+        return new ProvisioningLayout<>(this, fpFactory, config, originalConfig, metrics);
+    }
+
     public <O extends FeaturePackLayout> ProvisioningLayout<O> transform(FeaturePackLayoutTransformer<O, F> transformer) throws ProvisioningException {
         return new ProvisioningLayout<>(this, transformer);
     }
 
+    /**
+     * Creates a layout of the feature-packs of this layout for another version of the provisioning config
+     * that resolves to the same feature-packs, sharing the resolved feature-packs, their specs and the
+     * work directory of this layout instead of resolving them again.
+     *
+     * @param config  provisioning config that resolves to the same layout
+     * @param fpFactory  feature-pack layout factory
+     * @return  layout for the config
+     * @throws ProvisioningException  in case the config does not resolve to the same layout
+     * @see #isLayoutOf(ProvisioningConfig)
+     */
+    public <O extends FeaturePackLayout> ProvisioningLayout<O> transform(ProvisioningConfig config, FeaturePackLayoutFactory<O> fpFactory) throws ProvisioningException {
+        if(!isLayoutOf(config)) {
+            throw new ProvisioningException("The layout can't be reused for a config that resolves to different feature-packs");
+        }
+        return new ProvisioningLayout<>(this, fpFactory, resolvedConfig(config), config, metrics);
+    }
+
+    /**
+     * Applies the resolution of this layout, i.e. the resolved feature-pack locations,
+     * the added transitive dependencies and the processed options, to the config.
+     */
+    private ProvisioningConfig resolvedConfig(ProvisioningConfig config) throws ProvisioningDescriptionException {
+        final ProvisioningConfig.Builder builder = ProvisioningConfig.builder()
+                .addOptions(this.config.getOptions())
+                .initUniverses(this.config)
+                .initConfigs(config);
+        for(FeaturePackConfig fpConfig : config.getFeaturePackDeps()) {
+            addResolvedDep(builder, config, fpConfig, this.config.getFeaturePackDep(fpConfig.getLocation().getProducer()));
+        }
+        for(FeaturePackConfig fpConfig : config.getTransitiveDeps()) {
+            final FeaturePackConfig resolved = this.config.getTransitiveDep(fpConfig.getLocation().getProducer());
+            if(resolved != null) {
+                addResolvedDep(builder, config, fpConfig, resolved);
+            }
+        }
+        for(FeaturePackConfig resolved : this.config.getTransitiveDeps()) {
+            if(!builder.hasTransitiveFeaturePackDep(resolved.getLocation().getProducer())) {
+                builder.addFeaturePackDep(this.config.originOf(resolved.getLocation().getProducer()), resolved);
+            }
+        }
+        return builder.build();
+    }
+
+    private static void addResolvedDep(ProvisioningConfig.Builder builder, ProvisioningConfig config, FeaturePackConfig fpConfig,
+            FeaturePackConfig resolved) throws ProvisioningDescriptionException {
+        final ProducerSpec producer = fpConfig.getLocation().getProducer();
+        if(resolved == null || resolved.getLocation().equals(fpConfig.getLocation())) {
+            builder.addFeaturePackDep(config.originOf(producer), fpConfig);
+        } else {
+            builder.addFeaturePackDep(config.originOf(producer), FeaturePackConfig.builder(resolved.getLocation()).init(fpConfig).build());
+        }
+    }
+
+    /**
+     * Checks whether the provisioning config resolves to the same layout as the config this layout was created for.
+     * This is the case when the configs differ only in how the feature-packs are customized,
+     * i.e. in the included and excluded packages and configs and in the defined configs,
+     * while the feature-pack locations, patches, universes and options are the same.
+     *
+     * @param config  provisioning config
+     * @return  true if the config resolves to the same layout
+     */
+    public boolean isLayoutOf(ProvisioningConfig config) {
+        if(!Objects.equals(originalConfig.getDefaultUniverse(), config.getDefaultUniverse())
+                || !originalConfig.getUniverseNamedSpecs().equals(config.getUniverseNamedSpecs())
+                || !originalConfig.getOptions().equals(config.getOptions())) {
+            return false;
+        }
+        return sameLocations(originalConfig.getFeaturePackDeps(), config.getFeaturePackDeps())
+                && sameLocations(originalConfig.getTransitiveDeps(), config.getTransitiveDeps());
+    }
+
+    private static boolean sameLocations(Collection<FeaturePackConfig> deps, Collection<FeaturePackConfig> otherDeps) {
+        if(deps.size() != otherDeps.size()) {
+            return false;
+        }
+        final Iterator<FeaturePackConfig> i = otherDeps.iterator();
+        for(FeaturePackConfig dep : deps) {
+            final FeaturePackConfig otherDep = i.next();
+            if(!dep.getLocation().equals(otherDep.getLocation())
+                    || !dep.getPatches().equals(otherDep.getPatches())
+                    || !Objects.equals(dep.getAllowedFamily(), otherDep.getAllowedFamily())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void apply(ProvisioningPlan plan) throws ProvisioningException {
         apply(plan, Collections.emptyMap());
     }
@@ -577,7 +833,7 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
             fpl = layoutFactory.getUniverseResolver().resolveLatestBuild(fpl);
         }
 
-        final FeaturePackSpec fpSpec = layoutFactory.resolveFeaturePack(fpl, FeaturePackLayout.DIRECT_DEP, fpFactory).getSpec();
+        final FeaturePackSpec fpSpec = layoutFactory.resolveFeaturePack(fpl, FeaturePackLayout.DIRECT_DEP, fpFactory, metrics).getSpec();
         final FPID fpid = fpSpec.getFPID();
         if(fpSpec.isPatch()) {
             if(allPatches.containsKey(fpid)) {
@@ -734,13 +990,40 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
         final ProvisioningPlan plan = ProvisioningPlan.builder();
         updatesTracker = getUpdatesTracker();
         updatesTracker.starting(producers.size());
-        for(ProducerSpec producer : producers) {
-            updatesTracker.processing(producer);
-            final FeaturePackUpdatePlan fpPlan = getFeaturePackUpdate(producer);
-            if(!fpPlan.isEmpty()) {
-                plan.update(fpPlan);
+        if(UPDATE_THREADS <= 1 || producers.size() <= 1) {
+            for(ProducerSpec producer : producers) {
+                updatesTracker.processing(producer);
+                final FeaturePackUpdatePlan fpPlan = getFeaturePackUpdate(producer);
+                if(!fpPlan.isEmpty()) {
+                    plan.update(fpPlan);
+                }
+                updatesTracker.processed(producer);
+            }
+        } else {
+            // channels are initialized sequentially, the latest builds are then queried concurrently
+            // while the results are collected and reported in the order of the producers
+            final List<UpdateCheck> checks = new ArrayList<>(producers.size());
+            for(ProducerSpec producer : producers) {
+                checks.add(newUpdateCheck(producer));
+            }
+            final ExecutorService executor = ConcurrencyUtils.newExecutor("Galleon update checker", Math.min(UPDATE_THREADS, checks.size()));
+            try {
+                final List<Future<FeaturePackUpdatePlan>> futures = new ArrayList<>(checks.size());
+                for(UpdateCheck check : checks) {
+                    futures.add(executor.submit(check));
+                }
+                int i = 0;
+                for(ProducerSpec producer : producers) {
+                    updatesTracker.processing(producer);
+                    final FeaturePackUpdatePlan fpPlan = ConcurrencyUtils.getResult(futures.get(i++));
+                    if(!fpPlan.isEmpty()) {
+                        plan.update(fpPlan);
+                    }
+                    updatesTracker.processed(producer);
+                }
+            } finally {
+                executor.shutdownNow();
             }
-            updatesTracker.processed(producer);
         }
         updatesTracker.complete();
         return plan;
@@ -754,6 +1037,13 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
      * @throws ProvisioningException  in case of a failure
      */
     public FeaturePackUpdatePlan getFeaturePackUpdate(ProducerSpec producer) throws ProvisioningException {
+        return newUpdateCheck(producer).call();
+    }
+
+    /**
+     * Resolves the channel of the producer and returns the task that queries it for the update plan.
+     */
+    private UpdateCheck newUpdateCheck(ProducerSpec producer) throws ProvisioningException {
         final F f = featurePacks.get(producer);
         if(f == null) {
             throw new ProvisioningException(BaseErrors.unknownFeaturePack(producer.getLocation().getFPID()));
@@ -774,7 +1064,7 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
             }
             patchIds = CollectionUtils.unmodifiable(tmp);
         }
-        return channel.getUpdatePlan(FeaturePackUpdatePlan.request(fpl, patchIds, f.isTransitiveDep()));
+        return new UpdateCheck(channel, FeaturePackUpdatePlan.request(fpl, patchIds, f.isTransitiveDep()));
     }
 
     public ProvisioningConfig getConfig() {
@@ -823,22 +1113,60 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
         return patches == null ? Collections.emptyList() : patches;
     }
 
+    /**
+     * Whether the layout was created only to be queried, in which case the plugins
+     * were not loaded to validate the options and the resources and the plugins
+     * of the feature-packs are copied only when they are requested.
+     *
+     * @return  whether the layout is read-only
+     */
+    public boolean isReadOnly() {
+        return handle.readOnly;
+    }
+
     public boolean hasPlugins() {
-        return handle.pluginsDir != null;
+        return handle.hasPlugins();
     }
 
+    /**
+     * Returns the directory the plugins of the feature-packs are copied to.
+     * For a read-only layout, the plugins are copied first if the copy is still pending.
+     *
+     * @return  the plugins directory or null if the layout does not include any plugins
+     * @throws IllegalStateException  in case the pending plugins of a read-only layout failed to be copied
+     */
     public Path getPluginsDir() {
+        copyPendingIfReadOnly();
         return handle.pluginsDir;
     }
 
     public boolean hasResources() {
-        return handle.resourcesDir != null;
+        return handle.hasResources();
     }
 
+    /**
+     * Returns the directory the resources of the feature-packs are copied to.
+     * For a read-only layout, the resources are copied first if the copy is still pending.
+     *
+     * @return  the resources directory or null if the layout does not include any resources
+     * @throws IllegalStateException  in case the pending resources of a read-only layout failed to be copied
+     */
     public Path getResources() {
+        copyPendingIfReadOnly();
         return handle.resourcesDir;
     }
 
+    private void copyPendingIfReadOnly() {
+        if(!handle.readOnly) {
+            return;
+        }
+        try {
+            handle.copyPending();
+        } catch (ProvisioningException e) {
+            throw new IllegalStateException(e.getLocalizedMessage(), e);
+        }
+    }
+
     /**
      * Returns a resource path for the provisioning setup.
      *
@@ -922,6 +1250,7 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
 
         buildTracker = getBuildTracker(trackProgress);
         buildTracker.starting(-1);
+        prefetchFeaturePacks();
         final Map<ProducerSpec, FPID> depBranch = new HashMap<>();
         layout(config, depBranch, FeaturePackLayout.DIRECT_DEP);
         if (!conflicts.isEmpty()) {
@@ -991,6 +1320,8 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
 
         // apply patches
         if(!fpPatches.isEmpty()) {
+            // the copied resources and plugins are patched
+            handle.copyPending();
             for (F f : ordered) {
                 final List<F> patches = fpPatches.get(f.getFPID());
                 if(patches == null) {
@@ -1012,6 +1343,8 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
                 try {
                     Files.createDirectories(fpDir);
                     IoUtils.copy(f.getDir(), fpDir);
+                    // the metadata index doesn't reflect the patches
+                    Files.deleteIfExists(fpDir.resolve(Constants.METADATA_INDEX));
                 } catch (IOException e) {
                     throw new ProvisioningException("Failed to patch feature-pack dir for " + f.getFPID(), e);
                 }
@@ -1076,6 +1409,144 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
         }
     }
 
+    /**
+     * Resolves the feature-packs of the dependency graph concurrently before the layout is built
+     * sequentially. The graph is walked in the order the layout is going to walk it, so only the
+     * feature-packs the layout is going to resolve are resolved: the versions it picks and the
+     * declared dependencies of those. The dependencies of a feature-pack are resolved concurrently,
+     * the ones that belong to the same channel in a batch. The walk stops at the first dependency
+     * whose resolution depends on the layout, i.e. a location without an explicit channel and build
+     * or a member of a feature-pack family, or that failed to resolve. The failures are reported
+     * when the layout reaches the failed feature-pack. With a single resolver thread the layout
+     * resolves the feature-packs itself.
+     */
+    private void prefetchFeaturePacks() throws ProvisioningException {
+        failedPrefetches = Collections.emptyMap();
+        if(RESOLVE_THREADS <= 1 || !config.hasFeaturePackDeps()) {
+            return;
+        }
+        final ExecutorService executor = ConcurrencyUtils.newExecutor("Galleon feature-pack resolver", RESOLVE_THREADS);
+        final Map<FPID, Future<FeaturePackSpec>> prefetched = new HashMap<>();
+        try {
+            prefetch(config, new HashMap<>(), new HashSet<>(), prefetched, executor);
+        } finally {
+            executor.shutdown();
+        }
+        for(Map.Entry<FPID, Future<FeaturePackSpec>> entry : prefetched.entrySet()) {
+            try {
+                ConcurrencyUtils.getResult(entry.getValue());
+            } catch (ProvisioningException | RuntimeException e) {
+                failedPrefetches = CollectionUtils.put(failedPrefetches, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Mirrors {@link #layout(FeaturePackDepsConfig, Map, int)} for the feature-packs with explicit builds.
+     *
+     * @return  false if the walk has to stop
+     */
+    private boolean prefetch(FeaturePackDepsConfig config, Map<ProducerSpec, FPID> parentBranch, Set<ProducerSpec> registered,
+            Map<FPID, Future<FeaturePackSpec>> prefetched, ExecutorService executor) {
+        if(!config.hasFeaturePackDeps()) {
+            return true;
+        }
+        final Map<ProducerSpec, FPID> branch = new HashMap<>(parentBranch);
+        for(FeaturePackConfig transitiveConfig : config.getTransitiveDeps()) {
+            final FeaturePackLocation fpl = transitiveConfig.getLocation();
+            if(fpl.isMavenCoordinates()) {
+                return false;
+            }
+            if(!branch.containsKey(fpl.getProducer())) {
+                branch.put(fpl.getProducer(), fpl.getFPID());
+            }
+        }
+        final List<FeaturePackLocation> queue = new ArrayList<>(config.getFeaturePackDeps().size());
+        for(FeaturePackConfig fpConfig : config.getFeaturePackDeps()) {
+            FeaturePackLocation fpl = fpConfig.getLocation();
+            if(fpl.isMavenCoordinates() || fpl.getChannelName() == null) {
+                return false;
+            }
+            final FPID branchId = branch.get(fpl.getProducer());
+            if(branchId != null) {
+                if(branchId.getChannel().getName() != null && !branchId.getChannel().getName().equals(fpl.getChannelName())) {
+                    return false;
+                }
+                if(branchId.getBuild() != null) {
+                    fpl = fpl.replaceBuild(branchId.getBuild());
+                }
+            }
+            if(fpl.getBuild() == null) {
+                return false;
+            }
+            if(!registered.add(fpl.getProducer())) {
+                continue;
+            }
+            queue.add(fpl);
+            if(branchId == null || branchId.getBuild() == null) {
+                branch.put(fpl.getProducer(), fpl.getFPID());
+            }
+        }
+        final List<Future<FeaturePackSpec>> futures = prefetch(queue, prefetched, executor);
+        final List<FeaturePackSpec> specs = new ArrayList<>(queue.size());
+        for(Future<FeaturePackSpec> future : futures) {
+            final FeaturePackSpec spec;
+            try {
+                spec = ConcurrencyUtils.getResult(future);
+            } catch (ProvisioningException | RuntimeException e) {
+                return false;
+            }
+            if(spec.hasFamily()) {
+                return false;
+            }
+            // the layout resolves the declared dependencies of a feature-pack to check their families
+            final List<FeaturePackLocation> declared = new ArrayList<>();
+            for(FeaturePackConfig dep : spec.getTransitiveDeps()) {
+                addDeclaredDependency(dep, declared);
+            }
+            for(FeaturePackConfig dep : spec.getFeaturePackDeps()) {
+                if(dep.getAllowedFamily() != null) {
+                    return false;
+                }
+                addDeclaredDependency(dep, declared);
+            }
+            prefetch(declared, prefetched, executor);
+            specs.add(spec);
+        }
+        for(FeaturePackSpec spec : specs) {
+            if(!prefetch(spec, branch, registered, prefetched, executor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addDeclaredDependency(FeaturePackConfig dep, List<FeaturePackLocation> declared) {
+        final FeaturePackLocation fpl = dep.getLocation();
+        if(!fpl.isMavenCoordinates() && fpl.getChannelName() != null && fpl.getBuild() != null) {
+            declared.add(fpl);
+        }
+    }
+
+    private List<Future<FeaturePackSpec>> prefetch(List<FeaturePackLocation> fpls, Map<FPID, Future<FeaturePackSpec>> prefetched,
+            ExecutorService executor) {
+        final List<FeaturePackLocation> newFpls = new ArrayList<>(fpls.size());
+        for(FeaturePackLocation fpl : fpls) {
+            if(!prefetched.containsKey(fpl.getFPID())) {
+                newFpls.add(fpl);
+            }
+        }
+        final List<Future<FeaturePackSpec>> submitted = layoutFactory.prefetch(newFpls, executor, metrics);
+        for(int i = 0; i < newFpls.size(); ++i) {
+            prefetched.put(newFpls.get(i).getFPID(), submitted.get(i));
+        }
+        final List<Future<FeaturePackSpec>> futures = new ArrayList<>(fpls.size());
+        for(FeaturePackLocation fpl : fpls) {
+            futures.add(prefetched.get(fpl.getFPID()));
+        }
+        return futures;
+    }
+
     private void layout(FeaturePackDepsConfig config, Map<ProducerSpec, FPID> branch, int type) throws ProvisioningException {
         if(!config.hasFeaturePackDeps()) {
             return;
@@ -1209,6 +1680,7 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
     }
 
     private void registerFeaturePack(ProducerSpec producer, F f) {
+        f.setLayoutFactory(layoutFactory, metrics);
         featurePacks.put(producer, f);
     }
 
@@ -1219,14 +1691,23 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
         mavenProducers.put(producer, f);
     }
 
+    private void reportFailedPrefetch(FeaturePackLocation fpl) throws ProvisioningException {
+        final Future<FeaturePackSpec> failed = failedPrefetches.get(fpl.getFPID());
+        if(failed != null) {
+            ConcurrencyUtils.getResult(failed);
+        }
+    }
+
     private F resolveFeaturePack(FeaturePackLocation fpl, int type) throws ProvisioningException {
+        reportFailedPrefetch(fpl);
         buildTracker.processing(fpl.getFPID());
-        F fp = layoutFactory.resolveFeaturePack(fpl, type, fpFactory);
+        F fp = layoutFactory.resolveFeaturePack(fpl, type, fpFactory, metrics);
         buildTracker.processed(fpl.getFPID());
         FeaturePackSpec.Builder rebuilder = null;
         FeaturePackSpec fpSpec = fp.getSpec();
         FeaturePackFamilyResolution resolution = featurePackFamily.newResolution(fp.getSpec(), fpl, (FeaturePackLocation loc) -> {
-            return layoutFactory.resolveFeaturePack(loc, type, fpFactory).getSpec();
+            reportFailedPrefetch(loc);
+            return layoutFactory.resolveFeaturePack(loc, type, fpFactory, metrics).getSpec();
         });
         if(fpSpec.hasTransitiveDeps()) {
             int i = 0;
@@ -1494,7 +1975,7 @@ public class ProvisioningLayout<F extends FeaturePackLayout> implements AutoClos
     }
 
     private void loadPatch(FPID patchId) throws ProvisioningException {
-        final F patchFp = layoutFactory.resolveFeaturePack(patchId.getLocation(), FeaturePackLayout.PATCH, fpFactory);
+        final F patchFp = layoutFactory.resolveFeaturePack(patchId.getLocation(), FeaturePackLayout.PATCH, fpFactory, metrics);
         final FeaturePackSpec spec = patchFp.getSpec();
         if(!spec.isPatch()) {
             throw new ProvisioningDescriptionException(patchId + " is not a patch but listed as one");
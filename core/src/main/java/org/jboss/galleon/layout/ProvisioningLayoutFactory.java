@@ -22,8 +22,18 @@ import java.io.IOException;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.xml.stream.XMLStreamException;
@@ -34,11 +44,14 @@ import org.jboss.galleon.Errors;
 import org.jboss.galleon.ProvisioningDescriptionException;
 import org.jboss.galleon.ProvisioningException;
 import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.metrics.ProvisioningMetrics;
+import org.jboss.galleon.metrics.ProvisioningPhase;
 import org.jboss.galleon.progresstracking.DefaultProgressTracker;
 import org.jboss.galleon.progresstracking.NoOpProgressCallback;
 import org.jboss.galleon.progresstracking.ProgressCallback;
 import org.jboss.galleon.progresstracking.ProgressTracker;
 import org.jboss.galleon.spec.FeaturePackSpec;
+import org.jboss.galleon.universe.Channel;
 import org.jboss.galleon.universe.FeaturePackLocation;
 import org.jboss.galleon.universe.FeaturePackLocation.FPID;
 import org.jboss.galleon.universe.Universe;
@@ -60,6 +73,18 @@ public class ProvisioningLayoutFactory implements Closeable {
     public static final String TRACK_PACKAGES = "PACKAGES";
     public static final String TRACK_CONFIGS = "CONFIGS";
 
+    private static final FeaturePackLayoutFactory<FeaturePackLayout> FP_LAYOUT_FACTORY = new FeaturePackLayoutFactory<FeaturePackLayout>() {
+        @Override
+        public FeaturePackLayout newFeaturePack(FeaturePackLocation fpl, FeaturePackSpec fpSpec, Path dir, int type) {
+            return new FeaturePackLayout(fpl.getFPID(), dir, type) {
+                @Override
+                public FeaturePackSpec getSpec() {
+                    return fpSpec;
+                }
+            };
+        }
+    };
+
     public static ProvisioningLayoutFactory getInstance() throws ProvisioningException {
         return getInstance(UniverseResolver.builder().build());
     }
@@ -79,7 +104,11 @@ public class ProvisioningLayoutFactory implements Closeable {
     private AtomicInteger openHandles = new AtomicInteger();
     private Map<String, UniverseFeaturePackInstaller> universeInstallers;
     private Map<String, ProgressTracker<?>> progressTrackers = new HashMap<>();
-    private final Map<FPID, FileSystem> cachedPacks = new HashMap<>();
+    private final Map<FPID, Path> cachedPacks = new HashMap<>();
+    private final List<FileSystem> packFileSystems = new ArrayList<>();
+    private final FeaturePackDirCache packDirCache = FeaturePackDirCache.getDefault();
+    private final ParsedSpecCache specCache = ParsedSpecCache.getDefault();
+    private final Map<Path, Optional<FeaturePackMetadataIndex>> metadataIndexes = new ConcurrentHashMap<>();
 
     private ProvisioningLayoutFactory(UniverseResolver universeResolver) {
         this.universeResolver = universeResolver;
@@ -115,6 +144,27 @@ public class ProvisioningLayoutFactory implements Closeable {
         return universeResolver;
     }
 
+    /**
+     * Returns the cache of the specs parsed from the feature-packs of the layouts
+     * created by this factory.
+     *
+     * @return  the cache or null if the cache has been disabled
+     */
+    public ParsedSpecCache getSpecCache() {
+        return specCache;
+    }
+
+    /**
+     * Returns the metadata index of a feature-pack directory. The index is loaded once
+     * and shared by the layouts created by this factory.
+     *
+     * @param fpDir  feature-pack directory
+     * @return  the index or null if the feature-pack has no valid index
+     */
+    FeaturePackMetadataIndex getMetadataIndex(Path fpDir) {
+        return metadataIndexes.computeIfAbsent(fpDir, dir -> Optional.ofNullable(FeaturePackMetadataIndex.load(dir))).orElse(null);
+    }
+
     /**
      * Adds feature-pack archive to the local provisioning feature-pack cache.
      * Optionally, installs the feature-pack archive to the universe repository.
@@ -156,66 +206,320 @@ public class ProvisioningLayoutFactory implements Closeable {
     }
 
     public ProvisioningLayout<FeaturePackLayout> newConfigLayout(ProvisioningConfig config) throws ProvisioningException {
-        return newConfigLayout(config, new FeaturePackLayoutFactory<FeaturePackLayout>() {
-            @Override
-            public FeaturePackLayout newFeaturePack(FeaturePackLocation fpl, FeaturePackSpec fpSpec, Path dir, int type) {
-                return new FeaturePackLayout(fpl.getFPID(), dir, type) {
-                    @Override
-                    public FeaturePackSpec getSpec() {
-                        return fpSpec;
-                    }
-                };
-            }}, false);
+        return newConfigLayout(config, FP_LAYOUT_FACTORY, false);
+    }
+
+    public ProvisioningLayout<FeaturePackLayout> newReadOnlyConfigLayout(ProvisioningConfig config) throws ProvisioningException {
+        return newReadOnlyConfigLayout(config, FP_LAYOUT_FACTORY);
     }
 
     public <F extends FeaturePackLayout> ProvisioningLayout<F> newConfigLayout(ProvisioningConfig config, FeaturePackLayoutFactory<F> factory, boolean initOptions) throws ProvisioningException {
-        return new ProvisioningLayout<>(this, config, factory, initOptions);
+        return newConfigLayout(config, factory, initOptions, ProvisioningMetrics.DISABLED);
+    }
+
+    /**
+     * Creates a layout that records the provisioning phases performed with it,
+     * starting with the layout build, to the metrics.
+     *
+     * @param config  provisioning configuration
+     * @param factory  feature-pack layout factory
+     * @param initOptions  whether to initialize the plugin options
+     * @param metrics  metrics of the provisioning operation
+     * @return  layout
+     * @throws ProvisioningException  in case of a failure
+     */
+    public <F extends FeaturePackLayout> ProvisioningLayout<F> newConfigLayout(ProvisioningConfig config, FeaturePackLayoutFactory<F> factory, boolean initOptions,
+            ProvisioningMetrics metrics) throws ProvisioningException {
+        final long startTime = metrics.start();
+        final ProvisioningLayout<F> layout = new ProvisioningLayout<>(this, config, factory, initOptions, metrics);
+        metrics.record(ProvisioningPhase.LAYOUT, startTime, config.getFeaturePackDeps().size(), 0);
+        return layout;
+    }
+
+    /**
+     * Creates a layout meant to be queried for its feature-packs, their specs and content.
+     * The plugins are not loaded to validate the options of the configuration and the resources
+     * and the plugins of the feature-packs are copied only when they are requested
+     * through {@link ProvisioningLayout#getResource(String...)}, {@link ProvisioningLayout#getPluginsClassLoader()}
+     * or {@link ProvisioningLayout#visitPlugins(FeaturePackPluginVisitor, Class)}.
+     *
+     * @param config  provisioning configuration
+     * @param factory  feature-pack layout factory
+     * @return  read-only layout
+     * @throws ProvisioningException  in case of a failure
+     */
+    public <F extends FeaturePackLayout> ProvisioningLayout<F> newReadOnlyConfigLayout(ProvisioningConfig config, FeaturePackLayoutFactory<F> factory) throws ProvisioningException {
+        return newReadOnlyConfigLayout(config, factory, ProvisioningMetrics.DISABLED);
+    }
+
+    /**
+     * Creates a read-only layout that records the provisioning phases performed with it,
+     * starting with the layout build, to the metrics.
+     *
+     * @param config  provisioning configuration
+     * @param factory  feature-pack layout factory
+     * @param metrics  metrics of the provisioning operation
+     * @return  read-only layout
+     * @throws ProvisioningException  in case of a failure
+     * @see #newReadOnlyConfigLayout(ProvisioningConfig, FeaturePackLayoutFactory)
+     */
+    public <F extends FeaturePackLayout> ProvisioningLayout<F> newReadOnlyConfigLayout(ProvisioningConfig config, FeaturePackLayoutFactory<F> factory,
+            ProvisioningMetrics metrics) throws ProvisioningException {
+        final long startTime = metrics.start();
+        final ProvisioningLayout<F> layout = new ProvisioningLayout<>(this, config, factory, metrics);
+        metrics.record(ProvisioningPhase.LAYOUT, startTime, config.getFeaturePackDeps().size(), 0);
+        return layout;
     }
 
     public <F extends FeaturePackLayout> ProvisioningLayout<F> newConfigLayout(ProvisioningConfig config, FeaturePackLayoutFactory<F> factory, Map<String, String> pluginOptions) throws ProvisioningException {
-        return new ProvisioningLayout<>(this, config, factory, pluginOptions);
+        return newConfigLayout(config, factory, pluginOptions, ProvisioningMetrics.DISABLED);
+    }
+
+    /**
+     * Creates a layout that records the provisioning phases performed with it,
+     * starting with the layout build, to the metrics.
+     *
+     * @param config  provisioning configuration
+     * @param factory  feature-pack layout factory
+     * @param pluginOptions  plugin options
+     * @param metrics  metrics of the provisioning operation
+     * @return  layout
+     * @throws ProvisioningException  in case of a failure
+     */
+    public <F extends FeaturePackLayout> ProvisioningLayout<F> newConfigLayout(ProvisioningConfig config, FeaturePackLayoutFactory<F> factory, Map<String, String> pluginOptions,
+            ProvisioningMetrics metrics) throws ProvisioningException {
+        final long startTime = metrics.start();
+        final ProvisioningLayout<F> layout = new ProvisioningLayout<>(this, config, factory, pluginOptions, metrics);
+        metrics.record(ProvisioningPhase.LAYOUT, startTime, config.getFeaturePackDeps().size(), 0);
+        return layout;
     }
 
     public <F extends FeaturePackLayout> F resolveFeaturePack(FeaturePackLocation location, int type, FeaturePackLayoutFactory<F> factory)
             throws ProvisioningException {
-        final Path fpDir = resolveFeaturePackDir(location);
+        return resolveFeaturePack(location, type, factory, ProvisioningMetrics.DISABLED);
+    }
+
+    <F extends FeaturePackLayout> F resolveFeaturePack(FeaturePackLocation location, int type, FeaturePackLayoutFactory<F> factory,
+            ProvisioningMetrics metrics) throws ProvisioningException {
+        final Path fpDir = resolveFeaturePackDir(location, metrics);
+        final FeaturePackSpec fpSpec = parseSpec(fpDir);
+        if(location.isMavenCoordinates()) {
+            final FPID specId = fpSpec.getFPID();
+            final FeaturePackLocation fpl = new FeaturePackLocation(specId.getUniverse(), specId.getProducer().getName(), specId.getChannel().getName(), location.getFrequency(), specId.getBuild());
+            synchronized (this) {
+                cachedPacks.put(fpl.getFPID(), cachedPacks.get(location.getFPID()));
+            }
+            location = fpl;
+        }
+        return factory.newFeaturePack(location, fpSpec, fpDir, type);
+    }
+
+    private static FeaturePackSpec parseSpec(Path fpDir) throws ProvisioningException {
         final Path fpXml = fpDir.resolve(Constants.FEATURE_PACK_XML);
         if (!Files.exists(fpXml)) {
             throw new ProvisioningDescriptionException(BaseErrors.pathDoesNotExist(fpXml));
         }
         try (BufferedReader reader = Files.newBufferedReader(fpXml)) {
-            final FeaturePackSpec fpSpec = FeaturePackXmlParser.getInstance().parse(reader);
-            if(location.isMavenCoordinates()) {
-                final FPID specId = fpSpec.getFPID();
-                final FeaturePackLocation fpl = new FeaturePackLocation(specId.getUniverse(), specId.getProducer().getName(), specId.getChannel().getName(), location.getFrequency(), specId.getBuild());
-                synchronized (this) {
-                    cachedPacks.put(fpl.getFPID(), cachedPacks.get(location.getFPID()));
-                }
-                location = fpl;
-            }
-            return factory.newFeaturePack(location, fpSpec, fpDir, type);
+            return FeaturePackXmlParser.getInstance().parse(reader);
         } catch (IOException | XMLStreamException e) {
             throw new ProvisioningException(Errors.parseXml(fpXml), e);
         }
     }
 
-    private synchronized Path resolveFeaturePackDir(FeaturePackLocation fpl) throws ProvisioningException {
+    /**
+     * Resolves the feature-packs that haven't been resolved by this factory yet using the executor.
+     * The artifacts of the feature-packs that belong to the same channel are resolved in a batch.
+     *
+     * @param locations  feature-pack locations with explicit builds
+     * @param executor  executor to resolve the feature-packs with
+     * @param metrics  metrics to record the artifact resolution to
+     * @return  the specs of the feature-packs in the order of the locations, the failures
+     *          are reported by the corresponding futures
+     */
+    List<Future<FeaturePackSpec>> prefetch(List<FeaturePackLocation> locations, ExecutorService executor, ProvisioningMetrics metrics) {
+        final List<Future<FeaturePackSpec>> specs = new ArrayList<>(locations.size());
+        final Map<Channel, Map<FeaturePackLocation, CompletableFuture<FeaturePackSpec>>> channelLocations = new LinkedHashMap<>();
+        for(FeaturePackLocation fpl : locations) {
+            final CompletableFuture<FeaturePackSpec> spec = new CompletableFuture<>();
+            specs.add(spec);
+            final Path cached;
+            synchronized (this) {
+                cached = cachedPacks.get(fpl.getFPID());
+            }
+            if(cached != null) {
+                try {
+                    spec.complete(parseSpec(cached));
+                } catch (ProvisioningException | RuntimeException e) {
+                    spec.completeExceptionally(e);
+                }
+                continue;
+            }
+            final Channel channel;
+            try {
+                // channels are initialized sequentially, resolving artifacts from them is thread-safe
+                channel = universeResolver.getChannel(fpl);
+            } catch (ProvisioningException | RuntimeException e) {
+                spec.completeExceptionally(e);
+                continue;
+            }
+            Map<FeaturePackLocation, CompletableFuture<FeaturePackSpec>> fpls = channelLocations.get(channel);
+            if(fpls == null) {
+                fpls = new LinkedHashMap<>();
+                channelLocations.put(channel, fpls);
+            }
+            fpls.put(fpl, spec);
+        }
+        for(Map<FeaturePackLocation, CompletableFuture<FeaturePackSpec>> fpls : channelLocations.values()) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final Map<FPID, Path> archives = resolveArtifacts(fpls.keySet(), metrics);
+                    for(Map.Entry<FeaturePackLocation, CompletableFuture<FeaturePackSpec>> entry : fpls.entrySet()) {
+                        try {
+                            entry.getValue().complete(prefetch(entry.getKey(), archives.get(entry.getKey().getFPID()), metrics));
+                        } catch (ProvisioningException | RuntimeException | Error e) {
+                            entry.getValue().completeExceptionally(e);
+                        }
+                    }
+                }
+            });
+        }
+        return specs;
+    }
+
+    /**
+     * Resolves the artifacts of feature-packs that belong to the same channel
+     * and haven't been resolved by this factory yet in a batch.
+     *
+     * @return  the resolved artifacts, empty if there was only one artifact to resolve
+     *          or if the batch failed, in which case the artifacts are resolved one by one
+     *          so that the failure is attributed to the feature-pack it concerns
+     */
+    private Map<FPID, Path> resolveArtifacts(Collection<FeaturePackLocation> locations, ProvisioningMetrics metrics) {
+        final List<FeaturePackLocation> fpls = new ArrayList<>(locations.size());
+        synchronized (this) {
+            for(FeaturePackLocation fpl : locations) {
+                if(!cachedPacks.containsKey(fpl.getFPID())) {
+                    fpls.add(fpl);
+                }
+            }
+        }
+        if(fpls.size() <= 1) {
+            return Collections.emptyMap();
+        }
+        final long startTime = metrics.start();
+        final List<Path> archives;
+        try {
+            archives = universeResolver.resolveAll(fpls);
+        } catch (ProvisioningException | RuntimeException e) {
+            return Collections.emptyMap();
+        }
+        final Map<FPID, Path> result = new HashMap<>(archives.size());
+        long size = 0;
+        for(int i = 0; i < archives.size(); ++i) {
+            final Path archive = archives.get(i);
+            result.put(fpls.get(i).getFPID(), archive);
+            if(startTime != -1) {
+                try {
+                    size += Files.size(archive);
+                } catch (IOException e) {
+                    // the size is informational
+                }
+            }
+        }
+        metrics.record(ProvisioningPhase.ARTIFACT_RESOLUTION, startTime, archives.size(), size);
+        return result;
+    }
+
+    private FeaturePackSpec prefetch(FeaturePackLocation fpl, Path archive, ProvisioningMetrics metrics) throws ProvisioningException {
+        final FPID fpid = fpl.getFPID();
+        Path fpDir;
+        synchronized (this) {
+            fpDir = cachedPacks.get(fpid);
+        }
+        if(fpDir == null) {
+            fpDir = putIfAbsent(openFeaturePackDir(archive == null ? resolveArtifact(fpl, metrics) : archive, fpid), fpid);
+        }
+        return parseSpec(fpDir);
+    }
+
+    private Path resolveFeaturePackDir(FeaturePackLocation fpl, ProvisioningMetrics metrics) throws ProvisioningException {
         final FPID fpid = fpl.getFPID();
-        FileSystem packFs = cachedPacks.get(fpid);
-        if(packFs != null) {
-            return getFpDir(packFs);
+        synchronized (this) {
+            final Path fpDir = cachedPacks.get(fpid);
+            if(fpDir != null) {
+                return fpDir;
+            }
+        }
+        return putIfAbsent(openFeaturePackDir(resolveArtifact(fpl, metrics), fpid), fpid);
+    }
+
+    private Path resolveArtifact(FeaturePackLocation fpl, ProvisioningMetrics metrics) throws ProvisioningException {
+        final long startTime = metrics.start();
+        final Path archive = universeResolver.resolve(fpl);
+        if(startTime != -1) {
+            long size = 0;
+            try {
+                size = Files.size(archive);
+            } catch (IOException e) {
+                // the size is informational
+            }
+            metrics.record(ProvisioningPhase.ARTIFACT_RESOLUTION, startTime, 1, size);
         }
-        return put(universeResolver.resolve(fpl), fpid);
+        return archive;
     }
 
     private Path put(Path featurePack, FeaturePackLocation.FPID fpid) throws ProvisioningException {
+        final Path fpDir = openFeaturePackDir(featurePack, fpid);
+        synchronized (this) {
+            cachedPacks.put(fpid, fpDir);
+        }
+        return fpDir;
+    }
+
+    /**
+     * Caches the opened feature-pack directory unless a directory for the same feature-pack
+     * has been cached while it was being opened, in which case the newly opened archive
+     * is closed and the cached directory is returned.
+     */
+    private Path putIfAbsent(Path fpDir, FeaturePackLocation.FPID fpid) {
+        final Path cached;
+        synchronized (this) {
+            cached = cachedPacks.putIfAbsent(fpid, fpDir);
+            if(cached == null) {
+                return fpDir;
+            }
+            if(packDirCache != null) {
+                // the cache returned the same entry, which is released when the cache is closed
+                return cached;
+            }
+            packFileSystems.remove(fpDir.getFileSystem());
+        }
+        try {
+            fpDir.getFileSystem().close();
+        } catch (IOException e) {
+            // not used by any layout
+        }
+        return cached;
+    }
+
+    /**
+     * Extracts or opens the feature-pack archive. Called without holding the lock
+     * of this factory, so that the archives can be opened concurrently.
+     */
+    private Path openFeaturePackDir(Path featurePack, FeaturePackLocation.FPID fpid) throws ProvisioningException {
+        if(packDirCache != null) {
+            return packDirCache.get(fpid, featurePack);
+        }
         final FileSystem packFs;
         try {
             packFs = ZipUtils.newFileSystem(featurePack);
         } catch (IOException e) {
             throw new ProvisioningException(Errors.openFile(featurePack), e);
         }
-        cachedPacks.put(fpid, packFs);
+        synchronized (this) {
+            packFileSystems.add(packFs);
+        }
         return getFpDir(packFs);
     }
 
@@ -235,7 +539,14 @@ public class ProvisioningLayoutFactory implements Closeable {
 
     @Override
     public void close() {
-        for(FileSystem fs : cachedPacks.values()) {
+        if(specCache != null) {
+            specCache.clear();
+        }
+        metadataIndexes.clear();
+        if(packDirCache != null) {
+            packDirCache.close();
+        }
+        for(FileSystem fs : packFileSystems) {
             try {
                 fs.close();
             } catch (IOException e) {
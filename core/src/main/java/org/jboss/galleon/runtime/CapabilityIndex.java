@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.runtime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Capability names of a config interned to integer ids.
+ *
+ * <p>A capability name is a sequence of dot-separated elements. The index keeps a tree
+ * of the elements, each node of which is a capability (or a prefix of one) with its own id.
+ * Resolving a capability walks the tree element by element, so the complete name is never
+ * concatenated unless it is needed for an error message.
+ *
+ * <p>The providers of the capabilities are kept in an array indexed by the capability id.
+ */
+class CapabilityIndex {
+
+    static final int ROOT = 0;
+
+    private static class Node {
+        final int parent;
+        final String elem;
+        // children by element, an element containing dots maps to the deepest node of its path
+        Map<String, Integer> children;
+        String name;
+
+        Node(int parent, String elem) {
+            this.parent = parent;
+            this.elem = elem;
+        }
+    }
+
+    private final List<Node> nodes = new ArrayList<>();
+    private CapabilityProviders[] providers = new CapabilityProviders[16];
+
+    CapabilityIndex() {
+        nodes.add(new Node(-1, null));
+    }
+
+    /**
+     * Returns the id of the capability that consists of the capability identified by {@code parent}
+     * followed by {@code elem}, interning it if necessary.
+     *
+     * @param parent  id of the capability to append the element to or {@link #ROOT}
+     * @param elem  capability element, which may itself contain dots
+     * @return  id of the resulting capability
+     */
+    int child(int parent, String elem) {
+        final Node node = nodes.get(parent);
+        if(node.children == null) {
+            node.children = new HashMap<>();
+        } else {
+            final Integer id = node.children.get(elem);
+            if(id != null) {
+                return id;
+            }
+        }
+        int id = parent;
+        int start = 0;
+        int dot = elem.indexOf('.');
+        if(dot < 0) {
+            id = newNode(parent, elem);
+        } else {
+            while(dot >= 0) {
+                id = child(id, elem.substring(start, dot));
+                start = dot + 1;
+                dot = elem.indexOf('.', start);
+            }
+            id = child(id, elem.substring(start));
+        }
+        node.children.put(elem, id);
+        return id;
+    }
+
+    private int newNode(int parent, String elem) {
+        final int id = nodes.size();
+        nodes.add(new Node(parent, elem));
+        return id;
+    }
+
+    CapabilityProviders getProviders(int id) {
+        return id < providers.length ? providers[id] : null;
+    }
+
+    CapabilityProviders getOrCreateProviders(int id) {
+        if(id >= providers.length) {
+            providers = Arrays.copyOf(providers, Math.max(providers.length * 2, id + 1));
+        }
+        CapabilityProviders result = providers[id];
+        if(result == null) {
+            result = new CapabilityProviders();
+            providers[id] = result;
+        }
+        return result;
+    }
+
+    String getName(int id) {
+        if(id == ROOT) {
+            return "";
+        }
+        final Node node = nodes.get(id);
+        if(node.name == null) {
+            node.name = node.parent == ROOT ? node.elem : getName(node.parent) + '.' + node.elem;
+        }
+        return node.name;
+    }
+
+    int size() {
+        return nodes.size() - 1;
+    }
+}
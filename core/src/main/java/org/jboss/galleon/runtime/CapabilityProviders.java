@@ -45,7 +45,7 @@ class CapabilityProviders {
 
     void add(SpecFeatures specFeatures) {
         specs = CollectionUtils.add(specs, specFeatures);
-        specFeatures.spec.addCapabilityProviders(this);
+        specFeatures.addCapabilityProviders(this);
     }
 
     void add(ResolvedFeature feature) {
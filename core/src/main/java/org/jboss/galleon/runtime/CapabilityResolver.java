@@ -16,11 +16,8 @@
  */
 package org.jboss.galleon.runtime;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
 
 import org.jboss.galleon.Errors;
 import org.jboss.galleon.ProvisioningException;
@@ -33,34 +30,49 @@ import org.jboss.galleon.util.StringUtils;
  */
 public class CapabilityResolver {
 
-    private ArrayList<StringBuilder> capList = null;
-    private StringBuilder capBuf;
+    private static final int[] NONE = new int[0];
+
+    private final CapabilityIndex index;
+    // the capability being resolved while it has a single variant
+    private int cap = CapabilityIndex.ROOT;
+    // the variants of the capability being resolved once it has been multiplied
+    private int[] caps;
+    private int capsTotal;
 
     private ResolvedFeature feature;
     private CapabilitySpec capSpec;
     private String currentElem;
 
-    List<String> resolve(CapabilitySpec capSpec, ResolvedFeature feature) throws ProvisioningException {
+    public CapabilityResolver() {
+        this(new CapabilityIndex());
+    }
+
+    CapabilityResolver(CapabilityIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Resolves the capability for the feature.
+     *
+     * @param capSpec  capability spec
+     * @param feature  feature the capability belongs to
+     * @return  ids of the resolved capabilities in the capability index
+     * @throws ProvisioningException  in case the capability could not be resolved
+     */
+    int[] resolve(CapabilitySpec capSpec, ResolvedFeature feature) throws ProvisioningException {
         if(capSpec.isStatic()) {
-            return Collections.singletonList(capSpec.toString());
-        }
-        if(capBuf == null) {
-            capBuf = new StringBuilder();
+            return new int[] {index.child(CapabilityIndex.ROOT, capSpec.toString())};
         }
         this.feature = feature;
         this.capSpec = capSpec;
         try {
             if(!capSpec.resolve(this)) {
-                return Collections.emptyList();
-            }
-            if(capList == null) {
-                return capBuf.length() == 0 ? Collections.emptyList() : Collections.singletonList(capBuf.toString());
+                return NONE;
             }
-            List<String> resolved = new ArrayList<>(capList.size());
-            for (int i = 0; i < capList.size(); ++i) {
-                resolved.add(capList.get(i).toString());
+            if(caps == null) {
+                return cap == CapabilityIndex.ROOT ? NONE : new int[] {cap};
             }
-            return resolved;
+            return Arrays.copyOf(caps, capsTotal);
         } catch(ProvisioningException e) {
             throw new ProvisioningException(Errors.failedToResolveCapability(feature, capSpec), e);
         } finally {
@@ -70,8 +82,9 @@ public class CapabilityResolver {
 
     void reset() {
         feature = null;
-        capList = null;
-        capBuf.setLength(0);
+        cap = CapabilityIndex.ROOT;
+        caps = null;
+        capsTotal = 0;
         currentElem = null;
     }
 
@@ -93,60 +106,64 @@ public class CapabilityResolver {
     }
 
     public CapabilityResolver add(Object elem) throws ProvisioningException {
-        if(capList == null) {
-            if(capBuf.length() > 0) {
-                capBuf.append('.');
-            }
-            capBuf.append(toStringElem(elem));
+        final String str = toStringElem(elem);
+        if(caps == null) {
+            cap = index.child(cap, str);
             return this;
         }
-        final String str = toStringElem(elem);
-        for(int i = 0; i < capList.size(); ++i) {
-            capList.get(i).append('.').append(str);
+        for(int i = 0; i < capsTotal; ++i) {
+            caps[i] = index.child(caps[i], str);
         }
         return this;
     }
 
     public CapabilityResolver multiply(Collection<?> elems) throws ProvisioningException {
         if(elems.isEmpty()) {
-            throw new ProvisioningException(Errors.illegalCapabilityElement(capSpec, elems.toString(), capBuf.toString()));
+            throw new ProvisioningException(Errors.illegalCapabilityElement(capSpec, elems.toString(), resolvedPart()));
         }
         if(elems.size() == 1) {
             add(elems.iterator().next());
             return this;
         }
-        if(capList == null) {
-            if(capBuf.length() > 0) {
-                capBuf.append('.');
-            }
-            capList = new ArrayList<>(elems.size());
+        if(caps == null) {
+            caps = new int[elems.size()];
             for(Object o : elems) {
-                capList.add(capBuf.length() == 0 ? new StringBuilder(toStringElem(o)) : new StringBuilder(capBuf).append(toStringElem(o)));
+                caps[capsTotal++] = index.child(cap, toStringElem(o));
             }
             return this;
         }
 
-        capList.ensureCapacity(capList.size() * elems.size());
-        final int capsTotal = capList.size();
-        for (int i = 0; i < capsTotal; ++i) {
-            final StringBuilder capBuf = capList.get(i).append('.');
-            final Iterator<?> elemI = elems.iterator();
-            final Object firstElem = elemI.next();
-            while(elemI.hasNext()) {
-                capList.add(new StringBuilder(capBuf).append(toStringElem(elemI.next())));
+        final int[] multiplied = new int[capsTotal * elems.size()];
+        int total = 0;
+        final String[] strElems = new String[elems.size()];
+        for(Object o : elems) {
+            strElems[total++] = toStringElem(o);
+        }
+        // the same order of variants as appending the first element to each capability
+        // and the rest of the elements to its copies
+        total = capsTotal;
+        for(int i = 0; i < capsTotal; ++i) {
+            multiplied[i] = index.child(caps[i], strElems[0]);
+            for(int j = 1; j < strElems.length; ++j) {
+                multiplied[total++] = index.child(caps[i], strElems[j]);
             }
-            capBuf.append(toStringElem(firstElem));
         }
+        caps = multiplied;
+        capsTotal = total;
         return this;
     }
 
+    private String resolvedPart() {
+        return index.getName(caps == null ? cap : caps[0]);
+    }
+
     private String toStringElem(Object elem) throws ProvisioningException {
         if(elem == null) {
-            throw new ProvisioningException(Errors.illegalCapabilityElement(capSpec, null, capBuf.toString()));
+            throw new ProvisioningException(Errors.illegalCapabilityElement(capSpec, null, resolvedPart()));
         }
         final String str = elem.toString().trim();
         if(str.isEmpty()) {
-            throw new ProvisioningException(Errors.illegalCapabilityElement(capSpec, str, capBuf.toString()));
+            throw new ProvisioningException(Errors.illegalCapabilityElement(capSpec, str, resolvedPart()));
         }
         return StringUtils.stripSurrounding(str, '"');
     }
@@ -36,6 +36,8 @@ import org.jboss.galleon.api.GalleonLayerDependency;
 import org.jboss.galleon.config.ConfigId;
 import org.jboss.galleon.config.ConfigModel;
 import org.jboss.galleon.config.FeatureGroupSupport;
+import org.jboss.galleon.metrics.ProvisioningMetrics;
+import org.jboss.galleon.metrics.ProvisioningPhase;
 import org.jboss.galleon.spec.FeatureDependencySpec;
 import org.jboss.galleon.util.CollectionUtils;
 
@@ -496,7 +498,8 @@ class ConfigModelStack {
                     if(specFeatures == null) {
                         specFeatures = getSpecFeatures(otherSpecFeatures.spec);
                     }
-                    specFeatures.add(feature);
+                    // the features are copied since their ordering state belongs to the config
+                    specFeatures.add(feature.copy(++featureIncludeCount));
                     continue;
                 }
                 final ResolvedFeature localFeature = features.get(feature.id);
@@ -514,6 +517,22 @@ class ConfigModelStack {
         }
     }
 
+    /**
+     * Resolves the references of the specs of the features that are going to be arranged.
+     */
+    void resolveRefMappings() throws ProvisioningException {
+        if(orderedFeatures != null || features.isEmpty()) {
+            return;
+        }
+        try {
+            for(SpecFeatures specFeatures : specFeatures.values()) {
+                specFeatures.spec.resolveRefMappings(rt);
+            }
+        } catch (ProvisioningException e) {
+            throw new ProvisioningException(Errors.failedToBuildConfigSpec(id.getModel(), id.getName()), e);
+        }
+    }
+
     List<ResolvedFeature> orderFeatures(boolean arrange) throws ProvisioningException {
         if(orderedFeatures != null) {
             return orderedFeatures;
@@ -522,6 +541,8 @@ class ConfigModelStack {
             orderedFeatures = Collections.emptyList();
         } else if(arrange) {
             final String arranger = System.getProperty(Constants.PROP_CONFIG_ARRANGER);
+            final ProvisioningMetrics metrics = rt.layout.getMetrics();
+            final long startTime = metrics.start();
             if(arranger == null) {
                 orderedFeatures = new DefaultBranchedConfigArranger(this).orderFeatures();
             } else if(Constants.CONFIG_ARRANGER_SPEC_ONLY.equals(arranger)) {
@@ -529,6 +550,7 @@ class ConfigModelStack {
             } else {
                 throw new ProvisioningException("Unsupported config arranger " + arranger);
             }
+            metrics.record(ProvisioningPhase.CONFIG_ORDERING, startTime, orderedFeatures.size(), 0);
         } else {
             orderedFeatures = new ArrayList<>(features.size());
             for(ResolvedFeature feature : features.values()) {
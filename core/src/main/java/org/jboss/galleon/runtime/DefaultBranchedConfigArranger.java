@@ -57,8 +57,8 @@ class DefaultBranchedConfigArranger {
     private final boolean isolateCircularDeps;
     private final boolean mergeIndependentBranches;
 
-    private CapabilityResolver capResolver = new CapabilityResolver();
-    private Map<String, CapabilityProviders> capProviders = Collections.emptyMap();
+    private final CapabilityIndex capIndex = new CapabilityIndex();
+    private final CapabilityResolver capResolver = new CapabilityResolver(capIndex);
 
     private List<ConfigFeatureBranch> featureBranches = Collections.emptyList();
     private Map<Object, ConfigFeatureBranch> branchesWithId = Collections.emptyMap();
@@ -253,14 +253,10 @@ class DefaultBranchedConfigArranger {
             if(specFeatures.spec.xmlSpec.providesCapabilities()) {
                 for(CapabilitySpec cap : specFeatures.spec.xmlSpec.getProvidedCapabilities()) {
                     if(cap.isStatic()) {
-                        getProviders(cap.toString(), true).add(specFeatures);
+                        getProviders(capResolver.resolve(cap, null)[0], true).add(specFeatures);
                     } else {
                         for(ResolvedFeature feature : specFeatures.getFeatures()) {
-                            final List<String> resolvedCaps = capResolver.resolve(cap, feature);
-                            if(resolvedCaps.isEmpty()) {
-                                continue;
-                            }
-                            for(String resolvedCap : resolvedCaps) {
+                            for(int resolvedCap : capResolver.resolve(cap, feature)) {
                                 getProviders(resolvedCap, true).add(feature);
                             }
                         }
@@ -291,17 +287,15 @@ class DefaultBranchedConfigArranger {
         }
     }
 
-    private CapabilityProviders getProviders(String cap, boolean add) throws ProvisioningException {
-        CapabilityProviders providers = capProviders.get(cap);
+    private CapabilityProviders getProviders(int cap, boolean add) throws ProvisioningException {
+        final CapabilityProviders providers = capIndex.getProviders(cap);
         if(providers != null) {
             return providers;
         }
         if(!add) {
-            throw new ProvisioningException(Errors.noCapabilityProvider(cap));
+            throw new ProvisioningException(Errors.noCapabilityProvider(capIndex.getName(cap)));
         }
-        providers = new CapabilityProviders();
-        capProviders = CollectionUtils.put(capProviders, cap, providers);
-        return providers;
+        return capIndex.getOrCreateProviders(cap);
     }
 
     /**
@@ -628,16 +622,16 @@ class DefaultBranchedConfigArranger {
     private List<CircularRefInfo> orderCapabilityProviders(ResolvedFeature feature, List<CircularRefInfo> circularRefs)
             throws ProvisioningException {
         for (CapabilitySpec capSpec : feature.spec.xmlSpec.getRequiredCapabilities()) {
-            final List<String> resolvedCaps = capResolver.resolve(capSpec, feature);
-            if (resolvedCaps.isEmpty() || ignoreCapabilities) {
+            final int[] resolvedCaps = capResolver.resolve(capSpec, feature);
+            if (resolvedCaps.length == 0 || ignoreCapabilities) {
                 continue;
             }
-            for (String resolvedCap : resolvedCaps) {
+            for (int resolvedCap : resolvedCaps) {
                 final CapabilityProviders providers;
                 try {
                     providers = getProviders(resolvedCap, false);
                 } catch (ProvisioningException e) {
-                    throw new ProvisioningException(Errors.noCapabilityProvider(feature, capSpec, resolvedCap));
+                    throw new ProvisioningException(Errors.noCapabilityProvider(feature, capSpec, capIndex.getName(resolvedCap)));
                 }
                 circularRefs = CollectionUtils.addAll(circularRefs, orderProviders(providers));
                 if(providers.isProvided()) {
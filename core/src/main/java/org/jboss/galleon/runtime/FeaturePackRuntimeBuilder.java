@@ -20,10 +20,16 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import javax.xml.stream.XMLStreamException;
 import org.jboss.galleon.BaseErrors;
@@ -41,12 +47,14 @@ import org.jboss.galleon.spec.ConfigLayerSpec;
 import org.jboss.galleon.spec.FeaturePackSpec;
 import org.jboss.galleon.spec.FeatureSpec;
 import org.jboss.galleon.spec.PackageDependencySpec;
+import org.jboss.galleon.spec.PackageSpec;
 import org.jboss.galleon.type.ParameterTypeProvider;
 import org.jboss.galleon.type.builtin.BuiltInParameterTypeProvider;
 import org.jboss.galleon.universe.FeaturePackLocation.FPID;
 import org.jboss.galleon.universe.FeaturePackLocation.ProducerSpec;
 import org.jboss.galleon.util.LayoutUtils;
 import org.jboss.galleon.util.CollectionUtils;
+import org.jboss.galleon.util.ConcurrencyUtils;
 import org.jboss.galleon.xml.ConfigXmlParser;
 import org.jboss.galleon.xml.FeatureGroupXmlParser;
 import org.jboss.galleon.xml.FeatureSpecXmlParser;
@@ -68,6 +76,7 @@ public class FeaturePackRuntimeBuilder extends FeaturePackLayout {
     private Map<String, FeatureGroup> fgSpecs = null;
     private Map<ConfigId, ConfigModel> configs = null;
     private Map<ConfigId, ConfigLayerSpec> layers = null;
+    private Map<String, Future<PackageSpec>> pkgSpecs = Collections.emptyMap();
 
     Map<String, PackageRuntime.Builder> pkgBuilders = Collections.emptyMap();
     LinkedList<String> pkgOrder = new LinkedList<>();
@@ -117,12 +126,7 @@ public class FeaturePackRuntimeBuilder extends FeaturePackLayout {
             if (!Files.exists(pkgXml)) {
                 throw new ProvisioningDescriptionException(BaseErrors.pathDoesNotExist(pkgXml));
             }
-
-            try (BufferedReader reader = Files.newBufferedReader(pkgXml)) {
-                pkgBuilder = PackageRuntime.builder(this, PackageXmlParser.getInstance().parse(reader), pkgDir, ++rt.pkgsTotal);
-            } catch (IOException | XMLStreamException e) {
-                throw new ProvisioningException(Errors.parseXml(pkgXml), e);
-            }
+            pkgBuilder = PackageRuntime.builder(this, getPackageSpec(pkgName, pkgXml, rt), pkgDir, ++rt.pkgsTotal);
             if (!pkgBuilder.spec.getName().equals(pkgName)) {
                 throw new ProvisioningDescriptionException("Feature-pack " + getFPID() + " package spec name "
                         + pkgBuilder.spec.getName() + " does not match the requested package name " + pkgName);
@@ -157,6 +161,101 @@ public class FeaturePackRuntimeBuilder extends FeaturePackLayout {
         return true;
     }
 
+    /**
+     * Returns the spec of a package of the feature-pack. When more than one thread is allowed for package parsing,
+     * a spec that hasn't been parsed by {@link #parsePackageSpecs(Collection, ProvisioningRuntimeBuilder)} yet is parsed
+     * together with the specs of the packages of this feature-pack it depends on. A failure to parse a package spec
+     * is re-thrown when the package itself is resolved.
+     */
+    private PackageSpec getPackageSpec(String pkgName, Path pkgXml, ProvisioningRuntimeBuilder rt) throws ProvisioningException {
+        if(rt.packageThreads <= 1) {
+            return parsePackageSpec(pkgXml);
+        }
+        Future<PackageSpec> pkgSpec = pkgSpecs.get(pkgName);
+        if(pkgSpec == null) {
+            parsePackageSpecs(Collections.singletonMap(pkgName, pkgXml), rt);
+            pkgSpec = pkgSpecs.get(pkgName);
+        }
+        return ConcurrencyUtils.getResult(pkgSpec);
+    }
+
+    /**
+     * Parses the specs of the packages of this feature-pack and of the packages of this feature-pack they depend on,
+     * directly or transitively, the specs of each level of the dependency tree being parsed concurrently.
+     *
+     * @param pkgNames  names of the packages about to be resolved
+     * @param rt  runtime builder providing the executor
+     * @throws ProvisioningException  in case of a failure
+     */
+    void parsePackageSpecs(Collection<String> pkgNames, ProvisioningRuntimeBuilder rt) throws ProvisioningException {
+        final Map<String, Path> level = new LinkedHashMap<>(pkgNames.size());
+        for(String pkgName : pkgNames) {
+            if(pkgSpecs.containsKey(pkgName) || pkgBuilders.containsKey(pkgName)) {
+                continue;
+            }
+            final Path pkgXml = LayoutUtils.getPackageDir(dir, pkgName, false).resolve(Constants.PACKAGE_XML);
+            if(Files.exists(pkgXml)) {
+                level.put(pkgName, pkgXml);
+            }
+        }
+        parsePackageSpecs(level, rt);
+    }
+
+    private void parsePackageSpecs(Map<String, Path> level, ProvisioningRuntimeBuilder rt) throws ProvisioningException {
+        if(pkgSpecs.isEmpty()) {
+            pkgSpecs = new HashMap<>();
+        }
+        while(!level.isEmpty()) {
+            final List<Future<PackageSpec>> parsed = new ArrayList<>(level.size());
+            for(Map.Entry<String, Path> entry : level.entrySet()) {
+                final Path xml = entry.getValue();
+                final FutureTask<PackageSpec> task = new FutureTask<>(() -> parsePackageSpec(xml));
+                if(level.size() == 1) {
+                    task.run();
+                } else {
+                    rt.getPackageParser().execute(task);
+                }
+                pkgSpecs.put(entry.getKey(), task);
+                parsed.add(task);
+            }
+            level = new LinkedHashMap<>();
+            for(Future<PackageSpec> future : parsed) {
+                final PackageSpec spec;
+                try {
+                    spec = ConcurrencyUtils.getResult(future);
+                } catch(ProvisioningException e) {
+                    // reported when the package is resolved
+                    continue;
+                }
+                if(!spec.hasLocalPackageDeps()) {
+                    continue;
+                }
+                for(PackageDependencySpec dep : spec.getLocalPackageDeps()) {
+                    final String depName = dep.getName();
+                    if(pkgSpecs.containsKey(depName) || pkgBuilders.containsKey(depName) || level.containsKey(depName)) {
+                        continue;
+                    }
+                    final Path depXml = LayoutUtils.getPackageDir(dir, depName, false).resolve(Constants.PACKAGE_XML);
+                    if(Files.exists(depXml)) {
+                        level.put(depName, depXml);
+                    }
+                }
+            }
+        }
+    }
+
+    private PackageSpec parsePackageSpec(Path pkgXml) throws ProvisioningException {
+        return parse(pkgXml, this::doParsePackageSpec);
+    }
+
+    private PackageSpec doParsePackageSpec(Path pkgXml) throws ProvisioningException {
+        try (BufferedReader reader = Files.newBufferedReader(pkgXml)) {
+            return PackageXmlParser.getInstance().parse(reader);
+        } catch (IOException | XMLStreamException e) {
+            throw new ProvisioningException(Errors.parseXml(pkgXml), e);
+        }
+    }
+
     FeatureGroup getFeatureGroupSpec(String name) throws ProvisioningException {
         if(fgSpecs != null) {
             final FeatureGroup fgSpec = fgSpecs.get(name);
@@ -165,22 +264,26 @@ public class FeaturePackRuntimeBuilder extends FeaturePackLayout {
             }
         }
         final Path specXml = dir.resolve(Constants.FEATURE_GROUPS).resolve(name + ".xml");
-        if (!Files.exists(specXml)) {
+        final FeatureGroup fgSpec = parse(specXml, p -> {
+            try (BufferedReader reader = Files.newBufferedReader(p)) {
+                return FeatureGroupXmlParser.getInstance().parse(reader);
+            } catch (Exception e) {
+                throw new ProvisioningException(Errors.parseXml(p), e);
+            }
+        });
+        if(fgSpec == null) {
             return null;
         }
-        try (BufferedReader reader = Files.newBufferedReader(specXml)) {
-            final FeatureGroup fgSpec = FeatureGroupXmlParser.getInstance().parse(reader);
-            if(!fgSpec.getName().equals(name)) {
-                throw new ProvisioningDescriptionException("Feature-pack " + getFPID() + " feature group " + fgSpec.getName() + " does not match the requested feature group name " + name);
-            }
-            if (fgSpecs == null) {
-                fgSpecs = new HashMap<>();
-            }
-            fgSpecs.put(name, fgSpec);
-            return fgSpec;
-        } catch (Exception e) {
-            throw new ProvisioningException(Errors.parseXml(specXml), e);
+        // checked here since the group may have been parsed or indexed for a different lookup
+        if(!fgSpec.getName().equals(name)) {
+            throw new ProvisioningException(Errors.parseXml(specXml),
+                    new ProvisioningDescriptionException("Feature-pack " + getFPID() + " feature group " + fgSpec.getName() + " does not match the requested feature group name " + name));
         }
+        if (fgSpecs == null) {
+            fgSpecs = new HashMap<>();
+        }
+        fgSpecs.put(name, fgSpec);
+        return fgSpec;
     }
 
     ConfigModel getConfig(ConfigId configId) throws ProvisioningException {
@@ -190,20 +293,21 @@ public class FeaturePackRuntimeBuilder extends FeaturePackLayout {
                 return config;
             }
         }
-        final Path p = LayoutUtils.getConfigXml(dir, configId, false);
-        if (!Files.exists(p)) {
+        final ConfigModel config = parse(LayoutUtils.getConfigXml(dir, configId, false), p -> {
+            try (BufferedReader reader = Files.newBufferedReader(p)) {
+                return ConfigXmlParser.getInstance().parse(reader);
+            } catch (Exception e) {
+                throw new ProvisioningException(Errors.parseXml(p), e);
+            }
+        });
+        if(config == null) {
             return null;
         }
-        try (BufferedReader reader = Files.newBufferedReader(p)) {
-            final ConfigModel config = ConfigXmlParser.getInstance().parse(reader);
-            if (configs == null) {
-                configs = new HashMap<>();
-            }
-            configs.put(config.getId(), config);
-            return config;
-        } catch (Exception e) {
-            throw new ProvisioningException(Errors.parseXml(p), e);
+        if (configs == null) {
+            configs = new HashMap<>();
         }
+        configs.put(config.getId(), config);
+        return config;
     }
 
     ConfigLayerSpec getConfigLayer(ConfigId configId) throws ProvisioningException {
@@ -213,11 +317,17 @@ public class FeaturePackRuntimeBuilder extends FeaturePackLayout {
                 return layer;
             }
         }
-        final Path p = LayoutUtils.getLayerSpecXml(dir, configId.getModel(), configId.getName(), false);
-        if (!Files.exists(p)) {
+        final ConfigLayerSpec layer = parse(LayoutUtils.getLayerSpecXml(dir, configId.getModel(), configId.getName(), false),
+                p -> {
+                    try (BufferedReader reader = Files.newBufferedReader(p)) {
+                        return XmlParsers.parseConfigLayerSpec(reader, configId.getModel());
+                    } catch (Exception e) {
+                        throw new ProvisioningException(Errors.parseXml(p), e);
+                    }
+                });
+        if(layer == null) {
             return null;
         }
-        final ConfigLayerSpec layer = XmlParsers.parseConfigLayerSpec(p, configId.getModel());
         if (layers == null) {
             layers = new HashMap<>();
         }
@@ -233,24 +343,33 @@ public class FeaturePackRuntimeBuilder extends FeaturePackLayout {
             }
         }
         final Path specXml = dir.resolve(Constants.FEATURES).resolve(name).resolve(Constants.SPEC_XML);
-        if (!Files.exists(specXml)) {
+        final FeatureSpec xmlSpec = parse(specXml, p -> {
+            try (BufferedReader reader = Files.newBufferedReader(p)) {
+                return FeatureSpecXmlParser.getInstance().parse(reader);
+            } catch (Exception e) {
+                throw new ProvisioningDescriptionException(Errors.parseXml(p), e);
+            }
+        });
+        if(xmlSpec == null) {
             return null;
         }
-        try (BufferedReader reader = Files.newBufferedReader(specXml)) {
-            final FeatureSpec xmlSpec = FeatureSpecXmlParser.getInstance().parse(reader);
-            if(!xmlSpec.getName().equals(name)) {
-                throw new ProvisioningDescriptionException("Feature-pack " + getFPID() + " feature spec " + xmlSpec.getName() + " does not match the requested feature spec name " + name);
-            }
-            final ResolvedFeatureSpec resolvedSpec = new ResolvedFeatureSpec(new ResolvedSpecId(producer, xmlSpec.getName()),
-                    featureParamTypeProvider, xmlSpec);
-            if (featureSpecs == null) {
-                featureSpecs = new HashMap<>();
-            }
-            featureSpecs.put(name, resolvedSpec);
-            return resolvedSpec;
-        } catch (Exception e) {
+        // checked here since the spec may have been parsed or indexed for a different lookup
+        if(!xmlSpec.getName().equals(name)) {
+            throw new ProvisioningDescriptionException(Errors.parseXml(specXml),
+                    new ProvisioningDescriptionException("Feature-pack " + getFPID() + " feature spec " + xmlSpec.getName() + " does not match the requested feature spec name " + name));
+        }
+        // the resolved spec depends on the runtime, only the parsed spec is shared
+        final ResolvedFeatureSpec resolvedSpec;
+        try {
+            resolvedSpec = new ResolvedFeatureSpec(new ResolvedSpecId(producer, xmlSpec.getName()), featureParamTypeProvider, xmlSpec);
+        } catch (ProvisioningException e) {
             throw new ProvisioningDescriptionException(Errors.parseXml(specXml), e);
         }
+        if (featureSpecs == null) {
+            featureSpecs = new HashMap<>();
+        }
+        featureSpecs.put(name, resolvedSpec);
+        return resolvedSpec;
     }
 
     FeaturePackRuntime build(ProvisioningRuntimeBuilder rt) throws ProvisioningException {
@@ -17,13 +17,24 @@
 package org.jboss.galleon.runtime;
 
 import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import javax.xml.stream.XMLStreamException;
 import org.jboss.galleon.BaseErrors;
@@ -39,11 +50,14 @@ import org.jboss.galleon.diff.FsDiff;
 import org.jboss.galleon.layout.FeaturePackLayoutTransformer;
 import org.jboss.galleon.layout.FeaturePackPluginVisitor;
 import org.jboss.galleon.layout.ProvisioningLayout;
+import org.jboss.galleon.metrics.ProvisioningMetrics;
+import org.jboss.galleon.metrics.ProvisioningPhase;
 import org.jboss.galleon.plugin.InstallPlugin;
 import org.jboss.galleon.repo.RepositoryArtifactResolver;
 import org.jboss.galleon.state.FeaturePackSet;
 import org.jboss.galleon.state.ProvisionedConfig;
 import org.jboss.galleon.universe.FeaturePackLocation.ProducerSpec;
+import org.jboss.galleon.util.ConcurrencyUtils;
 import org.jboss.galleon.util.FeaturePackInstallException;
 import org.jboss.galleon.util.IoUtils;
 import org.jboss.galleon.util.PathsUtils;
@@ -109,11 +123,14 @@ public class ProvisioningRuntime implements FeaturePackSet<FeaturePackRuntime>,
         Path stagedDir = null;
         try {
             this.configs = builder.getResolvedConfigs();
-            if(builder.stagedDir == null) {
-                this.stagedDir = stagedDir = layout.newStagedDir();
-            } else {
+            if(builder.stagedDir != null) {
                 this.stagedDir = stagedDir = builder.stagedDir;
                 this.emptyStagedDir = Files.exists(stagedDir);
+            } else if(layout.isReadOnly()) {
+                // read-only runtimes are never staged
+                this.stagedDir = null;
+            } else {
+                this.stagedDir = stagedDir = layout.newStagedDir();
             }
         } catch (ProvisioningException | RuntimeException | Error e) {
             layout.close();
@@ -143,13 +160,23 @@ public class ProvisioningRuntime implements FeaturePackSet<FeaturePackRuntime>,
     /**
      * The target staged location
      *
-     * @return the staged location
+     * @return the staged location or null if the runtime is read-only
      */
     @Override
     public Path getStagedDir() {
         return stagedDir;
     }
 
+    /**
+     * Whether the runtime was created only to be queried for its feature-packs,
+     * packages and configs, in which case it can't be provisioned.
+     *
+     * @return  whether the runtime is read-only
+     */
+    public boolean isReadOnly() {
+        return layout.isReadOnly();
+    }
+
     /**
      * Configuration of the installation to be provisioned.
      *
@@ -308,35 +335,58 @@ public class ProvisioningRuntime implements FeaturePackSet<FeaturePackRuntime>,
 
     @Override
     public void provision() throws ProvisioningException {
+        if(layout.isReadOnly()) {
+            throw new ProvisioningException(Errors.readOnlyRuntime());
+        }
 
+        final ProvisioningMetrics metrics = layout.getMetrics();
+        final int[] plugins = new int[1];
+        long startTime = metrics.start();
         layout.visitPlugins(new FeaturePackPluginVisitor<InstallPlugin>() {
             @Override
             public void visitPlugin(InstallPlugin plugin) throws ProvisioningException {
+                ++plugins[0];
                 plugin.preInstall(ProvisioningRuntime.this);
             }
         }, InstallPlugin.class);
+        metrics.record(ProvisioningPhase.PRE_INSTALL_PLUGINS, startTime, plugins[0], 0);
 
         // copy package content
-        for(FeaturePackRuntime fp : layout.getOrderedFeaturePacks()) {
-            messageWriter.verbose("Installing %s", fp.getFPID());
-            for(GalleonPackageRuntime pkg : fp.getPackages()) {
-                final Path pkgSrcDir = pkg.getContentDir();
-                if (Files.exists(pkgSrcDir)) {
-                    try {
-                        IoUtils.copy(pkgSrcDir, stagedDir);
-                    } catch (IOException e) {
-                        throw new FeaturePackInstallException(Errors.packageContentCopyFailed(pkg.getName()), e);
+        startTime = metrics.start();
+        final int threads = getPackageInstallThreads();
+        if(threads <= 1 || !copyPackageContent(threads)) {
+            for(FeaturePackRuntime fp : layout.getOrderedFeaturePacks()) {
+                messageWriter.verbose("Installing %s", fp.getFPID());
+                for(GalleonPackageRuntime pkg : fp.getPackages()) {
+                    final Path pkgSrcDir = pkg.getContentDir();
+                    if (Files.exists(pkgSrcDir)) {
+                        try {
+                            IoUtils.copy(pkgSrcDir, stagedDir);
+                        } catch (IOException e) {
+                            throw new FeaturePackInstallException(Errors.packageContentCopyFailed(pkg.getName()), e);
+                        }
                     }
                 }
             }
         }
+        if(startTime != -1) {
+            int packages = 0;
+            for(FeaturePackRuntime fp : layout.getOrderedFeaturePacks()) {
+                packages += fp.getPackageNames().size();
+            }
+            metrics.record(ProvisioningPhase.PACKAGE_COPY, startTime, packages, 0);
+        }
 
+        plugins[0] = 0;
+        startTime = metrics.start();
         layout.visitPlugins(new FeaturePackPluginVisitor<InstallPlugin>() {
             @Override
             public void visitPlugin(InstallPlugin plugin) throws ProvisioningException {
+                ++plugins[0];
                 plugin.postInstall(ProvisioningRuntime.this);
             }
         }, InstallPlugin.class);
+        metrics.record(ProvisioningPhase.POST_INSTALL_PLUGINS, startTime, plugins[0], 0);
 
         if(recordState) {
             // save the config
@@ -367,6 +417,120 @@ public class ProvisioningRuntime implements FeaturePackSet<FeaturePackRuntime>,
         emptyStagedDir = null;
     }
 
+    private int getPackageInstallThreads() throws ProvisioningException {
+        final String value = layout.getOptionValue(ProvisioningOption.PACKAGE_INSTALL_THREADS);
+        try {
+            return ConcurrencyUtils.parseThreads(value, 1);
+        } catch (IllegalArgumentException e) {
+            throw new ProvisioningException(Errors.provisioningOptionNotPositiveInteger(Constants.PACKAGE_INSTALL_THREADS, value));
+        }
+    }
+
+    /**
+     * Copies the content of the packages using the specified number of threads.
+     * The target path of every file is first assigned to the last package (in the feature-pack
+     * and package installation order) that provides it, which is the package that would win
+     * if the content was copied sequentially. Then each package copies only the files it won.
+     *
+     * @param threads  number of threads
+     * @return  false if the content could not be planned for parallel copying
+     * (e.g. the same target path is a file in one package and a directory in another),
+     * in which case nothing has been copied
+     * @throws ProvisioningException  in case of a failure
+     */
+    private boolean copyPackageContent(int threads) throws ProvisioningException {
+        final Set<Path> targetDirs = new LinkedHashSet<>();
+        final Map<Path, PackageContentCopy> targetFiles = new HashMap<>();
+        final List<PackageContentCopy> copies = new ArrayList<>();
+        for(FeaturePackRuntime fp : layout.getOrderedFeaturePacks()) {
+            messageWriter.verbose("Installing %s", fp.getFPID());
+            for(GalleonPackageRuntime pkg : fp.getPackages()) {
+                final Path pkgSrcDir = pkg.getContentDir();
+                if (!Files.exists(pkgSrcDir)) {
+                    continue;
+                }
+                final PackageContentCopy copy = new PackageContentCopy(pkg.getName());
+                try {
+                    Files.walkFileTree(pkgSrcDir, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                            new SimpleFileVisitor<Path>() {
+                                @Override
+                                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                                    final Path target = stagedDir.resolve(pkgSrcDir.relativize(dir).toString());
+                                    if (targetFiles.containsKey(target)) {
+                                        copy.conflict = true;
+                                        return FileVisitResult.TERMINATE;
+                                    }
+                                    targetDirs.add(target);
+                                    return FileVisitResult.CONTINUE;
+                                }
+
+                                @Override
+                                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                                    final Path target = stagedDir.resolve(pkgSrcDir.relativize(file).toString());
+                                    if (targetDirs.contains(target)) {
+                                        copy.conflict = true;
+                                        return FileVisitResult.TERMINATE;
+                                    }
+                                    final PackageContentCopy previous = targetFiles.put(target, copy);
+                                    if (previous != null && previous != copy) {
+                                        previous.files.remove(target);
+                                    }
+                                    copy.files.put(target, file);
+                                    return FileVisitResult.CONTINUE;
+                                }
+                            });
+                } catch (IOException e) {
+                    throw new FeaturePackInstallException(Errors.packageContentCopyFailed(pkg.getName()), e);
+                }
+                if (copy.conflict) {
+                    messageWriter.verbose("Package %s content overlaps with previously installed content, falling back to sequential package installation", pkg.getName());
+                    return false;
+                }
+                copies.add(copy);
+            }
+        }
+
+        for (Path dir : targetDirs) {
+            try {
+                Files.createDirectories(dir);
+            } catch (IOException e) {
+                throw new FeaturePackInstallException(BaseErrors.mkdirs(dir), e);
+            }
+        }
+
+        final List<PackageContentCopy> tasks = new ArrayList<>(copies.size());
+        for (PackageContentCopy copy : copies) {
+            if (!copy.files.isEmpty()) {
+                tasks.add(copy);
+            }
+        }
+        ConcurrencyUtils.invokeAll("Galleon package installer", threads, tasks);
+        return true;
+    }
+
+    private static class PackageContentCopy implements Callable<Void> {
+
+        private final String pkgName;
+        private final Map<Path, Path> files = new LinkedHashMap<>();
+        private boolean conflict;
+
+        private PackageContentCopy(String pkgName) {
+            this.pkgName = pkgName;
+        }
+
+        @Override
+        public Void call() throws ProvisioningException {
+            for (Map.Entry<Path, Path> entry : files.entrySet()) {
+                try {
+                    Files.copy(entry.getValue(), entry.getKey(), StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    throw new FeaturePackInstallException(Errors.packageContentCopyFailed(pkgName), e);
+                }
+            }
+            return null;
+        }
+    }
+
     @Override
     public void close() {
         layout.close();
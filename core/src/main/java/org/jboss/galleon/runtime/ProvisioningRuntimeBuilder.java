@@ -25,6 +25,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
 import org.jboss.galleon.Constants;
 import org.jboss.galleon.DefaultMessageWriter;
 import org.jboss.galleon.Errors;
@@ -62,6 +65,7 @@ import org.jboss.galleon.state.ProvisionedConfig;
 import org.jboss.galleon.universe.FeaturePackLocation;
 import org.jboss.galleon.universe.FeaturePackLocation.ProducerSpec;
 import org.jboss.galleon.util.CollectionUtils;
+import org.jboss.galleon.util.ConcurrencyUtils;
 
 
 /**
@@ -119,6 +123,9 @@ public class ProvisioningRuntimeBuilder {
     private int pkgDepMask;
     int includedPkgDeps;
 
+    final int packageThreads = Integer.getInteger(Constants.PROP_PACKAGE_THREADS, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private ExecutorService packageParser;
+
     private ProvisioningRuntimeBuilder(final MessageWriter messageWriter) {
         this.messageWriter = messageWriter;
     }
@@ -169,10 +176,24 @@ public class ProvisioningRuntimeBuilder {
         } catch(ProvisioningException | RuntimeException | Error e) {
             throw e;
         } finally {
+            if(packageParser != null) {
+                packageParser.shutdownNow();
+            }
             layout.close();
         }
     }
 
+    /**
+     * Returns the executor parsing the package specs of all the feature-packs of the runtime,
+     * created the first time more than one package spec can be parsed concurrently.
+     */
+    ExecutorService getPackageParser() {
+        if(packageParser == null) {
+            packageParser = ConcurrencyUtils.newExecutor("Galleon package parser", packageThreads);
+        }
+        return packageParser;
+    }
+
     static final int PKG_DEP_MASK_ALL = Integer.MAX_VALUE;
     static final int PKG_DEP_MASK_PASSIVE = PKG_DEP_MASK_ALL ^ PackageDependencySpec.OPTIONAL;
     static final int PKG_DEP_MASK_REQUIRED = PKG_DEP_MASK_ALL ^ PackageDependencySpec.PASSIVE;
@@ -451,6 +472,7 @@ public class ProvisioningRuntimeBuilder {
             boolean extendedStackLevel = false;
             if (!fpConfig.isTransitive()) {
                 extendedStackLevel = processFpDepConfigs(currentOrigin.getSpec());
+                parsePackageSpecs(fpConfig);
                 if (currentOrigin.getSpec().hasDefaultPackages()) {
                     for (String packageName : currentOrigin.getSpec().getDefaultPackageNames()) {
                         if (fpConfigStack.isPackageFilteredOut(currentOrigin.producer, packageName)) {
@@ -493,6 +515,32 @@ public class ProvisioningRuntimeBuilder {
         }
     }
 
+    /**
+     * Parses the specs of the default and the included packages of the current feature-pack, and of the packages
+     * they depend on, before they are resolved, so that the specs of the whole feature-pack can be parsed concurrently.
+     */
+    private void parsePackageSpecs(FeaturePackConfig fpConfig) throws ProvisioningException {
+        if(packageThreads <= 1) {
+            return;
+        }
+        final List<String> pkgNames = new ArrayList<>();
+        if (currentOrigin.getSpec().hasDefaultPackages()) {
+            for (String packageName : currentOrigin.getSpec().getDefaultPackageNames()) {
+                if (!fpConfigStack.isPackageFilteredOut(currentOrigin.producer, packageName)) {
+                    pkgNames.add(packageName);
+                }
+            }
+        }
+        if (fpConfig.hasIncludedPackages()) {
+            for (String pkgName : fpConfig.getIncludedPackages()) {
+                if (!fpConfigStack.isPackageFilteredOut(currentOrigin.producer, pkgName)) {
+                    pkgNames.add(pkgName);
+                }
+            }
+        }
+        currentOrigin.parsePackageSpecs(pkgNames, this);
+    }
+
     private boolean processFpDepConfigs(FeaturePackDepsConfig fpSpec) throws ProvisioningException {
         if(!fpSpec.hasFeaturePackDeps() || !pushFpDepConfigs(fpSpec)) {
             return false;
@@ -1217,29 +1265,49 @@ public class ProvisioningRuntimeBuilder {
         if(configsTotal == 0) {
             return Collections.emptyList();
         }
-        final List<ProvisionedConfig> configList = new ArrayList<>(configsTotal);
-        buildConfigs(configList, configsToBuild.entrySet());
+        final List<ConfigModelStack> orderedConfigs = new ArrayList<>(configsTotal);
+        orderConfigs(orderedConfigs, configsToBuild.entrySet());
+        final List<ProvisionedConfig> configList = buildConfigs(orderedConfigs);
         return configList.size() > 0 ? Collections.unmodifiableList(configList) : configList;
     }
 
-    private void buildConfigs(List<ProvisionedConfig> configList, Set<Map.Entry<ConfigId, ConfigModelStack>> configStacks) throws ProvisioningException {
+    /**
+     * Builds the configs. The config dependencies only affect the order of the configs, which has already
+     * been established, so if {@link Constants#PROP_CONFIG_THREADS} is set to more than one thread,
+     * the features of the configs are arranged concurrently.
+     */
+    private List<ProvisionedConfig> buildConfigs(List<ConfigModelStack> orderedConfigs) throws ProvisioningException {
+        // the specs are shared by the configs, so their references are resolved before the features are arranged
+        for(ConfigModelStack config : orderedConfigs) {
+            config.resolveRefMappings();
+        }
+        final List<Callable<ProvisionedConfig>> tasks = new ArrayList<>(orderedConfigs.size());
+        for(ConfigModelStack config : orderedConfigs) {
+            tasks.add(() -> ResolvedConfig.build(config));
+        }
+        return new ArrayList<>(ConcurrencyUtils.invokeAll("Galleon config resolver", Integer.getInteger(Constants.PROP_CONFIG_THREADS, 1), tasks));
+    }
+
+    private void orderConfigs(List<ConfigModelStack> orderedConfigs, Set<Map.Entry<ConfigId, ConfigModelStack>> configStacks) throws ProvisioningException {
+        final Set<ConfigId> orderedIds = new HashSet<>(configStacks.size());
         for(Map.Entry<ConfigId, ConfigModelStack> entry : configStacks) {
             final ConfigId id = entry.getKey();
-            if(id.getName() == null || contains(configList, id)) {
+            if(id.getName() == null || orderedIds.contains(id)) {
                 continue;
             }
-            orderConfig(entry.getValue(), configList, Collections.emptySet());
+            orderConfig(entry.getValue(), orderedConfigs, orderedIds, Collections.emptySet());
         }
     }
 
-    private void orderConfig(ConfigModelStack config, List<ProvisionedConfig> configList, Set<ConfigId> scheduledIds) throws ProvisioningException {
+    private void orderConfig(ConfigModelStack config, List<ConfigModelStack> orderedConfigs, Set<ConfigId> orderedIds, Set<ConfigId> scheduledIds) throws ProvisioningException {
         if(!config.hasConfigDeps()) {
-            configList.add(ResolvedConfig.build(config));
+            orderedConfigs.add(config);
+            orderedIds.add(config.id);
             return;
         }
         scheduledIds = CollectionUtils.add(scheduledIds, config.id);
         for(ConfigId depId : config.getConfigDeps().values()) {
-            if(scheduledIds.contains(depId) || contains(configList, depId)) {
+            if(scheduledIds.contains(depId) || orderedIds.contains(depId)) {
                 continue;
             }
 
@@ -1249,10 +1317,10 @@ public class ProvisioningRuntimeBuilder {
                     throw new ProvisioningDescriptionException("Config " + config.id + " has unsatisfied dependency on config " + depId);
                 }
                 for(ConfigModelStack dep : configs.values()) {
-                    if(contains(configList, dep.id)) {
+                    if(orderedIds.contains(dep.id)) {
                         continue;
                     }
-                    orderConfig(dep, configList, scheduledIds);
+                    orderConfig(dep, orderedConfigs, orderedIds, scheduledIds);
                 }
             } else {
                 final ConfigModelStack configStack;
@@ -1268,24 +1336,15 @@ public class ProvisioningRuntimeBuilder {
                 if(configStack == null) {
                     throw new ProvisioningDescriptionException("Config " + config.id + " has unsatisfied dependency on config " + depId);
                 }
-                if(contains(configList, configStack.id)) {
+                if(orderedIds.contains(configStack.id)) {
                     continue;
                 }
-                orderConfig(configStack, configList, scheduledIds);
+                orderConfig(configStack, orderedConfigs, orderedIds, scheduledIds);
             }
         }
         scheduledIds = CollectionUtils.remove(scheduledIds, config.id);
-        configList.add(ResolvedConfig.build(config));
-    }
-
-    private boolean contains(List<ProvisionedConfig> configList, ConfigId depId) {
-        int i = 0;
-        while(i < configList.size()) {
-            if(((ResolvedConfig)configList.get(i++)).id.equals(depId)) {
-                return true;
-            }
-        }
-        return false;
+        orderedConfigs.add(config);
+        orderedIds.add(config.id);
     }
 
     /**
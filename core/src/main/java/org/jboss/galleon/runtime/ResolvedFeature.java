@@ -64,13 +64,13 @@ public class ResolvedFeature extends CapabilityProvider implements ProvisionedFe
     private SpecFeatures specFeatures;
     ConfigFeatureBranch branch;
     List<ResolvedFeature> branchDependees;
-    Map<ConfigFeatureBranch, Boolean> branchDeps = new HashMap<>();
+    Map<ConfigFeatureBranch, Boolean> branchDeps = Collections.emptyMap();
 
     ResolvedFeature(ResolvedFeatureId id, ResolvedFeatureSpec spec, int includeNo) {
         this.includeNo = includeNo;
         this.id = id;
         this.spec = spec;
-        params = id == null ? new HashMap<>() : new HashMap<>(id.params);
+        params = id == null ? new ResolvedFeatureParams(spec) : new ResolvedFeatureParams(spec, id.params);
     }
 
     ResolvedFeature(ResolvedFeatureId id, ResolvedFeatureSpec spec, Map<String, Object> params, Map<ResolvedFeatureId, FeatureDependencySpec> resolvedDeps, int includeNo)
@@ -79,7 +79,7 @@ public class ResolvedFeature extends CapabilityProvider implements ProvisionedFe
         this.id = id;
         this.spec = spec;
         this.deps = resolvedDeps;
-        this.params = id == null ? new HashMap<>() : new HashMap<>(id.params);
+        this.params = id == null ? new ResolvedFeatureParams(spec) : new ResolvedFeatureParams(spec, id.params);
         if (!params.isEmpty()) {
             for (Map.Entry<String, Object> entry : params.entrySet()) {
                 setParam(entry.getKey(), entry.getValue(), true);
@@ -88,7 +88,7 @@ public class ResolvedFeature extends CapabilityProvider implements ProvisionedFe
     }
 
     ResolvedFeature copy(int includeNo) throws ProvisioningException {
-        final ResolvedFeature copy = new ResolvedFeature(id, spec, params.size() > 1 ? new HashMap<>(params) : params, deps.size() > 1 ? new LinkedHashMap<>(deps) : deps, includeNo);
+        final ResolvedFeature copy = new ResolvedFeature(id, spec, params, deps.size() > 1 ? new LinkedHashMap<>(deps) : deps, includeNo);
         if(!resetParams.isEmpty()) {
             copy.resetParams = CollectionUtils.clone(resetParams);
         }
@@ -136,17 +136,22 @@ public class ResolvedFeature extends CapabilityProvider implements ProvisionedFe
         }
         orderingState = ORDERED;
         provided(branch);
-        spec.provided(branch);
+        specFeatures.provided(branch);
     }
 
     void free() {
         orderingState = FREE;
-        branchDeps.clear();
+        if(!branchDeps.isEmpty()) {
+            branchDeps.clear();
+        }
     }
 
     void addBranchDep(ConfigFeatureBranch branchDep, boolean child) {
         final Boolean prevChild = branchDeps.get(branchDep);
         if(prevChild == null || !prevChild && child) {
+            if(branchDeps.isEmpty()) {
+                branchDeps = new HashMap<>();
+            }
             if(branchDeps.put(branchDep, child) != null && branch != null) {
                 branch.addBranchDep(branchDep);
             }
@@ -268,6 +268,8 @@ public class ResolvedFeatureId {
         if (getClass() != obj.getClass())
             return false;
         ResolvedFeatureId other = (ResolvedFeatureId) obj;
+        if (hash != other.hash)
+            return false;
         if (params == null) {
             if (other.params != null)
                 return false;
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.runtime;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Parameter values of a resolved feature stored in an array indexed by the position
+ * of the parameter in its feature spec. The parameter names are shared by all the features
+ * of the spec, so a feature holds only its values instead of a hash map entry per parameter.
+ *
+ * <p>The map iterates over the parameters in the order they are declared in the spec.
+ * Only the parameters of the spec are accepted as keys.
+ */
+class ResolvedFeatureParams extends AbstractMap<String, Object> {
+
+    // distinguishes a parameter explicitly set to null from a parameter that is not set
+    private static final Object NULL = new Object();
+
+    private final ResolvedFeatureSpec spec;
+    private final Object[] values;
+    private int size;
+    private EntrySet entrySet;
+
+    ResolvedFeatureParams(ResolvedFeatureSpec spec) {
+        this.spec = spec;
+        this.values = new Object[spec.getParamCount()];
+    }
+
+    ResolvedFeatureParams(ResolvedFeatureSpec spec, Map<String, Object> params) {
+        this(spec);
+        putAll(params);
+    }
+
+    private int index(Object name) {
+        return name instanceof String ? spec.getParamIndex((String) name) : -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        final int i = index(name);
+        return i >= 0 && values[i] != null;
+    }
+
+    @Override
+    public Object get(Object name) {
+        final int i = index(name);
+        if(i < 0) {
+            return null;
+        }
+        final Object value = values[i];
+        return value == NULL ? null : value;
+    }
+
+    @Override
+    public Object put(String name, Object value) {
+        final int i = index(name);
+        if(i < 0) {
+            throw new IllegalArgumentException("Feature spec " + spec.id + " does not include parameter " + name);
+        }
+        final Object prev = values[i];
+        values[i] = value == null ? NULL : value;
+        if(prev == null) {
+            ++size;
+            return null;
+        }
+        return prev == NULL ? null : prev;
+    }
+
+    @Override
+    public Object remove(Object name) {
+        final int i = index(name);
+        if(i < 0) {
+            return null;
+        }
+        final Object prev = values[i];
+        if(prev == null) {
+            return null;
+        }
+        values[i] = null;
+        --size;
+        return prev == NULL ? null : prev;
+    }
+
+    @Override
+    public void clear() {
+        for(int i = 0; i < values.length; ++i) {
+            values[i] = null;
+        }
+        size = 0;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return entrySet == null ? entrySet = new EntrySet() : entrySet;
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new Iterator<Map.Entry<String, Object>>() {
+                int next = advance(0);
+                int current = -1;
+
+                private int advance(int i) {
+                    while(i < values.length && values[i] == null) {
+                        ++i;
+                    }
+                    return i;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next < values.length;
+                }
+
+                @Override
+                public Map.Entry<String, Object> next() {
+                    if(next >= values.length) {
+                        throw new NoSuchElementException();
+                    }
+                    current = next;
+                    next = advance(next + 1);
+                    return new Entry(current);
+                }
+
+                @Override
+                public void remove() {
+                    if(current < 0 || values[current] == null) {
+                        throw new IllegalStateException();
+                    }
+                    values[current] = null;
+                    --size;
+                    current = -1;
+                }
+            };
+        }
+    }
+
+    private class Entry implements Map.Entry<String, Object> {
+
+        private final int i;
+
+        Entry(int i) {
+            this.i = i;
+        }
+
+        @Override
+        public String getKey() {
+            return spec.getParamName(i);
+        }
+
+        @Override
+        public Object getValue() {
+            final Object value = values[i];
+            return value == NULL ? null : value;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            final Object prev = values[i];
+            values[i] = value == null ? NULL : value;
+            if(prev == null) {
+                // the parameter was removed after the entry was returned, so it is set again
+                ++size;
+                return null;
+            }
+            return prev == NULL ? null : prev;
+        }
+
+        @Override
+        public int hashCode() {
+            final Object value = getValue();
+            return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof Map.Entry)) {
+                return false;
+            }
+            final Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+            final Object value = getValue();
+            return getKey().equals(other.getKey()) && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
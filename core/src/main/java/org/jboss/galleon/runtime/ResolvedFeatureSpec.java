@@ -46,11 +46,12 @@ import org.jboss.galleon.util.StringUtils;
  *
  * @author Alexey Loubyansky
  */
-public class ResolvedFeatureSpec extends CapabilityProvider {
+public class ResolvedFeatureSpec {
 
     final ResolvedSpecId id;
     final FeatureSpec xmlSpec;
     private Map<String, ResolvedFeatureParam> resolvedParamSpecs = Collections.emptyMap();
+    private final String[] paramNames;
     private Map<String, ResolvedFeatureSpec> resolvedRefTargets;
     private Map<ResolvedFeatureId, FeatureDependencySpec> resolvedDeps;
 
@@ -64,10 +65,15 @@ public class ResolvedFeatureSpec extends CapabilityProvider {
         this.xmlSpec = spec;
 
         if(xmlSpec.hasParams()) {
+            paramNames = new String[xmlSpec.getParams().size()];
+            int i = 0;
             for(Map.Entry<String, FeatureParameterSpec> entry : xmlSpec.getParams().entrySet()) {
                 final FeatureParameterSpec param = entry.getValue();
-                resolvedParamSpecs = CollectionUtils.put(resolvedParamSpecs, param.getName(), resolveParamSpec(param, typeProvider));
+                paramNames[i] = param.getName();
+                resolvedParamSpecs = CollectionUtils.put(resolvedParamSpecs, param.getName(), resolveParamSpec(param, typeProvider, i++));
             }
+        } else {
+            paramNames = new String[0];
         }
 
         final FeatureAnnotation newFb = xmlSpec.getAnnotation(FeatureAnnotation.FEATURE_BRANCH);
@@ -109,14 +115,14 @@ public class ResolvedFeatureSpec extends CapabilityProvider {
         return branchBatch == null ? defaultValue : branchBatch;
     }
 
-    private ResolvedFeatureParam resolveParamSpec(FeatureParameterSpec paramSpec, ParameterTypeProvider typeProvider) throws ProvisioningException {
+    private ResolvedFeatureParam resolveParamSpec(FeatureParameterSpec paramSpec, ParameterTypeProvider typeProvider, int index) throws ProvisioningException {
         final FeatureParameterType type;
         try {
             type = typeProvider.getType(id.producer, paramSpec.getType());
         } catch(ParameterTypeNotFoundException e) {
             throw new ProvisioningException(Errors.failedToResolveParameter(id, paramSpec.getName()), e);
         }
-        return new ResolvedFeatureParam(paramSpec, type);
+        return new ResolvedFeatureParam(paramSpec, type, index);
     }
 
     public ResolvedSpecId getId() {
@@ -151,6 +157,19 @@ public class ResolvedFeatureSpec extends CapabilityProvider {
         return resolvedParamSpecs;
     }
 
+    int getParamCount() {
+        return paramNames.length;
+    }
+
+    int getParamIndex(String name) {
+        final ResolvedFeatureParam p = resolvedParamSpecs.get(name);
+        return p == null ? -1 : p.index;
+    }
+
+    String getParamName(int index) {
+        return paramNames[index];
+    }
+
     ResolvedFeatureParam getResolvedParam(String name) throws ProvisioningDescriptionException {
         final ResolvedFeatureParam p = resolvedParamSpecs.get(name);
         if(p == null) {
@@ -395,6 +414,9 @@ public class ResolvedFeatureSpec extends CapabilityProvider {
     }
 
     void resolveRefMappings(ProvisioningRuntimeBuilder rt) throws ProvisioningException {
+        if(resolvedRefTargets != null) {
+            return;
+        }
         if(!xmlSpec.hasFeatureRefs()) {
             resolvedRefTargets = Collections.emptyMap();
             return;
@@ -38,8 +38,8 @@ public class SpecOnlyConfigArranger {
     private Map<ResolvedSpecId, SpecFeatures> specFeatures;
     private Map<ResolvedFeatureId, ResolvedFeature> features;
 
-    private CapabilityResolver capResolver = new CapabilityResolver();
-    private Map<String, CapabilityProviders> capProviders = Collections.emptyMap();
+    private final CapabilityIndex capIndex = new CapabilityIndex();
+    private final CapabilityResolver capResolver = new CapabilityResolver(capIndex);
 
     // features in the order they should be processed by the provisioning handlers
     private List<ResolvedFeature> orderedFeatures = Collections.emptyList();
@@ -65,14 +65,10 @@ public class SpecOnlyConfigArranger {
             if(features.spec.xmlSpec.providesCapabilities()) {
                 for(CapabilitySpec cap : features.spec.xmlSpec.getProvidedCapabilities()) {
                     if(cap.isStatic()) {
-                        getProviders(cap.toString(), true).add(features);
+                        getProviders(capResolver.resolve(cap, null)[0], true).add(features);
                     } else {
                         for(ResolvedFeature feature : features.getFeatures()) {
-                            final List<String> resolvedCaps = capResolver.resolve(cap, feature);
-                            if(resolvedCaps.isEmpty()) {
-                                continue;
-                            }
-                            for(String resolvedCap : resolvedCaps) {
+                            for(int resolvedCap : capResolver.resolve(cap, feature)) {
                                 getProviders(resolvedCap, true).add(feature);
                             }
                         }
@@ -86,17 +82,15 @@ public class SpecOnlyConfigArranger {
         }
     }
 
-    private CapabilityProviders getProviders(String cap, boolean add) throws ProvisioningException {
-        CapabilityProviders providers = capProviders.get(cap);
+    private CapabilityProviders getProviders(int cap, boolean add) throws ProvisioningException {
+        final CapabilityProviders providers = capIndex.getProviders(cap);
         if(providers != null) {
             return providers;
         }
         if(!add) {
-            throw new ProvisioningException(Errors.noCapabilityProvider(cap));
+            throw new ProvisioningException(Errors.noCapabilityProvider(capIndex.getName(cap)));
         }
-        providers = new CapabilityProviders();
-        capProviders = CollectionUtils.put(capProviders, cap, providers);
-        return providers;
+        return capIndex.getOrCreateProviders(cap);
     }
 
     /**
@@ -251,16 +245,16 @@ public class SpecOnlyConfigArranger {
     private List<CircularRefInfo> orderCapabilityProviders(ResolvedFeature feature, List<CircularRefInfo> circularRefs)
             throws ProvisioningException {
         for (CapabilitySpec capSpec : feature.spec.xmlSpec.getRequiredCapabilities()) {
-            final List<String> resolvedCaps = capResolver.resolve(capSpec, feature);
-            if (resolvedCaps.isEmpty()) {
+            final int[] resolvedCaps = capResolver.resolve(capSpec, feature);
+            if (resolvedCaps.length == 0) {
                 continue;
             }
-            for (String resolvedCap : resolvedCaps) {
+            for (int resolvedCap : resolvedCaps) {
                 final CapabilityProviders providers;
                 try {
                     providers = getProviders(resolvedCap, false);
                 } catch (ProvisioningException e) {
-                    throw new ProvisioningException(Errors.noCapabilityProvider(feature, capSpec, resolvedCap));
+                    throw new ProvisioningException(Errors.noCapabilityProvider(feature, capSpec, capIndex.getName(resolvedCap)));
                 }
                 final List<CircularRefInfo> circles = orderProviders(providers);
                 if (circularRefs == null) {
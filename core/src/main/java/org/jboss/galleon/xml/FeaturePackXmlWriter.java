@@ -17,6 +17,9 @@
 package org.jboss.galleon.xml;
 
 import java.util.Arrays;
+
+import javax.xml.stream.XMLStreamException;
+
 import org.jboss.galleon.CoreVersion;
 
 import org.jboss.galleon.config.FeaturePackConfig;
@@ -25,13 +28,13 @@ import org.jboss.galleon.spec.FeaturePackSpec;
 import org.jboss.galleon.spec.FeaturePackSpec.Family;
 import org.jboss.galleon.xml.FeaturePackXmlParser40.Attribute;
 import org.jboss.galleon.xml.FeaturePackXmlParser40.Element;
-import org.jboss.galleon.xml.util.ElementNode;
+import org.jboss.galleon.xml.util.ElementWriter;
 
 /**
  *
  * @author Alexey Loubyansky
  */
-public class FeaturePackXmlWriter extends BaseXmlWriter<FeaturePackSpec> {
+public class FeaturePackXmlWriter extends BaseStreamingXmlWriter<FeaturePackSpec> {
 
     private static final FeaturePackXmlWriter INSTANCE = new FeaturePackXmlWriter();
 
@@ -42,77 +45,91 @@ public class FeaturePackXmlWriter extends BaseXmlWriter<FeaturePackSpec> {
     private FeaturePackXmlWriter() {
     }
 
-    protected ElementNode toElement(FeaturePackSpec fpSpec) {
-        final ElementNode fp = addElement(null, Element.FEATURE_PACK);
-        addAttribute(fp, Attribute.LOCATION, fpSpec.getFPID().toString());
-        addAttribute(fp, Attribute.GALLEON_MIN_VERSION, CoreVersion.getVersion());
-        if(fpSpec.hasFamily()) {
-            final ElementNode familyE = addElement(fp, Element.FAMILY);
-            addAttribute(familyE, Attribute.NAME, fpSpec.getFamily().getName());
-            for(Family.Criteria criteria : fpSpec.getFamily().getCriteria()) {
-                final ElementNode criteriaE = addElement(familyE, Element.CRITERIA);
-                addAttribute(criteriaE, Attribute.NAME, criteria.getName());
-                addAttribute(criteriaE, Attribute.INHERITED, (criteria.isInherited() ? "true" : "false"));
-            }
-        }
+    @Override
+    protected void marshall(FeaturePackSpec fpSpec, ElementWriter writer) throws XMLStreamException {
+        final String ns = Element.FEATURE_PACK.getNamespace();
+        writer.startElement(Element.FEATURE_PACK);
+        writer.attribute(Attribute.LOCATION, fpSpec.getFPID().toString());
+        writer.attribute(Attribute.GALLEON_MIN_VERSION, CoreVersion.getVersion());
         if (fpSpec.getConfigStability() != null) {
-            addAttribute(fp, Attribute.CONFIG_STABILITY_LEVEL, fpSpec.getConfigStability().toString());
+            writer.attribute(Attribute.CONFIG_STABILITY_LEVEL, fpSpec.getConfigStability().toString());
         }
         if (fpSpec.getPackageStability() != null) {
-            addAttribute(fp, Attribute.PACKAGE_STABILITY_LEVEL, fpSpec.getPackageStability().toString());
+            writer.attribute(Attribute.PACKAGE_STABILITY_LEVEL, fpSpec.getPackageStability().toString());
+        }
+        if(fpSpec.hasFamily()) {
+            writer.startElement(Element.FAMILY);
+            writer.attribute(Attribute.NAME, fpSpec.getFamily().getName());
+            for(Family.Criteria criteria : fpSpec.getFamily().getCriteria()) {
+                writer.startElement(Element.CRITERIA);
+                writer.attribute(Attribute.NAME, criteria.getName());
+                writer.attribute(Attribute.INHERITED, (criteria.isInherited() ? "true" : "false"));
+                writer.endElement();
+            }
+            writer.endElement();
         }
-        ProvisioningXmlWriter.writeUniverseSpecs(fpSpec, fp);
+        ProvisioningXmlWriter.writeUniverseSpecs(fpSpec, writer, ns);
 
         if(fpSpec.isPatch()) {
-            final ElementNode patchFor = addElement(fp, Element.PATCH);
-            addAttribute(patchFor, Attribute.FOR, fpSpec.getPatchFor().toString());
+            writer.startElement(Element.PATCH);
+            writer.attribute(Attribute.FOR, fpSpec.getPatchFor().toString());
+            writer.endElement();
         }
 
         if (fpSpec.hasTransitiveDeps()) {
-            final ElementNode transitives = addElement(fp, Element.TRANSITIVE);
+            writer.startElement(Element.TRANSITIVE);
             for(FeaturePackConfig dep : fpSpec.getTransitiveDeps()) {
-                final ElementNode depElement = addElement(transitives, Element.DEPENDENCY);
-                ProvisioningXmlWriter.writeFeaturePackConfig(depElement,
+                writer.startElement(Element.DEPENDENCY);
+                ProvisioningXmlWriter.writeFeaturePackConfig(writer, ns,
                         fpSpec.getUserConfiguredLocation(dep.getLocation()), dep, fpSpec.originOf(dep.getLocation().getProducer()));
+                writer.endElement();
             }
+            writer.endElement();
         }
 
         if (fpSpec.hasFeaturePackDeps()) {
-            final ElementNode deps = addElement(fp, Element.DEPENDENCIES);
+            writer.startElement(Element.DEPENDENCIES);
             for (FeaturePackConfig dep : fpSpec.getFeaturePackDeps()) {
-                final ElementNode depElement = addElement(deps, Element.DEPENDENCY);
-                ProvisioningXmlWriter.writeFeaturePackConfig(depElement,
+                writer.startElement(Element.DEPENDENCY);
+                ProvisioningXmlWriter.writeFeaturePackConfig(writer, ns,
                         fpSpec.getUserConfiguredLocation(dep.getLocation()), dep, fpSpec.originOf(dep.getLocation().getProducer()));
+                writer.endElement();
             }
+            writer.endElement();
         }
 
-        ProvisioningXmlWriter.writeConfigCustomizations(fp, Element.FEATURE_PACK.getNamespace(), fpSpec);
+        ProvisioningXmlWriter.writeConfigCustomizations(writer, ns, fpSpec);
 
         if (fpSpec.hasDefaultPackages()) {
-            final ElementNode pkgs = addElement(fp, Element.DEFAULT_PACKAGES);
+            writer.startElement(Element.DEFAULT_PACKAGES);
             final String[] pkgNames = fpSpec.getDefaultPackageNames().toArray(new String[0]);
             Arrays.sort(pkgNames);
             for (String name : pkgNames) {
-                addAttribute(addElement(pkgs, Element.PACKAGE), Attribute.NAME, name);
+                writer.startElement(Element.PACKAGE).attribute(Attribute.NAME, name).endElement();
             }
+            writer.endElement();
         }
 
         if(fpSpec.hasPlugins()) {
-            final ElementNode plugins = addElement(fp, Element.PLUGINS);
+            writer.startElement(Element.PLUGINS);
             for(FeaturePackPlugin plugin : fpSpec.getPlugins().values()) {
-                final ElementNode pluginE = addElement(plugins, Element.PLUGIN);
-                addAttribute(pluginE, Attribute.ID, plugin.getId());
-                addAttribute(pluginE, Attribute.LOCATION, plugin.getLocation());
+                writer.startElement(Element.PLUGIN);
+                writer.attribute(Attribute.ID, plugin.getId());
+                writer.attribute(Attribute.LOCATION, plugin.getLocation());
+                writer.endElement();
             }
+            writer.endElement();
         }
 
         if (fpSpec.hasSystemPaths()) {
-            final ElementNode systemPaths = addElement(fp, Element.SYSTEM_PATHS);
+            writer.startElement(Element.SYSTEM_PATHS);
             for (String systemPath : fpSpec.getSystemPaths()) {
-                final ElementNode depElement = addElement(systemPaths, Element.SYSTEM_PATH);
-                addAttribute(depElement, Attribute.PATH, systemPath);
+                writer.startElement(Element.SYSTEM_PATH);
+                writer.attribute(Attribute.PATH, systemPath);
+                writer.endElement();
             }
+            writer.endElement();
         }
-        return fp;
+        writer.endElement();
     }
 }
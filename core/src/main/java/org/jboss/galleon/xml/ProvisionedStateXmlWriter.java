@@ -24,13 +24,13 @@ import org.jboss.galleon.state.FeaturePackSet;
 import org.jboss.galleon.state.ProvisionedConfig;
 import org.jboss.galleon.xml.ProvisionedStateXmlParser30.Attribute;
 import org.jboss.galleon.xml.ProvisionedStateXmlParser30.Element;
-import org.jboss.galleon.xml.util.ElementNode;
+import org.jboss.galleon.xml.util.ElementWriter;
 
 /**
  *
  * @author Alexey Loubyansky
  */
-public class ProvisionedStateXmlWriter extends BaseXmlWriter<FeaturePackSet<?>> {
+public class ProvisionedStateXmlWriter extends BaseStreamingXmlWriter<FeaturePackSet<?>> {
 
     private static final ProvisionedStateXmlWriter INSTANCE = new ProvisionedStateXmlWriter();
 
@@ -42,35 +42,38 @@ public class ProvisionedStateXmlWriter extends BaseXmlWriter<FeaturePackSet<?>>
     }
 
     @Override
-    protected ElementNode toElement(FeaturePackSet<?> provisionedState) throws XMLStreamException {
+    protected void marshall(FeaturePackSet<?> provisionedState, ElementWriter writer) throws XMLStreamException {
 
-        final ElementNode pkg = addElement(null, Element.INSTALLATION);
+        writer.startElement(Element.INSTALLATION);
 
         if (provisionedState.hasFeaturePacks()) {
             for(FeaturePack<?> fp : provisionedState.getFeaturePacks()) {
-                final ElementNode fpElement = addElement(pkg, Element.FEATURE_PACK);
-                writeFeaturePack(fpElement, fp);
+                writer.startElement(Element.FEATURE_PACK);
+                writeFeaturePack(writer, fp);
+                writer.endElement();
             }
         }
 
         if(provisionedState.hasConfigs()) {
             for(ProvisionedConfig config : provisionedState.getConfigs()) {
-                pkg.addChild(ProvisionedConfigXmlWriter.getInstance().toElement(config, Element.CONFIG.getNamespace()));
+                ProvisionedConfigXmlWriter.getInstance().write(config, Element.CONFIG.getNamespace(), writer);
             }
         }
 
-        return pkg;
+        writer.endElement();
     }
 
-    private void writeFeaturePack(ElementNode fp, FeaturePack<?> featurePack) {
-        addAttribute(fp, Attribute.LOCATION, featurePack.getFPID().toString());
+    private void writeFeaturePack(ElementWriter writer, FeaturePack<?> featurePack) throws XMLStreamException {
+        writer.attribute(Attribute.LOCATION, featurePack.getFPID().toString());
 
         if (featurePack.hasPackages()) {
-            final ElementNode packages = addElement(fp, Element.PACKAGES);
+            writer.startElement(Element.PACKAGES);
             for (FeaturePackPackage pkg : featurePack.getPackages()) {
-                final ElementNode pkgElement = addElement(packages, Element.PACKAGE);
-                addAttribute(pkgElement, Attribute.NAME, pkg.getName());
+                writer.startElement(Element.PACKAGE);
+                writer.attribute(Attribute.NAME, pkg.getName());
+                writer.endElement();
             }
+            writer.endElement();
         }
     }
 }
@@ -18,6 +18,9 @@ package org.jboss.galleon.xml;
 
 import java.util.Arrays;
 import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+
 import org.jboss.galleon.config.ConfigId;
 
 import org.jboss.galleon.config.ConfigCustomizations;
@@ -30,14 +33,13 @@ import org.jboss.galleon.universe.FeaturePackLocation.FPID;
 import org.jboss.galleon.universe.UniverseSpec;
 import org.jboss.galleon.xml.ProvisioningXmlParser40.Attribute;
 import org.jboss.galleon.xml.ProvisioningXmlParser40.Element;
-import org.jboss.galleon.xml.util.ElementNode;
-import org.jboss.galleon.xml.util.TextNode;
+import org.jboss.galleon.xml.util.ElementWriter;
 
 /**
  *
  * @author Alexey Loubyansky
  */
-public class ProvisioningXmlWriter extends BaseXmlWriter<ProvisioningConfig> {
+public class ProvisioningXmlWriter extends BaseStreamingXmlWriter<ProvisioningConfig> {
 
     private static final ProvisioningXmlWriter INSTANCE = new ProvisioningXmlWriter();
 
@@ -50,195 +52,195 @@ public class ProvisioningXmlWriter extends BaseXmlWriter<ProvisioningConfig> {
     private ProvisioningXmlWriter() {
     }
 
-    protected ElementNode toElement(ProvisioningConfig config) {
+    @Override
+    protected void marshall(ProvisioningConfig config, ElementWriter writer) throws XMLStreamException {
 
-        final ElementNode install = addElement(null, Element.INSTALLATION);
+        writer.startElement(Element.INSTALLATION);
+        final String ns = Element.INSTALLATION.getNamespace();
 
-        writeUniverseSpecs(config, install);
+        writeUniverseSpecs(config, writer, ns);
 
         if(config.hasTransitiveDeps()) {
-            final ElementNode transitives = addElement(install, Element.TRANSITIVE);
+            writer.startElement(Element.TRANSITIVE);
             for(FeaturePackConfig dep : config.getTransitiveDeps()) {
-                writeFeaturePackConfig(addElement(transitives, Element.FEATURE_PACK),
-                        config.getUserConfiguredLocation(dep.getLocation()), dep,
+                writer.startElement(Element.FEATURE_PACK);
+                writeFeaturePackConfig(writer, ns, config.getUserConfiguredLocation(dep.getLocation()), dep,
                         config.originOf(dep.getLocation().getProducer()));
+                writer.endElement();
             }
+            writer.endElement();
         }
 
         if (config.hasFeaturePackDeps()) {
             for(FeaturePackConfig fp : config.getFeaturePackDeps()) {
-                final ElementNode fpElement = addElement(install, Element.FEATURE_PACK);
-                writeFeaturePackConfig(fpElement, config.getUserConfiguredLocation(fp.getLocation()),
+                writer.startElement(Element.FEATURE_PACK);
+                writeFeaturePackConfig(writer, ns, config.getUserConfiguredLocation(fp.getLocation()),
                         fp, config.originOf(fp.getLocation().getProducer()));
+                writer.endElement();
             }
         }
 
-        writeConfigCustomizations(install, Element.INSTALLATION.getNamespace(), config);
+        writeConfigCustomizations(writer, ns, config);
 
         if(config.hasOptions()) {
             final Map<String, String> pluginOptions = config.getOptions();
             final String[] names = pluginOptions.keySet().toArray(new String[pluginOptions.size()]);
             Arrays.sort(names);
-            final ElementNode optionsE = addElement(install, Element.OPTIONS);
+            writer.startElement(Element.OPTIONS);
             for(String name : names) {
-                final ElementNode optionE = addElement(optionsE, Element.OPTION);
-                addAttribute(optionE, Attribute.NAME, name);
+                writer.startElement(Element.OPTION);
+                writer.attribute(Attribute.NAME, name);
                 final String value = pluginOptions.get(name);
                 if(value != null) {
-                    addAttribute(optionE, Attribute.VALUE, value);
+                    writer.attribute(Attribute.VALUE, value);
                 }
+                writer.endElement();
             }
+            writer.endElement();
         }
 
-        return install;
+        writer.endElement();
     }
 
-    static void writeUniverseSpecs(FeaturePackDepsConfig fpDeps, final ElementNode parent) {
-        ElementNode universesEl = null;
-        UniverseSpec universeSpec = fpDeps.getDefaultUniverse();
+    static void writeUniverseSpecs(FeaturePackDepsConfig fpDeps, ElementWriter writer, String ns) throws XMLStreamException {
+        final UniverseSpec universeSpec = fpDeps.getDefaultUniverse();
+        if(universeSpec == null && !fpDeps.hasUniverseNamedSpecs()) {
+            return;
+        }
+        writer.startElement(Element.UNIVERSES.getLocalName(), ns);
         if(universeSpec != null) {
-            universesEl = addElement(parent, Element.UNIVERSES.getLocalName(), parent.getNamespace());
-            writeUniverseConfig(universesEl, null, universeSpec.getFactory(), universeSpec.getLocation());
+            writeUniverseConfig(writer, ns, null, universeSpec.getFactory(), universeSpec.getLocation());
         }
         if(fpDeps.hasUniverseNamedSpecs()) {
-            if(universesEl == null) {
-                universesEl = addElement(parent, Element.UNIVERSES.getLocalName(), parent.getNamespace());
-            }
             for(Map.Entry<String, UniverseSpec> universe : fpDeps.getUniverseNamedSpecs().entrySet()) {
-                writeUniverseConfig(universesEl, universe.getKey(), universe.getValue().getFactory(), universe.getValue().getLocation());
+                writeUniverseConfig(writer, ns, universe.getKey(), universe.getValue().getFactory(), universe.getValue().getLocation());
             }
         }
+        writer.endElement();
     }
 
-    private static void writeUniverseConfig(ElementNode universesEl, String name, String factory, String location) {
-        final ElementNode universeEl = addElement(universesEl, Element.UNIVERSE.getLocalName(), universesEl.getNamespace());
+    private static void writeUniverseConfig(ElementWriter writer, String ns, String name, String factory, String location) throws XMLStreamException {
+        writer.startElement(Element.UNIVERSE.getLocalName(), ns);
         if(name != null) {
-            addAttribute(universeEl, Attribute.NAME, name);
+            writer.attribute(Attribute.NAME, name);
         }
-        addAttribute(universeEl, Attribute.FACTORY, factory);
+        writer.attribute(Attribute.FACTORY, factory);
         if(location != null) {
-            addAttribute(universeEl, Attribute.LOCATION, location);
+            writer.attribute(Attribute.LOCATION, location);
         }
+        writer.endElement();
     }
 
-    static void writeFeaturePackConfig(ElementNode fp, FeaturePackLocation location, FeaturePackConfig featurePack, String origin) {
+    /**
+     * Writes the attributes and the content of the element that has been started for the feature-pack.
+     */
+    static void writeFeaturePackConfig(ElementWriter writer, String ns, FeaturePackLocation location, FeaturePackConfig featurePack, String origin) throws XMLStreamException {
 
-        final String ns = fp.getNamespace();
-        addAttribute(fp, Attribute.LOCATION, location.toString());
+        writer.attribute(Attribute.LOCATION, location.toString());
         if (featurePack.getAllowedFamily() != null) {
-            addAttribute(fp, Attribute.ALLOWED_FAMILY, featurePack.getAllowedFamily());
+            writer.attribute(Attribute.ALLOWED_FAMILY, featurePack.getAllowedFamily());
         }
         if(origin != null) {
-            addElement(fp, Element.ORIGIN.getLocalName(), ns).addChild(new TextNode(origin));
+            writer.startElement(Element.ORIGIN.getLocalName(), ns).text(origin).endElement();
         }
 
         if(featurePack.hasPatches()) {
-            final ElementNode patches = addElement(fp, Element.PATCHES.getLocalName(), ns);
+            writer.startElement(Element.PATCHES.getLocalName(), ns);
             for(FPID patchId : featurePack.getPatches()) {
-                final ElementNode patch = addElement(patches, Element.PATCH.getLocalName(), ns);
-                addAttribute(patch, Attribute.ID, patchId.toString());
+                writer.startElement(Element.PATCH.getLocalName(), ns);
+                writer.attribute(Attribute.ID, patchId.toString());
+                writer.endElement();
             }
+            writer.endElement();
         }
 
-        writeConfigCustomizations(fp, ns, featurePack);
+        writeConfigCustomizations(writer, ns, featurePack);
 
-        ElementNode packages = null;
         final Boolean inheritPackages = featurePack.getInheritPackages();
+        if (inheritPackages == null && !featurePack.hasExcludedPackages() && !featurePack.hasIncludedPackages()) {
+            return;
+        }
+        writer.startElement(Element.PACKAGES.getLocalName(), ns);
         if (inheritPackages != null) {
-            packages = addElement(fp, Element.PACKAGES.getLocalName(), ns);
-            addAttribute(packages, Attribute.INHERIT, String.valueOf(inheritPackages));
+            writer.attribute(Attribute.INHERIT, String.valueOf(inheritPackages));
         }
         if (featurePack.hasExcludedPackages()) {
-            if (packages == null) {
-                packages = addElement(fp, Element.PACKAGES.getLocalName(), ns);
-            }
             for (String excluded : featurePack.getExcludedPackages()) {
-                final ElementNode exclude = addElement(packages, Element.EXCLUDE.getLocalName(), ns);
-                addAttribute(exclude, Attribute.NAME, excluded);
+                writer.startElement(Element.EXCLUDE.getLocalName(), ns);
+                writer.attribute(Attribute.NAME, excluded);
+                writer.endElement();
             }
         }
         if (featurePack.hasIncludedPackages()) {
-            if (packages == null) {
-                packages = addElement(fp, Element.PACKAGES.getLocalName(), ns);
-            }
             for (String included : featurePack.getIncludedPackages()) {
-                final ElementNode include = addElement(packages, Element.INCLUDE.getLocalName(), ns);
-                addAttribute(include, Attribute.NAME, included);
+                writer.startElement(Element.INCLUDE.getLocalName(), ns);
+                writer.attribute(Attribute.NAME, included);
+                writer.endElement();
             }
         }
+        writer.endElement();
     }
 
-    static void writeConfigCustomizations(ElementNode parent, String ns, ConfigCustomizations configCustoms) {
-
-        ElementNode defConfigsE = null;
+    static void writeConfigCustomizations(ElementWriter writer, String ns, ConfigCustomizations configCustoms) throws XMLStreamException {
 
         final Boolean inheritConfigs = configCustoms.getInheritConfigs();
-        if(inheritConfigs != null) {
-            defConfigsE = addElement(parent, Element.DEFAULT_CONFIGS.getLocalName(), ns);
-            addAttribute(defConfigsE, Attribute.INHERIT, inheritConfigs.toString());
-        }
-        if(!configCustoms.isInheritModelOnlyConfigs()) {
-            if(defConfigsE == null) {
-                defConfigsE = addElement(parent, Element.DEFAULT_CONFIGS.getLocalName(), ns);
-            }
-            addAttribute(defConfigsE, Attribute.INHERIT_UNNAMED_MODELS, FALSE);
-        }
-        if(configCustoms.hasFullModelsExcluded()) {
-            if(defConfigsE == null) {
-                defConfigsE = addElement(parent, Element.DEFAULT_CONFIGS.getLocalName(), ns);
-            }
-            for (Map.Entry<String, Boolean> excluded : configCustoms.getFullModelsExcluded().entrySet()) {
-                final ElementNode exclude = addElement(defConfigsE, Element.EXCLUDE.getLocalName(), ns);
-                addAttribute(exclude, Attribute.MODEL, excluded.getKey());
-                if(!excluded.getValue()) {
-                    addAttribute(exclude, Attribute.NAMED_MODELS_ONLY, FALSE);
+        if(inheritConfigs != null || !configCustoms.isInheritModelOnlyConfigs() ||
+                configCustoms.hasFullModelsExcluded() || configCustoms.hasFullModelsIncluded() ||
+                configCustoms.hasExcludedConfigs() || configCustoms.hasIncludedConfigs()) {
+            writer.startElement(Element.DEFAULT_CONFIGS.getLocalName(), ns);
+            if(inheritConfigs != null) {
+                writer.attribute(Attribute.INHERIT, inheritConfigs.toString());
+            }
+            if(!configCustoms.isInheritModelOnlyConfigs()) {
+                writer.attribute(Attribute.INHERIT_UNNAMED_MODELS, FALSE);
+            }
+            if(configCustoms.hasFullModelsExcluded()) {
+                for (Map.Entry<String, Boolean> excluded : configCustoms.getFullModelsExcluded().entrySet()) {
+                    writer.startElement(Element.EXCLUDE.getLocalName(), ns);
+                    writer.attribute(Attribute.MODEL, excluded.getKey());
+                    if(!excluded.getValue()) {
+                        writer.attribute(Attribute.NAMED_MODELS_ONLY, FALSE);
+                    }
+                    writer.endElement();
                 }
             }
-        }
-        if(configCustoms.hasFullModelsIncluded()) {
-            if(defConfigsE == null) {
-                defConfigsE = addElement(parent, Element.DEFAULT_CONFIGS.getLocalName(), ns);
-            }
-            final String[] array = configCustoms.getFullModelsIncluded().toArray(new String[configCustoms.getFullModelsIncluded().size()]);
-            Arrays.sort(array);
-            for(String modelName : array) {
-                final ElementNode included = addElement(defConfigsE, Element.INCLUDE.getLocalName(), ns);
-                addAttribute(included, Attribute.MODEL, modelName);
-            }
-        }
-        if(configCustoms.hasExcludedConfigs()) {
-            if(defConfigsE == null) {
-                defConfigsE = addElement(parent, Element.DEFAULT_CONFIGS.getLocalName(), ns);
-            }
-            for(ConfigId configId : configCustoms.getExcludedConfigs()) {
-                final ElementNode excluded = addElement(defConfigsE, Element.EXCLUDE.getLocalName(), ns);
-                if(configId.getModel() != null) {
-                    addAttribute(excluded, Attribute.MODEL, configId.getModel());
-                }
-                if(configId.getName() != null) {
-                    addAttribute(excluded, Attribute.NAME, configId.getName());
+            if(configCustoms.hasFullModelsIncluded()) {
+                final String[] array = configCustoms.getFullModelsIncluded().toArray(new String[configCustoms.getFullModelsIncluded().size()]);
+                Arrays.sort(array);
+                for(String modelName : array) {
+                    writer.startElement(Element.INCLUDE.getLocalName(), ns);
+                    writer.attribute(Attribute.MODEL, modelName);
+                    writer.endElement();
                 }
             }
-        }
-        if(configCustoms.hasIncludedConfigs()) {
-            if(defConfigsE == null) {
-                defConfigsE = addElement(parent, Element.DEFAULT_CONFIGS.getLocalName(), ns);
-            }
-            for (ConfigId config : configCustoms.getIncludedConfigs()) {
-                final ElementNode includeElement = addElement(defConfigsE, Element.INCLUDE.getLocalName(), ns);
-                if(config.getModel() != null) {
-                    addAttribute(includeElement, Attribute.MODEL, config.getModel());
+            if(configCustoms.hasExcludedConfigs()) {
+                for(ConfigId configId : configCustoms.getExcludedConfigs()) {
+                    writeConfigId(writer, ns, Element.EXCLUDE, configId);
                 }
-                if(config.getName() != null) {
-                    addAttribute(includeElement, Attribute.NAME, config.getName());
+            }
+            if(configCustoms.hasIncludedConfigs()) {
+                for (ConfigId config : configCustoms.getIncludedConfigs()) {
+                    writeConfigId(writer, ns, Element.INCLUDE, config);
                 }
             }
+            writer.endElement();
         }
 
         if(configCustoms.hasDefinedConfigs()) {
             for (ConfigModel config : configCustoms.getDefinedConfigs()) {
-                parent.addChild(ConfigXmlWriter.getInstance().toElement(config, ns));
+                writer.element(ConfigXmlWriter.getInstance().toElement(config, ns));
             }
         }
     }
+
+    private static void writeConfigId(ElementWriter writer, String ns, Element element, ConfigId configId) throws XMLStreamException {
+        writer.startElement(element.getLocalName(), ns);
+        if(configId.getModel() != null) {
+            writer.attribute(Attribute.MODEL, configId.getModel());
+        }
+        if(configId.getName() != null) {
+            writer.attribute(Attribute.NAME, configId.getName());
+        }
+        writer.endElement();
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.config.capability.dynamic;
+
+import org.jboss.galleon.universe.galleon1.LegacyGalleon1Universe;
+import org.jboss.galleon.universe.FeaturePackLocation.FPID;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.config.ConfigModel;
+import org.jboss.galleon.config.FeatureConfig;
+import org.jboss.galleon.config.FeaturePackConfig;
+import org.jboss.galleon.creator.FeaturePackCreator;
+import org.jboss.galleon.runtime.ResolvedFeatureId;
+import org.jboss.galleon.spec.FeatureParameterSpec;
+import org.jboss.galleon.spec.FeatureSpec;
+import org.jboss.galleon.state.ProvisionedFeaturePack;
+import org.jboss.galleon.state.ProvisionedState;
+import org.jboss.galleon.test.PmInstallFeaturePackTestBase;
+import org.jboss.galleon.xml.ProvisionedConfigBuilder;
+import org.jboss.galleon.xml.ProvisionedFeatureBuilder;
+
+/**
+ * Dynamic capabilities resolved from parameter values that contain dots are
+ * the same capabilities as the ones with the corresponding dot-separated elements.
+ */
+public class DottedDynamicCapabilityElementsTestCase extends PmInstallFeaturePackTestBase {
+
+    private static final FPID FP_GAV = LegacyGalleon1Universe.newFPID("org.jboss.pm.test:fp1", "1", "1.0.0.Final");
+
+    @Override
+    protected void createFeaturePacks(FeaturePackCreator creator) throws ProvisioningException {
+        creator
+        .newFeaturePack(FP_GAV)
+            .addFeatureSpec(FeatureSpec.builder("specA")
+                    .providesCapability("cap.$a")
+                    .addParam(FeatureParameterSpec.createId("a"))
+                    .build())
+            .addFeatureSpec(FeatureSpec.builder("specB")
+                    .requiresCapability("cap.x.y")
+                    .addParam(FeatureParameterSpec.createId("b"))
+                    .build())
+            .addFeatureSpec(FeatureSpec.builder("specC")
+                    .providesCapability("cap.x.$c")
+                    .addParam(FeatureParameterSpec.createId("c"))
+                    .build())
+            .addFeatureSpec(FeatureSpec.builder("specD")
+                    .requiresCapability("cap.$d")
+                    .addParam(FeatureParameterSpec.createId("d"))
+                    .build())
+            .addConfig(ConfigModel.builder()
+                    .setName("main")
+                    .addFeature(
+                            new FeatureConfig("specB")
+                            .setParam("b", "b1"))
+                    .addFeature(
+                            new FeatureConfig("specD")
+                            .setParam("d", "x.z"))
+                    .addFeature(
+                            new FeatureConfig("specA")
+                            .setParam("a", "x.y"))
+                    .addFeature(
+                            new FeatureConfig("specC")
+                            .setParam("c", "z"))
+                    .build());
+    }
+
+    @Override
+    protected FeaturePackConfig featurePackConfig() {
+        return FeaturePackConfig.forLocation(FP_GAV.getLocation());
+    }
+
+    @Override
+    protected ProvisionedState provisionedState() throws ProvisioningException {
+        return ProvisionedState.builder()
+                .addFeaturePack(ProvisionedFeaturePack.forFPID(FP_GAV))
+                .addConfig(ProvisionedConfigBuilder.builder()
+                        .setName("main")
+                        .addFeature(ProvisionedFeatureBuilder.builder(ResolvedFeatureId.create(FP_GAV.getProducer(), "specA", "a", "x.y")).build())
+                        .addFeature(ProvisionedFeatureBuilder.builder(ResolvedFeatureId.create(FP_GAV.getProducer(), "specB", "b", "b1")).build())
+                        .addFeature(ProvisionedFeatureBuilder.builder(ResolvedFeatureId.create(FP_GAV.getProducer(), "specC", "c", "z")).build())
+                        .addFeature(ProvisionedFeatureBuilder.builder(ResolvedFeatureId.create(FP_GAV.getProducer(), "specD", "d", "x.z")).build())
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.config.feature.name;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.Errors;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.ProvisioningManager;
+import org.jboss.galleon.config.ConfigModel;
+import org.jboss.galleon.config.FeatureConfig;
+import org.jboss.galleon.config.FeaturePackConfig;
+import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.creator.FeaturePackCreator;
+import org.jboss.galleon.layout.FeaturePackLayout;
+import org.jboss.galleon.layout.ProvisioningLayout;
+import org.jboss.galleon.spec.FeatureParameterSpec;
+import org.jboss.galleon.spec.FeatureSpec;
+import org.jboss.galleon.state.ProvisionedState;
+import org.jboss.galleon.test.PmInstallFeaturePackTestBase;
+import org.jboss.galleon.universe.FeaturePackLocation.FPID;
+import org.jboss.galleon.universe.galleon1.LegacyGalleon1Universe;
+import org.jboss.galleon.util.IoUtils;
+import org.jboss.galleon.util.ZipUtils;
+
+/**
+ * The spec stored under the name of the requested spec declares another name. The mismatch is
+ * reported even if the spec has already been loaded and cached by the layout without the check.
+ */
+public class FeatureSpecNameMismatchTestCase extends PmInstallFeaturePackTestBase {
+
+    private static final FPID FP_GAV = LegacyGalleon1Universe.newFPID("org.jboss.pm.test:fp1", "1", "1.0.0.Final");
+
+    @Override
+    protected void createFeaturePacks(FeaturePackCreator creator) throws ProvisioningException {
+        creator
+        .newFeaturePack(FP_GAV)
+            .addFeatureSpec(FeatureSpec.builder("specB")
+                    .addParam(FeatureParameterSpec.createId("name"))
+                    .build())
+            .addConfig(ConfigModel.builder()
+                    .setName("main")
+                    .addFeature(new FeatureConfig("specA").setParam("name", "a1"))
+                    .build());
+    }
+
+    @Override
+    protected void doBefore() throws Exception {
+        super.doBefore();
+        moveInFeaturePack(repoHome, Constants.FEATURES + "/specB", Constants.FEATURES + "/specA");
+    }
+
+    static void moveInFeaturePack(Path repoHome, String source, String target) throws IOException {
+        final Path zip;
+        try(Stream<Path> files = Files.walk(repoHome)) {
+            zip = files.filter(p -> p.getFileName().toString().endsWith(".zip")).findFirst().get();
+        }
+        try(FileSystem fs = ZipUtils.newFileSystem(zip)) {
+            final Path targetPath = fs.getPath(target);
+            IoUtils.copy(fs.getPath(source), targetPath);
+            IoUtils.recursiveDelete(fs.getPath(source));
+        }
+    }
+
+    @Override
+    protected FeaturePackConfig featurePackConfig() {
+        return FeaturePackConfig.forLocation(FP_GAV.getLocation());
+    }
+
+    @Override
+    protected void testPm(ProvisioningManager pm) throws ProvisioningException {
+        try(ProvisioningLayout<FeaturePackLayout> layout = pm.getLayoutFactory().newConfigLayout(
+                ProvisioningConfig.builder().addFeaturePackDep(featurePackConfig()).build())) {
+            layout.getFeaturePack(FP_GAV.getProducer()).loadFeatureSpec("specA");
+        }
+        super.testPm(pm);
+    }
+
+    @Override
+    protected String[] pmErrors() throws ProvisioningException {
+        return new String[] {Errors.failedToResolveConfigSpec(null, "main"),
+                Errors.failedToProcess(FP_GAV, new FeatureConfig("specA").setParam("name", "a1")),
+                "Failed to parse /" + Constants.FEATURES + "/specA/" + Constants.SPEC_XML,
+                "Feature-pack " + FP_GAV + " feature spec specB does not match the requested feature spec name specA"};
+    }
+
+    @Override
+    protected ProvisionedState provisionedState() throws ProvisioningException {
+        return null;
+    }
+}
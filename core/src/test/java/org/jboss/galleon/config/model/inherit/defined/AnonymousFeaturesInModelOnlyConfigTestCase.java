@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.config.model.inherit.defined;
+
+import org.jboss.galleon.universe.galleon1.LegacyGalleon1Universe;
+import org.jboss.galleon.universe.FeaturePackLocation.FPID;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.config.ConfigModel;
+import org.jboss.galleon.config.FeatureConfig;
+import org.jboss.galleon.config.FeaturePackConfig;
+import org.jboss.galleon.creator.FeaturePackCreator;
+import org.jboss.galleon.runtime.ResolvedFeatureId;
+import org.jboss.galleon.runtime.ResolvedSpecId;
+import org.jboss.galleon.spec.FeatureParameterSpec;
+import org.jboss.galleon.spec.FeatureSpec;
+import org.jboss.galleon.state.ProvisionedFeaturePack;
+import org.jboss.galleon.state.ProvisionedState;
+import org.jboss.galleon.test.PmInstallFeaturePackTestBase;
+import org.jboss.galleon.xml.ProvisionedConfigBuilder;
+import org.jboss.galleon.xml.ProvisionedFeatureBuilder;
+
+/**
+ * The features without IDs of a model-only config are included into every named config of the model.
+ */
+public class AnonymousFeaturesInModelOnlyConfigTestCase extends PmInstallFeaturePackTestBase {
+
+    private static final FPID FP1_GAV = LegacyGalleon1Universe.newFPID("org.jboss.pm.test:fp1", "1", "1.0.0.Final");
+
+    @Override
+    protected void createFeaturePacks(FeaturePackCreator creator) throws ProvisioningException {
+        creator
+        .newFeaturePack(FP1_GAV)
+            .addFeatureSpec(FeatureSpec.builder("specA")
+                    .addParam(FeatureParameterSpec.createId("a"))
+                    .build())
+            .addFeatureSpec(FeatureSpec.builder("specB")
+                    .addParam(FeatureParameterSpec.create("b"))
+                    .build())
+            .addConfig(ConfigModel.builder().setModel("model1")
+                    .addFeature(new FeatureConfig("specA").setParam("a", "1"))
+                    .addFeature(new FeatureConfig("specB").setParam("b", "1"))
+                    .build())
+            .addConfig(ConfigModel.builder().setName("config-a").setModel("model1").build())
+            .addConfig(ConfigModel.builder().setName("config-b").setModel("model1")
+                    .addFeature(new FeatureConfig("specA").setParam("a", "2"))
+                    .build());
+    }
+
+    @Override
+    protected FeaturePackConfig featurePackConfig() {
+        return FeaturePackConfig.forLocation(FP1_GAV.getLocation());
+    }
+
+    @Override
+    protected ProvisionedState provisionedState() throws ProvisioningException {
+        return ProvisionedState.builder()
+                .addFeaturePack(ProvisionedFeaturePack.forFPID(FP1_GAV))
+                .addConfig(ProvisionedConfigBuilder.builder()
+                        .setName("config-a")
+                        .setModel("model1")
+                        .addFeature(ProvisionedFeatureBuilder.builder(ResolvedFeatureId.create(FP1_GAV.getProducer(), "specA", "a", "1")).build())
+                        .addFeature(ProvisionedFeatureBuilder.builder(new ResolvedSpecId(FP1_GAV.getProducer(), "specB")).setConfigParam("b", "1").build())
+                        .build())
+                .addConfig(ProvisionedConfigBuilder.builder()
+                        .setName("config-b")
+                        .setModel("model1")
+                        .addFeature(ProvisionedFeatureBuilder.builder(ResolvedFeatureId.create(FP1_GAV.getProducer(), "specA", "a", "2")).build())
+                        .addFeature(ProvisionedFeatureBuilder.builder(ResolvedFeatureId.create(FP1_GAV.getProducer(), "specA", "a", "1")).build())
+                        .addFeature(ProvisionedFeatureBuilder.builder(new ResolvedSpecId(FP1_GAV.getProducer(), "specB")).setConfigParam("b", "1").build())
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.diff.fs.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.jboss.galleon.diff.FsDiff;
+import org.jboss.galleon.diff.FsEntry;
+import org.jboss.galleon.diff.FsEntryFactory;
+import org.jboss.galleon.diff.FsEntryIndex;
+
+/**
+ * The state of a branch written to and read from a hashes index.
+ */
+public class FsEntryIndexTestCase extends FsEntriesTestBase {
+
+    @Override
+    protected void initFs() throws IOException {
+        createFile("a/b/file1.txt", "file1");
+        createFile("a/b/file2.txt", "file2");
+        mkdir("a/b/f");
+        createFile("a/d/file1.txt", "file1");
+        createFile("file1.txt", "file1");
+        mkdir("g");
+    }
+
+    @Override
+    protected void assertRootEntry(FsEntry rootEntry) throws Exception {
+        final Path index = Files.createTempFile("galleon", "hashes.idx");
+        try {
+            FsEntryIndex.write(rootEntry, index);
+            final FsEntry recorded = FsEntryIndex.read(index, root);
+            assertTrue(recorded.getChild("g").isDir());
+            assertTrue(recorded.getChild("a").getChild("b").getChild("f").isDir());
+            assertEquals(5, recorded.getChild("file1.txt").getSize());
+            assertIdentical(recorded, rootEntry);
+
+            createFile("a/b/file2.txt", "user2");
+            final FsDiff diff = FsDiff.diff(FsEntryIndex.read(index, root), FsEntryFactory.getInstance().forPath(root), true);
+            assertTrue(diff.hasModifiedEntries());
+            assertEquals(1, diff.getModifiedEntries().size());
+            assertEquals("a/b/file2.txt", diff.getModifiedEntries().iterator().next()[0].getRelativePath());
+        } finally {
+            Files.delete(index);
+        }
+    }
+}
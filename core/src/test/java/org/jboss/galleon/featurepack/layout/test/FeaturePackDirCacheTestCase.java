@@ -0,0 +1,187 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.featurepack.layout.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.layout.FeaturePackDirCache;
+import org.jboss.galleon.universe.FeaturePackLocation;
+import org.jboss.galleon.universe.FeaturePackLocation.FPID;
+import org.jboss.galleon.util.IoUtils;
+import org.jboss.galleon.util.ZipUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FeaturePackDirCacheTestCase {
+
+    private static final FPID FP1 = FeaturePackLocation.fromString("producer1@maven(universe):1#1.0.0.Final").getFPID();
+    private static final FPID FP2 = FeaturePackLocation.fromString("producer2@maven(universe):1#1.0.0.Final").getFPID();
+    private static final FPID FP3 = FeaturePackLocation.fromString("producer3@maven(universe):1#1.0.0.Final").getFPID();
+
+    private Path workDir;
+    private Path cacheDir;
+
+    @Before
+    public void before() throws Exception {
+        workDir = IoUtils.createRandomTmpDir();
+        cacheDir = workDir.resolve("cache");
+    }
+
+    @After
+    public void after() {
+        IoUtils.recursiveDelete(workDir);
+    }
+
+    @Test
+    public void testEntryIsReused() throws Exception {
+        final Path archive = archive("fp1", "content1");
+        final Path dir = get(FP1, archive, FeaturePackDirCache.DEFAULT_MAX_SIZE);
+        assertEquals("content1", IoUtils.readFile(dir.resolve("file.txt")));
+
+        final FileTime extracted = Files.getLastModifiedTime(dir.resolve("file.txt"));
+        assertEquals(dir, get(FP1, archive, FeaturePackDirCache.DEFAULT_MAX_SIZE));
+        assertEquals(extracted, Files.getLastModifiedTime(dir.resolve("file.txt")));
+    }
+
+    @Test
+    public void testChangedArchiveIsExtractedAgain() throws Exception {
+        final Path dir = get(FP1, archive("fp1", "content1"), FeaturePackDirCache.DEFAULT_MAX_SIZE);
+        final Path changedDir = get(FP1, archive("fp1b", "content2"), FeaturePackDirCache.DEFAULT_MAX_SIZE);
+        assertNotEquals(dir, changedDir);
+        assertEquals("content2", IoUtils.readFile(changedDir.resolve("file.txt")));
+    }
+
+    @Test
+    public void testArchiveRebuiltInPlaceIsExtractedAgain() throws Exception {
+        final Path archive = archive("fp1", "content1");
+        Files.setLastModifiedTime(archive, FileTime.fromMillis(1000));
+        final Path dir = get(FP1, archive, FeaturePackDirCache.DEFAULT_MAX_SIZE);
+
+        Files.delete(archive);
+        archive("fp1", "content2");
+        Files.setLastModifiedTime(archive, FileTime.fromMillis(2000));
+        final Path changedDir = get(FP1, archive, FeaturePackDirCache.DEFAULT_MAX_SIZE);
+        assertNotEquals(dir, changedDir);
+        assertEquals("content2", IoUtils.readFile(changedDir.resolve("file.txt")));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() throws Exception {
+        final Path archive1 = archive("fp1", "content1");
+        final Path archive2 = archive("fp2", "content2");
+        final Path archive3 = archive("fp3", "content3");
+        final long maxSize = 2 * "content1".length();
+
+        final Path dir1 = get(FP1, archive1, maxSize);
+        Files.setLastModifiedTime(dir1.getParent().resolve("entry"), FileTime.fromMillis(1000));
+        final Path dir2 = get(FP2, archive2, maxSize);
+        Files.setLastModifiedTime(dir2.getParent().resolve("entry"), FileTime.fromMillis(2000));
+        // used recently
+        get(FP1, archive1, maxSize);
+
+        final Path dir3 = get(FP3, archive3, maxSize);
+        assertTrue(Files.exists(dir1));
+        assertFalse(Files.exists(dir2));
+        assertTrue(Files.exists(dir3));
+    }
+
+    @Test
+    public void testEntriesInUseAreNotEvicted() throws Exception {
+        final Path archive1 = archive("fp1", "content1");
+        final Path archive2 = archive("fp2", "content2");
+        final Path archive3 = archive("fp3", "content3");
+        final long maxSize = 2 * "content1".length();
+
+        try(FeaturePackDirCache session = new FeaturePackDirCache(cacheDir, maxSize)) {
+            final Path dir1 = session.get(FP1, archive1);
+            Files.setLastModifiedTime(dir1.getParent().resolve("entry"), FileTime.fromMillis(1000));
+            final Path dir2 = get(FP2, archive2, maxSize);
+            Files.setLastModifiedTime(dir2.getParent().resolve("entry"), FileTime.fromMillis(2000));
+
+            final Path dir3 = get(FP3, archive3, maxSize);
+            assertTrue(Files.exists(dir1));
+            assertFalse(Files.exists(dir2));
+            assertTrue(Files.exists(dir3));
+        }
+    }
+
+    @Test
+    public void testOrphanedTmpDirsAreDeleted() throws Exception {
+        // left by sessions that crashed while extracting an archive
+        final Path orphan = cacheDir.resolve("tmp").resolve("orphan");
+        Files.createDirectories(orphan.resolve("content"));
+        Files.write(orphan.resolve("content").resolve("file.txt"), "content1".getBytes(StandardCharsets.UTF_8));
+        final Path orphanLock = cacheDir.resolve("tmp").resolve("orphan2.lock");
+        Files.createFile(orphanLock);
+
+        final Path dir = get(FP1, archive("fp1", "content1"), FeaturePackDirCache.DEFAULT_MAX_SIZE);
+        assertTrue(Files.exists(dir));
+        assertFalse(Files.exists(orphan));
+        assertFalse(Files.exists(orphanLock));
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDir.resolve("tmp"))) {
+            assertFalse(stream.iterator().hasNext());
+        }
+    }
+
+    @Test
+    public void testInvalidMaxSizeIsIgnored() throws Exception {
+        final String dir = System.getProperty(Constants.PROP_FP_CACHE_DIR);
+        final String maxSize = System.getProperty(Constants.PROP_FP_CACHE_MAX_SIZE);
+        System.setProperty(Constants.PROP_FP_CACHE_DIR, cacheDir.toString());
+        System.setProperty(Constants.PROP_FP_CACHE_MAX_SIZE, "2GB");
+        try(FeaturePackDirCache cache = FeaturePackDirCache.getDefault()) {
+            assertEquals("content1", IoUtils.readFile(cache.get(FP1, archive("fp1", "content1")).resolve("file.txt")));
+        } finally {
+            restoreProperty(Constants.PROP_FP_CACHE_DIR, dir);
+            restoreProperty(Constants.PROP_FP_CACHE_MAX_SIZE, maxSize);
+        }
+    }
+
+    private static void restoreProperty(String name, String value) {
+        if(value == null) {
+            System.clearProperty(name);
+        } else {
+            System.setProperty(name, value);
+        }
+    }
+
+    private Path get(FPID fpid, Path archive, long maxSize) throws Exception {
+        try(FeaturePackDirCache cache = new FeaturePackDirCache(cacheDir, maxSize)) {
+            return cache.get(fpid, archive);
+        }
+    }
+
+    private Path archive(String name, String content) throws Exception {
+        final Path src = workDir.resolve(name);
+        Files.createDirectories(src);
+        Files.write(src.resolve("file.txt"), content.getBytes(StandardCharsets.UTF_8));
+        final Path archive = workDir.resolve(name + ".zip");
+        ZipUtils.zip(src, archive);
+        return archive;
+    }
+}
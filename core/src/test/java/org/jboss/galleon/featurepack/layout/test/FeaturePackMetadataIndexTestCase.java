@@ -0,0 +1,272 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.featurepack.layout.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.Stability;
+import org.jboss.galleon.config.ConfigId;
+import org.jboss.galleon.config.ConfigModel;
+import org.jboss.galleon.config.FeatureConfig;
+import org.jboss.galleon.config.FeatureGroup;
+import org.jboss.galleon.layout.FeaturePackMetadataIndex;
+import org.jboss.galleon.spec.ConfigLayerSpec;
+import org.jboss.galleon.spec.FeatureAnnotation;
+import org.jboss.galleon.spec.FeatureDependencySpec;
+import org.jboss.galleon.spec.FeatureId;
+import org.jboss.galleon.spec.FeatureParameterSpec;
+import org.jboss.galleon.spec.FeatureReferenceSpec;
+import org.jboss.galleon.spec.FeatureSpec;
+import org.jboss.galleon.spec.PackageDependencySpec;
+import org.jboss.galleon.spec.PackageSpec;
+import org.jboss.galleon.util.IoUtils;
+import org.jboss.galleon.util.ZipUtils;
+import org.jboss.galleon.xml.ConfigLayerXmlWriter;
+import org.jboss.galleon.xml.ConfigXmlParser;
+import org.jboss.galleon.xml.ConfigXmlWriter;
+import org.jboss.galleon.xml.FeatureGroupXmlParser;
+import org.jboss.galleon.xml.FeatureGroupXmlWriter;
+import org.jboss.galleon.xml.FeatureSpecXmlParser;
+import org.jboss.galleon.xml.FeatureSpecXmlWriter;
+import org.jboss.galleon.xml.PackageXmlParser;
+import org.jboss.galleon.xml.PackageXmlWriter;
+import org.jboss.galleon.xml.XmlParsers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FeaturePackMetadataIndexTestCase {
+
+    private static final String PACKAGE_XML = Constants.PACKAGES + "/p1/" + Constants.PACKAGE_XML;
+    private static final String SPEC_XML = Constants.FEATURES + "/specA/" + Constants.SPEC_XML;
+    private static final String GROUP_XML = Constants.FEATURE_GROUPS + "/fg1.xml";
+    private static final String MODEL_XML = Constants.CONFIGS + "/model1/" + Constants.MODEL_XML;
+    private static final String CONFIG_XML = Constants.CONFIGS + "/model1/config1/" + Constants.CONFIG_XML;
+    private static final String LAYER_XML = Constants.LAYERS + "/model1/layer1/" + Constants.LAYER_SPEC_XML;
+
+    private Path fpDir;
+
+    @Before
+    public void before() throws Exception {
+        fpDir = IoUtils.createRandomTmpDir();
+        write(Constants.FEATURE_PACK_XML, "<feature-pack/>");
+        write(Constants.PACKAGES + "/p1/" + Constants.CONTENT + "/standalone.xml", "<server/>");
+        write(Constants.RESOURCES + "/config.xml", "<config/>");
+
+        PackageXmlWriter.getInstance().write(PackageSpec.builder("p1")
+                .setStability(Stability.PREVIEW)
+                .addPackageDep("p2")
+                .addPackageDep(PackageDependencySpec.optional("p3", "experimental"))
+                .addPackageDep(PackageDependencySpec.passive("p4"))
+                .addPackageDep("fp2", "p5", true)
+                .build(), fpDir.resolve(PACKAGE_XML));
+
+        FeatureSpecXmlWriter.getInstance().write(FeatureSpec.builder("specA")
+                .addAnnotation(FeatureAnnotation.featureBranch("branch", true))
+                .providesCapability("cap.a.$a")
+                .requiresCapability("cap.b.$b", true)
+                .requiresCapability("cap.c")
+                .addFeatureDep(FeatureDependencySpec.create(FeatureId.create("specB", "b", "b1"), "fp2", true))
+                .addFeatureRef(FeatureReferenceSpec.builder("specB").setName("b-ref").setNillable(true).mapParam("b", "b").build())
+                .addParam(FeatureParameterSpec.builder("z").setFeatureId().build())
+                .addParam(FeatureParameterSpec.createId("a"))
+                .addParam(FeatureParameterSpec.create("b", true))
+                .addParam(FeatureParameterSpec.builder("c").setDefaultValue("cDef").setType("List<String>").setStability(Stability.COMMUNITY).build())
+                .addPackageDep("p1")
+                .build(), fpDir.resolve(SPEC_XML));
+
+        FeatureGroupXmlWriter.getInstance().write(FeatureGroup.builder("fg1")
+                .setInheritFeatures(false)
+                .includeSpec("specA")
+                .excludeSpec("fp2", "specC")
+                .excludeFeature(FeatureId.create("specA", "a", "a2"), "parent")
+                .includeFeature(FeatureId.create("specA", "a", "a1"), new FeatureConfig().setParam("c", "c1"))
+                .addConfigItem(FeatureGroup.builder("fg2").setOrigin("fp2").excludeSpec("specB").build())
+                .addConfigItem(new FeatureConfig("specA")
+                        .setParam("z", "z1")
+                        .setParam("a", "a3")
+                        .unsetParam("b")
+                        .resetParam("c")
+                        .addFeatureDep(FeatureId.create("specA", "a", "a1"))
+                        .addConfigItem(new FeatureConfig("specD").setParentRef("specA").setParam("d", "d1")))
+                .addPackageDep("p1", true)
+                .build(), fpDir.resolve(GROUP_XML));
+
+        ConfigXmlWriter.getInstance().write(ConfigModel.builder("model1", null)
+                .setProperty("prop1", "value1")
+                .setProperty("prop2", "value2")
+                .build(), fpDir.resolve(MODEL_XML));
+
+        ConfigXmlWriter.getInstance().write(ConfigModel.builder("model1", "config1")
+                .setConfigDep("dep1", new ConfigId("model1", "config2"))
+                .setInheritLayers(false)
+                .includeLayer("layer1")
+                .excludeLayer("layer2")
+                .addFeatureGroup(FeatureGroup.forGroup("fg1"))
+                .addFeature(new FeatureConfig("specA").setParam("a", "a4"))
+                .build(), fpDir.resolve(CONFIG_XML));
+
+        ConfigLayerXmlWriter.getInstance().write(ConfigLayerSpec.builder("layer1")
+                .addLayerDep("layer2")
+                .addLayerDep("layer3", true)
+                .addFeature(new FeatureConfig("specA").setParam("a", "a5"))
+                .build(), fpDir.resolve(LAYER_XML));
+    }
+
+    @After
+    public void after() {
+        IoUtils.recursiveDelete(fpDir);
+    }
+
+    @Test
+    public void testIndexedModelsEqualParsedModels() throws Exception {
+        FeaturePackMetadataIndex.write(fpDir);
+        final FeaturePackMetadataIndex index = FeaturePackMetadataIndex.load(fpDir);
+        assertNotNull(index);
+        assertEquals(6, index.size());
+
+        try (BufferedReader reader = Files.newBufferedReader(fpDir.resolve(PACKAGE_XML))) {
+            assertEquals(PackageXmlParser.getInstance().parse(reader), index.get(fpDir.resolve(PACKAGE_XML)));
+        }
+        try (BufferedReader reader = Files.newBufferedReader(fpDir.resolve(SPEC_XML))) {
+            final FeatureSpec parsed = FeatureSpecXmlParser.getInstance().parse(reader);
+            final FeatureSpec indexed = (FeatureSpec) index.get(fpDir.resolve(SPEC_XML));
+            assertEquals(parsed, indexed);
+            assertEquals(parsed.getIdParams(), indexed.getIdParams());
+            assertEquals(parsed.getParams().keySet().toString(), indexed.getParams().keySet().toString());
+        }
+        try (BufferedReader reader = Files.newBufferedReader(fpDir.resolve(GROUP_XML))) {
+            assertEquals(FeatureGroupXmlParser.getInstance().parse(reader), index.get(fpDir.resolve(GROUP_XML)));
+        }
+        try (BufferedReader reader = Files.newBufferedReader(fpDir.resolve(MODEL_XML))) {
+            assertEquals(ConfigXmlParser.getInstance().parse(reader), index.get(fpDir.resolve(MODEL_XML)));
+        }
+        try (BufferedReader reader = Files.newBufferedReader(fpDir.resolve(CONFIG_XML))) {
+            assertEquals(ConfigXmlParser.getInstance().parse(reader), index.get(fpDir.resolve(CONFIG_XML)));
+        }
+        try (BufferedReader reader = Files.newBufferedReader(fpDir.resolve(LAYER_XML))) {
+            final ConfigLayerSpec parsed = XmlParsers.parseConfigLayerSpec(reader, "model1");
+            final ConfigLayerSpec indexed = (ConfigLayerSpec) index.get(fpDir.resolve(LAYER_XML));
+            assertEquals(parsed, indexed);
+            assertEquals(parsed.getId(), indexed.getId());
+        }
+
+        // the feature-pack.xml, the content of packages and the resources are not indexed
+        assertNull(index.get(fpDir.resolve(Constants.FEATURE_PACK_XML)));
+        assertNull(index.get(fpDir.resolve(Constants.PACKAGES).resolve("p1").resolve(Constants.CONTENT).resolve("standalone.xml")));
+        assertNull(index.get(fpDir.resolve(Constants.RESOURCES).resolve("config.xml")));
+        assertNull(index.get(fpDir.resolve(Constants.PACKAGES).resolve("p2").resolve(Constants.PACKAGE_XML)));
+    }
+
+    @Test
+    public void testModifiedDescriptorIsNotUsed() throws Exception {
+        FeaturePackMetadataIndex.write(fpDir);
+        PackageXmlWriter.getInstance().write(PackageSpec.forName("p1"), fpDir.resolve(PACKAGE_XML));
+        final Path specXml = fpDir.resolve(SPEC_XML);
+        Files.setLastModifiedTime(specXml, FileTime.fromMillis(Files.getLastModifiedTime(specXml).toMillis() + 5000));
+
+        final FeaturePackMetadataIndex index = FeaturePackMetadataIndex.load(fpDir);
+        assertNotNull(index);
+        assertNull(index.get(fpDir.resolve(PACKAGE_XML)));
+        assertNull(index.get(specXml));
+        assertNotNull(index.get(fpDir.resolve(GROUP_XML)));
+        Files.delete(fpDir.resolve(GROUP_XML));
+        assertNull(index.get(fpDir.resolve(GROUP_XML)));
+    }
+
+    @Test
+    public void testDescriptorNotMatchingItsLocationIsNotIndexed() throws Exception {
+        FeatureSpecXmlWriter.getInstance().write(FeatureSpec.builder("specB").build(),
+                fpDir.resolve(Constants.FEATURES).resolve("specC").resolve(Constants.SPEC_XML));
+        write(Constants.PACKAGES + "/p2/" + Constants.PACKAGE_XML, "<package-spec");
+        FeaturePackMetadataIndex.write(fpDir);
+        final FeaturePackMetadataIndex index = FeaturePackMetadataIndex.load(fpDir);
+        assertEquals(6, index.size());
+        assertNull(index.get(fpDir.resolve(Constants.FEATURES).resolve("specC").resolve(Constants.SPEC_XML)));
+        assertNull(index.get(fpDir.resolve(Constants.PACKAGES).resolve("p2").resolve(Constants.PACKAGE_XML)));
+    }
+
+    @Test
+    public void testIndexIsValidAfterZipAndUnzip() throws Exception {
+        FeaturePackMetadataIndex.write(fpDir);
+        final Path tmp = IoUtils.createRandomTmpDir();
+        try {
+            final Path zip = tmp.resolve("fp.zip");
+            ZipUtils.zip(fpDir, zip);
+            final Path unzipped = tmp.resolve("fp");
+            ZipUtils.unzip(zip, unzipped);
+            final FeaturePackMetadataIndex index = FeaturePackMetadataIndex.load(unzipped);
+            assertNotNull(index);
+            assertNotNull(index.get(unzipped.resolve(PACKAGE_XML)));
+            assertNotNull(index.get(unzipped.resolve(LAYER_XML)));
+        } finally {
+            IoUtils.recursiveDelete(tmp);
+        }
+    }
+
+    @Test
+    public void testMissingIndex() throws Exception {
+        assertNull(FeaturePackMetadataIndex.load(fpDir));
+    }
+
+    @Test
+    public void testOtherVersionIsIgnored() throws Exception {
+        FeaturePackMetadataIndex.write(fpDir);
+        final Path file = fpDir.resolve(Constants.METADATA_INDEX);
+        final byte[] bytes = Files.readAllBytes(file);
+        // the version follows the magic number
+        bytes[7] = (byte) (FeaturePackMetadataIndex.VERSION - 1);
+        Files.write(file, bytes);
+        assertNull(FeaturePackMetadataIndex.load(fpDir));
+    }
+
+    @Test
+    public void testCorruptedIndexIsIgnored() throws Exception {
+        FeaturePackMetadataIndex.write(fpDir);
+        final Path file = fpDir.resolve(Constants.METADATA_INDEX);
+        final byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0xff;
+        Files.write(file, bytes);
+        assertNull(FeaturePackMetadataIndex.load(fpDir));
+    }
+
+    @Test
+    public void testTruncatedIndexIsIgnored() throws Exception {
+        FeaturePackMetadataIndex.write(fpDir);
+        final Path file = fpDir.resolve(Constants.METADATA_INDEX);
+        final byte[] bytes = Files.readAllBytes(file);
+        final byte[] truncated = new byte[bytes.length - 4];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Files.write(file, truncated);
+        assertNull(FeaturePackMetadataIndex.load(fpDir));
+    }
+
+    private void write(String relativePath, String content) throws Exception {
+        final Path p = fpDir.resolve(relativePath);
+        Files.createDirectories(p.getParent());
+        Files.write(p, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
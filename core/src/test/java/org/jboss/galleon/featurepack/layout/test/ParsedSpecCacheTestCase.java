@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.featurepack.layout.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.layout.ParsedSpecCache;
+import org.jboss.galleon.universe.FeaturePackLocation;
+import org.jboss.galleon.universe.FeaturePackLocation.FPID;
+import org.jboss.galleon.util.IoUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParsedSpecCacheTestCase {
+
+    private static final FPID FP1 = FeaturePackLocation.fromString("producer1@maven(universe):1#1.0.0.Final").getFPID();
+    private static final FPID FP2 = FeaturePackLocation.fromString("producer2@maven(universe):1#1.0.0.Final").getFPID();
+
+    private final AtomicInteger parsed = new AtomicInteger();
+    private final ParsedSpecCache.Parser<String> parser = p -> {
+        parsed.incrementAndGet();
+        try {
+            return new String(Files.readAllBytes(p), StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new ProvisioningException(e);
+        }
+    };
+
+    private Path workDir;
+
+    @Before
+    public void before() throws Exception {
+        workDir = IoUtils.createRandomTmpDir();
+    }
+
+    @After
+    public void after() {
+        IoUtils.recursiveDelete(workDir);
+    }
+
+    @Test
+    public void testParsedSpecIsReused() throws Exception {
+        final Path spec = write("spec.xml", "spec1", 1000000);
+        final ParsedSpecCache cache = new ParsedSpecCache(10);
+        final String first = cache.get(FP1, spec, parser);
+        assertEquals("spec1", first);
+        assertSame(first, cache.get(FP1, spec, parser));
+        assertEquals(1, parsed.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        // the same file of another feature-pack is another entry
+        cache.get(FP2, spec, parser);
+        assertEquals(2, parsed.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testModifiedSpecIsParsedAgain() throws Exception {
+        final Path spec = write("spec.xml", "spec1", 1000000);
+        final ParsedSpecCache cache = new ParsedSpecCache(10);
+        assertEquals("spec1", cache.get(FP1, spec, parser));
+        write("spec.xml", "spec22", 2000000);
+        assertEquals("spec22", cache.get(FP1, spec, parser));
+        assertEquals(2, parsed.get());
+    }
+
+    @Test
+    public void testMissingSpec() throws Exception {
+        final ParsedSpecCache cache = new ParsedSpecCache(10);
+        assertNull(cache.get(FP1, workDir.resolve("missing.xml"), parser));
+        assertEquals(0, parsed.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws Exception {
+        final Path spec1 = write("spec1.xml", "spec1", 1000000);
+        final Path spec2 = write("spec2.xml", "spec2", 1000000);
+        final Path spec3 = write("spec3.xml", "spec3", 1000000);
+        final ParsedSpecCache cache = new ParsedSpecCache(2);
+        cache.get(FP1, spec1, parser);
+        cache.get(FP1, spec2, parser);
+        cache.get(FP1, spec1, parser);
+        cache.get(FP1, spec3, parser);
+        assertEquals(2, cache.size());
+        assertEquals(3, parsed.get());
+
+        cache.get(FP1, spec1, parser);
+        assertEquals(3, parsed.get());
+        cache.get(FP1, spec2, parser);
+        assertEquals(4, parsed.get());
+    }
+
+    private Path write(String name, String content, long lastModified) throws Exception {
+        final Path p = workDir.resolve(name);
+        Files.write(p, content.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(p, FileTime.fromMillis(lastModified));
+        return p;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.featurepack.layout.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.ProvisioningManager;
+import org.jboss.galleon.config.ConfigModel;
+import org.jboss.galleon.config.FeatureConfig;
+import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.creator.FeaturePackCreator;
+import org.jboss.galleon.runtime.ProvisioningRuntime;
+import org.jboss.galleon.spec.FeatureParameterSpec;
+import org.jboss.galleon.spec.FeatureSpec;
+import org.jboss.galleon.test.PmTestBase;
+import org.jboss.galleon.test.util.TestConfigHandlersProvisioningPlugin;
+import org.jboss.galleon.universe.FeaturePackLocation.FPID;
+import org.jboss.galleon.universe.galleon1.LegacyGalleon1Universe;
+import org.jboss.galleon.util.IoUtils;
+
+public class ReadOnlyRuntimeTestCase extends PmTestBase {
+
+    private static final FPID FP_GAV = LegacyGalleon1Universe.newFPID("org.jboss.pm.test:fp1", "1", "1.0.0.Final");
+
+    @Override
+    protected void createFeaturePacks(FeaturePackCreator creator) throws ProvisioningException {
+        creator
+        .newFeaturePack(FP_GAV)
+            .addFeatureSpec(FeatureSpec.builder("specA")
+                    .addParam(FeatureParameterSpec.createId("a"))
+                    .build())
+            .addConfig(ConfigModel.builder()
+                    .setName("main")
+                    .addFeature(new FeatureConfig("specA").setParam("a", "a1"))
+                    .build())
+            .newPackage("p1", true)
+                .writeContent("fp1/p1.txt", "p1")
+                .getFeaturePack()
+            .writeResources("res.txt", "res")
+            .addPlugin(TestConfigHandlersProvisioningPlugin.class);
+    }
+
+    @Override
+    protected boolean assertProvisionedHomeDir() {
+        return false;
+    }
+
+    @Override
+    protected void testPm(ProvisioningManager pm) throws ProvisioningException {
+        // the plugins are not loaded, so the option is not validated
+        final ProvisioningConfig config = ProvisioningConfig.builder()
+                .addFeaturePackDep(FP_GAV.getLocation())
+                .addOption("unknown-option", "value")
+                .build();
+        try (ProvisioningRuntime rt = pm.getReadOnlyRuntime(config)) {
+            assertTrue(rt.isReadOnly());
+            assertNotNull(rt.getFeaturePack(FP_GAV.getProducer()).getPackage("p1"));
+            assertEquals(1, rt.getConfigs().size());
+            assertEquals(1, rt.getAllFeatures().size());
+            assertEquals("specA", rt.getAllFeatures().get(0).getName());
+
+            assertNull(rt.getStagedDir());
+            assertTrue(rt.getLayout().hasResources());
+            assertTrue(rt.getLayout().hasPlugins());
+            final Path resources = rt.getLayout().getResources();
+            assertNotNull(resources);
+            assertEquals("res", IoUtils.readFile(resources.resolve("res.txt")));
+            assertEquals(resources.resolve("res.txt"), rt.getResource("res.txt"));
+            final Path pluginsDir = rt.getLayout().getPluginsDir();
+            assertNotNull(pluginsDir);
+            assertTrue(Files.isDirectory(pluginsDir));
+
+            try {
+                rt.provision();
+                fail("Read-only runtime was provisioned");
+            } catch (ProvisioningException e) {
+                // expected
+            }
+        } catch (IOException e) {
+            throw new ProvisioningException(e);
+        }
+        assertFalse(Files.exists(installHome.resolve("fp1")));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.installation.configs;
+
+import java.nio.file.Path;
+
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.ProvisioningManager;
+import org.jboss.galleon.config.ConfigId;
+import org.jboss.galleon.config.ConfigModel;
+import org.jboss.galleon.config.FeatureConfig;
+import org.jboss.galleon.config.FeaturePackConfig;
+import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.creator.FeaturePackBuilder;
+import org.jboss.galleon.creator.FeaturePackCreator;
+import org.jboss.galleon.spec.FeatureId;
+import org.jboss.galleon.spec.FeatureParameterSpec;
+import org.jboss.galleon.spec.FeatureReferenceSpec;
+import org.jboss.galleon.spec.FeatureSpec;
+import org.jboss.galleon.state.ProvisionedState;
+import org.jboss.galleon.test.FeaturePackRepoTestBase;
+import org.jboss.galleon.test.util.TestUtils;
+import org.jboss.galleon.universe.FeaturePackLocation.FPID;
+import org.jboss.galleon.universe.galleon1.LegacyGalleon1Universe;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Provisions the same configs with the features arranged sequentially and concurrently
+ * and checks the resulting configs are the same, including the order of the features.
+ */
+public class ParallelConfigArrangementTestCase extends FeaturePackRepoTestBase {
+
+    private static final FPID FP_GAV = LegacyGalleon1Universe.newFPID("org.jboss.pm.test:fp1", "1", "1.0.0.Final");
+
+    private static final int CONFIGS_TOTAL = 8;
+
+    @Override
+    protected void doBefore() throws Exception {
+        final FeaturePackCreator creator = initCreator();
+        final FeaturePackBuilder fp = creator.newFeaturePack(FP_GAV)
+                .addFeatureSpec(FeatureSpec.builder("specA")
+                        .providesCapability("cap.a")
+                        .providesCapability("cap.a.$a")
+                        .addParam(FeatureParameterSpec.createId("a"))
+                        .build())
+                .addFeatureSpec(FeatureSpec.builder("specB")
+                        .requiresCapability("cap.a")
+                        .addFeatureRef(FeatureReferenceSpec.create("specA"))
+                        .addParam(FeatureParameterSpec.createId("b"))
+                        .addParam(FeatureParameterSpec.create("a"))
+                        .build())
+                .addFeatureSpec(FeatureSpec.builder("specC")
+                        .requiresCapability("cap.a.$c")
+                        .addParam(FeatureParameterSpec.createId("c"))
+                        .build())
+                .addFeatureSpec(FeatureSpec.builder("specD")
+                        .requiresCapability("cap.a")
+                        .addParam(FeatureParameterSpec.create("d"))
+                        .build());
+
+        // the features without an ID of the model are added to each config of the model
+        fp.addConfig(ConfigModel.builder("model1", null)
+                .addFeature(new FeatureConfig("specD").setParam("d", "d1"))
+                .addFeature(new FeatureConfig("specD").setParam("d", "d2"))
+                .build());
+
+        for(int i = 0; i < CONFIGS_TOTAL; ++i) {
+            final ConfigModel.Builder config = ConfigModel.builder(i % 2 == 0 ? "model1" : "model2", "config" + i);
+            if(i > 1) {
+                config.setConfigDep("dep", new ConfigId(i % 2 == 0 ? "model1" : "model2", "config" + (i - 2)));
+            }
+            for(int j = 0; j < 10; ++j) {
+                config.addFeature(new FeatureConfig("specC").setParam("c", "a" + j))
+                        .addFeature(new FeatureConfig("specB").setParam("b", "b" + j).setParam("a", "a" + j)
+                                .addFeatureDep(FeatureId.fromString("specC:c=a" + (9 - j))))
+                        .addFeature(new FeatureConfig("specA").setParam("a", "a" + j));
+            }
+            fp.addConfig(config.build());
+        }
+        creator.install();
+    }
+
+    @Test
+    public void testSameConfigsAsSequential() throws Exception {
+        final ProvisionedState sequential = provision(1);
+        final ProvisionedState parallel = provision(4);
+        Assert.assertEquals(CONFIGS_TOTAL, parallel.getConfigs().size());
+        Assert.assertEquals(sequential, parallel);
+    }
+
+    private ProvisionedState provision(int threads) throws ProvisioningException {
+        final Path home = TestUtils.mkdirs(workDir, "dist-" + threads);
+        final String original = System.getProperty(Constants.PROP_CONFIG_THREADS);
+        System.setProperty(Constants.PROP_CONFIG_THREADS, String.valueOf(threads));
+        try (ProvisioningManager pm = ProvisioningManager.builder()
+                .addArtifactResolver(repo)
+                .setInstallationHome(home)
+                .setMessageWriter(getMessageWriter())
+                .build()) {
+            pm.provision(ProvisioningConfig.builder()
+                    .addFeaturePackDep(FeaturePackConfig.forLocation(FP_GAV.getLocation()))
+                    .build());
+            return pm.getProvisionedState();
+        } finally {
+            if(original == null) {
+                System.clearProperty(Constants.PROP_CONFIG_THREADS);
+            } else {
+                System.setProperty(Constants.PROP_CONFIG_THREADS, original);
+            }
+        }
+    }
+}
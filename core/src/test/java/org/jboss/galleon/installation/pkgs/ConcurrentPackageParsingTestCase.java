@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.installation.pkgs;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.jboss.galleon.Constants;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.ProvisioningManager;
+import org.jboss.galleon.config.FeaturePackConfig;
+import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.creator.FeaturePackBuilder;
+import org.jboss.galleon.creator.FeaturePackCreator;
+import org.jboss.galleon.test.FeaturePackRepoTestBase;
+import org.jboss.galleon.universe.FeaturePackLocation.FPID;
+import org.jboss.galleon.universe.galleon1.LegacyGalleon1Universe;
+import org.jboss.galleon.util.ZipUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Resolves the packages of a feature-pack with the package specs parsed concurrently.
+ */
+public class ConcurrentPackageParsingTestCase extends FeaturePackRepoTestBase {
+
+    private static final FPID FP_GAV = LegacyGalleon1Universe.newFPID("org.jboss.pm.test:fp1", "1", "1.0.0.Final");
+    private static final FPID FP2_GAV = LegacyGalleon1Universe.newFPID("org.jboss.pm.test:fp2", "1", "1.0.0.Final");
+    private static final int FP2_ROOTS = 20;
+
+    private String originalThreads;
+
+    @Override
+    protected void doBefore() throws Exception {
+        originalThreads = System.getProperty(Constants.PROP_PACKAGE_THREADS);
+        System.setProperty(Constants.PROP_PACKAGE_THREADS, "4");
+
+        final FeaturePackCreator creator = initCreator();
+        creator.newFeaturePack(FP_GAV)
+                .newPackage("p1", true)
+                    .addDependency("p2")
+                    .addDependency("p3")
+                    .addDependency("p4", true)
+                    .getFeaturePack()
+                .newPackage("p2")
+                    .addDependency("p3")
+                    .addDependency("p5")
+                    .getFeaturePack()
+                .newPackage("p3")
+                    .addDependency("p5")
+                    .getFeaturePack()
+                .newPackage("p4")
+                    .addDependency("broken")
+                    .getFeaturePack()
+                .newPackage("p5")
+                    .getFeaturePack()
+                .newPackage("broken")
+                    .getFeaturePack()
+                .newPackage("unreferenced")
+                    .getFeaturePack();
+        final FeaturePackBuilder fp2 = creator.newFeaturePack(FP2_GAV);
+        fp2.newPackage("common");
+        for(int i = 0; i < FP2_ROOTS; ++i) {
+            fp2.newPackage("root" + i, true)
+                    .addDependency("common")
+                    .addDependency("dep" + i);
+            fp2.newPackage("dep" + i)
+                    .addDependency("common");
+        }
+        creator.install();
+
+        try (Stream<Path> files = Files.walk(repoHome)) {
+            final Path archive = files.filter(p -> p.getFileName().toString().startsWith("fp1-") && p.getFileName().toString().endsWith(".zip")).findFirst().get();
+            try (FileSystem zipfs = ZipUtils.newFileSystem(archive)) {
+                for(String pkgName : Arrays.asList("broken", "unreferenced")) {
+                    Files.write(zipfs.getPath(Constants.PACKAGES, pkgName, Constants.PACKAGE_XML), "<package-spec".getBytes());
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void doAfter() throws Exception {
+        if(originalThreads == null) {
+            System.clearProperty(Constants.PROP_PACKAGE_THREADS);
+        } else {
+            System.setProperty(Constants.PROP_PACKAGE_THREADS, originalThreads);
+        }
+    }
+
+    @Test
+    public void testBrokenPackagesNotResolvedAreIgnored() throws Exception {
+        try (ProvisioningManager pm = getPm()) {
+            pm.provision(ProvisioningConfig.builder()
+                    .addFeaturePackDep(FeaturePackConfig.builder(FP_GAV.getLocation())
+                            .excludePackage("p4")
+                            .build())
+                    .build());
+            Assert.assertEquals(new HashSet<>(Arrays.asList("p1", "p2", "p3", "p5")),
+                    pm.getProvisionedState().getFeaturePack(FP_GAV.getProducer()).getPackageNames());
+        }
+    }
+
+    @Test
+    public void testBrokenPackageResolvedFails() throws Exception {
+        try (ProvisioningManager pm = getPm()) {
+            pm.provision(ProvisioningConfig.builder()
+                    .addFeaturePackDep(FeaturePackConfig.forLocation(FP_GAV.getLocation()))
+                    .build());
+            Assert.fail("The broken package should have failed the provisioning");
+        } catch (ProvisioningException e) {
+            Throwable t = e;
+            while(t != null && (t.getMessage() == null || !t.getMessage().startsWith("Failed to parse "))) {
+                t = t.getCause();
+            }
+            Assert.assertNotNull("Expected a parsing failure in " + e, t);
+            Assert.assertTrue(t.getMessage(), t.getMessage().endsWith(Constants.PACKAGE_XML));
+            Assert.assertTrue(t.getMessage(), t.getMessage().contains("broken"));
+        }
+    }
+
+    @Test
+    public void testDefaultPackagesParsedTogether() throws Exception {
+        try (ProvisioningManager pm = getPm()) {
+            pm.provision(ProvisioningConfig.builder()
+                    .addFeaturePackDep(FeaturePackConfig.forLocation(FP2_GAV.getLocation()))
+                    .build());
+            final Set<String> expected = new HashSet<>();
+            expected.add("common");
+            for(int i = 0; i < FP2_ROOTS; ++i) {
+                expected.add("root" + i);
+                expected.add("dep" + i);
+            }
+            Assert.assertEquals(expected, pm.getProvisionedState().getFeaturePack(FP2_GAV.getProducer()).getPackageNames());
+        }
+        // the parser is shut down when the runtime is built
+        for(Thread thread : Thread.getAllStackTraces().keySet()) {
+            if(thread.getName().startsWith("Galleon package parser")) {
+                thread.join(5000);
+                Assert.assertFalse(thread.getName(), thread.isAlive());
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.metrics.test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.galleon.ProvisioningDescriptionException;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.ProvisioningManager;
+import org.jboss.galleon.config.ConfigModel;
+import org.jboss.galleon.config.FeatureConfig;
+import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.creator.FeaturePackCreator;
+import org.jboss.galleon.metrics.ProvisioningMetrics;
+import org.jboss.galleon.metrics.ProvisioningMetricsListener;
+import org.jboss.galleon.metrics.ProvisioningPhase;
+import org.jboss.galleon.spec.FeatureParameterSpec;
+import org.jboss.galleon.spec.FeatureSpec;
+import org.jboss.galleon.test.PmProvisionConfigTestBase;
+import org.jboss.galleon.test.util.fs.state.DirState;
+import org.jboss.galleon.universe.FeaturePackLocation.FPID;
+import org.jboss.galleon.universe.galleon1.LegacyGalleon1Universe;
+import org.junit.Assert;
+
+public class ProvisioningMetricsTestCase extends PmProvisionConfigTestBase {
+
+    private static final FPID FP1_GAV = LegacyGalleon1Universe.newFPID("org.jboss.pm.test:fp1", "1", "1.0.0.Final");
+
+    private final Map<ProvisioningPhase, Long> recorded = new EnumMap<>(ProvisioningPhase.class);
+    private final List<ProvisioningMetrics> completed = new ArrayList<>();
+    private boolean otherProvisioned;
+
+    @Override
+    protected void createFeaturePacks(FeaturePackCreator creator) throws ProvisioningException {
+        creator
+        .newFeaturePack(FP1_GAV)
+            .addFeatureSpec(FeatureSpec.builder("specA")
+                    .addParam(FeatureParameterSpec.createId("name"))
+                    .build())
+            .addConfig(ConfigModel.builder("model1", "config1")
+                    .addFeature(new FeatureConfig("specA").setParam("name", "a1"))
+                    .addFeature(new FeatureConfig("specA").setParam("name", "a2"))
+                    .build())
+            .newPackage("p1", true)
+                .writeContent("fp1/p1.txt", "fp1.p1");
+    }
+
+    @Override
+    protected ProvisioningConfig initialState() throws ProvisioningException {
+        return provisioningConfig();
+    }
+
+    @Override
+    protected ProvisioningConfig provisioningConfig() throws ProvisioningDescriptionException {
+        return ProvisioningConfig.builder()
+                .addFeaturePackDep(FP1_GAV.getLocation())
+                .build();
+    }
+
+    @Override
+    protected void testPm(ProvisioningManager pm) throws ProvisioningException {
+        final Path metricsFile = workDir.resolve("metrics").resolve("metrics.json");
+        pm.setMetricsFile(metricsFile);
+        pm.setMetricsListener(new ProvisioningMetricsListener() {
+            @Override
+            public void phaseRecorded(ProvisioningPhase phase, long durationNanos, long count, long bytes) {
+                recorded.merge(phase, durationNanos, Long::sum);
+                if(phase == ProvisioningPhase.LAYOUT && !otherProvisioned) {
+                    otherProvisioned = true;
+                    provisionWithSharedFactory(pm);
+                }
+            }
+
+            @Override
+            public void completed(ProvisioningMetrics metrics) {
+                completed.add(metrics);
+            }
+        });
+        super.testPm(pm);
+
+        Assert.assertTrue(otherProvisioned);
+        Assert.assertEquals(1, completed.size());
+        final ProvisioningMetrics metrics = completed.get(0);
+        Assert.assertEquals(1, metrics.getCount(ProvisioningPhase.LAYOUT));
+        Assert.assertEquals(1, metrics.getCount(ProvisioningPhase.ARTIFACT_RESOLUTION));
+        Assert.assertTrue(metrics.getBytes(ProvisioningPhase.ARTIFACT_RESOLUTION) > 0);
+        Assert.assertEquals(2, metrics.getCount(ProvisioningPhase.CONFIG_ORDERING));
+        Assert.assertEquals(1, metrics.getCount(ProvisioningPhase.PACKAGE_COPY));
+        Assert.assertEquals(0, metrics.getCount(ProvisioningPhase.PRE_INSTALL_PLUGINS));
+        for(ProvisioningPhase phase : new ProvisioningPhase[] {ProvisioningPhase.LAYOUT, ProvisioningPhase.HASHING,
+                ProvisioningPhase.FS_DIFF, ProvisioningPhase.STAGED_PROMOTION}) {
+            Assert.assertTrue(phase.getName(), metrics.getDuration(phase) > 0);
+            Assert.assertEquals(phase.getName(), metrics.getDuration(phase), recorded.get(phase).longValue());
+        }
+        Assert.assertTrue(metrics.getDuration() >= metrics.getDuration(ProvisioningPhase.LAYOUT));
+
+        try {
+            final String json = new String(Files.readAllBytes(metricsFile), StandardCharsets.UTF_8);
+            Assert.assertTrue(json, json.contains("\"staged-promotion\""));
+            Assert.assertTrue(json, json.contains("\"artifact-resolution\""));
+        } catch (IOException e) {
+            throw new ProvisioningException(e);
+        }
+    }
+
+    /**
+     * An operation of another manager sharing the layout factory, performed while the metrics
+     * of this manager are being recorded, must not record to them.
+     */
+    private void provisionWithSharedFactory(ProvisioningManager pm) {
+        try(ProvisioningManager otherPm = ProvisioningManager.builder()
+                .setLayoutFactory(pm.getLayoutFactory())
+                .setInstallationHome(workDir.resolve("other-home"))
+                .build()) {
+            otherPm.provision(provisioningConfig());
+        } catch (ProvisioningException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    protected DirState provisionedHomeDir() {
+        return newDirBuilder().addFile("fp1/p1.txt", "fp1.p1").build();
+    }
+}
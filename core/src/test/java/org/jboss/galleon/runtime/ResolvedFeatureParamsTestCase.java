@@ -0,0 +1,254 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.spec.FeatureParameterSpec;
+import org.jboss.galleon.spec.FeatureSpec;
+import org.jboss.galleon.type.builtin.BuiltInParameterTypeProvider;
+import org.jboss.galleon.universe.galleon1.LegacyGalleon1Universe;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that {@link ResolvedFeatureParams} behaves like a {@link Map} of the spec parameters.
+ */
+public class ResolvedFeatureParamsTestCase {
+
+    private ResolvedFeatureSpec spec;
+    private ResolvedFeatureParams params;
+
+    @Before
+    public void setUp() throws ProvisioningException {
+        final ResolvedSpecId specId = new ResolvedSpecId(LegacyGalleon1Universe.newFPID("org.jboss.galleon.test:fp1", "1", "1.0.0.Final").getProducer(), "spec");
+        spec = new ResolvedFeatureSpec(specId, BuiltInParameterTypeProvider.getInstance(),
+                FeatureSpec.builder("spec")
+                .addParam(FeatureParameterSpec.createId("a"))
+                .addParam(FeatureParameterSpec.create("b"))
+                .addParam(FeatureParameterSpec.create("c"))
+                .addParam(FeatureParameterSpec.create("d"))
+                .build());
+        params = new ResolvedFeatureParams(spec);
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(params.isEmpty());
+        assertEquals(0, params.size());
+        assertFalse(params.containsKey("a"));
+        assertNull(params.get("a"));
+        assertFalse(params.entrySet().iterator().hasNext());
+        assertEquals(Collections.emptyMap(), params);
+    }
+
+    @Test
+    public void testPutAndGet() {
+        assertNull(params.put("b", "b1"));
+        assertNull(params.put("a", "a1"));
+        assertEquals(2, params.size());
+        assertEquals("a1", params.get("a"));
+        assertEquals("b1", params.get("b"));
+        assertTrue(params.containsKey("b"));
+        assertFalse(params.containsKey("c"));
+
+        assertEquals("b1", params.put("b", "b2"));
+        assertEquals(2, params.size());
+        assertEquals("b2", params.get("b"));
+    }
+
+    @Test
+    public void testUnknownParameter() {
+        assertNull(params.get("x"));
+        assertNull(params.get(1));
+        assertFalse(params.containsKey("x"));
+        assertNull(params.remove("x"));
+        try {
+            params.put("x", "x1");
+            fail("Unknown parameter was accepted");
+        } catch(IllegalArgumentException e) {
+            // expected
+        }
+        assertTrue(params.isEmpty());
+    }
+
+    @Test
+    public void testNullValues() {
+        assertNull(params.put("c", null));
+        assertEquals(1, params.size());
+        assertTrue(params.containsKey("c"));
+        assertTrue(params.containsValue(null));
+        assertNull(params.get("c"));
+
+        assertNull(params.put("c", "c1"));
+        assertEquals(1, params.size());
+        assertEquals("c1", params.put("c", null));
+        assertEquals(1, params.size());
+
+        assertNull(params.remove("c"));
+        assertEquals(0, params.size());
+        assertFalse(params.containsKey("c"));
+    }
+
+    @Test
+    public void testRemove() {
+        params.put("a", "a1");
+        params.put("b", "b1");
+        assertEquals("a1", params.remove("a"));
+        assertEquals(1, params.size());
+        assertFalse(params.containsKey("a"));
+        assertNull(params.remove("a"));
+        assertEquals(1, params.size());
+
+        params.clear();
+        assertTrue(params.isEmpty());
+        assertFalse(params.containsKey("b"));
+    }
+
+    @Test
+    public void testIterationFollowsSpecOrder() {
+        params.put("d", "d1");
+        params.put("b", null);
+        params.put("a", "a1");
+
+        final List<String> names = new ArrayList<>();
+        final List<Object> values = new ArrayList<>();
+        for(Map.Entry<String, Object> entry : params.entrySet()) {
+            names.add(entry.getKey());
+            values.add(entry.getValue());
+        }
+        assertEquals(Arrays.asList("a", "b", "d"), names);
+        assertEquals(Arrays.asList("a1", null, "d1"), values);
+        assertEquals(Arrays.asList("a", "b", "d"), new ArrayList<>(params.keySet()));
+        assertEquals(3, params.entrySet().size());
+
+        final Iterator<Map.Entry<String, Object>> i = params.entrySet().iterator();
+        for(int j = 0; j < 3; ++j) {
+            i.next();
+        }
+        assertFalse(i.hasNext());
+        try {
+            i.next();
+            fail("Iterated past the last parameter");
+        } catch(NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        params.put("a", "a1");
+        params.put("b", "b1");
+        params.put("c", "c1");
+
+        final Iterator<Map.Entry<String, Object>> i = params.entrySet().iterator();
+        try {
+            i.remove();
+            fail("Removed before next()");
+        } catch(IllegalStateException e) {
+            // expected
+        }
+        i.next();
+        assertEquals("b", i.next().getKey());
+        i.remove();
+        try {
+            i.remove();
+            fail("Removed twice");
+        } catch(IllegalStateException e) {
+            // expected
+        }
+        assertEquals("c", i.next().getKey());
+        assertFalse(i.hasNext());
+
+        assertEquals(2, params.size());
+        assertFalse(params.containsKey("b"));
+        assertEquals(Arrays.asList("a", "c"), new ArrayList<>(params.keySet()));
+    }
+
+    @Test
+    public void testEntrySetValue() {
+        params.put("a", "a1");
+        params.put("b", null);
+
+        for(Map.Entry<String, Object> entry : params.entrySet()) {
+            if(entry.getKey().equals("a")) {
+                assertEquals("a1", entry.setValue(null));
+                assertNull(entry.getValue());
+            } else {
+                assertNull(entry.setValue("b1"));
+                assertEquals("b1", entry.getValue());
+            }
+        }
+        assertEquals(2, params.size());
+        assertTrue(params.containsKey("a"));
+        assertNull(params.get("a"));
+        assertEquals("b1", params.get("b"));
+    }
+
+    @Test
+    public void testSetValueOfRemovedEntry() {
+        params.put("a", "a1");
+        params.put("b", "b1");
+
+        final Iterator<Map.Entry<String, Object>> i = params.entrySet().iterator();
+        final Map.Entry<String, Object> entry = i.next();
+        i.remove();
+        assertEquals(1, params.size());
+
+        assertNull(entry.setValue("a2"));
+        assertEquals(2, params.size());
+        assertEquals("a2", params.get("a"));
+        assertEquals(2, params.entrySet().size());
+
+        params.remove("a");
+        assertNull(entry.setValue(null));
+        assertEquals(2, params.size());
+        assertTrue(params.containsKey("a"));
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        final Map<String, Object> expected = new HashMap<>();
+        expected.put("a", "a1");
+        expected.put("c", null);
+        params.put("c", null);
+        params.put("a", "a1");
+
+        assertEquals(expected, params);
+        assertEquals(params, expected);
+        assertEquals(expected.hashCode(), params.hashCode());
+        assertEquals(expected.entrySet(), params.entrySet());
+
+        final Map<String, Object> copy = new LinkedHashMap<>(params);
+        assertEquals(copy, new ResolvedFeatureParams(spec, copy));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016-2025 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.xml;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.spec.FeaturePackSpec;
+import org.jboss.galleon.state.ProvisionedConfig;
+import org.jboss.galleon.state.ProvisionedState;
+import org.junit.Test;
+
+/**
+ * Writes the parsed test descriptors with both the streaming writers and their
+ * {@link org.jboss.galleon.xml.util.ElementNode} based predecessors and makes sure
+ * the output is identical.
+ */
+public class StreamingXmlWritersTestCase {
+
+    @Test
+    public void testProvisioningConfig() throws Exception {
+        for(String name : new String[] {
+                "exclude-package.xml",
+                "include-exclude-packages.xml",
+                "include-package.xml",
+                "packages-inherit.xml",
+                "provisioning-1.0-no-fp.xml",
+                "provisioning-config.xml",
+                "provisioning-config2.xml",
+                "provisioning.xml"}) {
+            final ProvisioningConfig config;
+            try(Reader reader = openResource("xml/provisioning/" + name)) {
+                config = ProvisioningXmlParser.getInstance().parse(reader);
+            }
+            assertEquals(name, write(TreeProvisioningXmlWriter.getInstance(), config),
+                    write(ProvisioningXmlWriter.getInstance(), config));
+        }
+    }
+
+    @Test
+    public void testFeaturePackSpec() throws Exception {
+        for(String name : new String[] {
+                "feature-pack-2.0-empty.xml",
+                "feature-pack-2.0.xml",
+                "feature-pack-default-configs.xml",
+                "feature-pack-deps-with-origin.xml"}) {
+            final FeaturePackSpec spec;
+            try(Reader reader = openResource("xml/feature-pack/" + name)) {
+                spec = FeaturePackXmlParser.getInstance().parse(reader);
+            }
+            assertEquals(name, write(TreeFeaturePackXmlWriter.getInstance(), spec),
+                    write(FeaturePackXmlWriter.getInstance(), spec));
+        }
+    }
+
+    @Test
+    public void testProvisionedState() throws Exception {
+        for(String name : new String[] {
+                "provisioned-state.xml",
+                "provisioned-state-configs.xml"}) {
+            final ProvisionedState state;
+            try(Reader reader = openResource("xml/provisioned/" + name)) {
+                state = ProvisionedStateXmlParser.getInstance().parse(reader);
+            }
+            assertEquals(name, write(TreeProvisionedStateXmlWriter.getInstance(), state),
+                    write(ProvisionedStateXmlWriter.getInstance(), state));
+            for(ProvisionedConfig config : state.getConfigs()) {
+                assertEquals(name + " " + config.getModel() + ':' + config.getName(),
+                        write(TreeProvisionedConfigXmlWriter.getInstance(), config),
+                        write(ProvisionedConfigXmlWriter.getInstance(), config));
+            }
+        }
+    }
+
+    private static Reader openResource(String path) {
+        return new InputStreamReader(StreamingXmlWritersTestCase.class.getClassLoader().getResourceAsStream(path), StandardCharsets.UTF_8);
+    }
+
+    private static <T> String write(BaseStreamingXmlWriter<T> writer, T t) throws Exception {
+        final StringWriter out = new StringWriter();
+        writer.write(t, out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016-2025 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.xml;
+
+import java.util.Arrays;
+import org.jboss.galleon.CoreVersion;
+
+import org.jboss.galleon.config.FeaturePackConfig;
+import org.jboss.galleon.spec.FeaturePackPlugin;
+import org.jboss.galleon.spec.FeaturePackSpec;
+import org.jboss.galleon.spec.FeaturePackSpec.Family;
+import org.jboss.galleon.xml.FeaturePackXmlParser40.Attribute;
+import org.jboss.galleon.xml.FeaturePackXmlParser40.Element;
+import org.jboss.galleon.xml.util.ElementNode;
+
+/**
+ * The ElementNode based {@link FeaturePackXmlWriter} as it was before it started writing
+ * directly to the stream, kept to verify the streaming output against.
+ */
+class TreeFeaturePackXmlWriter extends BaseXmlWriter<FeaturePackSpec> {
+
+    private static final TreeFeaturePackXmlWriter INSTANCE = new TreeFeaturePackXmlWriter();
+
+    public static TreeFeaturePackXmlWriter getInstance() {
+        return INSTANCE;
+    }
+
+    private TreeFeaturePackXmlWriter() {
+    }
+
+    protected ElementNode toElement(FeaturePackSpec fpSpec) {
+        final ElementNode fp = addElement(null, Element.FEATURE_PACK);
+        addAttribute(fp, Attribute.LOCATION, fpSpec.getFPID().toString());
+        addAttribute(fp, Attribute.GALLEON_MIN_VERSION, CoreVersion.getVersion());
+        if(fpSpec.hasFamily()) {
+            final ElementNode familyE = addElement(fp, Element.FAMILY);
+            addAttribute(familyE, Attribute.NAME, fpSpec.getFamily().getName());
+            for(Family.Criteria criteria : fpSpec.getFamily().getCriteria()) {
+                final ElementNode criteriaE = addElement(familyE, Element.CRITERIA);
+                addAttribute(criteriaE, Attribute.NAME, criteria.getName());
+                addAttribute(criteriaE, Attribute.INHERITED, (criteria.isInherited() ? "true" : "false"));
+            }
+        }
+        if (fpSpec.getConfigStability() != null) {
+            addAttribute(fp, Attribute.CONFIG_STABILITY_LEVEL, fpSpec.getConfigStability().toString());
+        }
+        if (fpSpec.getPackageStability() != null) {
+            addAttribute(fp, Attribute.PACKAGE_STABILITY_LEVEL, fpSpec.getPackageStability().toString());
+        }
+        TreeProvisioningXmlWriter.writeUniverseSpecs(fpSpec, fp);
+
+        if(fpSpec.isPatch()) {
+            final ElementNode patchFor = addElement(fp, Element.PATCH);
+            addAttribute(patchFor, Attribute.FOR, fpSpec.getPatchFor().toString());
+        }
+
+        if (fpSpec.hasTransitiveDeps()) {
+            final ElementNode transitives = addElement(fp, Element.TRANSITIVE);
+            for(FeaturePackConfig dep : fpSpec.getTransitiveDeps()) {
+                final ElementNode depElement = addElement(transitives, Element.DEPENDENCY);
+                TreeProvisioningXmlWriter.writeFeaturePackConfig(depElement,
+                        fpSpec.getUserConfiguredLocation(dep.getLocation()), dep, fpSpec.originOf(dep.getLocation().getProducer()));
+            }
+        }
+
+        if (fpSpec.hasFeaturePackDeps()) {
+            final ElementNode deps = addElement(fp, Element.DEPENDENCIES);
+            for (FeaturePackConfig dep : fpSpec.getFeaturePackDeps()) {
+                final ElementNode depElement = addElement(deps, Element.DEPENDENCY);
+                TreeProvisioningXmlWriter.writeFeaturePackConfig(depElement,
+                        fpSpec.getUserConfiguredLocation(dep.getLocation()), dep, fpSpec.originOf(dep.getLocation().getProducer()));
+            }
+        }
+
+        TreeProvisioningXmlWriter.writeConfigCustomizations(fp, Element.FEATURE_PACK.getNamespace(), fpSpec);
+
+        if (fpSpec.hasDefaultPackages()) {
+            final ElementNode pkgs = addElement(fp, Element.DEFAULT_PACKAGES);
+            final String[] pkgNames = fpSpec.getDefaultPackageNames().toArray(new String[0]);
+            Arrays.sort(pkgNames);
+            for (String name : pkgNames) {
+                addAttribute(addElement(pkgs, Element.PACKAGE), Attribute.NAME, name);
+            }
+        }
+
+        if(fpSpec.hasPlugins()) {
+            final ElementNode plugins = addElement(fp, Element.PLUGINS);
+            for(FeaturePackPlugin plugin : fpSpec.getPlugins().values()) {
+                final ElementNode pluginE = addElement(plugins, Element.PLUGIN);
+                addAttribute(pluginE, Attribute.ID, plugin.getId());
+                addAttribute(pluginE, Attribute.LOCATION, plugin.getLocation());
+            }
+        }
+
+        if (fpSpec.hasSystemPaths()) {
+            final ElementNode systemPaths = addElement(fp, Element.SYSTEM_PATHS);
+            for (String systemPath : fpSpec.getSystemPaths()) {
+                final ElementNode depElement = addElement(systemPaths, Element.SYSTEM_PATH);
+                addAttribute(depElement, Attribute.PATH, systemPath);
+            }
+        }
+        return fp;
+    }
+}
@@ -17,6 +17,7 @@
 package org.jboss.galleon.universe.maven;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -129,6 +130,39 @@ public class MavenChannel implements Channel, MavenChannelDescription {
         return artifact.getPath();
     }
 
+    /**
+     * Resolves the locations with explicit builds in a single repository request,
+     * the latest builds are resolved one by one.
+     */
+    @Override
+    public List<Path> resolveAll(Collection<FeaturePackLocation> fpls) throws MavenUniverseException {
+        final List<MavenArtifact> artifacts = new ArrayList<>(fpls.size());
+        final List<MavenArtifact> batch = new ArrayList<>(fpls.size());
+        for(FeaturePackLocation fpl : fpls) {
+            if(fpl.getBuild() == null) {
+                artifacts.add(null);
+                continue;
+            }
+            final MavenArtifact artifact = new MavenArtifact();
+            artifact.setGroupId(producer.getFeaturePackGroupId());
+            artifact.setArtifactId(producer.getFeaturePackArtifactId());
+            artifact.setExtension(MavenArtifact.EXT_ZIP);
+            artifact.setVersion(fpl.getBuild());
+            artifacts.add(artifact);
+            batch.add(artifact);
+        }
+        if(!batch.isEmpty()) {
+            producer.getRepo().resolveAll(batch);
+        }
+        final List<Path> paths = new ArrayList<>(fpls.size());
+        int i = 0;
+        for(FeaturePackLocation fpl : fpls) {
+            final MavenArtifact artifact = artifacts.get(i++);
+            paths.add(artifact == null ? resolve(fpl) : artifact.getPath());
+        }
+        return paths;
+    }
+
     public String getFeaturePackGroupId() {
         return producer.getFeaturePackGroupId();
     }
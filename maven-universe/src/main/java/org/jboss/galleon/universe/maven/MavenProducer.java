@@ -20,10 +20,6 @@ import static org.jboss.galleon.universe.maven.MavenUniverseConstants.*;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.nio.file.DirectoryStream;
-import java.nio.file.FileSystem;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -37,7 +33,6 @@ import org.jboss.galleon.universe.maven.xml.MavenParsedProducerCallbackHandler;
 import org.jboss.galleon.universe.maven.xml.MavenProducerXmlParser;
 import org.jboss.galleon.universe.maven.xml.ParsedCallbackHandler;
 import org.jboss.galleon.util.CollectionUtils;
-import org.jboss.galleon.util.ZipUtils;
 import org.jboss.galleon.BaseErrors;
 
 /**
@@ -64,6 +59,8 @@ public class MavenProducer extends MavenProducerBase {
     private String defaultChannel;
     private boolean fullyLoaded;
     private boolean resolvedLocally;
+    // the producer and channel descriptors read from the producer artifact, until it is refreshed
+    private MavenUniverseArchive archive;
 
     public MavenProducer(String name, MavenRepoManager repoManager, MavenArtifact artifact) throws MavenUniverseException {
         this(name, repoManager, artifact, false);
@@ -78,49 +75,47 @@ public class MavenProducer extends MavenProducerBase {
     }
 
     private void init() throws MavenUniverseException {
-        try (FileSystem zipfs = ZipUtils.newFileSystem(artifact.getPath())) {
-            final Path producerXml = getProducerXml(zipfs, name);
-            if(!Files.exists(producerXml)) {
-                throw new MavenUniverseException("Failed to locate " + producerXml + " in " + artifact.getCoordsAsString());
-            }
-            try(BufferedReader reader = Files.newBufferedReader(producerXml)) {
-                MavenProducerXmlParser.getInstance().parse(reader, new MavenParsedProducerCallbackHandler() {
-                    @Override
-                    public void parsedName(String name) throws XMLStreamException {
-                        if(!name.equals(name)) {
-                            throw new XMLStreamException("Parsed producer name " + name + " does not match " + MavenProducer.this.name);
-                        }
+        final MavenUniverseArchive archive = getArchive();
+        if(!archive.exists(MAVEN_PRODUCER_XML)) {
+            throw new MavenUniverseException("Failed to locate " + archive.describe(MAVEN_PRODUCER_XML) + " in " + artifact.getCoordsAsString());
+        }
+        try(BufferedReader reader = archive.newReader(MAVEN_PRODUCER_XML)) {
+            MavenProducerXmlParser.getInstance().parse(reader, new MavenParsedProducerCallbackHandler() {
+                @Override
+                public void parsedName(String name) throws XMLStreamException {
+                    if(!name.equals(name)) {
+                        throw new XMLStreamException("Parsed producer name " + name + " does not match " + MavenProducer.this.name);
                     }
+                }
 
-                    @Override
-                    public void parsedFrequency(String frequency, boolean isDefault) throws XMLStreamException {
-                        frequencies = CollectionUtils.add(frequencies, frequency);
-                        if(isDefault) {
-                            if(defaultFrequency != null) {
-                                throw new XMLStreamException("Failed to set frequency " + frequency + " as the default one, the default frequency has already been set to " + defaultFrequency);
-                            }
-                            defaultFrequency = frequency;
+                @Override
+                public void parsedFrequency(String frequency, boolean isDefault) throws XMLStreamException {
+                    frequencies = CollectionUtils.add(frequencies, frequency);
+                    if(isDefault) {
+                        if(defaultFrequency != null) {
+                            throw new XMLStreamException("Failed to set frequency " + frequency + " as the default one, the default frequency has already been set to " + defaultFrequency);
                         }
+                        defaultFrequency = frequency;
                     }
+                }
 
-                    @Override
-                    public void parsedFpGroupId(String groupId) {
-                        fpGroupId = groupId;
-                    }
+                @Override
+                public void parsedFpGroupId(String groupId) {
+                    fpGroupId = groupId;
+                }
 
-                    @Override
-                    public void parsedFpArtifactId(String artifactId) {
-                        fpArtifactId = artifactId;
-                    }
+                @Override
+                public void parsedFpArtifactId(String artifactId) {
+                    fpArtifactId = artifactId;
+                }
 
-                    @Override
-                    public void parsedDefaultChannel(String channelName) throws XMLStreamException {
-                        defaultChannel = channelName;
-                    }
-                });
-            } catch (XMLStreamException e) {
-                throw new MavenUniverseException("Failed to parse " + producerXml, e);
-            }
+                @Override
+                public void parsedDefaultChannel(String channelName) throws XMLStreamException {
+                    defaultChannel = channelName;
+                }
+            });
+        } catch (XMLStreamException e) {
+            throw new MavenUniverseException("Failed to parse " + archive.describe(MAVEN_PRODUCER_XML), e);
         } catch (IOException e) {
             throw new MavenUniverseException("Failed to read " + artifact.getPath(), e);
         }
@@ -141,6 +136,7 @@ public class MavenProducer extends MavenProducerBase {
         this.channels = Collections.emptyMap();
         this.frequencies = Collections.emptySet();
         this.defaultFrequency = null;
+        archive = null;
         artifact.setPath(null);
         if (artifact.getVersionRange() != null) {
             repo.resolveLatestVersion(artifact, false);
@@ -187,19 +183,12 @@ public class MavenProducer extends MavenProducerBase {
         } if(fullyLoaded) {
             return false;
         }
-        try (FileSystem zipfs = ZipUtils.newFileSystem(artifact.getPath())) {
-            final Path channelXml = getChannelXml(zipfs, this.name, name);
-            if(!Files.exists(channelXml)) {
-                return false;
-            }
-            try(BufferedReader reader = Files.newBufferedReader(channelXml)) {
-                MavenChannelSpecXmlParser.getInstance().parse(reader, parsedChannelHandler);
-            } catch(IOException | XMLStreamException e) {
-                throw new MavenUniverseException("Failed to read " + channelXml, e);
-            }
-        } catch (IOException e) {
-            throw new MavenUniverseException("Failed to read " + artifact.getPath(), e);
+        final MavenUniverseArchive archive = getArchive();
+        final String channelXml = CHANNELS + '/' + name + '/' + MAVEN_CHANNEL_XML;
+        if(!archive.exists(channelXml)) {
+            return false;
         }
+        parseChannel(archive, channelXml);
         return true;
     }
 
@@ -244,22 +233,13 @@ public class MavenProducer extends MavenProducerBase {
         if(fullyLoaded) {
             return channels.values();
         }
-        try (FileSystem zipfs = ZipUtils.newFileSystem(artifact.getPath())) {
-            try(DirectoryStream<Path> stream = Files.newDirectoryStream(getChannelsDir(zipfs, name))) {
-                for(Path channelDir : stream) {
-                    final Path channelXml = channelDir.resolve(MAVEN_CHANNEL_XML);
-                    if(!Files.exists(channelXml)) {
-                        throw new MavenUniverseException("Required path does not exist: " + channelXml);
-                    }
-                    try(BufferedReader reader = Files.newBufferedReader(channelXml)) {
-                        MavenChannelSpecXmlParser.getInstance().parse(reader, parsedChannelHandler);
-                    } catch(IOException | XMLStreamException e) {
-                        throw new MavenUniverseException("Failed to read " + channelXml, e);
-                    }
-                }
+        final MavenUniverseArchive archive = getArchive();
+        for(String channelName : archive.getDirs(CHANNELS)) {
+            final String channelXml = CHANNELS + '/' + channelName + '/' + MAVEN_CHANNEL_XML;
+            if(!archive.exists(channelXml)) {
+                throw new MavenUniverseException("Required path does not exist: " + archive.describe(channelXml));
             }
-        } catch (IOException e) {
-            throw new MavenUniverseException("Failed to read " + artifact.getPath(), e);
+            parseChannel(archive, channelXml);
         }
         fullyLoaded = true;
         channels = CollectionUtils.unmodifiable(channels);
@@ -283,4 +263,19 @@ public class MavenProducer extends MavenProducerBase {
         }
         return null;
     }
+
+    private MavenUniverseArchive getArchive() throws MavenUniverseException {
+        if(archive == null) {
+            archive = MavenUniverseArchive.read(artifact.getPath(), GALLEON + '/' + UNIVERSE + '/' + PRODUCER + '/' + name);
+        }
+        return archive;
+    }
+
+    private void parseChannel(MavenUniverseArchive archive, String channelXml) throws MavenUniverseException {
+        try(BufferedReader reader = archive.newReader(channelXml)) {
+            MavenChannelSpecXmlParser.getInstance().parse(reader, parsedChannelHandler);
+        } catch(IOException | XMLStreamException e) {
+            throw new MavenUniverseException("Failed to read " + archive.describe(channelXml), e);
+        }
+    }
 }
@@ -18,10 +18,6 @@ package org.jboss.galleon.universe.maven;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.nio.file.DirectoryStream;
-import java.nio.file.FileSystem;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -34,8 +30,6 @@ import org.jboss.galleon.universe.maven.xml.ParsedCallbackHandler;
 import org.jboss.galleon.util.CollectionUtils;
 
 import static org.jboss.galleon.universe.maven.MavenUniverseConstants.*;
-import org.jboss.galleon.util.ZipUtils;
-import org.jboss.galleon.BaseErrors;
 
 /**
  *
@@ -68,6 +62,8 @@ public class MavenUniverse extends MavenUniverseBase {
     private Map<String, MavenProducer> producers = new HashMap<>(DEFAULT_CAPACITY);
     private boolean fullyLoaded;
     private boolean resolvedLocally;
+    // the producer locations read from the universe artifact, until it is refreshed
+    private MavenUniverseArchive archive;
 
     private final ParsedCallbackHandler<MavenUniverse, MavenProducer> parsedProducerHandler = new ParsedCallbackHandler<MavenUniverse, MavenProducer>() {
         @Override
@@ -108,6 +104,7 @@ public class MavenUniverse extends MavenUniverseBase {
         } else {
             producers.clear();
         }
+        archive = null;
         artifact.setPath(null);
         if (artifact.getVersionRange() != null) {
             repo.resolveLatestVersion(artifact, false);
@@ -134,19 +131,12 @@ public class MavenUniverse extends MavenUniverseBase {
         if(fullyLoaded) {
             return false;
         }
-        try (FileSystem zipfs = ZipUtils.newFileSystem(artifact.getPath())) {
-            final Path producerXml = getProducerXml(zipfs, producerName);
-            if(!Files.exists(producerXml)) {
-                return false;
-            }
-            try(BufferedReader reader = Files.newBufferedReader(producerXml)) {
-                MavenProducerSpecXmlParser.getInstance().parse(reader, parsedProducerHandler);
-            } catch(IOException | XMLStreamException e) {
-                throw new MavenUniverseException("Failed to read " + producerXml, e);
-            }
-        } catch (IOException e) {
-            throw new MavenUniverseException("Failed to read " + artifact.getPath(), e);
+        final MavenUniverseArchive archive = getArchive();
+        final String producerXml = producerName + '/' + MAVEN_PRODUCER_XML;
+        if(!archive.exists(producerXml)) {
+            return false;
         }
+        parseProducer(archive, producerXml);
         return true;
     }
 
@@ -180,25 +170,31 @@ public class MavenUniverse extends MavenUniverseBase {
         if(fullyLoaded) {
             return producers.values();
         }
-        try (FileSystem zipfs = ZipUtils.newFileSystem(artifact.getPath())) {
-            try(DirectoryStream<Path> stream = Files.newDirectoryStream(getProducerLocations(zipfs))) {
-                for(Path producerDir : stream) {
-                    final Path producerXml = producerDir.resolve(MAVEN_PRODUCER_XML);
-                    if(!Files.exists(producerXml)) {
-                        throw new MavenUniverseException(BaseErrors.pathDoesNotExist(producerXml));
-                    }
-                    try(BufferedReader reader = Files.newBufferedReader(producerXml)) {
-                        MavenProducerSpecXmlParser.getInstance().parse(reader, parsedProducerHandler);
-                    } catch(IOException | XMLStreamException e) {
-                        throw new MavenUniverseException("Failed to read " + producerXml, e);
-                    }
-                }
+        final MavenUniverseArchive archive = getArchive();
+        for(String producerName : archive.getDirs("")) {
+            final String producerXml = producerName + '/' + MAVEN_PRODUCER_XML;
+            if(!archive.exists(producerXml)) {
+                throw new MavenUniverseException("Failed to locate " + archive.describe(producerXml));
             }
-        } catch (IOException e) {
-            throw new MavenUniverseException("Failed to read " + artifact.getPath(), e);
+            parseProducer(archive, producerXml);
         }
         fullyLoaded = true;
         producers = CollectionUtils.unmodifiable(producers);
         return producers.values();
     }
+
+    private MavenUniverseArchive getArchive() throws MavenUniverseException {
+        if(archive == null) {
+            archive = MavenUniverseArchive.read(artifact.getPath(), GALLEON + '/' + UNIVERSE + '/' + PRODUCER + '/' + LOCATIONS);
+        }
+        return archive;
+    }
+
+    private void parseProducer(MavenUniverseArchive archive, String producerXml) throws MavenUniverseException {
+        try(BufferedReader reader = archive.newReader(producerXml)) {
+            MavenProducerSpecXmlParser.getInstance().parse(reader, parsedProducerHandler);
+        } catch(IOException | XMLStreamException e) {
+            throw new MavenUniverseException("Failed to read " + archive.describe(producerXml), e);
+        }
+    }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.universe.maven;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Descriptors of a universe or a producer archive read in one pass.
+ *
+ * <p>The archive is read once, when it is first accessed, and the content of the entries
+ * under a directory is kept in memory, so the producers and the channels can be looked up
+ * and listed without re-opening the archive.
+ */
+class MavenUniverseArchive {
+
+    /**
+     * Reads the entries of the archive under the directory.
+     *
+     * @param archive  archive file
+     * @param dir  directory of the archive, the elements of which are separated by slashes
+     * @return  the entries of the directory
+     * @throws MavenUniverseException  in case of a failure
+     */
+    static MavenUniverseArchive read(Path archive, String dir) throws MavenUniverseException {
+        final String prefix = dir + '/';
+        final Map<String, byte[]> entries = new HashMap<>();
+        final Set<String> dirs = new LinkedHashSet<>();
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            final Enumeration<? extends ZipEntry> zipEntries = zip.entries();
+            while(zipEntries.hasMoreElements()) {
+                final ZipEntry entry = zipEntries.nextElement();
+                String name = entry.getName();
+                if(name.startsWith("/")) {
+                    name = name.substring(1);
+                }
+                if(!name.startsWith(prefix)) {
+                    continue;
+                }
+                name = name.substring(prefix.length());
+                int slash = name.indexOf('/');
+                while(slash > 0) {
+                    dirs.add(name.substring(0, slash));
+                    slash = name.indexOf('/', slash + 1);
+                }
+                if(entry.isDirectory() || name.isEmpty()) {
+                    continue;
+                }
+                try (InputStream is = zip.getInputStream(entry)) {
+                    entries.put(name, is.readAllBytes());
+                }
+            }
+        } catch (IOException e) {
+            throw new MavenUniverseException("Failed to read " + archive, e);
+        }
+        return new MavenUniverseArchive(archive, prefix, entries, dirs);
+    }
+
+    private final Path archive;
+    private final String prefix;
+    private final Map<String, byte[]> entries;
+    private final Set<String> dirs;
+
+    private MavenUniverseArchive(Path archive, String prefix, Map<String, byte[]> entries, Set<String> dirs) {
+        this.archive = archive;
+        this.prefix = prefix;
+        this.entries = entries;
+        this.dirs = dirs;
+    }
+
+    /**
+     * @param path  path of the file relative to the directory of the archive
+     * @return  whether the file exists
+     */
+    boolean exists(String path) {
+        return entries.containsKey(path);
+    }
+
+    /**
+     * Returns a reader of the file.
+     *
+     * @param path  path of the file relative to the directory of the archive
+     * @return  reader of the file or null if the file does not exist
+     */
+    BufferedReader newReader(String path) {
+        final byte[] bytes = entries.get(path);
+        if(bytes == null) {
+            return null;
+        }
+        return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the names of the sub-directories of a directory.
+     *
+     * @param path  path of the directory relative to the directory of the archive, or an empty string for the directory itself
+     * @return  names of the sub-directories
+     */
+    Set<String> getDirs(String path) {
+        final String dirPrefix = path.isEmpty() ? path : path + '/';
+        Set<String> result = Collections.emptySet();
+        for(String dir : dirs) {
+            if(dir.length() > dirPrefix.length() && dir.startsWith(dirPrefix) && dir.indexOf('/', dirPrefix.length()) < 0) {
+                if(result.isEmpty()) {
+                    result = new LinkedHashSet<>();
+                }
+                result.add(dir.substring(dirPrefix.length()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a description of the file for error messages.
+     */
+    String describe(String path) {
+        return archive + "!/" + prefix + path;
+    }
+}
@@ -17,6 +17,7 @@
 package org.jboss.galleon.universe.maven;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -141,6 +142,20 @@ public class MvnNoLocUniverse implements Universe<MvnNoLocUniverse>, Producer<Mv
         return artifact.getPath();
     }
 
+    @Override
+    public List<Path> resolveAll(Collection<FeaturePackLocation> fpls) throws ProvisioningException {
+        final List<MavenArtifact> artifacts = new ArrayList<>(fpls.size());
+        for(FeaturePackLocation fpl : fpls) {
+            artifacts.add(toArtifact(fpl.getFPID()));
+        }
+        repo.resolveAll(artifacts);
+        final List<Path> paths = new ArrayList<>(artifacts.size());
+        for(MavenArtifact artifact : artifacts) {
+            paths.add(artifact.getPath());
+        }
+        return paths;
+    }
+
     @Override
     public boolean isResolved(FeaturePackLocation fpl) throws ProvisioningException {
         repo.isResolved(toArtifact(fpl.getFPID()));
@@ -16,11 +16,15 @@
  */
 package org.jboss.galleon.universe.maven.repo;
 
+import java.io.IOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Iterator;
-import java.util.NoSuchElementException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.jboss.galleon.universe.maven.MavenArtifact;
@@ -36,7 +40,27 @@ public class LocalArtifactVersionRangeResolver {
 
     private static final MavenArtifactVersionRangeParser versionRangeParser = new MavenArtifactVersionRangeParser();
 
+    // an artifact directory modified within this interval before it was listed may still change
+    // without its modification time changing, depending on the timestamp granularity of the file system
+    private static final long VERSION_INDEX_MIN_AGE = 2000;
+
+    /**
+     * Parsed versions found in an artifact directory, valid as long as the directory is not modified.
+     */
+    private static class VersionIndex {
+        private final long lastModified;
+        private final List<MavenArtifactVersion> versions;
+
+        private VersionIndex(long lastModified, List<MavenArtifactVersion> versions) {
+            this.lastModified = lastModified;
+            this.versions = versions;
+        }
+    }
+
     protected final Path repoHome;
+    private final Map<String, Path> groupDirs = new ConcurrentHashMap<>();
+    private final Map<Path, VersionIndex> versionIndexes = new ConcurrentHashMap<>();
+    private final Map<String, MavenArtifactVersionRange> versionRanges = new ConcurrentHashMap<>();
 
     public LocalArtifactVersionRangeResolver(Path localRepo) {
         this.repoHome = localRepo;
@@ -67,6 +91,29 @@ public class LocalArtifactVersionRangeResolver {
         return resolveLatestVersionDir(artifact, lowestQualifier, includeVersion, excludeVersion).getFileName().toString();
     }
 
+    /**
+     * Returns the directory of the artifact in the repository, i.e. the parent of its version directories.
+     *
+     * @param artifact  the artifact
+     * @return  artifact directory
+     * @throws MavenUniverseException  in case the group id is missing
+     */
+    protected Path getArtifactDir(MavenArtifact artifact) throws MavenUniverseException {
+        final String groupId = artifact.getGroupId();
+        if(groupId == null) {
+            MavenErrors.missingGroupId();
+        }
+        Path groupDir = groupDirs.get(groupId);
+        if(groupDir == null) {
+            groupDir = repoHome;
+            for (String part : groupId.split("\\.")) {
+                groupDir = groupDir.resolve(part);
+            }
+            groupDirs.put(groupId, groupDir);
+        }
+        return groupDir.resolve(artifact.getArtifactId());
+    }
+
     protected String pathDoesNotExist(MavenArtifact artifact, Path path) throws MavenUniverseException {
         return "Failed to resolve " + artifact.getCoordsAsString() + ": " + path + " does not exist";
     }
@@ -81,60 +128,21 @@ public class LocalArtifactVersionRangeResolver {
         if(artifact.getVersionRange() == null) {
             throw new MavenUniverseException("Version range is missing for " + artifact.getCoordsAsString());
         }
-        Path artifactDir = repoHome;
-        final String[] groupParts = artifact.getGroupId().split("\\.");
-        for (String part : groupParts) {
-            artifactDir = artifactDir.resolve(part);
-        }
-        artifactDir = artifactDir.resolve(artifact.getArtifactId());
+        final Path artifactDir = getArtifactDir(artifact);
         if(!Files.exists(artifactDir)) {
             throw MavenErrors.artifactNotFound(artifact, repoHome);
         }
-        final MavenArtifactVersionRange range = versionRangeParser.parseRange(artifact.getVersionRange());
+        final MavenArtifactVersionRange range = getVersionRange(artifact.getVersionRange());
         if(lowestQualifier == null) {
             lowestQualifier = "";
         }
-        try(DirectoryStream<Path> stream = Files.newDirectoryStream(artifactDir)) {
-
-            final Iterable<String> versions = new Iterable<String>() {
-                @Override
-                public Iterator<String> iterator() {
-                    return new Iterator<String>() {
-                        final Iterator<Path> i = stream.iterator();
-                        Path nextPath = toNext(range);
-
-                        @Override
-                        public boolean hasNext() {
-                            return nextPath != null;
-                        }
-
-                        @Override
-                        public String next() {
-                            if(nextPath != null) {
-                                final String s = nextPath.getFileName().toString();
-                                nextPath = toNext(range);
-                                return s;
-                            }
-                            throw new NoSuchElementException();
-                        }
-
-                        private Path toNext(final MavenArtifactVersionRange range) {
-                            while(i.hasNext()) {
-                                final Path path = i.next();
-                                if(!Files.isDirectory(path)) {
-                                    continue;
-                                }
-                                final MavenArtifactVersion next = new MavenArtifactVersion(path.getFileName().toString());
-                                if(range.includesVersion(next)) {
-                                    return path;
-                                }
-                            }
-                            return null;
-                        }
-                    };
+        try {
+            final List<MavenArtifactVersion> versions = new ArrayList<>();
+            for(MavenArtifactVersion version : getVersions(artifactDir)) {
+                if(range.includesVersion(version)) {
+                    versions.add(version);
                 }
-            };
-
+            }
             final MavenArtifactVersion latest = MavenArtifactVersion.getLatest(versions, lowestQualifier, includeVersion, excludeVersion);
             if(latest == null) {
                 throw new MavenLatestVersionNotAvailableException(MavenErrors.failedToResolveLatestVersion(artifact.getCoordsAsString()));
@@ -146,4 +154,45 @@ public class LocalArtifactVersionRangeResolver {
             throw new MavenUniverseException(MavenErrors.failedToResolveLatestVersion(artifact.getCoordsAsString()), e);
         }
     }
+
+    private MavenArtifactVersionRange getVersionRange(String rangeStr) throws MavenUniverseException {
+        MavenArtifactVersionRange range = versionRanges.get(rangeStr);
+        if(range == null) {
+            // the parser keeps the parsing position in a field
+            synchronized(versionRangeParser) {
+                range = versionRangeParser.parseRange(rangeStr);
+            }
+            versionRanges.put(rangeStr, range);
+        }
+        return range;
+    }
+
+    /**
+     * Returns the versions found in the artifact directory sorted in the ascending order.
+     * The versions are listed and parsed again only if the directory has been modified.
+     */
+    private List<MavenArtifactVersion> getVersions(Path artifactDir) throws IOException {
+        final long lastModified = Files.getLastModifiedTime(artifactDir).toMillis();
+        VersionIndex index = versionIndexes.get(artifactDir);
+        if(index != null && index.lastModified == lastModified) {
+            return index.versions;
+        }
+        final long listed = System.currentTimeMillis();
+        final List<MavenArtifactVersion> versions = new ArrayList<>();
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(artifactDir)) {
+            for(Path path : stream) {
+                if(Files.isDirectory(path)) {
+                    versions.add(new MavenArtifactVersion(path.getFileName().toString()));
+                }
+            }
+        }
+        Collections.sort(versions);
+        index = new VersionIndex(lastModified, Collections.unmodifiableList(versions));
+        if(listed - lastModified >= VERSION_INDEX_MIN_AGE) {
+            versionIndexes.put(artifactDir, index);
+        } else {
+            versionIndexes.remove(artifactDir);
+        }
+        return index.versions;
+    }
 }
@@ -73,7 +73,7 @@ public class MavenArtifactVersion implements Comparable<MavenArtifactVersion> {
                 }
                 next = new MavenArtifactVersion(v.substring(0, v.length() - SNAPSHOT.length() - 1));
             } else {
-                next = new MavenArtifactVersion(v);
+                next = version instanceof MavenArtifactVersion ? (MavenArtifactVersion) version : new MavenArtifactVersion(v);
                 if (!snapshotsAllowed && !next.isQualifierHigher(lowestQualifier, true)) {
                     continue;
                 }
@@ -20,6 +20,7 @@ import org.jboss.galleon.universe.maven.MavenUniverseConstants;
 import org.jboss.galleon.universe.maven.MavenUniverseException;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -48,6 +49,20 @@ public interface MavenRepoManager extends RepositoryArtifactResolver {
         return artifact.getPath();
     }
 
+    @Override
+    default List<Path> resolveLocations(Collection<String> locations) throws ProvisioningException {
+        final List<MavenArtifact> artifacts = new ArrayList<>(locations.size());
+        for(String location : locations) {
+            artifacts.add(MavenArtifact.fromString(location));
+        }
+        resolveAll(artifacts);
+        final List<Path> paths = new ArrayList<>(artifacts.size());
+        for(MavenArtifact artifact : artifacts) {
+            paths.add(artifact.getPath());
+        }
+        return paths;
+    }
+
     void resolve(MavenArtifact artifact) throws MavenUniverseException;
 
     default void resolveAll(Collection<MavenArtifact> artifacts) throws MavenUniverseException {
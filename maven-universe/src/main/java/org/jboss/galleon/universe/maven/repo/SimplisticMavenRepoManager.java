@@ -172,16 +172,7 @@ public class SimplisticMavenRepoManager extends LocalArtifactVersionRangeResolve
     }
 
     private Path getArtifactPath(MavenArtifact artifact) throws MavenUniverseException {
-        if(artifact.getGroupId() == null) {
-            MavenErrors.missingGroupId();
-        }
-        Path p = repoHome;
-        final String[] groupParts = artifact.getGroupId().split("\\.");
-        for (String part : groupParts) {
-            p = p.resolve(part);
-        }
-        final String artifactFileName = artifact.getArtifactFileName();
-        return p.resolve(artifact.getArtifactId()).resolve(artifact.getVersion()).resolve(artifactFileName);
+        return getArtifactDir(artifact).resolve(artifact.getVersion()).resolve(artifact.getArtifactFileName());
     }
 
     @Override
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.universe.maven.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.jboss.galleon.universe.maven.MavenArtifact;
+import org.jboss.galleon.universe.maven.repo.SimplisticMavenRepoManager;
+import org.jboss.galleon.util.IoUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The versions of an artifact are indexed until its directory is modified.
+ */
+public class LocalArtifactVersionRangeResolverTestCase {
+
+    private Path repoHome;
+    private Path artifactDir;
+    private SimplisticMavenRepoManager repo;
+
+    @Before
+    public void init() throws Exception {
+        repoHome = IoUtils.createRandomTmpDir();
+        artifactDir = repoHome.resolve("org").resolve("jboss").resolve("galleon").resolve("test").resolve("fp");
+        repo = SimplisticMavenRepoManager.getInstance(repoHome);
+    }
+
+    @After
+    public void cleanup() {
+        IoUtils.recursiveDelete(repoHome);
+    }
+
+    @Test
+    public void testRecentlyModifiedDirIsListedAgain() throws Exception {
+        addVersions("1.0.0.Final", "1.0.1.Final", "2.0.0.Final");
+        assertEquals("1.0.1.Final", repo.getLatestVersion(newArtifact("[1.0,2.0)"), null));
+        addVersions("1.0.2.Final");
+        assertEquals("1.0.2.Final", repo.getLatestVersion(newArtifact("[1.0,2.0)"), null));
+    }
+
+    @Test
+    public void testIndexedVersionsAreRefreshedWhenDirIsModified() throws Exception {
+        addVersions("1.0.0.Final", "1.0.1.Final", "1.0.2.Alpha1", "2.0.0.Final");
+        setLastModified(3600);
+        assertEquals("1.0.1.Final", repo.getLatestVersion(newArtifact("[1.0,2.0)"), null));
+        assertEquals("2.0.0.Final", repo.getLatestVersion(newArtifact("[1.0,)"), null));
+        assertEquals("1.0.2.Alpha1", repo.getLatestVersion(newArtifact("[1.0,2.0)"), "alpha"));
+
+        addVersions("1.0.3.Final");
+        setLastModified(1800);
+        assertEquals("1.0.3.Final", repo.getLatestVersion(newArtifact("[1.0,2.0)"), null));
+
+        final MavenArtifact artifact = newArtifact("[1.0,2.0)");
+        repo.resolveLatestVersion(artifact, null);
+        assertEquals("1.0.3.Final", artifact.getVersion());
+        assertEquals(artifactDir.resolve("1.0.3.Final").resolve(artifact.getArtifactFileName()), artifact.getPath());
+    }
+
+    private MavenArtifact newArtifact(String versionRange) {
+        final MavenArtifact artifact = new MavenArtifact();
+        artifact.setGroupId("org.jboss.galleon.test");
+        artifact.setArtifactId("fp");
+        artifact.setExtension(MavenArtifact.EXT_ZIP);
+        artifact.setVersionRange(versionRange);
+        return artifact;
+    }
+
+    private void addVersions(String... versions) throws Exception {
+        for(String version : versions) {
+            final Path versionDir = Files.createDirectories(artifactDir.resolve(version));
+            Files.createFile(versionDir.resolve("fp-" + version + ".zip"));
+        }
+    }
+
+    private void setLastModified(int secondsAgo) throws Exception {
+        Files.setLastModifiedTime(artifactDir, FileTime.fromMillis(System.currentTimeMillis() - secondsAgo * 1000L));
+    }
+}
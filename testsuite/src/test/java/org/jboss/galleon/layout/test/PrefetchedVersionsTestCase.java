@@ -0,0 +1,200 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.layout.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.jboss.galleon.ProvisioningDescriptionException;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.creator.FeaturePackCreator;
+import org.jboss.galleon.layout.FeaturePackLayout;
+import org.jboss.galleon.layout.LayoutOrderingTestBase;
+import org.jboss.galleon.layout.ProvisioningLayout;
+import org.jboss.galleon.layout.ProvisioningLayoutFactory;
+import org.jboss.galleon.repo.RepositoryArtifactResolver;
+import org.jboss.galleon.universe.FeaturePackLocation;
+import org.jboss.galleon.universe.FeaturePackLocation.FPID;
+import org.jboss.galleon.universe.MvnUniverse;
+import org.jboss.galleon.universe.UniverseResolver;
+import org.jboss.galleon.universe.maven.MavenArtifact;
+import org.jboss.galleon.universe.maven.MavenUniverseException;
+import org.jboss.galleon.universe.maven.repo.MavenRepoManager;
+import org.jboss.galleon.universe.maven.repo.SimplisticMavenRepoManager;
+
+/**
+ * The feature-packs resolved ahead of the layout are the ones the layout resolves.
+ * prod4 1.0.0.Final is reached first by the layout, through prod1 and prod3,
+ * although prod4 2.0.0.Final is closer to the root, through prod2. prod4 2.0.0.Final
+ * is resolved as a declared dependency of prod2 but its own dependency on prod5 is not.
+ */
+public class PrefetchedVersionsTestCase extends LayoutOrderingTestBase {
+
+    private static class RecordingRepoManager implements MavenRepoManager {
+
+        private final MavenRepoManager delegate;
+        private final Set<String> resolved = Collections.synchronizedSet(new HashSet<>());
+
+        RecordingRepoManager(MavenRepoManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void resolve(MavenArtifact artifact) throws MavenUniverseException {
+            resolved.add(artifact.getArtifactId() + ':' + artifact.getVersion());
+            delegate.resolve(artifact);
+        }
+
+        @Override
+        public boolean isResolved(MavenArtifact artifact) throws MavenUniverseException {
+            return delegate.isResolved(artifact);
+        }
+
+        @Override
+        public boolean isLatestVersionResolved(MavenArtifact artifact, String lowestQualifier) throws MavenUniverseException {
+            return delegate.isLatestVersionResolved(artifact, lowestQualifier);
+        }
+
+        @Override
+        public void resolveLatestVersion(MavenArtifact artifact, String lowestQualifier, Pattern includeVersion,
+                Pattern excludeVersion) throws MavenUniverseException {
+            delegate.resolveLatestVersion(artifact, lowestQualifier, includeVersion, excludeVersion);
+        }
+
+        @Override
+        public void resolveLatestVersion(MavenArtifact artifact, String lowestQualifier, boolean locallyAvailable)
+                throws MavenUniverseException {
+            delegate.resolveLatestVersion(artifact, lowestQualifier, locallyAvailable);
+        }
+
+        @Override
+        public String getLatestVersion(MavenArtifact artifact) throws MavenUniverseException {
+            return delegate.getLatestVersion(artifact);
+        }
+
+        @Override
+        public String getLatestVersion(MavenArtifact artifact, String lowestQualifier) throws MavenUniverseException {
+            return delegate.getLatestVersion(artifact, lowestQualifier);
+        }
+
+        @Override
+        public String getLatestVersion(MavenArtifact artifact, String lowestQualifier, Pattern includeVersion,
+                Pattern excludeVersion) throws MavenUniverseException {
+            return delegate.getLatestVersion(artifact, lowestQualifier, includeVersion, excludeVersion);
+        }
+
+        @Override
+        public List<String> getAllVersions(MavenArtifact artifact) throws MavenUniverseException {
+            return delegate.getAllVersions(artifact);
+        }
+
+        @Override
+        public List<String> getAllVersions(MavenArtifact artifact, Pattern includeVersion, Pattern excludeVersion)
+                throws MavenUniverseException {
+            return delegate.getAllVersions(artifact, includeVersion, excludeVersion);
+        }
+
+        @Override
+        public void install(MavenArtifact artifact, Path path) throws MavenUniverseException {
+            delegate.install(artifact, path);
+        }
+    }
+
+    private RecordingRepoManager recordingRepo;
+    private FeaturePackLocation fpl1;
+    private FeaturePackLocation fpl2;
+    private FeaturePackLocation fpl3;
+    private FeaturePackLocation fpl4_100;
+    private FeaturePackLocation fpl4_200;
+    private FeaturePackLocation fpl5;
+
+    @Override
+    protected RepositoryArtifactResolver initRepoManager(Path repoHome) {
+        recordingRepo = new RecordingRepoManager(SimplisticMavenRepoManager.getInstance(repoHome));
+        return recordingRepo;
+    }
+
+    @Override
+    protected ProvisioningLayoutFactory getLayoutFactory() throws ProvisioningException {
+        return ProvisioningLayoutFactory.getInstance(UniverseResolver.builder().addArtifactResolver(recordingRepo).build());
+    }
+
+    @Override
+    protected void createProducers(MvnUniverse universe) throws ProvisioningException {
+        universe.createProducer("prod1");
+        universe.createProducer("prod2");
+        universe.createProducer("prod3");
+        universe.createProducer("prod4");
+        universe.createProducer("prod5");
+    }
+
+    @Override
+    protected void createFeaturePacks(FeaturePackCreator creator) throws ProvisioningDescriptionException {
+        fpl4_100 = newFpl("prod4", "1", "1.0.0.Final");
+        creator.newFeaturePack(fpl4_100.getFPID());
+
+        fpl5 = newFpl("prod5", "1", "1.0.0.Final");
+        creator.newFeaturePack(fpl5.getFPID());
+
+        fpl4_200 = newFpl("prod4", "1", "2.0.0.Final");
+        creator.newFeaturePack(fpl4_200.getFPID()).addDependency(fpl5);
+
+        fpl3 = newFpl("prod3", "1", "1.0.0.Final");
+        creator.newFeaturePack(fpl3.getFPID()).addDependency(fpl4_100);
+
+        fpl1 = newFpl("prod1", "1", "1.0.0.Final");
+        creator.newFeaturePack(fpl1.getFPID()).addDependency(fpl3);
+
+        fpl2 = newFpl("prod2", "1", "1.0.0.Final");
+        creator.newFeaturePack(fpl2.getFPID()).addDependency(fpl4_200);
+    }
+
+    @Override
+    protected ProvisioningConfig provisioningConfig() throws ProvisioningException {
+        return ProvisioningConfig.builder()
+                .addFeaturePackDep(fpl1)
+                .addFeaturePackDep(fpl2)
+                .build();
+    }
+
+    @Override
+    protected ProvisioningLayout<FeaturePackLayout> buildLayout() throws Exception {
+        recordingRepo.resolved.clear();
+        return super.buildLayout();
+    }
+
+    @Override
+    protected void assertLayout(ProvisioningLayout<FeaturePackLayout> layout) throws Exception {
+        super.assertLayout(layout);
+        assertTrue(recordingRepo.resolved.contains("prod4-feature-pack:1.0.0.Final"));
+        assertTrue(recordingRepo.resolved.contains("prod4-feature-pack:2.0.0.Final"));
+        assertFalse(recordingRepo.resolved.contains("prod5-feature-pack:1.0.0.Final"));
+    }
+
+    @Override
+    protected FPID[] expectedOrder() {
+        return new FPID[] {fpl4_100.getFPID(), fpl3.getFPID(), fpl1.getFPID(), fpl2.getFPID()};
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.layout.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.jboss.galleon.ProvisioningDescriptionException;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.config.FeaturePackConfig;
+import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.creator.FeaturePackCreator;
+import org.jboss.galleon.layout.FeaturePackLayout;
+import org.jboss.galleon.layout.LayoutTestBase;
+import org.jboss.galleon.layout.ProvisioningLayout;
+import org.jboss.galleon.runtime.FeaturePackRuntime;
+import org.jboss.galleon.runtime.ProvisioningRuntime;
+import org.jboss.galleon.runtime.ProvisioningRuntimeBuilder;
+import org.jboss.galleon.universe.FeaturePackLocation;
+import org.jboss.galleon.universe.MvnUniverse;
+
+public class TransformLayoutForCustomizedConfigTestCase extends LayoutTestBase {
+
+    private FeaturePackLocation fpl1;
+    private FeaturePackLocation fpl2;
+
+    @Override
+    protected void createProducers(MvnUniverse universe) throws ProvisioningException {
+        universe.createProducer("prod1")
+        .createProducer("prod2");
+    }
+
+    @Override
+    protected void createFeaturePacks(FeaturePackCreator creator) throws ProvisioningDescriptionException {
+        fpl1 = newFpl("prod1", "1", "1.0.0.Final");
+        creator.newFeaturePack(fpl1.getFPID())
+            .newPackage("p1", true)
+                .writeContent("prod1/p1.txt", "p1")
+                .getFeaturePack()
+            .newPackage("p2", true)
+                .writeContent("prod1/p2.txt", "p2");
+
+        fpl2 = newFpl("prod2", "1", "1.0.0.Final");
+        creator.newFeaturePack(fpl2.getFPID())
+            .addDependency(fpl1)
+            .newPackage("p1", true)
+                .writeContent("prod2/p1.txt", "p1");
+    }
+
+    @Override
+    protected ProvisioningConfig provisioningConfig() throws ProvisioningException {
+        return ProvisioningConfig.builder()
+                .addFeaturePackDep(fpl2)
+                .build();
+    }
+
+    @Override
+    protected void assertLayout(ProvisioningLayout<FeaturePackLayout> layout) throws Exception {
+        final ProvisioningConfig customized = ProvisioningConfig.builder()
+                .addFeaturePackDep(FeaturePackConfig.builder(fpl2)
+                        .excludePackage("p1")
+                        .build())
+                .build();
+        assertTrue(layout.isLayoutOf(customized));
+
+        try (ProvisioningRuntime rt = ProvisioningRuntimeBuilder.newInstance()
+                .initRtLayout(layout.transform(customized, ProvisioningRuntimeBuilder.FP_RT_FACTORY))
+                .build()) {
+            assertEquals(customized, rt.getProvisioningConfig());
+            final FeaturePackRuntime fp1 = rt.getFeaturePack(fpl1.getProducer());
+            assertEquals(layout.getFeaturePack(fpl1.getProducer()).getDir(), fp1.getDir());
+            assertNotNull(fp1.getPackage("p1"));
+            assertNotNull(fp1.getPackage("p2"));
+            assertNull(rt.getFeaturePack(fpl2.getProducer()).getPackage("p1"));
+        }
+
+        final ProvisioningConfig otherDeps = ProvisioningConfig.builder()
+                .addFeaturePackDep(fpl2)
+                .addFeaturePackDep(fpl1)
+                .build();
+        assertFalse(layout.isLayoutOf(otherDeps));
+        try {
+            layout.transform(otherDeps, ProvisioningRuntimeBuilder.FP_RT_FACTORY);
+            fail("The layout can't be transformed for different feature-packs");
+        } catch (ProvisioningException e) {
+            // expected
+        }
+
+        // the layout remains usable after the derived layouts have been closed
+        assertEquals(provisioningConfig(), layout.getConfig());
+        assertNotNull(layout.getFeaturePack(fpl1.getProducer()).getSpec());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.layout.update.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.galleon.ProvisioningDescriptionException;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.creator.FeaturePackCreator;
+import org.jboss.galleon.layout.FeaturePackUpdatePlan;
+import org.jboss.galleon.layout.FeaturePackUpdatePlanTestBase;
+import org.jboss.galleon.universe.FeaturePackLocation;
+import org.jboss.galleon.universe.MvnUniverse;
+
+/**
+ * More producers than update checking threads, the plan must list the updates
+ * in the order of the producers.
+ */
+public class ManyProducersUpdatePlanTestCase extends FeaturePackUpdatePlanTestBase {
+
+    private static final int PRODUCERS = 10;
+
+    private final List<FeaturePackLocation> installed = new ArrayList<>(PRODUCERS);
+    private final List<FeaturePackUpdatePlan> updates = new ArrayList<>(PRODUCERS);
+
+    @Override
+    protected void createProducers(MvnUniverse universe) throws ProvisioningException {
+        for(int i = 0; i < PRODUCERS; ++i) {
+            universe.createProducer("prod" + i);
+        }
+    }
+
+    @Override
+    protected void createFeaturePacks(FeaturePackCreator creator) throws ProvisioningDescriptionException {
+        for(int i = 0; i < PRODUCERS; ++i) {
+            final FeaturePackLocation fpl = newFpl("prod" + i, "1", "1.0.0.Final");
+            creator.newFeaturePack(fpl.getFPID());
+            installed.add(fpl);
+            // every third producer has no update
+            if(i % 3 != 0) {
+                final FeaturePackLocation update = newFpl("prod" + i, "1", "1.0." + i + ".Final");
+                creator.newFeaturePack(update.getFPID());
+                updates.add(FeaturePackUpdatePlan.request(fpl).setNewLocation(update).buildPlan());
+            }
+        }
+    }
+
+    @Override
+    protected ProvisioningConfig provisioningConfig() throws ProvisioningException {
+        final ProvisioningConfig.Builder builder = ProvisioningConfig.builder();
+        for(FeaturePackLocation fpl : installed) {
+            builder.addFeaturePackDep(fpl);
+        }
+        return builder.build();
+    }
+
+    @Override
+    protected FeaturePackUpdatePlan[] expectedUpdatePlans() {
+        return updates.toArray(new FeaturePackUpdatePlan[updates.size()]);
+    }
+}
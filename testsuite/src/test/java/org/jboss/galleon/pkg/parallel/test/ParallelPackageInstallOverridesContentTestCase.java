@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.pkg.parallel.test;
+
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.ProvisioningOption;
+import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.creator.FeaturePackCreator;
+import org.jboss.galleon.state.ProvisionedFeaturePack;
+import org.jboss.galleon.state.ProvisionedState;
+import org.jboss.galleon.test.util.fs.state.DirState;
+import org.jboss.galleon.universe.FeaturePackLocation;
+import org.jboss.galleon.universe.MvnUniverse;
+import org.jboss.galleon.universe.ProvisionFromUniverseTestBase;
+
+/**
+ * Packages of the feature-pack installed last override the content of the packages
+ * installed before when the content is copied in parallel.
+ */
+public class ParallelPackageInstallOverridesContentTestCase extends ProvisionFromUniverseTestBase {
+
+    private FeaturePackLocation fp1;
+    private FeaturePackLocation fp2;
+
+    @Override
+    protected void createProducers(MvnUniverse universe) throws ProvisioningException {
+        universe.createProducer("prod1");
+        universe.createProducer("prod2");
+    }
+
+    @Override
+    protected void createFeaturePacks(FeaturePackCreator creator) throws ProvisioningException {
+
+        fp1 = newFpl("prod1", "1", "1.0.0.Final");
+        fp2 = newFpl("prod2", "1", "1.0.0.Final");
+
+        creator.newFeaturePack()
+            .setFPID(fp2.getFPID())
+            .newPackage("p1", true)
+                .writeContent("common/shared.txt", "fp2 p1")
+                .writeContent("fp2/p1.txt", "fp2 p1")
+                .getFeaturePack()
+            .newPackage("p2", true)
+                .writeContent("common/shared.txt", "fp2 p2")
+                .writeContent("common/fp2.txt", "fp2 p2")
+                .getFeaturePack()
+            .newPackage("p3", true)
+                .writeContent("fp2/p3/p3.txt", "fp2 p3");
+
+        creator.newFeaturePack()
+            .setFPID(fp1.getFPID())
+            .addDependency(fp2)
+            .newPackage("p1", true)
+                .writeContent("common/shared.txt", "fp1 p1")
+                .writeContent("fp1/p1.txt", "fp1 p1")
+                .getFeaturePack()
+            .newPackage("p2", true)
+                .writeContent("common/fp2.txt", "fp1 p2");
+    }
+
+    @Override
+    protected ProvisioningConfig provisioningConfig() throws ProvisioningException {
+        return ProvisioningConfig.builder()
+                .addFeaturePackDep(fp1)
+                .addOption(ProvisioningOption.PACKAGE_INSTALL_THREADS.getName(), "4")
+                .build();
+    }
+
+    @Override
+    protected ProvisionedState provisionedState() throws ProvisioningException {
+        return ProvisionedState.builder()
+                .addFeaturePack(ProvisionedFeaturePack.builder(fp2.getFPID())
+                        .addPackage("p1")
+                        .addPackage("p2")
+                        .addPackage("p3")
+                        .build())
+                .addFeaturePack(ProvisionedFeaturePack.builder(fp1.getFPID())
+                        .addPackage("p1")
+                        .addPackage("p2")
+                        .build())
+                .build();
+    }
+
+    @Override
+    protected DirState provisionedHomeDir() {
+        return newDirBuilder()
+                .addFile("common/shared.txt", "fp1 p1")
+                .addFile("common/fp2.txt", "fp1 p2")
+                .addFile("fp1/p1.txt", "fp1 p1")
+                .addFile("fp2/p1.txt", "fp2 p1")
+                .addFile("fp2/p3/p3.txt", "fp2 p3")
+                .build();
+    }
+}
@@ -19,6 +19,9 @@ package org.jboss.galleon.universe.location.test;
 import static org.jboss.galleon.universe.TestConstants.GROUP_ID;
 
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
 import org.jboss.galleon.ProvisioningException;
 import org.jboss.galleon.creator.FeaturePackCreator;
 import org.jboss.galleon.universe.FeaturePackLocation;
@@ -191,6 +194,36 @@ public class FeaturePackLocationResolverTestCase extends UniverseRepoTestBase {
         }
     }
 
+    @Test
+    public void testResolveAll() throws Exception {
+        final String universe = "producer1@" + MavenUniverseFactory.ID + '(' + universeArt.getCoordsAsString() + ')';
+        installFp(FeaturePackLocation.fromString(universe + ":5#5.1.0.Alpha1"));
+        installFp(FeaturePackLocation.fromString(universe + ":4#4.1.0.Beta2"));
+        installFp(FeaturePackLocation.fromString(universe + ":5#5.2.0.Final"));
+        installFp(FeaturePackLocation.fromString(universe + ":6#6.0.0.Final"));
+
+        final List<FeaturePackLocation> fpls = Arrays.asList(
+                FeaturePackLocation.fromString(universe + ":5#5.2.0.Final"),
+                FeaturePackLocation.fromString(universe + ":6#6.0.0.Final"),
+                FeaturePackLocation.fromString(universe + ":5/alpha"),
+                FeaturePackLocation.fromString(universe + ":4#4.1.0.Beta2"),
+                FeaturePackLocation.fromString(universe + ":5#5.1.0.Alpha1"));
+        final List<Path> paths = resolver.resolveAll(fpls);
+        Assert.assertEquals(fpls.size(), paths.size());
+        for(int i = 0; i < fpls.size(); ++i) {
+            Assert.assertEquals(resolver.resolve(fpls.get(i)), paths.get(i));
+        }
+
+        try {
+            resolver.resolveAll(Arrays.asList(
+                    FeaturePackLocation.fromString(universe + ":5#5.2.0.Final"),
+                    FeaturePackLocation.fromString(universe + ":5#5.3.0.Final")));
+            Assert.fail("5.3.0.Final is not installed");
+        } catch(ProvisioningException e) {
+            // expected
+        }
+    }
+
     private void installFp(FeaturePackLocation fpl) throws ProvisioningException {
         FeaturePackCreator.getInstance()
         .addArtifactResolver(repo)
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.universe.maven.test;
+
+import static org.jboss.galleon.universe.TestConstants.*;
+
+import org.jboss.galleon.universe.UniverseRepoTestBase;
+import org.jboss.galleon.universe.maven.MavenArtifact;
+import org.jboss.galleon.universe.maven.MavenProducerInstaller;
+import org.jboss.galleon.universe.maven.MavenUniverse;
+import org.jboss.galleon.universe.maven.MavenUniverseInstaller;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The producers read from the universe artifact are reloaded from the latest version
+ * of the artifact when the universe is refreshed.
+ */
+public class MavenUniverseRefreshTestCase extends UniverseRepoTestBase {
+
+    @Override
+    protected void doInit() throws Exception {
+        for(String producer : new String[] {"producer1", "producer2"}) {
+            final MavenArtifact artifact = new MavenArtifact();
+            artifact.setGroupId(GROUP_ID);
+            artifact.setArtifactId(producer);
+            artifact.setVersion("1.0.0.Final");
+            new MavenProducerInstaller(producer, repo, artifact).install();
+        }
+    }
+
+    @Test
+    public void testMain() throws Exception {
+        MavenUniverseInstaller universeInstaller = new MavenUniverseInstaller(repo, newUniverseArtifact("1.0.0.Final"));
+        universeInstaller.addProducer("producer1", GROUP_ID, "producer1", "[1.0.0,2.0.0)");
+        universeInstaller.install();
+
+        final MavenArtifact universeArtifact = newUniverseArtifact(null);
+        universeArtifact.setVersionRange("[1.0.0,2.0.0)");
+        final MavenUniverse universe = new MavenUniverse(repo, universeArtifact);
+        Assert.assertTrue(universe.hasProducer("producer1"));
+        Assert.assertFalse(universe.hasProducer("producer2"));
+        Assert.assertEquals(1, universe.getProducers().size());
+
+        universeInstaller = new MavenUniverseInstaller(repo, newUniverseArtifact("1.0.1.Final"));
+        universeInstaller.addProducer("producer1", GROUP_ID, "producer1", "[1.0.0,2.0.0)");
+        universeInstaller.addProducer("producer2", GROUP_ID, "producer2", "[1.0.0,2.0.0)");
+        universeInstaller.install();
+
+        Assert.assertFalse(universe.hasProducer("producer2"));
+
+        universe.refresh();
+        Assert.assertEquals("1.0.1.Final", universeArtifact.getVersion());
+        Assert.assertTrue(universe.hasProducer("producer2"));
+        Assert.assertEquals(2, universe.getProducers().size());
+        Assert.assertEquals("producer2", universe.getProducer("producer2").getArtifact().getArtifactId());
+    }
+
+    private static MavenArtifact newUniverseArtifact(String version) {
+        final MavenArtifact artifact = new MavenArtifact();
+        artifact.setGroupId(GROUP_ID);
+        artifact.setArtifactId("test-universe");
+        artifact.setVersion(version);
+        return artifact;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016-2022 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.userchanges.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import org.jboss.galleon.ProvisioningDescriptionException;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.ProvisioningManager;
+import org.jboss.galleon.config.FeaturePackConfig;
+import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.creator.FeaturePackCreator;
+import org.jboss.galleon.state.ProvisionedFeaturePack;
+import org.jboss.galleon.state.ProvisionedState;
+import org.jboss.galleon.test.util.fs.state.DirState;
+import org.jboss.galleon.universe.FeaturePackLocation;
+import org.jboss.galleon.universe.MvnUniverse;
+
+/**
+ * An update leaves the files that haven't changed in place, rewrites the changed ones
+ * and replays the user changes.
+ */
+public class UserChangesAfterIncrementalUpdateTestCase extends UserChangesTestBase {
+
+    private FeaturePackLocation prod100;
+    private FeaturePackLocation prod101;
+
+    @Override
+    protected void createProducers(MvnUniverse universe) throws ProvisioningException {
+        universe.createProducer("prod1");
+    }
+
+    @Override
+    protected void createFeaturePacks(FeaturePackCreator creator) throws ProvisioningException {
+        prod100 = newFpl("prod1", "1", "1.0.0.Final");
+        creator.newFeaturePack(prod100.getFPID())
+            .newPackage("p1", true)
+                .writeContent("prod1/p1.txt", "prod1 p1")
+                .writeContent("prod1/dir/p1.txt", "prod1 p1")
+                .getFeaturePack()
+            .newPackage("p2", true)
+                .writeContent("prod1/p2.txt", "prod100 p2")
+                .getFeaturePack()
+            .newPackage("p3", true)
+                .writeContent("prod1/p3/p3.txt", "prod100 p3")
+                .getFeaturePack()
+            .newPackage("p4", true)
+                .writeContent("prod1/p4.txt", "prod100 p4");
+
+        prod101 = newFpl("prod1", "1", "1.0.1.Final");
+        creator.newFeaturePack(prod101.getFPID())
+            .newPackage("p1", true)
+                .writeContent("prod1/p1.txt", "prod1 p1")
+                .writeContent("prod1/dir/p1.txt", "prod1 p1")
+                .getFeaturePack()
+            .newPackage("p2", true)
+                .writeContent("prod1/p2.txt", "prod101 p2")
+                .getFeaturePack()
+            .newPackage("p4", true)
+                .writeContent("prod1/p4.txt", "prod100 p4")
+                .writeContent("prod1/p5/p5.txt", "prod101 p5");
+    }
+
+    @Override
+    protected void testPm(ProvisioningManager pm) throws ProvisioningException {
+        pm.install(prod100);
+        writeContent("prod1/p4.txt", "user");
+        writeContent("new.txt", "user");
+        final Object p1Key = fileKey("prod1/p1.txt");
+        final Object dirP1Key = fileKey("prod1/dir/p1.txt");
+        pm.install(prod101);
+        if(p1Key != null) {
+            assertEquals(p1Key, fileKey("prod1/p1.txt"));
+            assertEquals(dirP1Key, fileKey("prod1/dir/p1.txt"));
+        }
+    }
+
+    private Object fileKey(String relativePath) {
+        final Path p = installHome.resolve(relativePath);
+        try {
+            return Files.readAttributes(p, BasicFileAttributes.class).fileKey();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read attributes of " + p, e);
+        }
+    }
+
+    @Override
+    protected ProvisioningConfig provisionedConfig() throws ProvisioningDescriptionException {
+        return ProvisioningConfig.builder()
+                .addFeaturePackDep(FeaturePackConfig.builder(prod101).build())
+                .build();
+    }
+
+    @Override
+    protected ProvisionedState provisionedState() throws ProvisioningException {
+        return ProvisionedState.builder()
+                .addFeaturePack(ProvisionedFeaturePack.builder(prod101.getFPID())
+                        .addPackage("p1")
+                        .addPackage("p2")
+                        .addPackage("p4")
+                        .build())
+                .build();
+    }
+
+    @Override
+    protected DirState provisionedHomeDir() {
+        return newDirBuilder()
+                .addFile("prod1/p1.txt", "prod1 p1")
+                .addFile("prod1/dir/p1.txt", "prod1 p1")
+                .addFile("prod1/p2.txt", "prod101 p2")
+                .addFile("prod1/p4.txt", "user")
+                .addFile("prod1/p5/p5.txt", "prod101 p5")
+                .addFile("new.txt", "user")
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016-2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.galleon.userchanges.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.galleon.ProvisioningDescriptionException;
+import org.jboss.galleon.ProvisioningException;
+import org.jboss.galleon.ProvisioningManager;
+import org.jboss.galleon.config.FeaturePackConfig;
+import org.jboss.galleon.config.ProvisioningConfig;
+import org.jboss.galleon.creator.FeaturePackCreator;
+import org.jboss.galleon.state.ProvisionedFeaturePack;
+import org.jboss.galleon.state.ProvisionedState;
+import org.jboss.galleon.test.util.fs.state.DirState;
+import org.jboss.galleon.universe.FeaturePackLocation;
+import org.jboss.galleon.universe.MvnUniverse;
+
+/**
+ * A user change that preserves the size and the last modified time of a file
+ * is only detected when the hashes of all the files are compared.
+ */
+public class UserChangesWithPreservedMetadataStrictDiffTestCase extends UserChangesTestBase {
+
+    private FeaturePackLocation prod1;
+    private FeaturePackLocation prod2;
+
+    @Override
+    protected void createProducers(MvnUniverse universe) throws ProvisioningException {
+        universe.createProducer("prod1");
+        universe.createProducer("prod2");
+    }
+
+    @Override
+    protected void createFeaturePacks(FeaturePackCreator creator) throws ProvisioningException {
+        prod1 = newFpl("prod1", "1", "1.0.0.Final");
+        creator.newFeaturePack(prod1.getFPID())
+            .newPackage("p1", true)
+                .writeContent("prod1/p1.txt", "prod1 p1")
+                .getFeaturePack()
+            .newPackage("p2", true)
+                .writeContent("prod1/p2.txt", "prod1 p2");
+
+        prod2 = newFpl("prod2", "1", "1.0.0.Final");
+        creator.newFeaturePack(prod2.getFPID())
+            .newPackage("p1", true)
+                .writeContent("prod2/p1.txt", "prod2 p1");
+    }
+
+    @Override
+    protected void testPm(ProvisioningManager pm) throws ProvisioningException {
+        pm.install(prod1);
+        final Path p1 = installHome.resolve("prod1/p1.txt");
+        final Path p2 = installHome.resolve("prod1/p2.txt");
+        try {
+            final FileTime p1Time = Files.getLastModifiedTime(p1);
+            writeContent("prod1/p1.txt", "user1 p1");
+            Files.setLastModifiedTime(p1, p1Time);
+            final FileTime p2Time = Files.getLastModifiedTime(p2);
+            writeContent("prod1/p2.txt", "user1 p2");
+            Files.setLastModifiedTime(p2, FileTime.fromMillis(p2Time.toMillis() + 10000));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        pm.setStrictFsDiff(true);
+        pm.install(prod2);
+    }
+
+    @Override
+    protected ProvisioningConfig provisionedConfig() throws ProvisioningDescriptionException {
+        return ProvisioningConfig.builder()
+                .addFeaturePackDep(FeaturePackConfig.builder(prod1)
+                        .build())
+                .addFeaturePackDep(FeaturePackConfig.builder(prod2)
+                        .build())
+                .build();
+    }
+
+    @Override
+    protected ProvisionedState provisionedState() throws ProvisioningException {
+        return ProvisionedState.builder()
+                .addFeaturePack(ProvisionedFeaturePack.builder(prod1.getFPID())
+                        .addPackage("p1")
+                        .addPackage("p2")
+                        .build())
+                .addFeaturePack(ProvisionedFeaturePack.builder(prod2.getFPID())
+                        .addPackage("p1")
+                        .build())
+                .build();
+    }
+
+    @Override
+    protected DirState provisionedHomeDir() {
+        return newDirBuilder()
+                .addFile("prod1/p1.txt", "user1 p1")
+                .addFile("prod1/p2.txt", "user1 p2")
+                .addFile("prod2/p1.txt", "prod2 p1")
+                .build();
+    }
+
+    @Override
+    protected List<String> expectedDiff() {
+        return Arrays.asList(" M prod1/p1.txt", " M prod1/p2.txt");
+    }
+}